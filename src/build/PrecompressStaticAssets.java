@@ -0,0 +1,95 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Étape de build : génère les variantes précompressées des ressources statiques.
+ *
+ * <p>Exécuté par {@code maven-antrun-plugin} pendant la phase {@code process-resources},
+ * sur le répertoire {@code target/classes/static}. Pour chaque fichier texte
+ * ({@code .css}, {@code .js}, {@code .svg}, {@code .html}, {@code .json}) :
+ * <ul>
+ *   <li>une variante {@code .gz} est toujours produite (compression maximale)</li>
+ *   <li>une variante {@code .br} est produite si l'outil {@code brotli} est disponible</li>
+ * </ul>
+ *
+ * <p>Les variantes sont servies par {@code EncodedResourceResolver} selon l'en-tête
+ * {@code Accept-Encoding} (voir {@code StaticResourceConfiguration}).
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ */
+public class PrecompressStaticAssets {
+
+    private static final List<String> EXTENSIONS = List.of(".css", ".js", ".svg", ".html", ".json");
+
+    public static void main(String[] args) throws Exception {
+        Path root = Paths.get(args.length > 0 ? args[0] : "target/classes/static");
+        if (!Files.isDirectory(root)) {
+            System.out.println("[precompress] No static directory at " + root);
+            return;
+        }
+        List<Path> assets;
+        try (Stream<Path> files = Files.walk(root)) {
+            assets = files.filter(Files::isRegularFile)
+                    .filter(PrecompressStaticAssets::isCompressible)
+                    .collect(Collectors.toList());
+        }
+        boolean brotli = brotliAvailable();
+        for (Path asset : assets) {
+            gzip(asset);
+            if (brotli) {
+                brotli(asset);
+            }
+        }
+        System.out.println("[precompress] " + assets.size() + " assets compressed (gzip"
+                + (brotli ? ", brotli" : "; brotli CLI not found, .br variants skipped") + ")");
+    }
+
+    private static boolean isCompressible(Path file) {
+        String name = file.getFileName().toString();
+        return EXTENSIONS.stream().anyMatch(name::endsWith);
+    }
+
+    private static void gzip(Path asset) throws IOException {
+        Path target = asset.resolveSibling(asset.getFileName() + ".gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(target)) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            Files.copy(asset, out);
+        }
+    }
+
+    private static boolean brotliAvailable() {
+        try {
+            Process process = new ProcessBuilder("brotli", "--version").redirectErrorStream(true).start();
+            process.getInputStream().transferTo(OutputStream.nullOutputStream());
+            return process.waitFor(10, TimeUnit.SECONDS) && process.exitValue() == 0;
+        } catch (IOException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void brotli(Path asset) throws IOException, InterruptedException {
+        Process process = new ProcessBuilder("brotli", "--best", "--force", "--keep", asset.toString())
+                .inheritIO()
+                .start();
+        if (process.waitFor() != 0) {
+            throw new IOException("brotli failed for " + asset);
+        }
+    }
+}
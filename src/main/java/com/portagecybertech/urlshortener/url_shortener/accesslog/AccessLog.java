@@ -0,0 +1,214 @@
+package com.portagecybertech.urlshortener.url_shortener.accesslog;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Journal d'audit asynchrone des redirections (facturation).
+ *
+ * <p>Chaque redirection servie publie un enregistrement (code court, instant,
+ * referrer, user agent) dans un {@link AccessLogRing} : le thread de la requête
+ * n'effectue ni entrée/sortie, ni verrouillage, ni allocation. Un unique thread
+ * consommateur encode les enregistrements dans des segments binaires projetés
+ * en mémoire ({@link AccessLogSegmentWriter}), convertibles en CSV avec
+ * {@link AccessLogReader}.
+ *
+ * <p><strong>Anneau plein :</strong> selon {@code app.access-log.when-full},
+ * l'enregistrement est abandonné ({@code drop}, comptabilisé dans
+ * {@code urlshortener.accesslog.dropped}) ou la requête attend qu'une place
+ * se libère ({@code block}, audit exhaustif au prix de la latence).
+ *
+ * <p><strong>Erreurs :</strong> le consommateur survit à toute erreur d'écriture,
+ * y compris inattendue ; sans lui, une requête en mode {@code block} attendrait
+ * indéfiniment. L'enregistrement en cause est abandonné, l'erreur journalisée et
+ * comptée dans {@code urlshortener.accesslog.errors}.
+ *
+ * <p><strong>Configuration :</strong> propriétés {@code app.access-log.*}.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ */
+@Component
+public class AccessLog {
+
+    private static final Logger log = LoggerFactory.getLogger(AccessLog.class);
+
+    /**
+     * Nombre maximal d'enregistrements encodés entre deux vérifications d'arrêt.
+     */
+    private static final int DRAIN_BATCH = 1024;
+
+    /**
+     * Anneau des enregistrements en attente, null si le journal est désactivé.
+     */
+    private final AccessLogRing ring;
+
+    /**
+     * Écriture des segments, utilisée par le seul thread consommateur.
+     */
+    private final AccessLogSegmentWriter writer;
+
+    /**
+     * Intervalle entre deux synchronisations forcées des segments, en nanosecondes.
+     */
+    private final long forceIntervalNanos;
+
+    private final Counter dropped;
+
+    private final Counter errors;
+
+    private final Thread consumer;
+
+    private volatile boolean running;
+
+    /**
+     * Constructeur principal, alimenté par les propriétés {@code app.access-log.*}.
+     *
+     * @param enabled active le journal d'accès
+     * @param directory le répertoire des segments
+     * @param bufferSize la capacité de l'anneau (arrondie à une puissance de deux)
+     * @param segmentBytes la taille de chaque segment, en octets
+     * @param whenFull {@code drop} ou {@code block}
+     * @param forceIntervalMillis l'intervalle entre deux synchronisations forcées sur disque
+     * @param meterRegistry le registre de métriques
+     */
+    @Autowired
+    public AccessLog(@Value("${app.access-log.enabled:false}") boolean enabled,
+                     @Value("${app.access-log.dir:./logs/access}") String directory,
+                     @Value("${app.access-log.buffer-size:65536}") int bufferSize,
+                     @Value("${app.access-log.segment-bytes:67108864}") int segmentBytes,
+                     @Value("${app.access-log.when-full:drop}") String whenFull,
+                     @Value("${app.access-log.force-interval-ms:1000}") long forceIntervalMillis,
+                     MeterRegistry meterRegistry) {
+        this.dropped = Counter.builder("urlshortener.accesslog.dropped")
+                .description("Enregistrements d'accès abandonnés faute de place dans l'anneau")
+                .register(meterRegistry);
+        this.errors = Counter.builder("urlshortener.accesslog.errors")
+                .description("Erreurs rencontrées par le consommateur du journal d'accès")
+                .register(meterRegistry);
+        this.forceIntervalNanos = TimeUnit.MILLISECONDS.toNanos(forceIntervalMillis);
+        if (!enabled) {
+            ring = null;
+            writer = null;
+            consumer = null;
+            return;
+        }
+        this.ring = new AccessLogRing(bufferSize, AccessLogRing.WhenFull.valueOf(whenFull.toUpperCase(Locale.ROOT)));
+        this.writer = new AccessLogSegmentWriter(Paths.get(directory), segmentBytes);
+        Gauge.builder("urlshortener.accesslog.backlog", ring, AccessLogRing::backlog)
+                .description("Enregistrements d'accès en attente d'écriture")
+                .register(meterRegistry);
+        running = true;
+        consumer = new Thread(this::runConsumer, "access-log-writer");
+        consumer.setDaemon(true);
+        consumer.start();
+    }
+
+    /**
+     * Retourne un journal désactivé, qui ignore toutes les publications.
+     *
+     * @return un journal désactivé
+     */
+    public static AccessLog disabled() {
+        return new AccessLog(false, "", 0, 0, "drop", 0, new SimpleMeterRegistry());
+    }
+
+    /**
+     * Enregistre une redirection servie.
+     *
+     * @param shortCode le code court redirigé
+     * @param request la requête, dont sont extraits le referrer et le user agent
+     */
+    public void record(String shortCode, HttpServletRequest request) {
+        record(shortCode, request.getHeader(HttpHeaders.REFERER), request.getHeader(HttpHeaders.USER_AGENT));
+    }
+
+    /**
+     * Enregistre une redirection servie.
+     *
+     * @param shortCode le code court redirigé
+     * @param referrer l'en-tête {@code Referer}, ou null
+     * @param userAgent l'en-tête {@code User-Agent}, ou null
+     */
+    public void record(String shortCode, String referrer, String userAgent) {
+        if (ring != null && !ring.publish(System.currentTimeMillis(), shortCode, referrer, userAgent)) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Arrête le consommateur après avoir écrit les enregistrements en attente.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (consumer == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(consumer);
+        try {
+            consumer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Boucle du consommateur : encode les enregistrements publiés, se met en pause
+     * brièvement lorsque l'anneau est vide.
+     */
+    private void runConsumer() {
+        long lastForce = System.nanoTime();
+        while (true) {
+            int written = ring.drain(this::write, DRAIN_BATCH);
+            long now = System.nanoTime();
+            if (now - lastForce >= forceIntervalNanos) {
+                try {
+                    writer.force();
+                } catch (RuntimeException e) {
+                    errors.increment();
+                    log.warn("Failed to force access log segment", e);
+                }
+                lastForce = now;
+            }
+            if (written == 0) {
+                if (!running && ring.backlog() == 0) {
+                    break;
+                }
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            }
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            log.warn("Failed to close access log segment", e);
+        }
+    }
+
+    private void write(AccessRecord record) {
+        try {
+            writer.write(record);
+        } catch (IOException | RuntimeException e) {
+            dropped.increment();
+            errors.increment();
+            log.warn("Failed to write access log record", e);
+        }
+    }
+}
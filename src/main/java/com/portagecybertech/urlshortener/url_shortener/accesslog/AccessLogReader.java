@@ -0,0 +1,110 @@
+package com.portagecybertech.urlshortener.url_shortener.accesslog;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Outil de conversion des segments du journal d'accès en CSV.
+ *
+ * <p><strong>Utilisation :</strong>
+ * <pre>{@code
+ * java -cp target/classes com.portagecybertech.urlshortener.url_shortener.accesslog.AccessLogReader \
+ *      logs/access [autres segments ou répertoires...] > access.csv
+ * }</pre>
+ *
+ * <p>Les répertoires sont parcourus dans l'ordre des noms de segments, c'est-à-dire
+ * chronologiquement. Colonnes produites : {@code timestamp} (ISO-8601, UTC),
+ * {@code short_code}, {@code referrer}, {@code user_agent}.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ * @see AccessLogSegmentWriter
+ */
+public final class AccessLogReader {
+
+    private AccessLogReader() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: AccessLogReader <segment file or directory>...");
+            System.exit(2);
+        }
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        out.write("timestamp,short_code,referrer,user_agent\n");
+        for (String arg : args) {
+            for (Path segment : segments(Paths.get(arg))) {
+                toCsv(segment, out);
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Écrit les enregistrements d'un segment en lignes CSV, sans en-tête.
+     *
+     * @param segment le fichier de segment
+     * @param out la destination
+     * @return le nombre d'enregistrements écrits
+     * @throws IOException si la lecture ou l'écriture échoue, ou si le fichier n'est pas un segment
+     */
+    public static int toCsv(Path segment, Writer out) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(segment));
+        if (buffer.remaining() < 4 || buffer.getInt() != AccessLogSegmentWriter.MAGIC) {
+            throw new IOException("Not an access log segment: " + segment);
+        }
+        int count = 0;
+        try {
+            while (buffer.hasRemaining() && buffer.get() == AccessLogSegmentWriter.TYPE_ACCESS) {
+                long timestamp = buffer.getLong();
+                String shortCode = readString(buffer, buffer.get() & 0xFF, StandardCharsets.US_ASCII);
+                String referrer = readString(buffer, buffer.getShort() & 0xFFFF, StandardCharsets.UTF_8);
+                String userAgent = readString(buffer, buffer.getShort() & 0xFFFF, StandardCharsets.UTF_8);
+                out.write(Instant.ofEpochMilli(timestamp) + "," + csv(shortCode) + "," + csv(referrer) + ","
+                        + csv(userAgent) + "\n");
+                count++;
+            }
+        } catch (BufferUnderflowException e) {
+            // Segment tronqué (arrêt brutal pendant une écriture) : on s'arrête au dernier enregistrement complet
+        }
+        return count;
+    }
+
+    private static List<Path> segments(Path path) throws IOException {
+        if (!Files.isDirectory(path)) {
+            return List.of(path);
+        }
+        try (Stream<Path> files = Files.list(path)) {
+            return new ArrayList<>(files.filter(file -> file.getFileName().toString().endsWith(".seg"))
+                    .sorted()
+                    .toList());
+        }
+    }
+
+    private static String readString(ByteBuffer buffer, int length, Charset charset) {
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, charset);
+    }
+
+    private static String csv(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,155 @@
+package com.portagecybertech.urlshortener.url_shortener.accesslog;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Anneau borné sans verrou, à producteurs multiples et consommateur unique.
+ *
+ * <p>Inspiré du séquenceur multi-producteurs du Disruptor :
+ * <ol>
+ *   <li>Un producteur réserve une séquence par CAS sur {@code next}, à condition que
+ *       la case correspondante ait été libérée par le consommateur</li>
+ *   <li>Il renseigne la case préallouée puis publie la séquence dans {@code published}</li>
+ *   <li>Le consommateur lit les cases dans l'ordre tant que leur séquence est publiée,
+ *       puis avance {@code consumed}, ce qui libère les cases pour les producteurs</li>
+ * </ol>
+ *
+ * <p>Aucun verrou ni allocation sur le chemin de publication. Lorsque l'anneau est
+ * plein, la politique choisie s'applique : abandon de l'enregistrement ou attente
+ * active bornée par de courtes pauses.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ */
+final class AccessLogRing {
+
+    /**
+     * Comportement d'un producteur lorsque l'anneau est plein.
+     */
+    enum WhenFull {
+        /** L'enregistrement est abandonné et comptabilisé. */
+        DROP,
+        /** Le producteur attend qu'une case se libère. */
+        BLOCK
+    }
+
+    private final AccessRecord[] slots;
+
+    private final int mask;
+
+    /**
+     * Séquence publiée dans chaque case (-1 tant que la case n'a jamais servi).
+     */
+    private final AtomicLongArray published;
+
+    /**
+     * Prochaine séquence à réserver par un producteur.
+     */
+    private final AtomicLong next = new AtomicLong();
+
+    /**
+     * Prochaine séquence à lire par le consommateur ; écrite par lui seul.
+     */
+    private volatile long consumed;
+
+    private final WhenFull whenFull;
+
+    /**
+     * Constructeur principal.
+     *
+     * @param capacity la capacité, arrondie à la puissance de deux supérieure
+     * @param whenFull le comportement lorsque l'anneau est plein
+     */
+    AccessLogRing(int capacity, WhenFull whenFull) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new AccessRecord[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new AccessRecord();
+        }
+        this.mask = size - 1;
+        this.published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            published.set(i, -1);
+        }
+        this.whenFull = whenFull;
+    }
+
+    /**
+     * Publie un enregistrement.
+     *
+     * @param timestampMillis l'instant de l'accès
+     * @param shortCode le code court
+     * @param referrer l'en-tête {@code Referer}, ou null
+     * @param userAgent l'en-tête {@code User-Agent}, ou null
+     * @return true si l'enregistrement a été publié, false s'il a été abandonné
+     */
+    boolean publish(long timestampMillis, String shortCode, String referrer, String userAgent) {
+        long seq;
+        while (true) {
+            seq = next.get();
+            if (seq - consumed >= slots.length) {
+                if (whenFull == WhenFull.DROP) {
+                    return false;
+                }
+                LockSupport.parkNanos(10_000);
+                continue;
+            }
+            if (next.compareAndSet(seq, seq + 1)) {
+                break;
+            }
+        }
+        int index = (int) seq & mask;
+        slots[index].set(timestampMillis, shortCode, referrer, userAgent);
+        published.lazySet(index, seq);
+        return true;
+    }
+
+    /**
+     * Transmet au consommateur les enregistrements publiés, dans l'ordre.
+     *
+     * <p>Ne doit être appelé que depuis le thread consommateur.
+     *
+     * @param handler le traitement appliqué à chaque enregistrement
+     * @param max le nombre maximal d'enregistrements traités
+     * @return le nombre d'enregistrements traités
+     */
+    int drain(Consumer<AccessRecord> handler, int max) {
+        long seq = consumed;
+        int count = 0;
+        while (count < max) {
+            int index = (int) seq & mask;
+            if (published.get(index) != seq) {
+                break;
+            }
+            AccessRecord record = slots[index];
+            handler.accept(record);
+            record.clear();
+            seq++;
+            count++;
+        }
+        consumed = seq;
+        return count;
+    }
+
+    /**
+     * Retourne le nombre d'enregistrements réservés et non encore consommés.
+     *
+     * @return l'arriéré approximatif
+     */
+    long backlog() {
+        return next.get() - consumed;
+    }
+
+    /**
+     * Retourne la capacité effective de l'anneau.
+     *
+     * @return la capacité
+     */
+    int capacity() {
+        return slots.length;
+    }
+}
@@ -0,0 +1,163 @@
+package com.portagecybertech.urlshortener.url_shortener.accesslog;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Écriture des enregistrements d'accès dans des segments de taille fixe projetés en mémoire.
+ *
+ * <p><strong>Format d'un segment</strong> ({@code access-<instant de création>-<n>.seg}) :
+ * <pre>
+ * int    magic = 0x41434C31 ("ACL1")
+ * puis, pour chaque enregistrement :
+ *   byte   type = 1
+ *   long   timestampMillis
+ *   byte   longueur + octets ASCII du code court
+ *   short  longueur + octets UTF-8 du referrer   (tronqué à {@value #MAX_REFERRER_BYTES} octets)
+ *   short  longueur + octets UTF-8 du user agent (tronqué à {@value #MAX_USER_AGENT_BYTES} octets)
+ * byte type = 0 (ou fin du fichier) : fin des données
+ * </pre>
+ * Les entiers sont en gros-boutiste. Le fichier étant préalloué à zéro, un segment
+ * interrompu se termine naturellement par un octet de type 0.
+ *
+ * <p>Les écritures vont directement dans le cache de pages du système : elles survivent
+ * à un arrêt brutal de la JVM. {@link #force()} les rend durables face à un arrêt
+ * du système. Un segment plein est tronqué à sa taille utile puis remplacé.
+ *
+ * <p>N'est pas thread-safe : utilisé par le seul consommateur de l'anneau.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ * @see AccessLogReader
+ */
+final class AccessLogSegmentWriter implements Closeable {
+
+    static final int MAGIC = 0x41434C31;
+
+    static final byte TYPE_END = 0;
+
+    static final byte TYPE_ACCESS = 1;
+
+    static final int MAX_REFERRER_BYTES = 1024;
+
+    static final int MAX_USER_AGENT_BYTES = 512;
+
+    private static final int MAX_RECORD_BYTES = 1 + 8 + 1 + 255 + 2 + MAX_REFERRER_BYTES + 2 + MAX_USER_AGENT_BYTES;
+
+    private final Path directory;
+
+    private final int segmentBytes;
+
+    private FileChannel channel;
+
+    private MappedByteBuffer buffer;
+
+    private int segmentCount;
+
+    /**
+     * Constructeur principal.
+     *
+     * @param directory le répertoire des segments
+     * @param segmentBytes la taille de chaque segment, en octets
+     */
+    AccessLogSegmentWriter(Path directory, int segmentBytes) {
+        this.directory = directory;
+        this.segmentBytes = Math.max(segmentBytes, 4 + MAX_RECORD_BYTES + 1);
+    }
+
+    /**
+     * Encode un enregistrement dans le segment courant, en changeant de segment si nécessaire.
+     *
+     * <p>Un enregistrement dont l'encodage échoue n'est pas écrit à moitié : la position
+     * du segment est rétablie avant de propager l'erreur.
+     *
+     * @param record l'enregistrement à écrire
+     * @throws IOException si la création d'un segment échoue
+     */
+    void write(AccessRecord record) throws IOException {
+        if (buffer == null || buffer.remaining() < MAX_RECORD_BYTES + 1) {
+            roll();
+        }
+        int start = buffer.position();
+        try {
+            buffer.put(TYPE_ACCESS);
+            buffer.putLong(record.timestampMillis);
+            byte[] code = record.shortCode.getBytes(StandardCharsets.US_ASCII);
+            buffer.put((byte) Math.min(code.length, 255));
+            buffer.put(code, 0, Math.min(code.length, 255));
+            putString(buffer, record.referrer, MAX_REFERRER_BYTES);
+            putString(buffer, record.userAgent, MAX_USER_AGENT_BYTES);
+        } catch (RuntimeException e) {
+            buffer.position(start);
+            throw e;
+        }
+    }
+
+    /**
+     * Force l'écriture sur disque du segment courant.
+     */
+    void force() {
+        if (buffer != null) {
+            buffer.force();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        finishSegment();
+    }
+
+    private void roll() throws IOException {
+        finishSegment();
+        Files.createDirectories(directory);
+        Path file = directory.resolve(String.format("access-%d-%04d.seg", System.currentTimeMillis(), segmentCount++));
+        channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        buffer.putInt(MAGIC);
+    }
+
+    private void finishSegment() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        int used = buffer.position();
+        if (buffer.hasRemaining()) {
+            buffer.put(TYPE_END);
+            used++;
+        }
+        buffer.force();
+        try {
+            // Libère l'espace préalloué non utilisé ; peut échouer tant que la projection
+            // est active sur certains systèmes, le segment reste alors lisible tel quel
+            channel.truncate(used);
+        } catch (IOException e) {
+            // Ignoré : voir ci-dessus
+        }
+        channel.close();
+        channel = null;
+        buffer = null;
+    }
+
+    private static void putString(ByteBuffer buffer, String value, int maxBytes) {
+        if (value == null) {
+            buffer.putShort((short) 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(bytes.length, maxBytes);
+        // Ne pas couper un caractère multi-octets en son milieu
+        while (length < bytes.length && length > 0 && (bytes[length] & 0xC0) == 0x80) {
+            length--;
+        }
+        buffer.putShort((short) length);
+        buffer.put(bytes, 0, length);
+    }
+}
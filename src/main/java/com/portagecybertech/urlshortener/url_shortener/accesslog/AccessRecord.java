@@ -0,0 +1,38 @@
+package com.portagecybertech.urlshortener.url_shortener.accesslog;
+
+/**
+ * Case préallouée de l'anneau du journal d'accès.
+ *
+ * <p>Les instances sont créées une fois pour toutes avec l'anneau puis réutilisées :
+ * la publication d'un accès ne fait que renseigner des champs, sans allocation.
+ * Une case n'est écrite que par le producteur qui l'a réservée, puis lue par
+ * l'unique consommateur après publication.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ * @see AccessLogRing
+ */
+final class AccessRecord {
+
+    long timestampMillis;
+
+    String shortCode;
+
+    String referrer;
+
+    String userAgent;
+
+    void set(long timestampMillis, String shortCode, String referrer, String userAgent) {
+        this.timestampMillis = timestampMillis;
+        this.shortCode = shortCode;
+        this.referrer = referrer;
+        this.userAgent = userAgent;
+    }
+
+    void clear() {
+        shortCode = null;
+        referrer = null;
+        userAgent = null;
+    }
+}
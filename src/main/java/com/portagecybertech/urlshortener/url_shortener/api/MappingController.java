@@ -0,0 +1,216 @@
+package com.portagecybertech.urlshortener.url_shortener.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.portagecybertech.urlshortener.url_shortener.limit.ServiceOverloadedException;
+import com.portagecybertech.urlshortener.url_shortener.service.DomainRegistry;
+import com.portagecybertech.urlshortener.url_shortener.service.MappingQueryService;
+import com.portagecybertech.urlshortener.url_shortener.service.ReadOnlyReplicaException;
+import com.portagecybertech.urlshortener.url_shortener.service.UrlService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Contrôleur REST d'administration des mappings d'URLs.
+ *
+ * <p><strong>Endpoints disponibles :</strong>
+ * <ul>
+ *   <li>{@code GET /api/mappings} - Liste les mappings par ordre d'identifiant</li>
+ *   <li>{@code DELETE /api/mappings/{shortCode}} - Supprime un mapping</li>
+ * </ul>
+ *
+ * <p><strong>Paramètres de requête :</strong>
+ * <ul>
+ *   <li>{@code after} - Curseur : identifiant du dernier mapping déjà lu (défaut 0)</li>
+ *   <li>{@code limit} - Taille de page, entre 1 et 1000 (défaut 100)</li>
+ *   <li>{@code host} - Ne conserve que les URLs originales de cet hôte (optionnel)</li>
+ *   <li>{@code stream} - Si true, renvoie tous les mappings suivants en NDJSON (défaut false)</li>
+ * </ul>
+ *
+ * <p>La pagination est par clé : le champ {@code nextCursor} de chaque page se passe
+ * tel quel en {@code after} pour obtenir la suivante. Le mode flux lit la base page
+ * par page et écrit chaque mapping dès qu'il est lu, en mémoire constante.
+ *
+ * <p><strong>Gestion d'erreurs :</strong>
+ * <ul>
+ *   <li>400 Bad Request : curseur négatif</li>
+ *   <li>404 Not Found : Code court non trouvé (suppression)</li>
+ *   <li>503 Service Unavailable : Service surchargé, avec en-tête {@code Retry-After}</li>
+ * </ul>
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ * @see MappingQueryService
+ */
+@RestController
+@RequestMapping("/api")
+public class MappingController {
+
+    /**
+     * Type de contenu du mode flux : un objet JSON par ligne.
+     */
+    public static final String NDJSON = "application/x-ndjson";
+
+    /**
+     * Service de consultation des mappings.
+     */
+    private final MappingQueryService mappingQueryService;
+
+    /**
+     * Service pour la logique métier des URLs raccourcies.
+     */
+    private final UrlService urlService;
+
+    /**
+     * Domaines courts, pour résoudre le domaine d'une suppression.
+     */
+    private final DomainRegistry domainRegistry;
+
+    /**
+     * Sérialiseur JSON des lignes du mode flux.
+     */
+    private final ObjectWriter lineWriter;
+
+    /**
+     * Constructeur principal du contrôleur.
+     *
+     * @param mappingQueryService le service de consultation des mappings
+     * @param urlService le service de gestion des URLs
+     * @param domainRegistry les domaines courts
+     * @param objectMapper le mapper JSON configuré par Spring Boot
+     */
+    public MappingController(MappingQueryService mappingQueryService, UrlService urlService,
+                             DomainRegistry domainRegistry, ObjectMapper objectMapper) {
+        this.mappingQueryService = mappingQueryService;
+        this.urlService = urlService;
+        this.domainRegistry = domainRegistry;
+        this.lineWriter = objectMapper.writerFor(MappingQueryService.MappingView.class);
+    }
+
+    /**
+     * Liste une page de mappings d'URLs.
+     *
+     * <p><strong>Réponse en cas de succès (200) :</strong>
+     * <pre>{@code
+     * {
+     *   "items": [
+     *     {"id": 42, "shortCode": "abc123", "shortUrl": "http://localhost:8080/abc123",
+     *      "originalUrl": "https://example.com/a"}
+     *   ],
+     *   "nextCursor": 42
+     * }
+     * }</pre>
+     *
+     * <p>{@code nextCursor} vaut null lorsque la dernière page est atteinte.
+     *
+     * @param after le curseur de départ
+     * @param limit la taille de page
+     * @param host l'hôte à filtrer, optionnel
+     * @return ResponseEntity avec la page ou un message d'erreur
+     */
+    @GetMapping("/mappings")
+    public ResponseEntity<?> list(@RequestParam(defaultValue = "0") long after,
+                                  @RequestParam(defaultValue = "100") int limit,
+                                  @RequestParam(required = false) String host) {
+        if (after < 0) {
+            return ResponseEntity.badRequest().body("Invalid cursor");
+        }
+        try {
+            return ResponseEntity.ok(mappingQueryService.page(after, limit, host));
+        } catch (ServiceOverloadedException e) {
+            return UrlController.overloaded(e);
+        }
+    }
+
+    /**
+     * Diffuse tous les mappings suivant le curseur, un objet JSON par ligne.
+     *
+     * <p><strong>Réponse en cas de succès (200, {@code application/x-ndjson}) :</strong>
+     * <pre>{@code
+     * {"id":42,"shortCode":"abc123","shortUrl":"http://localhost:8080/abc123","originalUrl":"https://example.com/a"}
+     * {"id":43,...}
+     * }</pre>
+     *
+     * <p>La réponse étant déjà engagée, une surcharge en cours de flux interrompt
+     * la réponse ; le client reprend avec le dernier identifiant reçu en {@code after}.
+     *
+     * @param after le curseur de départ
+     * @param limit la taille des lectures successives en base
+     * @param host l'hôte à filtrer, optionnel
+     * @return ResponseEntity avec le flux NDJSON
+     */
+    @GetMapping(value = "/mappings", params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> stream(@RequestParam(defaultValue = "0") long after,
+                                                        @RequestParam(defaultValue = "100") int limit,
+                                                        @RequestParam(required = false) String host) {
+        if (after < 0) {
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody body = out -> writeLines(out, after, limit, host);
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
+
+    /**
+     * Supprime le mapping d'un code court.
+     *
+     * <p>La suppression est enregistrée dans le journal des modifications et
+     * propagée aux réplicas.
+     *
+     * <p>Le code est cherché dans le domaine {@code domain} s'il est fourni, sinon dans
+     * celui de l'hôte de la requête.
+     *
+     * <p><strong>Réponses :</strong> 204 si supprimé, 404 si inconnu, 400 si le domaine
+     * demandé n'est pas configuré, 503 en cas de surcharge ou sur un réplica.
+     *
+     * @param shortCode le code court à supprimer
+     * @param domain le nom d'hôte du domaine, optionnel
+     * @param request la requête, dont l'hôte désigne le domaine par défaut
+     * @return ResponseEntity vide ou avec un message d'erreur
+     */
+    @DeleteMapping("/mappings/{shortCode}")
+    public ResponseEntity<?> delete(@PathVariable String shortCode,
+                                    @RequestParam(required = false) String domain,
+                                    HttpServletRequest request) {
+        try {
+            int domainId = domainRegistry.resolve(domain, request.getServerName());
+            return urlService.delete(domainId, shortCode)
+                    ? ResponseEntity.noContent().build()
+                    : ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (ServiceOverloadedException e) {
+            return UrlController.overloaded(e);
+        } catch (ReadOnlyReplicaException e) {
+            return UrlController.readOnly(e);
+        }
+    }
+
+    private void writeLines(OutputStream out, long after, int limit, String host) throws IOException {
+        try {
+            mappingQueryService.forEach(after, limit, host, view -> {
+                try {
+                    out.write(lineWriter.writeValueAsBytes(view));
+                    out.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.flush();
+    }
+}
@@ -0,0 +1,73 @@
+package com.portagecybertech.urlshortener.url_shortener.api;
+
+import com.portagecybertech.urlshortener.url_shortener.metrics.MetricsStreamPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Contrôleur du flux de métriques temps réel du tableau de bord.
+ *
+ * <p><strong>Endpoint :</strong>
+ * <ul>
+ *   <li>{@code GET /api/metrics/stream} - Flux Server-Sent Events d'événements {@code metrics}</li>
+ * </ul>
+ *
+ * <p><strong>Événement (une fois par seconde) :</strong>
+ * <pre>{@code
+ * event:metrics
+ * data:{"timestamp":1760000000000,"intervalMillis":1000,
+ *       "operations":[{"name":"redirect","count":1520,"ratePerSecond":1520.0,
+ *                      "p50Micros":48.0,"p90Micros":88.0,"p99Micros":240.0,"p999Micros":960.0}, ...],
+ *       "cacheHitRate":0.97,"cacheEntries":4211,
+ *       "hotCodes":[{"code":"abc123","hits":310}, ...]}
+ * }</pre>
+ *
+ * <p><strong>Gestion d'erreurs :</strong>
+ * <ul>
+ *   <li>503 Service Unavailable : nombre maximal d'abonnés atteint</li>
+ * </ul>
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ * @see MetricsStreamPublisher
+ */
+@RestController
+@RequestMapping("/api/metrics")
+public class MetricsStreamController {
+
+    /**
+     * Diffusion des métriques aux abonnés.
+     */
+    private final MetricsStreamPublisher publisher;
+
+    /**
+     * Constructeur principal du contrôleur.
+     *
+     * @param publisher la diffusion des métriques
+     */
+    public MetricsStreamController(MetricsStreamPublisher publisher) {
+        this.publisher = publisher;
+    }
+
+    /**
+     * Ouvre un flux de métriques.
+     *
+     * @return le flux Server-Sent Events, ou 503 si trop de flux sont ouverts
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream() {
+        SseEmitter emitter = publisher.subscribe();
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok()
+                .header("X-Accel-Buffering", "no")
+                .body(emitter);
+    }
+}
@@ -1,6 +1,12 @@
 package com.portagecybertech.urlshortener.url_shortener.api;
 
+import com.portagecybertech.urlshortener.url_shortener.accesslog.AccessLog;
+import com.portagecybertech.urlshortener.url_shortener.limit.ServiceOverloadedException;
+import com.portagecybertech.urlshortener.url_shortener.service.DomainRegistry;
 import com.portagecybertech.urlshortener.url_shortener.service.UrlService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -22,8 +28,17 @@ import org.springframework.web.bind.annotation.RestController;
  * <ul>
  *   <li><strong>Succès (302)</strong> : Redirection vers l'URL originale</li>
  *   <li><strong>Erreur (404)</strong> : Code court non trouvé</li>
+ *   <li><strong>Surcharge (503)</strong> : Budget de lecture épuisé, avec en-tête {@code Retry-After}</li>
  * </ul>
  * 
+ * <p>Le code est cherché dans le domaine court de l'hôte de la requête
+ * (voir {@link DomainRegistry#resolve(String)}).
+ * 
+ * <p><strong>Chemin rapide :</strong>
+ * Les redirections vers un code existant sont normalement servies directement par
+ * {@code RedirectFastPathFilter}, sans passer par Spring MVC. Ce contrôleur traite
+ * les cas restants (codes inconnus, chemins hors de l'alphabet Base62).
+ * 
  * <p><strong>Exemple d'utilisation :</strong>
  * <pre>
  * GET http://localhost:8080/abc123
@@ -43,13 +58,27 @@ public class RedirectController {
      */
     private final UrlService urlService;
 
+    /**
+     * Domaines courts, pour résoudre l'hôte de la requête.
+     */
+    private final DomainRegistry domainRegistry;
+
+    /**
+     * Journal d'audit des redirections.
+     */
+    private final AccessLog accessLog;
+
     /**
      * Constructeur principal du contrôleur.
      * 
      * @param urlService le service injecté pour la gestion des URLs
+     * @param domainRegistry les domaines courts
+     * @param accessLog le journal d'audit des redirections
      */
-    public RedirectController(UrlService urlService) {
+    public RedirectController(UrlService urlService, DomainRegistry domainRegistry, AccessLog accessLog) {
         this.urlService = urlService;
+        this.domainRegistry = domainRegistry;
+        this.accessLog = accessLog;
     }
 
     /**
@@ -68,18 +97,28 @@ public class RedirectController {
      * <p><strong>Réponse en cas d'erreur (404) :</strong>
      * <p>Code court non trouvé dans la base de données.
      * 
+     * <p><strong>Réponse en cas de surcharge (503) :</strong>
+     * <p>Le budget de lecture est épuisé ; l'en-tête {@code Retry-After} indique quand réessayer.
+     * 
      * @param shortCode le code court à rediriger
-     * @return ResponseEntity avec redirection 302 ou 404 si non trouvé
+     * @param request la requête, dont le referrer et le user agent sont journalisés
+     * @return ResponseEntity avec redirection 302, 404 si non trouvé ou 503 si surchargé
      */
     @GetMapping("/{shortCode}")
-    public ResponseEntity<Void> redirect(@PathVariable String shortCode) {
+    public ResponseEntity<Void> redirect(@PathVariable String shortCode, HttpServletRequest request) {
         try {
-            String originalUrl = urlService.expand(shortCode);
-            return ResponseEntity.status(302)
-                    .header("Location", originalUrl)
+            return urlService.findOriginalUrl(domainRegistry.resolve(request.getServerName()), shortCode)
+                    .<ResponseEntity<Void>>map(originalUrl -> {
+                        accessLog.record(shortCode, request);
+                        return ResponseEntity.status(302)
+                                .header("Location", originalUrl)
+                                .build();
+                    })
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (ServiceOverloadedException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
                     .build();
-        } catch (IllegalArgumentException e) {
-            return ResponseEntity.notFound().build();
         }
     }
 }
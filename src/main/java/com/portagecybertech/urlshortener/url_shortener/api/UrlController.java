@@ -1,14 +1,31 @@
 package com.portagecybertech.urlshortener.url_shortener.api;
 
+import com.portagecybertech.urlshortener.url_shortener.limit.RateLimits;
+import com.portagecybertech.urlshortener.url_shortener.limit.ServiceOverloadedException;
+import com.portagecybertech.urlshortener.url_shortener.limit.TokenBucketLimiter;
+import com.portagecybertech.urlshortener.url_shortener.metrics.LiveMetrics;
+import com.portagecybertech.urlshortener.url_shortener.metrics.LiveMetrics.Operation;
+import com.portagecybertech.urlshortener.url_shortener.service.DomainRegistry;
+import com.portagecybertech.urlshortener.url_shortener.service.IdempotencyKeyMismatchException;
+import com.portagecybertech.urlshortener.url_shortener.service.IdempotencyStore;
+import com.portagecybertech.urlshortener.url_shortener.service.ReadOnlyReplicaException;
 import com.portagecybertech.urlshortener.url_shortener.service.UrlService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Contrôleur REST pour les opérations d'API sur les URLs raccourcies.
  * 
@@ -16,18 +33,38 @@ import org.springframework.web.bind.annotation.RestController;
  * <ul>
  *   <li><strong>Raccourcissement d'URL</strong> : POST /api/shorten</li>
  *   <li><strong>Expansion d'URL</strong> : GET /api/expand/{shortCode}</li>
+ *   <li><strong>Opérations groupées</strong> : POST /api/shorten/bulk, POST /api/expand/bulk</li>
  * </ul>
  * 
  * <p><strong>Endpoints disponibles :</strong>
  * <ul>
  *   <li>{@code POST /api/shorten} - Raccourcit une URL originale</li>
  *   <li>{@code GET /api/expand/{shortCode} - Récupère l'URL originale à partir du code court</li>
+ *   <li>{@code POST /api/shorten/bulk} - Raccourcit plusieurs URLs en un appel</li>
+ *   <li>{@code POST /api/expand/bulk} - Résout plusieurs codes courts en un appel</li>
  * </ul>
  * 
+ * <p><strong>Encodage :</strong> JSON par défaut, ou CBOR ({@code application/cbor})
+ * selon les en-têtes {@code Content-Type} et {@code Accept}, pour tous les endpoints.
+ * 
+ * <p><strong>Domaines courts :</strong> chaque opération porte sur le domaine désigné par
+ * le champ ou paramètre {@code domain} (nom d'hôte configuré dans {@code app.domains}) ou,
+ * à défaut, par l'hôte de la requête ; un hôte inconnu désigne le domaine par défaut.
+ * 
+ * <p><strong>Idempotence :</strong> {@code POST /api/shorten} accepte un en-tête
+ * {@code Idempotency-Key} ; une nouvelle tentative avec la même clé rejoue la réponse
+ * depuis la mémoire ({@link IdempotencyStore}) et porte l'en-tête {@code Idempotent-Replayed: true}.
+ * 
+ * <p><strong>Métriques :</strong> la latence de {@code /api/shorten} et {@code /api/expand/{shortCode}}
+ * alimente le tableau de bord temps réel ({@link LiveMetrics}).
+ * 
  * <p><strong>Gestion d'erreurs :</strong>
  * <ul>
- *   <li>400 Bad Request : URL invalide fournie</li>
+ *   <li>400 Bad Request : URL invalide fournie, domaine inconnu, ou lot trop grand</li>
+ *   <li>422 Unprocessable Entity : clé d'idempotence réutilisée pour une autre requête</li>
  *   <li>404 Not Found : Code court non trouvé</li>
+ *   <li>503 Service Unavailable : Service surchargé, avec en-tête {@code Retry-After}, ou
+ *       écriture adressée à un réplica (le message indique le primaire)</li>
  * </ul>
  * 
  * @author Aziz Rayene Delaa
@@ -39,26 +76,81 @@ import org.springframework.web.bind.annotation.RestController;
 @RequestMapping("/api")
 public class UrlController {
 
+    /**
+     * En-tête portant la clé d'idempotence fournie par le client.
+     */
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    /**
+     * En-tête signalant une réponse rejouée depuis la fenêtre d'idempotence.
+     */
+    public static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+
     /**
      * Service pour la logique métier des URLs raccourcies.
      */
     private final UrlService urlService;
 
+    /**
+     * Domaines courts, pour résoudre le domaine de chaque requête.
+     */
+    private final DomainRegistry domainRegistry;
+
+    /**
+     * Agrégateurs du tableau de bord temps réel.
+     */
+    private final LiveMetrics liveMetrics;
+
+    /**
+     * Fenêtre de déduplication des requêtes portant une clé d'idempotence.
+     */
+    private final IdempotencyStore idempotencyStore;
+
+    /**
+     * Limites de débit par client, prélevées ici pour les lots (un jeton par URL).
+     */
+    private final RateLimits rateLimits;
+
     /**
      * Constructeur principal du contrôleur.
      * 
      * @param urlService le service injecté pour la gestion des URLs
+     * @param domainRegistry les domaines courts
+     * @param liveMetrics les agrégateurs du tableau de bord temps réel
+     * @param idempotencyStore la fenêtre de déduplication des clés d'idempotence
+     * @param rateLimits les limites de débit par client
      */
-    public UrlController(UrlService urlService) {
+    public UrlController(UrlService urlService, DomainRegistry domainRegistry, LiveMetrics liveMetrics,
+                         IdempotencyStore idempotencyStore, RateLimits rateLimits) {
         this.urlService = urlService;
+        this.domainRegistry = domainRegistry;
+        this.liveMetrics = liveMetrics;
+        this.idempotencyStore = idempotencyStore;
+        this.rateLimits = rateLimits;
     }
 
     /**
      * Record représentant une requête de raccourcissement d'URL.
      * 
      * @param originalUrl l'URL originale à raccourcir
+     * @param domain le nom d'hôte du domaine court, ou null pour celui de la requête
+     */
+    public record ShortenRequest(String originalUrl, String domain) {
+
+        /**
+         * Crée une requête sans domaine explicite.
+         * 
+         * @param originalUrl l'URL originale à raccourcir
+         */
+        public ShortenRequest(String originalUrl) {
+            this(originalUrl, null);
+        }
+    }
+
+    /**
+     * Nombre maximal d'éléments d'une requête groupée.
      */
-    public record ShortenRequest(String originalUrl) {}
+    public static final int MAX_BULK_SIZE = 1000;
 
     /**
      * Raccourcit une URL originale en générant un code court unique.
@@ -68,30 +160,63 @@ public class UrlController {
      * <p><strong>Corps de la requête :</strong>
      * <pre>{@code
      * {
-     *   "originalUrl": "https://example.com/very/long/url"
+     *   "originalUrl": "https://example.com/very/long/url",
+     *   "domain": "go.example.com"
      * }
      * }</pre>
      * 
+     * <p>{@code domain} est optionnel (domaine de l'hôte de la requête par défaut).
+     * 
+     * <p><strong>En-tête optionnel :</strong> {@code Idempotency-Key} - une réémission par le
+     * même client, avec la même clé et le même corps, reçoit la même réponse sans nouveau
+     * traitement, avec l'en-tête {@code Idempotent-Replayed: true}.
+     * 
      * <p><strong>Réponse en cas de succès (200) :</strong>
      * <pre>{@code
      * {
-     *   "shortUrl": "http://localhost:8080/abc123"
+     *   "shortUrl": "https://go.example.com/abc123"
      * }
      * }</pre>
      * 
      * <p><strong>Réponse en cas d'erreur (400) :</strong>
-     * <pre>{@code "Invalid URL"}</pre>
+     * <pre>{@code "Invalid URL"}</pre> ou <pre>{@code "Unknown domain"}</pre>
+     * 
+     * <p><strong>Réponse en cas de réutilisation d'une clé (422) :</strong>
+     * <p>La clé d'idempotence a déjà servi, dans la fenêtre, pour une autre URL ou un autre domaine.
+     * 
+     * <p><strong>Réponse en cas de surcharge (503) :</strong>
+     * <p>Le budget d'écriture est épuisé ; l'en-tête {@code Retry-After} indique quand réessayer.
      * 
      * @param req la requête contenant l'URL originale à raccourcir
+     * @param idempotencyKey la clé d'idempotence, optionnelle
+     * @param request la requête HTTP, dont l'hôte désigne le domaine par défaut
      * @return ResponseEntity avec l'URL raccourcie ou un message d'erreur
      */
     @PostMapping("/shorten")
-    public ResponseEntity<?> shorten(@RequestBody ShortenRequest req) {
+    public ResponseEntity<?> shorten(@RequestBody ShortenRequest req,
+                                     @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+                                     HttpServletRequest request) {
+        long start = System.nanoTime();
         try {
-            UrlService.ShortenResponse result = urlService.shorten(req.originalUrl());
-            return ResponseEntity.ok(result);
+            int domainId = domainRegistry.resolve(req.domain(), request.getServerName());
+            if (idempotencyKey == null) {
+                return ResponseEntity.ok(urlService.shorten(domainId, req.originalUrl()));
+            }
+            IdempotencyStore.Outcome outcome = idempotencyStore.execute(rateLimits.clientKey(request), idempotencyKey,
+                    domainId + " " + req.originalUrl(), () -> urlService.shorten(domainId, req.originalUrl()));
+            return outcome.replayed()
+                    ? ResponseEntity.ok().header(IDEMPOTENT_REPLAYED_HEADER, "true").body(outcome.response())
+                    : ResponseEntity.ok(outcome.response());
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IdempotencyKeyMismatchException e) {
+            return ResponseEntity.unprocessableEntity().body(e.getMessage());
+        } catch (ServiceOverloadedException e) {
+            return overloaded(e);
+        } catch (ReadOnlyReplicaException e) {
+            return readOnly(e);
+        } finally {
+            liveMetrics.record(Operation.SHORTEN, System.nanoTime() - start);
         }
     }
 
@@ -105,6 +230,8 @@ public class UrlController {
      *   <li>{@code shortCode} - Le code court à rechercher</li>
      * </ul>
      * 
+     * <p><strong>Paramètre optionnel :</strong> {@code domain} - le nom d'hôte du domaine court.
+     * 
      * <p><strong>Réponse en cas de succès (200) :</strong>
      * <pre>{@code
      * {
@@ -113,27 +240,268 @@ public class UrlController {
      * }</pre>
      * 
      * <p><strong>Réponse en cas d'erreur (404) :</strong>
-     * <p>Code court non trouvé dans la base de données.
+     * <p>Code court non trouvé dans la base de données. Un domaine inconnu donne 400.
+     * 
+     * <p><strong>Réponse en cas de surcharge (503) :</strong>
+     * <p>Le budget de lecture est épuisé ; l'en-tête {@code Retry-After} indique quand réessayer.
      * 
      * @param shortCode le code court à rechercher
+     * @param domain le nom d'hôte du domaine court, optionnel
+     * @param request la requête HTTP, dont l'hôte désigne le domaine par défaut
      * @return ResponseEntity avec l'URL originale ou 404 si non trouvé
      */
     @GetMapping("/expand/{shortCode}")
-    public ResponseEntity<?> expand(@PathVariable String shortCode) {
+    public ResponseEntity<?> expand(@PathVariable String shortCode,
+                                    @RequestParam(required = false) String domain,
+                                    HttpServletRequest request) {
+        int domainId;
         try {
-            String originalUrl = urlService.expand(shortCode);
+            domainId = domainRegistry.resolve(domain, request.getServerName());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        long start = System.nanoTime();
+        try {
+            String originalUrl = urlService.expand(domainId, shortCode);
             return ResponseEntity.ok().body(new ExpandResponse(originalUrl));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.notFound().build();
+        } catch (ServiceOverloadedException e) {
+            return overloaded(e);
+        } finally {
+            liveMetrics.record(Operation.EXPAND, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Raccourcit plusieurs URLs en un seul appel.
+     * 
+     * <p><strong>Endpoint :</strong> {@code POST /api/shorten/bulk}
+     * 
+     * <p><strong>Corps de la requête :</strong>
+     * <pre>{@code
+     * {
+     *   "originalUrls": ["https://example.com/a", "not a url"]
+     * }
+     * }</pre>
+     * 
+     * <p><strong>Réponse en cas de succès (200) :</strong> un résultat par URL, dans l'ordre ;
+     * une URL invalide n'interrompt pas le lot.
+     * 
+     * <p><strong>Limite de débit :</strong> le lot consomme un jeton de la limite
+     * {@code shorten} par URL ; il est refusé (429) si le seau du client est vide.
+     * <pre>{@code
+     * {
+     *   "results": [
+     *     {"originalUrl": "https://example.com/a", "shortUrl": "http://localhost:8080/abc123", "error": null},
+     *     {"originalUrl": "not a url", "shortUrl": null, "error": "Invalid URL"}
+     *   ]
+     * }
+     * }</pre>
+     * 
+     * @param req la requête contenant les URLs à raccourcir (au plus {@value #MAX_BULK_SIZE})
+     * @param request la requête HTTP, dont l'hôte désigne le domaine par défaut
+     * @return ResponseEntity avec les résultats, 400 si le lot est trop grand ou le domaine inconnu,
+     *         429 si le client dépasse sa limite de débit, 503 si surchargé
+     */
+    @PostMapping("/shorten/bulk")
+    public ResponseEntity<?> shortenBulk(@RequestBody BulkShortenRequest req, HttpServletRequest request) {
+        if (req.originalUrls() == null || req.originalUrls().size() > MAX_BULK_SIZE) {
+            return ResponseEntity.badRequest().body("Bulk size must be between 0 and " + MAX_BULK_SIZE);
+        }
+        int domainId;
+        try {
+            domainId = domainRegistry.resolve(req.domain(), request.getServerName());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        HttpHeaders limitHeaders = new HttpHeaders();
+        if (rateLimits.isEnabled()) {
+            TokenBucketLimiter limiter = rateLimits.getShortenLimiter();
+            TokenBucketLimiter.Decision decision = limiter.tryAcquire(rateLimits.clientKey(request),
+                    Math.max(1, req.originalUrls().size()));
+            limitHeaders = RateLimits.headers(limiter, decision);
+            if (!decision.allowed()) {
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).headers(limitHeaders)
+                        .body("Too many requests");
+            }
+        }
+        try {
+            List<BulkShortenResult> results = new ArrayList<>(req.originalUrls().size());
+            for (String originalUrl : req.originalUrls()) {
+                try {
+                    results.add(new BulkShortenResult(originalUrl, urlService.shorten(domainId, originalUrl).shortUrl(), null));
+                } catch (IllegalArgumentException e) {
+                    results.add(new BulkShortenResult(originalUrl, null, e.getMessage()));
+                }
+            }
+            return ResponseEntity.ok().headers(limitHeaders).body(new BulkShortenResponse(results));
+        } catch (ServiceOverloadedException e) {
+            return overloaded(e);
+        } catch (ReadOnlyReplicaException e) {
+            return readOnly(e);
         }
     }
 
+    /**
+     * Résout plusieurs codes courts en un seul appel.
+     * 
+     * <p><strong>Endpoint :</strong> {@code POST /api/expand/bulk}
+     * 
+     * <p><strong>Corps de la requête :</strong>
+     * <pre>{@code
+     * {
+     *   "shortCodes": ["abc123", "unknown"]
+     * }
+     * }</pre>
+     * 
+     * <p><strong>Réponse en cas de succès (200) :</strong> un résultat par code, dans l'ordre ;
+     * {@code originalUrl} vaut null pour un code inconnu.
+     * <pre>{@code
+     * {
+     *   "results": [
+     *     {"shortCode": "abc123", "originalUrl": "https://example.com/a"},
+     *     {"shortCode": "unknown", "originalUrl": null}
+     *   ]
+     * }
+     * }</pre>
+     * 
+     * <p><strong>Limite de débit :</strong> le lot consomme un jeton de la limite
+     * {@code expand} par code ; il est refusé (429) si le seau du client est vide.
+     * 
+     * @param req la requête contenant les codes à résoudre (au plus {@value #MAX_BULK_SIZE})
+     * @param request la requête HTTP, dont l'hôte désigne le domaine par défaut
+     * @return ResponseEntity avec les résultats, 400 si le lot est trop grand ou le domaine inconnu,
+     *         429 si le client dépasse sa limite de débit, 503 si surchargé
+     */
+    @PostMapping("/expand/bulk")
+    public ResponseEntity<?> expandBulk(@RequestBody BulkExpandRequest req, HttpServletRequest request) {
+        if (req.shortCodes() == null || req.shortCodes().size() > MAX_BULK_SIZE) {
+            return ResponseEntity.badRequest().body("Bulk size must be between 0 and " + MAX_BULK_SIZE);
+        }
+        int domainId;
+        try {
+            domainId = domainRegistry.resolve(req.domain(), request.getServerName());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        HttpHeaders limitHeaders = new HttpHeaders();
+        if (rateLimits.isEnabled()) {
+            TokenBucketLimiter limiter = rateLimits.getExpandLimiter();
+            TokenBucketLimiter.Decision decision = limiter.tryAcquire(rateLimits.clientKey(request),
+                    Math.max(1, req.shortCodes().size()));
+            limitHeaders = RateLimits.headers(limiter, decision);
+            if (!decision.allowed()) {
+                return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).headers(limitHeaders)
+                        .body("Too many requests");
+            }
+        }
+        try {
+            List<BulkExpandResult> results = new ArrayList<>(req.shortCodes().size());
+            for (String shortCode : req.shortCodes()) {
+                results.add(new BulkExpandResult(shortCode, urlService.findOriginalUrl(domainId, shortCode).orElse(null)));
+            }
+            return ResponseEntity.ok().headers(limitHeaders).body(new BulkExpandResponse(results));
+        } catch (ServiceOverloadedException e) {
+            return overloaded(e);
+        }
+    }
+
+    /**
+     * Construit la réponse 503 renvoyée lorsqu'un budget de concurrence est épuisé.
+     * 
+     * @param e l'exception de surcharge
+     * @return ResponseEntity 503 avec l'en-tête {@code Retry-After}
+     */
+    static ResponseEntity<String> overloaded(ServiceOverloadedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(e.getMessage());
+    }
+
+    /**
+     * Construit la réponse 503 renvoyée à une écriture adressée à un réplica.
+     * 
+     * @param e l'exception du réplica, dont le message indique le primaire
+     * @return ResponseEntity 503, sans {@code Retry-After} : réessayer ici ne réussira pas
+     */
+    static ResponseEntity<String> readOnly(ReadOnlyReplicaException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+    }
+
     /**
      * Record représentant la réponse d'expansion d'URL.
      * 
      * @param originalUrl l'URL originale récupérée
      */
     public record ExpandResponse(String originalUrl) {}
+
+    /**
+     * Record représentant une requête de raccourcissement groupée.
+     * 
+     * @param originalUrls les URLs originales à raccourcir
+     * @param domain le nom d'hôte du domaine court, ou null pour celui de la requête
+     */
+    public record BulkShortenRequest(List<String> originalUrls, String domain) {
+
+        /**
+         * Crée une requête sans domaine explicite.
+         * 
+         * @param originalUrls les URLs originales à raccourcir
+         */
+        public BulkShortenRequest(List<String> originalUrls) {
+            this(originalUrls, null);
+        }
+    }
+
+    /**
+     * Record représentant le résultat du raccourcissement d'une URL d'un lot.
+     * 
+     * @param originalUrl l'URL originale soumise
+     * @param shortUrl l'URL raccourcie, ou null en cas d'erreur
+     * @param error le message d'erreur, ou null en cas de succès
+     */
+    public record BulkShortenResult(String originalUrl, String shortUrl, String error) {}
+
+    /**
+     * Record représentant la réponse d'un raccourcissement groupé.
+     * 
+     * @param results les résultats, dans l'ordre de la requête
+     */
+    public record BulkShortenResponse(List<BulkShortenResult> results) {}
+
+    /**
+     * Record représentant une requête d'expansion groupée.
+     * 
+     * @param shortCodes les codes courts à résoudre
+     * @param domain le nom d'hôte du domaine court, ou null pour celui de la requête
+     */
+    public record BulkExpandRequest(List<String> shortCodes, String domain) {
+
+        /**
+         * Crée une requête sans domaine explicite.
+         * 
+         * @param shortCodes les codes courts à résoudre
+         */
+        public BulkExpandRequest(List<String> shortCodes) {
+            this(shortCodes, null);
+        }
+    }
+
+    /**
+     * Record représentant le résultat de l'expansion d'un code d'un lot.
+     * 
+     * @param shortCode le code court soumis
+     * @param originalUrl l'URL originale, ou null si le code est inconnu
+     */
+    public record BulkExpandResult(String shortCode, String originalUrl) {}
+
+    /**
+     * Record représentant la réponse d'une expansion groupée.
+     * 
+     * @param results les résultats, dans l'ordre de la requête
+     */
+    public record BulkExpandResponse(List<BulkExpandResult> results) {}
 }
 
 
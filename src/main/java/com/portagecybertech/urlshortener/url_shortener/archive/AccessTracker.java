@@ -0,0 +1,159 @@
+package com.portagecybertech.urlshortener.url_shortener.archive;
+
+import com.portagecybertech.urlshortener.url_shortener.repository.UrlMappingRepository;
+import com.portagecybertech.urlshortener.url_shortener.service.DomainRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Suivi approximatif des accès aux mappings, pour l'archivage des mappings inactifs.
+ *
+ * <p>Une résolution ne fait qu'ajouter son code à un ensemble en mémoire (sans écriture
+ * si le code y est déjà) ; la colonne {@code last_accessed_at} est mise à jour par lots
+ * à intervalle régulier. La précision visée est celle de l'archivage (des jours), pas
+ * celle de la seconde : au-delà de {@code app.archive.access-max-pending} codes en attente,
+ * les nouveaux accès sont ignorés jusqu'au prochain lot.
+ *
+ * <p>Comme l'archivage, le suivi ne concerne que le domaine par défaut.
+ *
+ * <p>Inactif lorsque {@code app.archive.enabled=false}.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ * @see ArchiveTiering
+ */
+@Component
+public class AccessTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(AccessTracker.class);
+
+    /**
+     * Nombre de codes mis à jour par requête.
+     */
+    private static final int CHUNK_SIZE = 500;
+
+    private final boolean enabled;
+
+    private final int maxPending;
+
+    private final UrlMappingRepository urlMappingRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Codes consultés depuis le dernier lot.
+     */
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Planificateur des lots, null si le suivi est désactivé.
+     */
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Constructeur principal, alimenté par les propriétés {@code app.archive.*}.
+     *
+     * @param enabled true si l'archivage est activé
+     * @param flushIntervalMillis l'intervalle entre deux lots de mises à jour
+     * @param maxPending le nombre maximal de codes en attente
+     * @param urlMappingRepository le repository des mappings
+     * @param transactionManager le gestionnaire de transactions
+     */
+    public AccessTracker(@Value("${app.archive.enabled:false}") boolean enabled,
+                         @Value("${app.archive.access-flush-interval-ms:60000}") long flushIntervalMillis,
+                         @Value("${app.archive.access-max-pending:100000}") int maxPending,
+                         UrlMappingRepository urlMappingRepository,
+                         PlatformTransactionManager transactionManager) {
+        this.enabled = enabled;
+        this.maxPending = maxPending;
+        this.urlMappingRepository = urlMappingRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        if (enabled) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "archive-access-tracker");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(this::flushSafely, flushIntervalMillis, flushIntervalMillis,
+                    TimeUnit.MILLISECONDS);
+        } else {
+            this.scheduler = null;
+        }
+    }
+
+    /**
+     * Enregistre l'accès à un code court.
+     *
+     * @param shortCode le code court résolu
+     */
+    public void record(String shortCode) {
+        if (enabled && !pending.contains(shortCode) && pending.size() < maxPending) {
+            pending.add(shortCode);
+        }
+    }
+
+    /**
+     * Retourne le nombre de codes en attente de mise à jour.
+     *
+     * @return le nombre de codes en attente
+     */
+    public int pendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Écrit la date d'accès des codes en attente.
+     *
+     * @return le nombre de mappings mis à jour
+     */
+    public int flush() {
+        Instant now = Instant.now();
+        int updated = 0;
+        List<String> chunk = new ArrayList<>(CHUNK_SIZE);
+        Iterator<String> it = pending.iterator();
+        while (it.hasNext()) {
+            chunk.add(it.next());
+            it.remove();
+            if (chunk.size() == CHUNK_SIZE || !it.hasNext()) {
+                List<String> codes = List.copyOf(chunk);
+                updated += transactionTemplate.execute(status -> urlMappingRepository.touch(DomainRegistry.DEFAULT_DOMAIN_ID, codes, now));
+                chunk.clear();
+            }
+        }
+        return updated;
+    }
+
+    /**
+     * Arrête les mises à jour périodiques.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Access time flush failed; some mappings may be archived earlier than expected", e);
+        }
+    }
+}
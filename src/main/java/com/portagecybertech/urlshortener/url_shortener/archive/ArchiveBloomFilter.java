@@ -0,0 +1,149 @@
+package com.portagecybertech.urlshortener.url_shortener.archive;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Filtre de Bloom des codes d'un segment d'archive.
+ *
+ * <p>Les codes aléatoires tombent presque toujours dans l'intervalle de clés de chaque
+ * segment : sans filtre, chaque recherche lirait et décompresserait un bloc par segment.
+ * Le filtre écarte en mémoire les codes absents (environ 1 % de faux positifs avec
+ * {@value #BITS_PER_ENTRY} bits par entrée), de sorte qu'une recherche infructueuse ne
+ * touche aucun bloc.
+ *
+ * <p>Le hachage est fixé par le format des segments : le modifier imposerait une
+ * nouvelle version de {@link ArchiveSegmentWriter}.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ * @see ArchiveSegment
+ */
+final class ArchiveBloomFilter {
+
+    /**
+     * Bits alloués par entrée.
+     */
+    static final int BITS_PER_ENTRY = 10;
+
+    /**
+     * Nombre de fonctions de hachage, optimal pour {@value #BITS_PER_ENTRY} bits par entrée.
+     */
+    static final int HASH_COUNT = 7;
+
+    private final long[] words;
+
+    private final int hashCount;
+
+    private ArchiveBloomFilter(long[] words, int hashCount) {
+        this.words = words;
+        this.hashCount = hashCount;
+    }
+
+    /**
+     * Crée un filtre vide dimensionné pour un nombre d'entrées.
+     *
+     * @param expectedEntries le nombre d'entrées attendu
+     * @return le filtre vide
+     */
+    static ArchiveBloomFilter create(long expectedEntries) {
+        long bits = Math.max(64, expectedEntries * BITS_PER_ENTRY);
+        return new ArchiveBloomFilter(new long[(int) Math.min(Integer.MAX_VALUE - 8, (bits + 63) >>> 6)], HASH_COUNT);
+    }
+
+    /**
+     * Ajoute un code au filtre.
+     *
+     * @param shortCode le code court
+     */
+    void add(String shortCode) {
+        long hash = hash(shortCode);
+        long h1 = mix(hash);
+        long h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+        long bitCount = (long) words.length << 6;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            words[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    /**
+     * Indique si un code peut appartenir au segment.
+     *
+     * @param shortCode le code court
+     * @return false si le code est certainement absent
+     */
+    boolean mightContain(String shortCode) {
+        long hash = hash(shortCode);
+        long h1 = mix(hash);
+        long h2 = mix(hash ^ 0x9E3779B97F4A7C15L) | 1;
+        long bitCount = (long) words.length << 6;
+        for (int i = 0; i < hashCount; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bitCount);
+            if ((words[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Écrit le filtre : int nombre de hachages, int nombre de mots, puis les mots.
+     *
+     * @param out la sortie
+     * @throws IOException en cas d'erreur d'écriture
+     */
+    void writeTo(DataOutput out) throws IOException {
+        out.writeInt(hashCount);
+        out.writeInt(words.length);
+        for (long word : words) {
+            out.writeLong(word);
+        }
+    }
+
+    /**
+     * Relit un filtre écrit par {@link #writeTo(DataOutput)}.
+     *
+     * @param in l'entrée
+     * @return le filtre
+     * @throws IOException en cas d'erreur de lecture ou de filtre invalide
+     */
+    static ArchiveBloomFilter readFrom(DataInput in) throws IOException {
+        int hashCount = in.readInt();
+        int wordCount = in.readInt();
+        if (hashCount <= 0 || wordCount <= 0) {
+            throw new IOException("Invalid archive bloom filter");
+        }
+        long[] words = new long[wordCount];
+        for (int i = 0; i < wordCount; i++) {
+            words[i] = in.readLong();
+        }
+        return new ArchiveBloomFilter(words, hashCount);
+    }
+
+    /**
+     * FNV-1a 64 bits sur les caractères du code.
+     */
+    private static long hash(String shortCode) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < shortCode.length(); i++) {
+            hash ^= shortCode.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Finaliseur de MurmurHash3 (fmix64).
+     */
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,14 @@
+package com.portagecybertech.urlshortener.url_shortener.archive;
+
+/**
+ * Entrée d'un segment d'archive.
+ *
+ * @param shortCode le code court
+ * @param originalUrl l'URL originale complète
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ */
+public record ArchiveEntry(String shortCode, String originalUrl) {
+}
@@ -0,0 +1,278 @@
+package com.portagecybertech.urlshortener.url_shortener.archive;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Lecture d'un segment d'archive écrit par {@link ArchiveSegmentWriter}.
+ *
+ * <p>Seuls l'index clairsemé (premier code de chaque bloc) et le filtre de Bloom des
+ * codes sont chargés en mémoire. Une recherche consulte d'abord le filtre
+ * ({@link #mightContain(String)}), trouve ensuite le bloc candidat par dichotomie sur
+ * l'index, puis parcourt ce seul bloc décompressé. Le filtre d'un segment de
+ * version 1, qui n'en contient pas, est reconstruit à l'ouverture en parcourant ses blocs. Les blocs sont lus par lectures positionnelles : une instance peut
+ * être partagée entre threads.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ */
+public final class ArchiveSegment implements Closeable {
+
+    private final Path path;
+
+    private final FileChannel channel;
+
+    /**
+     * Premier code de chaque bloc.
+     */
+    private final String[] firstKeys;
+
+    private final long[] offsets;
+
+    private final int[] compressedLengths;
+
+    private final int[] rawLengths;
+
+    /**
+     * Dernier code du segment.
+     */
+    private final String lastKey;
+
+    private final long entryCount;
+
+    /**
+     * Filtre de Bloom des codes du segment.
+     */
+    private final ArchiveBloomFilter filter;
+
+    private ArchiveSegment(Path path, FileChannel channel, String[] firstKeys, long[] offsets,
+                           int[] compressedLengths, int[] rawLengths, String lastKey, long entryCount,
+                           ArchiveBloomFilter filter) throws IOException {
+        this.path = path;
+        this.channel = channel;
+        this.firstKeys = firstKeys;
+        this.offsets = offsets;
+        this.compressedLengths = compressedLengths;
+        this.rawLengths = rawLengths;
+        this.lastKey = lastKey;
+        this.entryCount = entryCount;
+        this.filter = filter != null ? filter : rebuildFilter();
+    }
+
+    /**
+     * Ouvre un segment et charge son index.
+     *
+     * @param path le fichier du segment
+     * @return le segment ouvert
+     * @throws IOException si le fichier est illisible, tronqué ou d'un format inconnu
+     */
+    public static ArchiveSegment open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size < 8 + ArchiveSegmentWriter.FOOTER_BYTES) {
+                throw new IOException("Truncated archive segment " + path);
+            }
+            DataInputStream header = new DataInputStream(new ByteArrayInputStream(read(channel, 0, 8)));
+            int version = header.readInt() == ArchiveSegmentWriter.MAGIC ? header.readInt() : -1;
+            if (version != ArchiveSegmentWriter.VERSION && version != ArchiveSegmentWriter.VERSION_WITHOUT_FILTER) {
+                throw new IOException("Unknown archive segment format " + path);
+            }
+            DataInputStream footer = new DataInputStream(new ByteArrayInputStream(
+                    read(channel, size - ArchiveSegmentWriter.FOOTER_BYTES, ArchiveSegmentWriter.FOOTER_BYTES)));
+            long indexOffset = footer.readLong();
+            long entryCount = footer.readLong();
+            if (footer.readInt() != ArchiveSegmentWriter.MAGIC || indexOffset < 8
+                    || indexOffset > size - ArchiveSegmentWriter.FOOTER_BYTES) {
+                throw new IOException("Corrupted archive segment footer " + path);
+            }
+            DataInputStream index = new DataInputStream(new ByteArrayInputStream(
+                    read(channel, indexOffset, (int) (size - ArchiveSegmentWriter.FOOTER_BYTES - indexOffset))));
+            int blockCount = index.readInt();
+            String[] firstKeys = new String[blockCount];
+            long[] offsets = new long[blockCount];
+            int[] compressedLengths = new int[blockCount];
+            int[] rawLengths = new int[blockCount];
+            for (int i = 0; i < blockCount; i++) {
+                firstKeys[i] = index.readUTF();
+                offsets[i] = index.readLong();
+                compressedLengths[i] = index.readInt();
+                rawLengths[i] = index.readInt();
+            }
+            String lastKey = index.readUTF();
+            ArchiveBloomFilter filter = version == ArchiveSegmentWriter.VERSION_WITHOUT_FILTER
+                    ? null : ArchiveBloomFilter.readFrom(index);
+            return new ArchiveSegment(path, channel, firstKeys, offsets, compressedLengths, rawLengths,
+                    lastKey, entryCount, filter);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e instanceof IOException io ? io : new IOException("Corrupted archive segment " + path, e);
+        }
+    }
+
+    /**
+     * Retourne le fichier du segment.
+     *
+     * @return le chemin du segment
+     */
+    public Path path() {
+        return path;
+    }
+
+    /**
+     * Retourne le nombre d'entrées du segment.
+     *
+     * @return le nombre d'entrées
+     */
+    public long entryCount() {
+        return entryCount;
+    }
+
+    /**
+     * Retourne le nombre de blocs du segment.
+     *
+     * @return le nombre de blocs
+     */
+    public int blockCount() {
+        return firstKeys.length;
+    }
+
+    /**
+     * Indique, sans lire de bloc, si un code court peut appartenir au segment.
+     *
+     * @param shortCode le code court recherché
+     * @return false si le code est certainement absent du segment
+     */
+    public boolean mightContain(String shortCode) {
+        return filter.mightContain(shortCode);
+    }
+
+    /**
+     * Trouve le seul bloc pouvant contenir un code court.
+     *
+     * @param shortCode le code court recherché
+     * @return l'indice du bloc, ou -1 si le code est hors de l'intervalle du segment
+     */
+    public int blockFor(String shortCode) {
+        if (firstKeys.length == 0 || shortCode.compareTo(firstKeys[0]) < 0 || shortCode.compareTo(lastKey) > 0) {
+            return -1;
+        }
+        int low = 0;
+        int high = firstKeys.length - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (firstKeys[mid].compareTo(shortCode) <= 0) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Lit et décompresse un bloc.
+     *
+     * @param block l'indice du bloc
+     * @return le contenu décompressé du bloc
+     * @throws IOException en cas d'erreur de lecture ou de données corrompues
+     */
+    public byte[] readBlock(int block) throws IOException {
+        byte[] compressed = read(channel, offsets[block], compressedLengths[block]);
+        byte[] raw = new byte[rawLengths[block]];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            int length = 0;
+            while (length < raw.length && !inflater.finished()) {
+                int n = inflater.inflate(raw, length, raw.length - length);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += n;
+            }
+            if (length != raw.length) {
+                throw new IOException("Corrupted archive block " + block + " in " + path);
+            }
+            return raw;
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupted archive block " + block + " in " + path, e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Recherche un code court dans un bloc décompressé.
+     *
+     * <p>Les entrées étant triées, le parcours s'arrête au premier code supérieur.
+     *
+     * @param block le contenu décompressé d'un bloc
+     * @param shortCode le code court recherché
+     * @return l'URL originale, ou null si le code est absent du bloc
+     */
+    public static String findInBlock(byte[] block, String shortCode) {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(block));
+        try {
+            while (in.available() > 0) {
+                int cmp = in.readUTF().compareTo(shortCode);
+                if (cmp == 0) {
+                    return in.readUTF();
+                }
+                if (cmp > 0) {
+                    return null;
+                }
+                in.skipBytes(in.readUnsignedShort());
+            }
+            return null;
+        } catch (IOException e) {
+            throw new IllegalStateException("Corrupted archive block", e);
+        }
+    }
+
+    /**
+     * Reconstruit le filtre d'un segment de version 1 en parcourant tous ses blocs.
+     * Appelée par le constructeur, une fois l'index affecté.
+     */
+    private ArchiveBloomFilter rebuildFilter() throws IOException {
+        ArchiveBloomFilter rebuilt = ArchiveBloomFilter.create(entryCount);
+        for (int block = 0; block < firstKeys.length; block++) {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(readBlock(block)));
+            while (in.available() > 0) {
+                rebuilt.add(in.readUTF());
+                in.skipBytes(in.readUnsignedShort());
+            }
+        }
+        return rebuilt;
+    }
+
+    /**
+     * Ferme le fichier du segment.
+     *
+     * @throws IOException en cas d'erreur de fermeture
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private static byte[] read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException();
+            }
+        }
+        return buffer.array();
+    }
+}
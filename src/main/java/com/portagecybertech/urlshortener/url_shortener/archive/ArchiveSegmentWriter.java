@@ -0,0 +1,177 @@
+package com.portagecybertech.urlshortener.url_shortener.archive;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.Deflater;
+
+/**
+ * Écriture des segments d'archive : fichiers immuables, triés par code court,
+ * compressés par blocs et munis d'un index clairsemé.
+ *
+ * <p><strong>Format :</strong>
+ * <pre>
+ * en-tête : int MAGIC, int VERSION
+ * blocs   : données Deflate ; chaque bloc décompressé est une suite de
+ *           (UTF code court, UTF URL originale), triée par code court
+ * index   : int nombre de blocs, puis pour chaque bloc
+ *           (UTF premier code, long position, int taille compressée, int taille brute),
+ *           puis UTF dernier code du segment
+ * filtre  : filtre de Bloom des codes (voir {@link ArchiveBloomFilter#writeTo}),
+ *           absent des segments de version 1
+ * pied    : long position de l'index, long nombre d'entrées, int MAGIC
+ * </pre>
+ *
+ * <p>Le segment est écrit dans un fichier temporaire, synchronisé sur disque puis
+ * renommé atomiquement : un segment visible est toujours complet.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ * @see ArchiveSegment
+ */
+public final class ArchiveSegmentWriter {
+
+    /**
+     * Signature des segments ("URLA").
+     */
+    static final int MAGIC = 0x55524C41;
+
+    /**
+     * Version du format.
+     */
+    static final int VERSION = 2;
+
+    /**
+     * Version du format sans filtre de Bloom, encore lue.
+     */
+    static final int VERSION_WITHOUT_FILTER = 1;
+
+    /**
+     * Taille du pied de segment, en octets.
+     */
+    static final int FOOTER_BYTES = 8 + 8 + 4;
+
+    private ArchiveSegmentWriter() {
+    }
+
+    /**
+     * Écrit un segment.
+     *
+     * @param target le fichier du segment, qui ne doit pas exister
+     * @param entries les entrées, non vides et triées par code court sans doublon
+     * @param blockSize la taille visée d'un bloc décompressé, en octets
+     * @throws IOException en cas d'erreur d'écriture
+     * @throws IllegalArgumentException si les entrées sont vides ou mal triées
+     */
+    public static void write(Path target, List<ArchiveEntry> entries, int blockSize) throws IOException {
+        write(target, entries, blockSize, VERSION);
+    }
+
+    /**
+     * Écrit un segment dans une version donnée du format.
+     *
+     * @param target le fichier du segment, qui ne doit pas exister
+     * @param entries les entrées, non vides et triées par code court sans doublon
+     * @param blockSize la taille visée d'un bloc décompressé, en octets
+     * @param version {@link #VERSION}, ou {@link #VERSION_WITHOUT_FILTER} pour l'ancien format
+     * @throws IOException en cas d'erreur d'écriture
+     */
+    static void write(Path target, List<ArchiveEntry> entries, int blockSize, int version) throws IOException {
+        if (entries.isEmpty()) {
+            throw new IllegalArgumentException("An archive segment needs at least one entry");
+        }
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+        List<String> firstKeys = new ArrayList<>();
+        List<long[]> blocks = new ArrayList<>();
+        ArchiveBloomFilter filter = ArchiveBloomFilter.create(entries.size());
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (FileOutputStream file = new FileOutputStream(temp.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(version);
+            long position = 8;
+
+            ByteArrayOutputStream raw = new ByteArrayOutputStream(blockSize + 4096);
+            DataOutputStream block = new DataOutputStream(raw);
+            byte[] compressed = new byte[blockSize + 4096];
+            String previous = null;
+            for (ArchiveEntry entry : entries) {
+                if (previous != null && previous.compareTo(entry.shortCode()) >= 0) {
+                    throw new IllegalArgumentException("Archive entries must be sorted by short code without duplicates");
+                }
+                if (raw.size() == 0) {
+                    firstKeys.add(entry.shortCode());
+                }
+                block.writeUTF(entry.shortCode());
+                block.writeUTF(entry.originalUrl());
+                filter.add(entry.shortCode());
+                previous = entry.shortCode();
+                if (raw.size() >= blockSize) {
+                    compressed = flushBlock(raw, deflater, compressed, out, position, blocks);
+                    position += blocks.get(blocks.size() - 1)[1];
+                }
+            }
+            if (raw.size() > 0) {
+                compressed = flushBlock(raw, deflater, compressed, out, position, blocks);
+                position += blocks.get(blocks.size() - 1)[1];
+            }
+
+            long indexOffset = position;
+            out.writeInt(blocks.size());
+            for (int i = 0; i < blocks.size(); i++) {
+                out.writeUTF(firstKeys.get(i));
+                out.writeLong(blocks.get(i)[0]);
+                out.writeInt((int) blocks.get(i)[1]);
+                out.writeInt((int) blocks.get(i)[2]);
+            }
+            out.writeUTF(previous);
+            if (version != VERSION_WITHOUT_FILTER) {
+                filter.writeTo(out);
+            }
+            out.writeLong(indexOffset);
+            out.writeLong(entries.size());
+            out.writeInt(MAGIC);
+            out.flush();
+            file.getChannel().force(true);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        } finally {
+            deflater.end();
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Compresse et écrit le bloc courant, puis le vide.
+     *
+     * @return le tampon de compression, éventuellement agrandi
+     */
+    private static byte[] flushBlock(ByteArrayOutputStream raw, Deflater deflater, byte[] compressed,
+                                     DataOutputStream out, long position, List<long[]> blocks) throws IOException {
+        byte[] input = raw.toByteArray();
+        deflater.reset();
+        deflater.setInput(input);
+        deflater.finish();
+        int length = 0;
+        while (!deflater.finished()) {
+            if (length == compressed.length) {
+                compressed = Arrays.copyOf(compressed, compressed.length * 2);
+            }
+            length += deflater.deflate(compressed, length, compressed.length - length);
+        }
+        out.write(compressed, 0, length);
+        blocks.add(new long[] {position, length, input.length});
+        raw.reset();
+        return compressed;
+    }
+}
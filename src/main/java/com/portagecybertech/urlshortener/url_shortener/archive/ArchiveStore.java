@@ -0,0 +1,280 @@
+package com.portagecybertech.urlshortener.url_shortener.archive;
+
+import com.portagecybertech.urlshortener.url_shortener.model.ArchiveTombstone;
+import com.portagecybertech.urlshortener.url_shortener.repository.ArchiveTombstoneRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Stockage froid des mappings : ensemble des segments d'archive et cache de blocs.
+ *
+ * <p>Les segments présents dans {@code app.archive.dir} sont chargés au démarrage,
+ * même lorsque l'archivage est désactivé : un mapping déjà archivé reste résolvable.
+ * Une recherche consulte les segments du plus récent au plus ancien, en écartant
+ * d'abord par leur filtre de Bloom ceux qui ne contiennent pas le code : un code
+ * absent de l'archive, cas de chaque raccourcissement et de chaque 404, ne lit
+ * aucun bloc. Les blocs décompressés récemment lus sont conservés dans un petit
+ * cache LRU.
+ *
+ * <p>Les segments étant immuables, la suppression d'un code archivé est enregistrée
+ * dans {@code archive_tombstone} (voir {@link ArchiveTombstone}).
+ *
+ * <p><strong>Métriques :</strong> {@code urlshortener.archive.segments},
+ * {@code urlshortener.archive.hits}.
+ *
+ * <p><strong>Configuration :</strong> {@code app.archive.dir},
+ * {@code app.archive.block-cache-blocks}.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ * @see ArchiveTiering
+ */
+@Component
+public class ArchiveStore {
+
+    private static final Logger log = LoggerFactory.getLogger(ArchiveStore.class);
+
+    /**
+     * Extension des fichiers de segments.
+     */
+    static final String SEGMENT_SUFFIX = ".seg";
+
+    private final Path directory;
+
+    private final ArchiveTombstoneRepository archiveTombstoneRepository;
+
+    /**
+     * Segments ouverts, du plus récent au plus ancien.
+     */
+    private final List<ArchiveSegment> segments = new CopyOnWriteArrayList<>();
+
+    /**
+     * Cache LRU des blocs décompressés, protégé par son propre moniteur.
+     */
+    private final Map<BlockKey, byte[]> blockCache;
+
+    /**
+     * Résolutions servies par l'archive.
+     */
+    private final Counter hits;
+
+    /**
+     * Constructeur principal, alimenté par les propriétés {@code app.archive.*}.
+     *
+     * @param directory le répertoire des segments
+     * @param blockCacheBlocks le nombre de blocs décompressés gardés en cache
+     * @param archiveTombstoneRepository le repository des suppressions de codes archivés
+     * @param meterRegistry le registre de métriques
+     */
+    public ArchiveStore(@Value("${app.archive.dir:./data/archive}") String directory,
+                        @Value("${app.archive.block-cache-blocks:256}") int blockCacheBlocks,
+                        ArchiveTombstoneRepository archiveTombstoneRepository,
+                        MeterRegistry meterRegistry) {
+        this.directory = Paths.get(directory);
+        this.archiveTombstoneRepository = archiveTombstoneRepository;
+        this.blockCache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<BlockKey, byte[]> eldest) {
+                return size() > blockCacheBlocks;
+            }
+        };
+        this.hits = Counter.builder("urlshortener.archive.hits")
+                .description("Résolutions de codes courts servies par les segments d'archive")
+                .register(meterRegistry);
+        Gauge.builder("urlshortener.archive.segments", segments, List::size)
+                .description("Segments d'archive ouverts")
+                .register(meterRegistry);
+        loadSegments();
+    }
+
+    /**
+     * Résout un code court archivé et non supprimé.
+     *
+     * @param shortCode le code court
+     * @return l'URL originale, ou null si le code n'est pas archivé ou a été supprimé
+     */
+    public String find(String shortCode) {
+        String url = lookup(shortCode);
+        if (url == null || archiveTombstoneRepository.existsById(shortCode)) {
+            return null;
+        }
+        hits.increment();
+        return url;
+    }
+
+    /**
+     * Recherche un code court dans les segments, sans tenir compte des suppressions.
+     *
+     * <p>Sert au contrôle des collisions : un code archivé, même supprimé, n'est jamais
+     * réattribué.
+     *
+     * @param shortCode le code court
+     * @return l'URL originale archivée, ou null si le code n'a jamais été archivé
+     */
+    public String lookup(String shortCode) {
+        for (ArchiveSegment segment : segments) {
+            if (!segment.mightContain(shortCode)) {
+                continue;
+            }
+            int block = segment.blockFor(shortCode);
+            if (block >= 0) {
+                String url = ArchiveSegment.findInBlock(block(segment, block), shortCode);
+                if (url != null) {
+                    return url;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Supprime un code archivé en enregistrant sa suppression.
+     *
+     * @param shortCode le code court
+     * @return true si le code était archivé et pas encore supprimé
+     */
+    public boolean delete(String shortCode) {
+        if (lookup(shortCode) == null || archiveTombstoneRepository.existsById(shortCode)) {
+            return false;
+        }
+        archiveTombstoneRepository.save(new ArchiveTombstone(shortCode, Instant.now()));
+        return true;
+    }
+
+    /**
+     * Indique si un code archivé a été supprimé.
+     *
+     * @param shortCode le code court
+     * @return true si une suppression est enregistrée pour ce code
+     */
+    public boolean isDeleted(String shortCode) {
+        return archiveTombstoneRepository.existsById(shortCode);
+    }
+
+    /**
+     * Retourne le nombre de segments ouverts.
+     *
+     * @return le nombre de segments
+     */
+    public int segmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Réserve le chemin d'un nouveau segment, plus récent que tous les segments existants.
+     *
+     * @return le chemin du nouveau segment (le fichier n'existe pas encore)
+     * @throws IOException si le répertoire ne peut être créé
+     */
+    synchronized Path newSegmentPath() throws IOException {
+        Files.createDirectories(directory);
+        long stamp = System.currentTimeMillis();
+        Path path;
+        while (Files.exists(path = directory.resolve(String.format("segment-%019d%s", stamp, SEGMENT_SUFFIX)))) {
+            stamp++;
+        }
+        return path;
+    }
+
+    /**
+     * Ouvre un segment nouvellement écrit et le rend visible aux résolutions.
+     *
+     * @param path le fichier du segment
+     * @throws IOException si le segment est illisible
+     */
+    void addSegment(Path path) throws IOException {
+        segments.add(0, ArchiveSegment.open(path));
+    }
+
+    /**
+     * Ferme les segments.
+     */
+    @PreDestroy
+    public void close() {
+        for (ArchiveSegment segment : segments) {
+            try {
+                segment.close();
+            } catch (IOException e) {
+                log.warn("Failed to close archive segment {}", segment.path(), e);
+            }
+        }
+        segments.clear();
+    }
+
+    private byte[] block(ArchiveSegment segment, int block) {
+        BlockKey key = new BlockKey(segment, block);
+        synchronized (blockCache) {
+            byte[] cached = blockCache.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        // Décompression hors du verrou : deux lectures concurrentes du même bloc sont sans gravité
+        byte[] raw;
+        try {
+            raw = segment.readBlock(block);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        synchronized (blockCache) {
+            blockCache.put(key, raw);
+        }
+        return raw;
+    }
+
+    private void loadSegments() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        List<Path> paths = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory)) {
+            for (Path path : stream) {
+                String name = path.getFileName().toString();
+                if (name.endsWith(SEGMENT_SUFFIX)) {
+                    paths.add(path);
+                } else if (name.endsWith(SEGMENT_SUFFIX + ".tmp")) {
+                    // Segment interrompu avant son renommage : ses lignes sont encore en base
+                    Files.deleteIfExists(path);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot list archive segments in " + directory, e);
+        }
+        paths.sort(Comparator.comparing((Path path) -> path.getFileName().toString()).reversed());
+        for (Path path : paths) {
+            try {
+                segments.add(ArchiveSegment.open(path));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot open archive segment " + path, e);
+            }
+        }
+        log.info("Loaded {} archive segment(s) from {}", segments.size(), directory);
+    }
+
+    /**
+     * Clé du cache de blocs.
+     */
+    private record BlockKey(ArchiveSegment segment, int block) {
+    }
+}
@@ -0,0 +1,227 @@
+package com.portagecybertech.urlshortener.url_shortener.archive;
+
+import com.portagecybertech.urlshortener.url_shortener.model.ArchiveTombstone;
+import com.portagecybertech.urlshortener.url_shortener.model.UrlMapping;
+import com.portagecybertech.urlshortener.url_shortener.repository.ArchiveTombstoneRepository;
+import com.portagecybertech.urlshortener.url_shortener.repository.UrlMappingRepository;
+import com.portagecybertech.urlshortener.url_shortener.service.DomainRegistry;
+import com.portagecybertech.urlshortener.url_shortener.service.UrlPrefixDictionary;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Archivage des mappings inactifs hors de la base.
+ *
+ * <p>À intervalle régulier, les mappings dont le dernier accès (à défaut, la création)
+ * est plus ancien que {@code app.archive.cold-after-days} sont écrits dans un nouveau
+ * segment immuable (voir {@link ArchiveSegmentWriter}), puis supprimés de
+ * {@code url_mapping}. La base et ses index ne contiennent ainsi que les mappings
+ * vivants, tandis que les mappings archivés restent résolvables par {@link ArchiveStore}.
+ *
+ * <p><strong>Ordre des opérations :</strong> le segment est rendu durable et visible
+ * avant la suppression des lignes ; un arrêt entre les deux laisse au pire un mapping
+ * présent à la fois en base et en archive, la base restant prioritaire. Un mapping
+ * supprimé pendant l'écriture du segment est enregistré comme supprimé dans l'archive.
+ *
+ * <p>Les lignes antérieures à la colonne {@code created_at} sont datées lors du premier
+ * passage et deviennent archivables après le délai configuré.
+ *
+ * <p>Les segments sont indexés par code court seul : seuls les mappings du domaine
+ * par défaut sont archivés, ceux des autres domaines restent en base.
+ *
+ * <p><strong>Métriques :</strong> {@code urlshortener.archive.archived}.
+ *
+ * <p><strong>Configuration :</strong> {@code app.archive.*} (désactivé par défaut).
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ * @see AccessTracker
+ */
+@Component
+public class ArchiveTiering {
+
+    private static final Logger log = LoggerFactory.getLogger(ArchiveTiering.class);
+
+    /**
+     * Nombre de codes par requête lors de la suppression des lignes archivées.
+     */
+    private static final int CHUNK_SIZE = 1000;
+
+    private final Duration coldAfter;
+
+    private final int maxPerRun;
+
+    private final int blockSize;
+
+    private final ArchiveStore archiveStore;
+
+    private final UrlMappingRepository urlMappingRepository;
+
+    private final ArchiveTombstoneRepository archiveTombstoneRepository;
+
+    private final UrlPrefixDictionary urlPrefixDictionary;
+
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Mappings archivés.
+     */
+    private final Counter archived;
+
+    /**
+     * Planificateur de l'archivage périodique, null si l'archivage est désactivé.
+     */
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Constructeur principal, alimenté par les propriétés {@code app.archive.*}.
+     *
+     * @param enabled true pour activer l'archivage périodique
+     * @param coldAfterDays l'inactivité, en jours, au-delà de laquelle un mapping est archivé
+     * @param intervalMillis l'intervalle entre deux passages
+     * @param maxPerRun le nombre maximal de mappings archivés par passage (et par segment)
+     * @param blockSize la taille visée d'un bloc décompressé, en octets
+     * @param archiveStore le stockage des segments
+     * @param urlMappingRepository le repository des mappings
+     * @param archiveTombstoneRepository le repository des suppressions de codes archivés
+     * @param urlPrefixDictionary le dictionnaire des préfixes, pour reconstituer les URLs
+     * @param transactionManager le gestionnaire de transactions
+     * @param meterRegistry le registre de métriques
+     */
+    public ArchiveTiering(@Value("${app.archive.enabled:false}") boolean enabled,
+                          @Value("${app.archive.cold-after-days:30}") long coldAfterDays,
+                          @Value("${app.archive.interval-ms:3600000}") long intervalMillis,
+                          @Value("${app.archive.max-per-run:100000}") int maxPerRun,
+                          @Value("${app.archive.block-size:16384}") int blockSize,
+                          ArchiveStore archiveStore,
+                          UrlMappingRepository urlMappingRepository,
+                          ArchiveTombstoneRepository archiveTombstoneRepository,
+                          UrlPrefixDictionary urlPrefixDictionary,
+                          PlatformTransactionManager transactionManager,
+                          MeterRegistry meterRegistry) {
+        this.coldAfter = Duration.ofDays(coldAfterDays);
+        this.maxPerRun = maxPerRun;
+        this.blockSize = blockSize;
+        this.archiveStore = archiveStore;
+        this.urlMappingRepository = urlMappingRepository;
+        this.archiveTombstoneRepository = archiveTombstoneRepository;
+        this.urlPrefixDictionary = urlPrefixDictionary;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.archived = Counter.builder("urlshortener.archive.archived")
+                .description("Mappings déplacés de la base vers les segments d'archive")
+                .register(meterRegistry);
+        if (enabled) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "archive-tiering");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(this::runSafely, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.scheduler = null;
+        }
+    }
+
+    /**
+     * Archive les mappings inactifs depuis plus de {@code app.archive.cold-after-days}.
+     *
+     * @return le nombre de mappings archivés
+     */
+    public int runOnce() {
+        return runOnce(Instant.now().minus(coldAfter));
+    }
+
+    /**
+     * Archive les mappings dont le dernier accès (à défaut, la création) précède une date.
+     *
+     * @param cutoff la date limite
+     * @return le nombre de mappings archivés
+     */
+    public synchronized int runOnce(Instant cutoff) {
+        transactionTemplate.execute(status -> urlMappingRepository.stampMissingCreatedAt(Instant.now()));
+        List<UrlMapping> cold = urlMappingRepository.findColdMappings(DomainRegistry.DEFAULT_DOMAIN_ID, cutoff, Limit.of(maxPerRun));
+        if (cold.isEmpty()) {
+            return 0;
+        }
+        List<ArchiveEntry> entries = new ArrayList<>(cold.size());
+        for (UrlMapping mapping : cold) {
+            entries.add(new ArchiveEntry(mapping.getShortCode(),
+                    urlPrefixDictionary.expand(mapping.getPrefixId(), mapping.getUrlSuffix())));
+        }
+        // L'ordre de la base dépend de sa collation : le segment suit l'ordre de String.compareTo
+        entries.sort(Comparator.comparing(ArchiveEntry::shortCode));
+
+        try {
+            Path path = archiveStore.newSegmentPath();
+            ArchiveSegmentWriter.write(path, entries, blockSize);
+            archiveStore.addSegment(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write archive segment", e);
+        }
+
+        List<Long> ids = cold.stream().map(UrlMapping::getId).toList();
+        transactionTemplate.executeWithoutResult(status -> {
+            Set<String> remaining = new HashSet<>();
+            for (int from = 0; from < entries.size(); from += CHUNK_SIZE) {
+                List<String> codes = entries.subList(from, Math.min(from + CHUNK_SIZE, entries.size())).stream()
+                        .map(ArchiveEntry::shortCode)
+                        .toList();
+                remaining.addAll(urlMappingRepository.findExistingShortCodes(DomainRegistry.DEFAULT_DOMAIN_ID, codes));
+            }
+            Instant now = Instant.now();
+            for (ArchiveEntry entry : entries) {
+                if (!remaining.contains(entry.shortCode())) {
+                    // Supprimé depuis la lecture : le segment ne doit pas le faire réapparaître
+                    archiveTombstoneRepository.save(new ArchiveTombstone(entry.shortCode(), now));
+                }
+            }
+            for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+                urlMappingRepository.deleteAllByIdInBatch(ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size())));
+            }
+        });
+        archived.increment(entries.size());
+        log.info("Archived {} cold mapping(s) last accessed before {}", entries.size(), cutoff);
+        return entries.size();
+    }
+
+    /**
+     * Arrête l'archivage périodique.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private void runSafely() {
+        try {
+            runOnce();
+        } catch (RuntimeException e) {
+            log.warn("Archive tiering run failed; cold mappings stay in the database until the next run", e);
+        }
+    }
+}
@@ -0,0 +1,680 @@
+package com.portagecybertech.urlshortener.url_shortener.health;
+
+import com.portagecybertech.urlshortener.url_shortener.model.DestinationStatus;
+import com.portagecybertech.urlshortener.url_shortener.model.UrlMapping;
+import com.portagecybertech.urlshortener.url_shortener.repository.DestinationStatusRepository;
+import com.portagecybertech.urlshortener.url_shortener.repository.UrlMappingRepository;
+import com.portagecybertech.urlshortener.url_shortener.service.UrlPrefixDictionary;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Vérification périodique des destinations des mappings.
+ *
+ * <p>Une vérification complète parcourt {@code url_mapping} par pages (pagination par clé)
+ * et sonde chaque destination en parallèle :
+ * <ul>
+ *   <li><strong>Parallélisme borné :</strong> au plus {@code max-concurrency} sondes en
+ *       cours ; la lecture des pages attend qu'une sonde se termine, la mémoire reste
+ *       donc constante quel que soit le nombre de mappings</li>
+ *   <li><strong>Par hôte :</strong> au plus {@code per-host} sondes simultanées vers un
+ *       même hôte, pour ne pas inonder un site qui héberge beaucoup de destinations. Le
+ *       jeton de l'hôte est pris avant la place globale, par le thread qui lit les pages :
+ *       les destinations d'un hôte saturé sont mises de côté (au plus
+ *       {@code max-concurrency}) et relancées dès qu'une de ses sondes se termine, sans
+ *       qu'aucun thread de sonde n'attende ; un hôte dominant ne bloque donc pas les autres</li>
+ *   <li><strong>Threads virtuels</strong> lorsque la JVM en propose (Java 21+), sinon
+ *       un pool de threads plateforme de {@code max-concurrency} threads</li>
+ *   <li><strong>Connexions réutilisées :</strong> un seul {@link HttpClient}, qui garde
+ *       les connexions ouvertes vers chaque hôte</li>
+ *   <li><strong>HEAD puis GET :</strong> une requête HEAD suffit en général ; un statut
+ *       d'erreur autre que 404 ou 410 est revérifié par un GET limité au premier octet,
+ *       certains serveurs refusant HEAD</li>
+ *   <li><strong>Délais adaptatifs :</strong> le délai d'une sonde vaut quatre fois la
+ *       latence moyenne observée pour l'hôte (à défaut, pour l'ensemble des hôtes),
+ *       entre {@code min-timeout-ms} et {@code max-timeout-ms} ; un hôte lent ou mort
+ *       n'immobilise ainsi pas ses sondes plus que nécessaire</li>
+ *   <li><strong>Une relance :</strong> une requête qui échoue sur une erreur d'entrée/sortie
+ *       (connexion réutilisée fermée entre-temps par le serveur, par exemple) est relancée
+ *       une fois</li>
+ *   <li><strong>Redirections suivies à la main :</strong> au plus {@value #MAX_REDIRECTS},
+ *       en HTTP ou HTTPS, jamais de HTTPS vers HTTP (la réponse de redirection fait alors
+ *       foi)</li>
+ * </ul>
+ *
+ * <p><strong>Adresses privées :</strong> les destinations sont choisies par les clients du
+ * service. Sauf avec {@code allow-private=true}, une destination dont l'hôte se résout
+ * en adresse de bouclage, locale au lien (dont {@code 169.254.169.254}, les métadonnées
+ * des clouds), privée ou non spécifiée n'est pas sondée : elle est comptée comme ignorée
+ * et n'a pas d'état. Chaque redirection est soumise à la même règle : une destination
+ * publique qui redirige vers une adresse privée est enregistrée en échec, sans que
+ * l'adresse privée soit contactée. La résolution est refaite par le client HTTP ; un DNS
+ * qui change de réponse entre les deux n'est pas couvert.
+ *
+ * <p>Les résultats sont écrits par lots de {@code write-batch} dans
+ * {@code destination_status} ({@link DestinationStatus}). Une vérification complète
+ * supprime ensuite les états des mappings disparus.
+ *
+ * <p><strong>Métriques :</strong> {@code urlshortener.health.checked},
+ * {@code urlshortener.health.unhealthy}, {@code urlshortener.health.skipped},
+ * {@code urlshortener.health.in-flight},
+ * {@code urlshortener.health.sweep.seconds}.
+ *
+ * <p><strong>Configuration :</strong> {@code app.health-check.*} (désactivé par défaut).
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ */
+@Component
+public class DestinationHealthChecker {
+
+    private static final Logger log = LoggerFactory.getLogger(DestinationHealthChecker.class);
+
+    private static final String USER_AGENT = "url-shortener-health-check/1.0";
+
+    /**
+     * Multiplicateur appliqué à la latence moyenne pour obtenir le délai d'une sonde.
+     */
+    private static final int TIMEOUT_FACTOR = 4;
+
+    /**
+     * Poids d'une nouvelle mesure dans la latence moyenne.
+     */
+    private static final double LATENCY_WEIGHT = 0.2;
+
+    /**
+     * Nombre maximal de redirections suivies par une sonde.
+     */
+    static final int MAX_REDIRECTS = 5;
+
+    private final int pageSize;
+
+    private final int maxConcurrency;
+
+    private final int perHost;
+
+    private final long minTimeoutMillis;
+
+    private final long maxTimeoutMillis;
+
+    private final int writeBatch;
+
+    private final boolean allowPrivate;
+
+    private final UrlMappingRepository urlMappingRepository;
+
+    private final DestinationStatusRepository destinationStatusRepository;
+
+    private final UrlPrefixDictionary urlPrefixDictionary;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final HttpClient httpClient;
+
+    /**
+     * Exécuteur des sondes : threads virtuels ou pool borné.
+     */
+    private final ExecutorService probes;
+
+    /**
+     * Latence moyenne de l'ensemble des hôtes, délai initial d'un hôte inconnu.
+     */
+    private final Latency globalLatency = new Latency();
+
+    private final Counter checked;
+
+    private final Counter unhealthy;
+
+    private final Counter skipped;
+
+    /**
+     * Sondes en cours.
+     */
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile double lastSweepSeconds;
+
+    /**
+     * Planificateur des vérifications périodiques, null si elles sont désactivées.
+     */
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Constructeur principal, alimenté par les propriétés {@code app.health-check.*}.
+     *
+     * @param enabled true pour activer la vérification périodique
+     * @param intervalMillis l'intervalle entre deux vérifications complètes
+     * @param pageSize le nombre de mappings lus par page
+     * @param maxConcurrency le nombre maximal de sondes simultanées
+     * @param perHost le nombre maximal de sondes simultanées vers un même hôte
+     * @param connectTimeoutMillis le délai d'établissement d'une connexion
+     * @param minTimeoutMillis le délai minimal d'une sonde
+     * @param maxTimeoutMillis le délai maximal d'une sonde, et celui d'un premier contact
+     * @param writeBatch le nombre de résultats écrits par transaction
+     * @param allowPrivate true pour sonder aussi les adresses privées et de bouclage
+     * @param urlMappingRepository le repository des mappings
+     * @param destinationStatusRepository le repository des états des destinations
+     * @param urlPrefixDictionary le dictionnaire des préfixes, pour reconstituer les URLs
+     * @param transactionManager le gestionnaire de transactions
+     * @param meterRegistry le registre de métriques
+     */
+    @Autowired
+    public DestinationHealthChecker(@Value("${app.health-check.enabled:false}") boolean enabled,
+                                    @Value("${app.health-check.interval-ms:86400000}") long intervalMillis,
+                                    @Value("${app.health-check.page-size:1000}") int pageSize,
+                                    @Value("${app.health-check.max-concurrency:256}") int maxConcurrency,
+                                    @Value("${app.health-check.per-host:4}") int perHost,
+                                    @Value("${app.health-check.connect-timeout-ms:3000}") long connectTimeoutMillis,
+                                    @Value("${app.health-check.min-timeout-ms:1000}") long minTimeoutMillis,
+                                    @Value("${app.health-check.max-timeout-ms:10000}") long maxTimeoutMillis,
+                                    @Value("${app.health-check.write-batch:500}") int writeBatch,
+                                    @Value("${app.health-check.allow-private:false}") boolean allowPrivate,
+                                    UrlMappingRepository urlMappingRepository,
+                                    DestinationStatusRepository destinationStatusRepository,
+                                    UrlPrefixDictionary urlPrefixDictionary,
+                                    PlatformTransactionManager transactionManager,
+                                    MeterRegistry meterRegistry) {
+        this.pageSize = pageSize;
+        this.maxConcurrency = maxConcurrency;
+        this.perHost = perHost;
+        this.minTimeoutMillis = minTimeoutMillis;
+        this.maxTimeoutMillis = maxTimeoutMillis;
+        this.writeBatch = writeBatch;
+        this.allowPrivate = allowPrivate;
+        this.urlMappingRepository = urlMappingRepository;
+        this.destinationStatusRepository = destinationStatusRepository;
+        this.urlPrefixDictionary = urlPrefixDictionary;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.probes = newProbeExecutor(maxConcurrency);
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(connectTimeoutMillis))
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+        this.checked = Counter.builder("urlshortener.health.checked")
+                .description("Destinations vérifiées")
+                .register(meterRegistry);
+        this.unhealthy = Counter.builder("urlshortener.health.unhealthy")
+                .description("Destinations vérifiées injoignables ou en erreur")
+                .register(meterRegistry);
+        this.skipped = Counter.builder("urlshortener.health.skipped")
+                .description("Destinations non sondées car leur hôte est une adresse privée")
+                .register(meterRegistry);
+        Gauge.builder("urlshortener.health.in-flight", inFlight, AtomicInteger::get)
+                .description("Sondes de destinations en cours")
+                .register(meterRegistry);
+        Gauge.builder("urlshortener.health.sweep.seconds", this, checker -> checker.lastSweepSeconds)
+                .description("Durée de la dernière vérification complète")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        if (enabled) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "destination-health");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(this::sweepSafely, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.scheduler = null;
+        }
+    }
+
+    /**
+     * Vérifie les destinations de tous les mappings.
+     *
+     * @return le bilan de la vérification
+     * @throws InterruptedException si la vérification est interrompue
+     */
+    public SweepResult sweep() throws InterruptedException {
+        Instant startedAt = Instant.now();
+        SweepResult result = sweepAfter(0);
+        int removed = transactionTemplate.execute(status -> destinationStatusRepository.deleteCheckedBefore(startedAt));
+        if (removed > 0) {
+            log.info("Removed {} destination status(es) of deleted mappings", removed);
+        }
+        return result;
+    }
+
+    /**
+     * Vérifie les destinations des mappings d'identifiant supérieur à un curseur.
+     *
+     * @param afterId l'identifiant à partir duquel reprendre (exclu)
+     * @return le bilan de la vérification
+     * @throws InterruptedException si la vérification est interrompue
+     */
+    synchronized SweepResult sweepAfter(long afterId) throws InterruptedException {
+        long start = System.nanoTime();
+        Dispatcher dispatcher = new Dispatcher();
+        int[] totals = new int[3];
+        long cursor = afterId;
+        try {
+            while (true) {
+                List<UrlMapping> page = urlMappingRepository.findByIdGreaterThanOrderByIdAsc(cursor, Limit.of(pageSize));
+                if (page.isEmpty()) {
+                    break;
+                }
+                for (UrlMapping mapping : page) {
+                    dispatcher.submit(mapping);
+                }
+                cursor = page.get(page.size() - 1).getId();
+                if (dispatcher.results.size() >= writeBatch) {
+                    write(dispatcher.results, totals);
+                }
+            }
+            dispatcher.drain();
+        } finally {
+            // Les sondes lancées se terminent et sont enregistrées, même en cas d'interruption
+            dispatcher.awaitRunning();
+            write(dispatcher.results, totals);
+        }
+        lastSweepSeconds = (System.nanoTime() - start) / 1e9;
+        log.info("Destination health check: {} checked, {} unhealthy, {} skipped in {} s", totals[0], totals[1],
+                totals[2], String.format("%.1f", lastSweepSeconds));
+        return new SweepResult(totals[0], totals[1], totals[2],
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private ProbeResult probe(Target target) {
+        long start = System.nanoTime();
+        try {
+            if (!allowPrivate && isPrivate(target.uri.getHost())) {
+                return new ProbeResult(target.mappingId, false, 0, null, 0, true);
+            }
+            Duration timeout = Duration.ofMillis(timeoutMillis(target.host));
+            int status = send(target.uri, "HEAD", timeout);
+            if (status >= 400 && status != 404 && status != 410) {
+                status = send(target.uri, "GET", timeout);
+            }
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            target.host.latency.observe(elapsedMillis);
+            globalLatency.observe(elapsedMillis);
+            return new ProbeResult(target.mappingId, status < 400, status, null, (int) elapsedMillis, false);
+        } catch (HttpTimeoutException e) {
+            return failure(target.mappingId, "Timeout", start);
+        } catch (IOException e) {
+            return failure(target.mappingId, e.getClass().getSimpleName() + (e.getMessage() == null ? "" : ": " + e.getMessage()), start);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return failure(target.mappingId, "Interrupted", start);
+        }
+    }
+
+    /**
+     * Indique si un hôte se résout en une adresse qui n'est pas publique.
+     *
+     * @throws IOException si l'hôte ne se résout pas
+     */
+    boolean isPrivate(String host) throws IOException {
+        for (InetAddress address : InetAddress.getAllByName(host)) {
+            byte[] bytes = address.getAddress();
+            boolean uniqueLocal = bytes.length == 16 && (bytes[0] & 0xfe) == 0xfc;
+            if (address.isLoopbackAddress() || address.isLinkLocalAddress() || address.isSiteLocalAddress()
+                    || address.isAnyLocalAddress() || address.isMulticastAddress() || uniqueLocal) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Envoie une requête et suit ses redirections, en revérifiant l'adresse de chaque étape.
+     *
+     * @return le statut de la dernière réponse
+     * @throws IOException en cas d'échec, de redirection invalide, vers une adresse privée
+     *         ou au-delà de {@value #MAX_REDIRECTS}
+     */
+    private int send(URI uri, String method, Duration timeout) throws IOException, InterruptedException {
+        for (int redirects = 0; ; redirects++) {
+            HttpResponse<Void> response = sendWithRetry(uri, method, timeout);
+            int status = response.statusCode();
+            String location = response.headers().firstValue("Location").orElse(null);
+            if (!isRedirect(status) || location == null) {
+                return status;
+            }
+            if (redirects == MAX_REDIRECTS) {
+                throw new IOException("Too many redirects");
+            }
+            URI next;
+            try {
+                next = uri.resolve(location);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Invalid redirect: " + location);
+            }
+            String scheme = next.getScheme() == null ? "" : next.getScheme().toLowerCase();
+            if (next.getHost() == null || !(scheme.equals("http") || scheme.equals("https"))) {
+                throw new IOException("Invalid redirect: " + location);
+            }
+            if (scheme.equals("http") && "https".equalsIgnoreCase(uri.getScheme())) {
+                return status;
+            }
+            if (!allowPrivate && isPrivate(next.getHost())) {
+                throw new IOException("Redirect to a private address: " + next.getHost());
+            }
+            uri = next;
+        }
+    }
+
+    private static boolean isRedirect(int status) {
+        return status == 301 || status == 302 || status == 303 || status == 307 || status == 308;
+    }
+
+    private HttpResponse<Void> sendWithRetry(URI uri, String method, Duration timeout)
+            throws IOException, InterruptedException {
+        try {
+            return sendOnce(uri, method, timeout);
+        } catch (HttpTimeoutException e) {
+            throw e;
+        } catch (IOException e) {
+            return sendOnce(uri, method, timeout);
+        }
+    }
+
+    private HttpResponse<Void> sendOnce(URI uri, String method, Duration timeout) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri)
+                .timeout(timeout)
+                .header("User-Agent", USER_AGENT);
+        if ("HEAD".equals(method)) {
+            request.method("HEAD", HttpRequest.BodyPublishers.noBody());
+        } else {
+            request.GET().header("Range", "bytes=0-0");
+        }
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.discarding());
+    }
+
+    private long timeoutMillis(Host host) {
+        double average = host.latency.average();
+        if (Double.isNaN(average)) {
+            average = globalLatency.average();
+        }
+        if (Double.isNaN(average)) {
+            return maxTimeoutMillis;
+        }
+        return Math.max(minTimeoutMillis, Math.min(maxTimeoutMillis, (long) (average * TIMEOUT_FACTOR)));
+    }
+
+    private static ProbeResult failure(long mappingId, String error, long start) {
+        return new ProbeResult(mappingId, false, 0, error, (int) TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start),
+                false);
+    }
+
+    /**
+     * Écrit les résultats en attente dans {@code destination_status}, en une transaction.
+     */
+    private void write(ConcurrentLinkedQueue<ProbeResult> results, int[] totals) {
+        List<ProbeResult> batch = new ArrayList<>();
+        ProbeResult result;
+        int ignored = 0;
+        while ((result = results.poll()) != null) {
+            if (result.skipped()) {
+                ignored++;
+            } else {
+                batch.add(result);
+            }
+        }
+        skipped.increment(ignored);
+        totals[2] += ignored;
+        if (batch.isEmpty()) {
+            return;
+        }
+        Instant now = Instant.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            Map<Long, DestinationStatus> existing = new HashMap<>();
+            destinationStatusRepository.findAllById(batch.stream().map(ProbeResult::mappingId).toList())
+                    .forEach(destination -> existing.put(destination.getMappingId(), destination));
+            List<DestinationStatus> updated = new ArrayList<>(batch.size());
+            for (ProbeResult probe : batch) {
+                DestinationStatus destination = existing.getOrDefault(probe.mappingId(), new DestinationStatus(probe.mappingId()));
+                destination.record(probe.healthy(), probe.httpStatus(), probe.error(), probe.latencyMillis(), now);
+                updated.add(destination);
+            }
+            destinationStatusRepository.saveAll(updated);
+        });
+        long failed = batch.stream().filter(probe -> !probe.healthy()).count();
+        checked.increment(batch.size());
+        unhealthy.increment(failed);
+        totals[0] += batch.size();
+        totals[1] += (int) failed;
+    }
+
+    /**
+     * Arrête les vérifications périodiques et les sondes en cours.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        probes.shutdownNow();
+    }
+
+    private void sweepSafely() {
+        try {
+            sweep();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.warn("Destination health check failed, will retry at the next interval", e);
+        }
+    }
+
+    /**
+     * Crée l'exécuteur des sondes : un thread virtuel par sonde si la JVM le permet
+     * (Java 21+), sinon un pool de threads plateforme.
+     */
+    private static ExecutorService newProbeExecutor(int maxConcurrency) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger threads = new AtomicInteger();
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(maxConcurrency, maxConcurrency, 60, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), runnable -> {
+                        Thread thread = new Thread(runnable, "destination-probe-" + threads.incrementAndGet());
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+            pool.allowCoreThreadTimeOut(true);
+            return pool;
+        }
+    }
+
+    /**
+     * Bilan d'une vérification.
+     *
+     * @param checked le nombre de destinations vérifiées
+     * @param unhealthy le nombre de destinations injoignables ou en erreur
+     * @param skipped le nombre de destinations non sondées (adresses privées)
+     * @param elapsedMillis la durée de la vérification
+     */
+    public record SweepResult(int checked, int unhealthy, int skipped, long elapsedMillis) {}
+
+    private record ProbeResult(long mappingId, boolean healthy, int httpStatus, String error, int latencyMillis,
+                               boolean skipped) {}
+
+    /**
+     * Destination à sonder, rattachée à son hôte.
+     */
+    private record Target(long mappingId, URI uri, Host host) {}
+
+    /**
+     * Répartition des sondes d'une vérification, utilisée par le seul thread qui lit les pages.
+     *
+     * <p>Une sonde prend d'abord un jeton de son hôte, puis une place globale. Faute de
+     * jeton, la destination attend dans la file de son hôte ; chaque sonde terminée signale
+     * son hôte, dont la file est alors relancée.
+     */
+    private final class Dispatcher {
+
+        private final Map<String, Host> hosts = new HashMap<>();
+
+        private final Semaphore slots = new Semaphore(maxConcurrency);
+
+        private final ConcurrentLinkedQueue<ProbeResult> results = new ConcurrentLinkedQueue<>();
+
+        /**
+         * Hôtes dont une sonde vient de rendre son jeton.
+         */
+        private final LinkedBlockingQueue<Host> freed = new LinkedBlockingQueue<>();
+
+        /**
+         * Destinations en attente dans les files des hôtes.
+         */
+        private int waiting;
+
+        private void submit(UrlMapping mapping) throws InterruptedException {
+            String url = urlPrefixDictionary.expand(mapping.getPrefixId(), mapping.getUrlSuffix());
+            URI uri;
+            try {
+                uri = URI.create(url);
+            } catch (IllegalArgumentException e) {
+                uri = null;
+            }
+            if (uri == null || uri.getHost() == null) {
+                results.add(new ProbeResult(mapping.getId(), false, 0, "Invalid URL", 0, false));
+                return;
+            }
+            Host host = hosts.computeIfAbsent(uri.getScheme() + "://" + uri.getHost() + ":" + uri.getPort(),
+                    key -> new Host(perHost));
+            Host released;
+            while ((released = freed.poll()) != null) {
+                resume(released);
+            }
+            Target target = new Target(mapping.getId(), uri, host);
+            if (host.waiting.isEmpty() && host.permits.tryAcquire()) {
+                start(target);
+                return;
+            }
+            host.waiting.add(target);
+            waiting++;
+            while (waiting > maxConcurrency) {
+                resume(freed.take());
+            }
+        }
+
+        /**
+         * Lance les destinations encore en attente.
+         */
+        private void drain() throws InterruptedException {
+            while (waiting > 0) {
+                resume(freed.take());
+            }
+        }
+
+        /**
+         * Attend la fin des sondes lancées.
+         */
+        private void awaitRunning() {
+            slots.acquireUninterruptibly(maxConcurrency);
+            slots.release(maxConcurrency);
+        }
+
+        private void resume(Host host) throws InterruptedException {
+            while (!host.waiting.isEmpty() && host.permits.tryAcquire()) {
+                waiting--;
+                start(host.waiting.poll());
+            }
+        }
+
+        /**
+         * Lance une sonde dont le jeton d'hôte est déjà pris.
+         */
+        private void start(Target target) throws InterruptedException {
+            try {
+                slots.acquire();
+            } catch (InterruptedException e) {
+                target.host.permits.release();
+                throw e;
+            }
+            inFlight.incrementAndGet();
+            try {
+                probes.execute(() -> {
+                    try {
+                        results.add(probe(target));
+                    } finally {
+                        release(target);
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                // Exécuteur arrêté : rendre les jetons, sans quoi awaitRunning attendrait sans fin
+                release(target);
+                throw e;
+            }
+        }
+
+        private void release(Target target) {
+            inFlight.decrementAndGet();
+            target.host.permits.release();
+            freed.add(target.host);
+            slots.release();
+        }
+    }
+
+    /**
+     * État d'un hôte pendant une vérification.
+     */
+    private static final class Host {
+
+        private final Semaphore permits;
+
+        private final Latency latency = new Latency();
+
+        /**
+         * Destinations en attente d'un jeton, manipulées par le seul répartiteur.
+         */
+        private final ArrayDeque<Target> waiting = new ArrayDeque<>();
+
+        private Host(int perHost) {
+            this.permits = new Semaphore(perHost);
+        }
+    }
+
+    /**
+     * Moyenne mobile exponentielle des latences.
+     */
+    private static final class Latency {
+
+        private double average = Double.NaN;
+
+        private synchronized void observe(long millis) {
+            average = Double.isNaN(average) ? millis : average + LATENCY_WEIGHT * (millis - average);
+        }
+
+        private synchronized double average() {
+            return average;
+        }
+    }
+}
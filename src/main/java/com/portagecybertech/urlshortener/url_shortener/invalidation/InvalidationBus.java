@@ -0,0 +1,453 @@
+package com.portagecybertech.urlshortener.url_shortener.invalidation;
+
+import com.portagecybertech.urlshortener.url_shortener.service.ExpandCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bus d'invalidation des caches entre les instances partageant la même base.
+ *
+ * <p>Chaque instance met en cache les résolutions ({@link ExpandCache}). Lorsqu'une
+ * instance supprime un mapping, les autres doivent oublier le code, sans quoi elles
+ * continueraient à rediriger vers l'ancienne URL :
+ * <ol>
+ *   <li>{@link #publish(int, String)} met l'entrée en file, sans bloquer la requête</li>
+ *   <li>Toutes les {@code batch-interval-ms}, la file est envoyée en lots numérotés
+ *       ({@link InvalidationMessage}) sur le transport (UDP multicast ou maillage TCP)</li>
+ *   <li>Chaque récepteur invalide les entrées de son cache</li>
+ * </ol>
+ *
+ * <p><strong>Détection des pertes :</strong> chaque nœud numérote ses lots et émet un
+ * battement de cœur rappelant son dernier numéro lorsqu'il n'a rien envoyé depuis
+ * {@code heartbeat-ms}. Un récepteur qui constate un numéro manquant (trame perdue,
+ * connexion rompue, nœud découvert en cours de route) ne sait plus quelles entrées
+ * sont périmées : il vide tout son cache. Il en va de même pour un lot d'une version
+ * de format inconnue, et pour un nœud connu devenu muet (partition réseau, envois en
+ * échec) : passé {@value #PEER_DEADLINE_HEARTBEATS} battements sans trame, le cache est
+ * vidé, puis de nouveau à chaque battement tant que le silence dure. Un code perdu
+ * coûte donc au pire une vague d'accès à la base, jamais une redirection périmée au-delà
+ * de quelques battements de cœur. Un nœud muet depuis {@value #PEER_EXPIRY_HEARTBEATS}
+ * battements est considéré comme arrêté et oublié ; s'il réapparaît, son prochain numéro
+ * révèle un trou et provoque un dernier vidage.
+ *
+ * <p>Les créations ne sont pas diffusées : un code absent n'est jamais mis en cache.
+ *
+ * <p><strong>Métriques :</strong> {@code urlshortener.invalidation.sent},
+ * {@code urlshortener.invalidation.received}, {@code urlshortener.invalidation.gaps},
+ * {@code urlshortener.invalidation.send.failures}, {@code urlshortener.invalidation.peers}.
+ *
+ * <p><strong>Configuration :</strong> {@code app.invalidation.transport} ({@code none},
+ * {@code udp} ou {@code tcp}) et {@code app.invalidation.*}.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ * @see InvalidationTransport
+ */
+@Component
+public class InvalidationBus {
+
+    private static final Logger log = LoggerFactory.getLogger(InvalidationBus.class);
+
+    /**
+     * Nombre de battements de cœur sans trame après lequel un nœud est en retard.
+     */
+    static final int PEER_DEADLINE_HEARTBEATS = 2;
+
+    /**
+     * Nombre de battements de cœur manqués après lequel un nœud est oublié.
+     */
+    static final int PEER_EXPIRY_HEARTBEATS = 10;
+
+    /**
+     * Transport, null si le bus est désactivé.
+     */
+    private final InvalidationTransport transport;
+
+    /**
+     * Identifiant de ce nœud, tiré au démarrage : un nœud redémarré est un nouveau nœud.
+     */
+    private final long nodeId;
+
+    private final ExpandCache expandCache;
+
+    /**
+     * Nombre maximal d'entrées par lot.
+     */
+    private final int maxBatch;
+
+    private final long heartbeatNanos;
+
+    private final ConcurrentLinkedQueue<InvalidationMessage.Key> pending = new ConcurrentLinkedQueue<>();
+
+    /**
+     * État de réception de chaque nœud connu ; protégé par {@code peers}.
+     */
+    private final Map<Long, Peer> peers = new HashMap<>();
+
+    /**
+     * Numéro du dernier lot émis ; modifié par le seul thread d'envoi.
+     */
+    private long seq;
+
+    private long lastSentNanos;
+
+    private final Counter sent;
+
+    private final Counter received;
+
+    private final Counter gaps;
+
+    private final Counter sendFailures;
+
+    /**
+     * Planificateur des envois, null si le bus est désactivé.
+     */
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Constructeur principal, alimenté par les propriétés {@code app.invalidation.*}.
+     *
+     * @param transportType {@code none}, {@code udp} ou {@code tcp}
+     * @param udpGroup l'adresse du groupe multicast
+     * @param udpPort le port du groupe multicast
+     * @param udpInterface l'interface réseau du groupe, ou vide
+     * @param udpTtl la portée des datagrammes
+     * @param tcpPort le port d'écoute du maillage TCP
+     * @param tcpPeers les autres nœuds du maillage ({@code hôte:port} séparés par des virgules)
+     * @param batchIntervalMillis l'intervalle entre deux envois
+     * @param maxBatch le nombre maximal d'entrées par lot
+     * @param heartbeatMillis l'intervalle maximal sans émission avant un battement de cœur
+     * @param expandCache le cache local des résolutions
+     * @param meterRegistry le registre de métriques
+     * @throws IOException si le transport ne peut pas être ouvert
+     */
+    @Autowired
+    public InvalidationBus(@Value("${app.invalidation.transport:none}") String transportType,
+                           @Value("${app.invalidation.udp.group:239.255.27.1}") String udpGroup,
+                           @Value("${app.invalidation.udp.port:4446}") int udpPort,
+                           @Value("${app.invalidation.udp.interface:}") String udpInterface,
+                           @Value("${app.invalidation.udp.ttl:1}") int udpTtl,
+                           @Value("${app.invalidation.tcp.port:4447}") int tcpPort,
+                           @Value("${app.invalidation.tcp.peers:}") String tcpPeers,
+                           @Value("${app.invalidation.batch-interval-ms:10}") long batchIntervalMillis,
+                           @Value("${app.invalidation.max-batch:256}") int maxBatch,
+                           @Value("${app.invalidation.heartbeat-ms:1000}") long heartbeatMillis,
+                           ExpandCache expandCache,
+                           MeterRegistry meterRegistry) throws IOException {
+        this(createTransport(transportType, udpGroup, udpPort, udpInterface, udpTtl, tcpPort, tcpPeers),
+                batchIntervalMillis, maxBatch, heartbeatMillis, expandCache, meterRegistry);
+    }
+
+    /**
+     * Crée le bus sur un transport donné et démarre les envois périodiques.
+     *
+     * @param transport le transport, null pour désactiver le bus
+     * @param batchIntervalMillis l'intervalle entre deux envois
+     * @param maxBatch le nombre maximal d'entrées par lot
+     * @param heartbeatMillis l'intervalle maximal sans émission avant un battement de cœur
+     * @param expandCache le cache local des résolutions
+     * @param meterRegistry le registre de métriques
+     * @throws IOException si le transport ne peut pas écouter
+     */
+    InvalidationBus(InvalidationTransport transport,
+                    long batchIntervalMillis,
+                    int maxBatch,
+                    long heartbeatMillis,
+                    ExpandCache expandCache,
+                    MeterRegistry meterRegistry) throws IOException {
+        this.transport = transport;
+        this.nodeId = newNodeId();
+        this.expandCache = expandCache;
+        int framed = transport == null ? maxBatch
+                : (transport.maxFrameSize() - InvalidationMessage.HEADER_SIZE) / InvalidationMessage.MAX_KEY_SIZE;
+        this.maxBatch = Math.max(1, Math.min(maxBatch, framed));
+        this.heartbeatNanos = TimeUnit.MILLISECONDS.toNanos(heartbeatMillis);
+        this.sent = Counter.builder("urlshortener.invalidation.sent")
+                .description("Entrées invalidées diffusées aux autres instances")
+                .register(meterRegistry);
+        this.received = Counter.builder("urlshortener.invalidation.received")
+                .description("Entrées invalidées reçues des autres instances")
+                .register(meterRegistry);
+        this.gaps = Counter.builder("urlshortener.invalidation.gaps")
+                .description("Pertes de lots détectées, suivies d'un vidage complet du cache")
+                .register(meterRegistry);
+        this.sendFailures = Counter.builder("urlshortener.invalidation.send.failures")
+                .description("Lots d'invalidation dont l'envoi a échoué")
+                .register(meterRegistry);
+        Gauge.builder("urlshortener.invalidation.peers", this, InvalidationBus::peerCount)
+                .description("Instances connues sur le bus d'invalidation")
+                .register(meterRegistry);
+        if (transport == null) {
+            this.scheduler = null;
+            return;
+        }
+        transport.start(this::receive);
+        this.lastSentNanos = System.nanoTime();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "invalidation-bus");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flushSafely, batchIntervalMillis, batchIntervalMillis, TimeUnit.MILLISECONDS);
+        log.info("Cache invalidation bus started on {} as node {}", transport.name(), Long.toHexString(nodeId));
+    }
+
+    /**
+     * Diffuse l'invalidation d'une entrée aux autres instances.
+     *
+     * <p>L'entrée est envoyée au prochain lot ; le cache local doit être invalidé par l'appelant.
+     *
+     * @param domainId l'identifiant du domaine court
+     * @param shortCode le code court
+     */
+    public void publish(int domainId, String shortCode) {
+        if (transport != null) {
+            pending.add(new InvalidationMessage.Key(domainId, shortCode));
+        }
+    }
+
+    /**
+     * Indique si le bus est actif.
+     *
+     * @return false si aucun transport n'est configuré
+     */
+    public boolean isEnabled() {
+        return transport != null;
+    }
+
+    /**
+     * Retourne l'identifiant de ce nœud.
+     *
+     * @return l'identifiant, tiré au démarrage
+     */
+    public long nodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Envoie les entrées en attente, ou un battement de cœur si rien n'a été envoyé
+     * depuis {@code heartbeat-ms}.
+     *
+     * @return le nombre de lots envoyés, battement de cœur compris
+     */
+    synchronized int flush() {
+        if (transport == null) {
+            return 0;
+        }
+        int batches = 0;
+        List<InvalidationMessage.Key> keys = new ArrayList<>();
+        InvalidationMessage.Key key;
+        while ((key = pending.poll()) != null) {
+            keys.add(key);
+            if (keys.size() == maxBatch) {
+                send(new InvalidationMessage(nodeId, ++seq, keys));
+                batches++;
+                keys = new ArrayList<>();
+            }
+        }
+        if (!keys.isEmpty()) {
+            send(new InvalidationMessage(nodeId, ++seq, keys));
+            batches++;
+        }
+        long now = System.nanoTime();
+        if (batches == 0 && now - lastSentNanos >= heartbeatNanos) {
+            send(new InvalidationMessage(nodeId, seq, List.of()));
+            batches++;
+        }
+        if (batches > 0) {
+            lastSentNanos = now;
+        }
+        checkPeers(now);
+        return batches;
+    }
+
+    private void send(InvalidationMessage message) {
+        try {
+            transport.send(message.encode());
+            sent.increment(message.keys().size());
+        } catch (IOException e) {
+            // Le numéro est consommé : les récepteurs verront le trou et videront leur cache
+            sendFailures.increment();
+            log.warn("Failed to send invalidation batch {}: {}", message.seq(), e.getMessage());
+        }
+    }
+
+    /**
+     * Applique une trame reçue d'une autre instance.
+     *
+     * @param frame la trame reçue
+     */
+    void receive(byte[] frame) {
+        InvalidationMessage message;
+        try {
+            message = InvalidationMessage.decode(frame);
+        } catch (IllegalArgumentException e) {
+            log.debug("Ignoring malformed invalidation frame", e);
+            return;
+        }
+        if (message.nodeId() == nodeId) {
+            return;
+        }
+        boolean gap;
+        synchronized (peers) {
+            Peer peer = peers.computeIfAbsent(message.nodeId(), id -> new Peer());
+            // Un lot de données doit suivre le précédent ; un battement de cœur rappelle le dernier
+            long expected = message.heartbeat() ? peer.lastSeq : peer.lastSeq + 1;
+            gap = message.version() != InvalidationMessage.VERSION || message.seq() > expected;
+            peer.lastSeq = Math.max(peer.lastSeq, message.seq());
+            peer.lastSeenNanos = System.nanoTime();
+            peer.overdue = false;
+        }
+        if (gap) {
+            gaps.increment();
+            expandCache.clear();
+            log.info("Invalidation gap from node {} at batch {}, cache flushed",
+                    Long.toHexString(message.nodeId()), message.seq());
+            return;
+        }
+        for (InvalidationMessage.Key key : message.keys()) {
+            expandCache.invalidate(key.domainId(), key.shortCode());
+        }
+        received.increment(message.keys().size());
+    }
+
+    /**
+     * Vide le cache si un nœud connu a manqué son échéance, et oublie les nœuds arrêtés.
+     *
+     * <p>Les invalidations d'un nœud muet ne parviennent plus : le cache est vidé à
+     * l'échéance (un trou compté), puis à chaque battement tant que le silence dure.
+     *
+     * @param now l'instant courant ({@link System#nanoTime()})
+     */
+    void checkPeers(long now) {
+        List<Long> missed = new ArrayList<>();
+        boolean flush = false;
+        synchronized (peers) {
+            for (Iterator<Map.Entry<Long, Peer>> it = peers.entrySet().iterator(); it.hasNext(); ) {
+                Map.Entry<Long, Peer> entry = it.next();
+                Peer peer = entry.getValue();
+                long silence = now - peer.lastSeenNanos;
+                if (silence > PEER_EXPIRY_HEARTBEATS * heartbeatNanos) {
+                    it.remove();
+                } else if (silence > PEER_DEADLINE_HEARTBEATS * heartbeatNanos
+                        && (!peer.overdue || now - peer.lastFlushNanos >= heartbeatNanos)) {
+                    if (!peer.overdue) {
+                        peer.overdue = true;
+                        missed.add(entry.getKey());
+                    }
+                    peer.lastFlushNanos = now;
+                    flush = true;
+                }
+            }
+        }
+        if (flush) {
+            gaps.increment(missed.size());
+            expandCache.clear();
+            for (long node : missed) {
+                log.info("Invalidation heartbeat missed by node {}, cache flushed", Long.toHexString(node));
+            }
+        }
+    }
+
+    private double peerCount() {
+        synchronized (peers) {
+            return peers.size();
+        }
+    }
+
+    /**
+     * Envoie les entrées en attente puis ferme le transport.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        try {
+            scheduler.awaitTermination(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+        try {
+            transport.close();
+        } catch (IOException e) {
+            log.warn("Failed to close invalidation transport", e);
+        }
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.warn("Invalidation flush failed, will retry", e);
+        }
+    }
+
+    private static long newNodeId() {
+        long id;
+        do {
+            id = new SecureRandom().nextLong();
+        } while (id == 0);
+        return id;
+    }
+
+    private static InvalidationTransport createTransport(String type, String udpGroup, int udpPort, String udpInterface,
+                                                         int udpTtl, int tcpPort, String tcpPeers) {
+        try {
+            return switch (type.toLowerCase()) {
+                case "none", "" -> null;
+                case "udp" -> UdpMulticastTransport.of(udpGroup, udpPort, udpInterface, udpTtl);
+                case "tcp" -> new TcpMeshTransport(tcpPort, TcpMeshTransport.parsePeers(tcpPeers));
+                default -> throw new IllegalStateException("Unknown app.invalidation.transport: " + type);
+            };
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create invalidation transport " + type, e);
+        }
+    }
+
+    /**
+     * État de réception d'un autre nœud.
+     */
+    private static final class Peer {
+
+        /**
+         * Numéro du dernier lot reçu ; un nœud découvert est attendu au lot 1.
+         */
+        private long lastSeq;
+
+        private long lastSeenNanos;
+
+        /**
+         * Vrai depuis que le nœud a manqué son échéance, jusqu'à sa prochaine trame.
+         */
+        private boolean overdue;
+
+        /**
+         * Instant du dernier vidage dû au silence du nœud.
+         */
+        private long lastFlushNanos;
+    }
+}
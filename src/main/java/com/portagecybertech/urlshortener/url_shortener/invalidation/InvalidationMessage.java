@@ -0,0 +1,125 @@
+package com.portagecybertech.urlshortener.url_shortener.invalidation;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lot d'invalidations diffusé par un nœud sur le bus.
+ *
+ * <p>Chaque nœud numérote ses lots de 1 en 1 ; un lot sans clé est un battement de cœur
+ * qui rappelle le dernier numéro émis, pour qu'un récepteur détecte aussi la perte
+ * du dernier lot d'une rafale.
+ *
+ * <p><strong>Format binaire</strong> (gros-boutiste) :
+ * <pre>{@code magic (2) | version (1) | nodeId (8) | seq (8) | count (2) | count × [domainId (4) | length (1) | shortCode ASCII]}</pre>
+ *
+ * @param version la version du format
+ * @param nodeId l'identifiant du nœud émetteur, tiré au démarrage
+ * @param seq le numéro du lot, ou du dernier lot émis pour un battement de cœur
+ * @param keys les entrées à invalider, vide pour un battement de cœur
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ */
+public record InvalidationMessage(int version, long nodeId, long seq, List<Key> keys) {
+
+    /**
+     * Version du format écrite par ce nœud.
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * Taille de l'en-tête d'un lot.
+     */
+    static final int HEADER_SIZE = 21;
+
+    /**
+     * Taille maximale d'une clé encodée (code court de 10 caractères).
+     */
+    static final int MAX_KEY_SIZE = 15;
+
+    private static final short MAGIC = 0x5549;
+
+    /**
+     * Crée un lot au format courant.
+     *
+     * @param nodeId l'identifiant du nœud émetteur
+     * @param seq le numéro du lot
+     * @param keys les entrées à invalider
+     */
+    public InvalidationMessage(long nodeId, long seq, List<Key> keys) {
+        this(VERSION, nodeId, seq, keys);
+    }
+
+    /**
+     * Indique si le lot est un battement de cœur.
+     *
+     * @return true si le lot ne contient aucune clé
+     */
+    public boolean heartbeat() {
+        return keys.isEmpty();
+    }
+
+    /**
+     * Encode le lot.
+     *
+     * @return les octets du lot
+     */
+    public byte[] encode() {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + keys.size() * MAX_KEY_SIZE);
+        buffer.putShort(MAGIC).put((byte) version).putLong(nodeId).putLong(seq).putShort((short) keys.size());
+        for (Key key : keys) {
+            byte[] code = key.shortCode().getBytes(StandardCharsets.US_ASCII);
+            buffer.putInt(key.domainId()).put((byte) code.length).put(code);
+        }
+        byte[] frame = new byte[buffer.position()];
+        buffer.flip().get(frame);
+        return frame;
+    }
+
+    /**
+     * Décode un lot.
+     *
+     * <p>L'en-tête d'un lot de version inconnue est lu, mais pas ses clés.
+     *
+     * @param frame les octets reçus
+     * @return le lot, sans clé si sa version est inconnue
+     * @throws IllegalArgumentException si les octets ne sont pas un lot d'invalidation
+     */
+    public static InvalidationMessage decode(byte[] frame) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(frame);
+            if (buffer.getShort() != MAGIC) {
+                throw new IllegalArgumentException("Not an invalidation message");
+            }
+            int version = buffer.get() & 0xFF;
+            long nodeId = buffer.getLong();
+            long seq = buffer.getLong();
+            if (version != VERSION) {
+                return new InvalidationMessage(version, nodeId, seq, List.of());
+            }
+            int count = buffer.getShort() & 0xFFFF;
+            List<Key> keys = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int domainId = buffer.getInt();
+                byte[] code = new byte[buffer.get() & 0xFF];
+                buffer.get(code);
+                keys.add(new Key(domainId, new String(code, StandardCharsets.US_ASCII)));
+            }
+            return new InvalidationMessage(version, nodeId, seq, keys);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated invalidation message", e);
+        }
+    }
+
+    /**
+     * Entrée à invalider.
+     *
+     * @param domainId l'identifiant du domaine court
+     * @param shortCode le code court
+     */
+    public record Key(int domainId, String shortCode) {}
+}
@@ -0,0 +1,50 @@
+package com.portagecybertech.urlshortener.url_shortener.invalidation;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.function.Consumer;
+
+/**
+ * Transport des lots d'invalidation entre les nœuds.
+ *
+ * <p>Le transport n'a pas à être fiable : une trame perdue est détectée par le
+ * numéro de séquence des lots suivants, et le récepteur vide alors son cache.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ * @see UdpMulticastTransport
+ * @see TcpMeshTransport
+ */
+public interface InvalidationTransport extends Closeable {
+
+    /**
+     * Commence à recevoir les trames des autres nœuds.
+     *
+     * @param receiver le destinataire des trames, appelé depuis les threads du transport
+     * @throws IOException si le transport ne peut pas écouter
+     */
+    void start(Consumer<byte[]> receiver) throws IOException;
+
+    /**
+     * Envoie une trame à tous les autres nœuds.
+     *
+     * @param frame la trame
+     * @throws IOException si l'envoi a échoué pour au moins un nœud
+     */
+    void send(byte[] frame) throws IOException;
+
+    /**
+     * Retourne la taille maximale d'une trame.
+     *
+     * @return la taille en octets
+     */
+    int maxFrameSize();
+
+    /**
+     * Retourne le nom du transport, pour les journaux.
+     *
+     * @return le nom
+     */
+    String name();
+}
@@ -0,0 +1,222 @@
+package com.portagecybertech.urlshortener.url_shortener.invalidation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Transport TCP en maillage : chaque nœud écoute sur un port et se connecte à chacun
+ * des nœuds déclarés.
+ *
+ * <p>Les trames sont préfixées par leur longueur. Une connexion sortante rompue est
+ * fermée et rétablie à l'envoi suivant ; les trames envoyées entre-temps sont perdues,
+ * ce que le bus détecte par les numéros de séquence.
+ *
+ * <p>Pour les réseaux sans multicast (la plupart des clouds), chaque nœud déclare
+ * tous les autres dans {@code app.invalidation.tcp.peers}.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ */
+public class TcpMeshTransport implements InvalidationTransport {
+
+    private static final Logger log = LoggerFactory.getLogger(TcpMeshTransport.class);
+
+    private static final int MAX_FRAME_SIZE = 64 * 1024;
+
+    private static final int CONNECT_TIMEOUT_MILLIS = 1000;
+
+    private final int listenPort;
+
+    private final List<Peer> peers = new ArrayList<>();
+
+    private ServerSocket serverSocket;
+
+    /**
+     * Constructeur principal.
+     *
+     * @param listenPort le port d'écoute (0 pour un port éphémère)
+     * @param peers les adresses des autres nœuds
+     */
+    public TcpMeshTransport(int listenPort, List<InetSocketAddress> peers) {
+        this.listenPort = listenPort;
+        for (InetSocketAddress address : peers) {
+            this.peers.add(new Peer(address));
+        }
+    }
+
+    @Override
+    public synchronized void start(Consumer<byte[]> receiver) throws IOException {
+        serverSocket = new ServerSocket(listenPort);
+        ServerSocket server = serverSocket;
+        Thread acceptor = new Thread(() -> accept(server, receiver), "invalidation-tcp-accept");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * Retourne le port d'écoute effectif.
+     *
+     * @return le port, -1 avant {@link #start(Consumer)}
+     */
+    public synchronized int localPort() {
+        return serverSocket == null ? -1 : serverSocket.getLocalPort();
+    }
+
+    private void accept(ServerSocket server, Consumer<byte[]> receiver) {
+        while (!server.isClosed()) {
+            try {
+                Socket socket = server.accept();
+                Thread reader = new Thread(() -> read(socket, receiver), "invalidation-tcp-" + socket.getRemoteSocketAddress());
+                reader.setDaemon(true);
+                reader.start();
+            } catch (IOException e) {
+                if (!server.isClosed()) {
+                    log.warn("Invalidation connection accept failed", e);
+                }
+            }
+        }
+    }
+
+    private void read(Socket socket, Consumer<byte[]> receiver) {
+        try (socket; DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()))) {
+            while (true) {
+                int length = in.readInt();
+                if (length < 0 || length > MAX_FRAME_SIZE) {
+                    throw new IOException("Invalid frame length " + length);
+                }
+                byte[] frame = new byte[length];
+                in.readFully(frame);
+                receiver.accept(frame);
+            }
+        } catch (EOFException e) {
+            // Connexion fermée par le pair
+        } catch (IOException e) {
+            log.debug("Invalidation connection from {} closed", socket.getRemoteSocketAddress(), e);
+        }
+    }
+
+    @Override
+    public void send(byte[] frame) throws IOException {
+        IOException failure = null;
+        for (Peer peer : peers) {
+            try {
+                peer.send(frame);
+            } catch (IOException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    @Override
+    public int maxFrameSize() {
+        return MAX_FRAME_SIZE;
+    }
+
+    @Override
+    public String name() {
+        return "tcp://:" + listenPort + " (" + peers.size() + " peers)";
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (serverSocket != null) {
+            serverSocket.close();
+        }
+        for (Peer peer : peers) {
+            peer.disconnect();
+        }
+    }
+
+    /**
+     * Analyse une liste d'adresses {@code hôte:port} séparées par des virgules.
+     *
+     * @param peers la liste, éventuellement vide
+     * @return les adresses, non résolues si l'hôte est inconnu pour l'instant
+     * @throws IllegalArgumentException si une adresse n'a pas de port
+     */
+    static List<InetSocketAddress> parsePeers(String peers) {
+        List<InetSocketAddress> addresses = new ArrayList<>();
+        for (String peer : peers.split(",")) {
+            String trimmed = peer.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            int colon = trimmed.lastIndexOf(':');
+            if (colon <= 0) {
+                throw new IllegalArgumentException("Invalid invalidation peer (host:port expected): " + trimmed);
+            }
+            addresses.add(InetSocketAddress.createUnresolved(trimmed.substring(0, colon),
+                    Integer.parseInt(trimmed.substring(colon + 1))));
+        }
+        return addresses;
+    }
+
+    /**
+     * Connexion sortante vers un nœud, établie à la demande.
+     */
+    private static final class Peer {
+
+        private final InetSocketAddress address;
+
+        private Socket socket;
+
+        private DataOutputStream out;
+
+        private Peer(InetSocketAddress address) {
+            this.address = address;
+        }
+
+        private synchronized void send(byte[] frame) throws IOException {
+            try {
+                if (out == null) {
+                    Socket connected = new Socket();
+                    connected.setTcpNoDelay(true);
+                    connected.connect(address.isUnresolved()
+                            ? new InetSocketAddress(address.getHostString(), address.getPort()) : address,
+                            CONNECT_TIMEOUT_MILLIS);
+                    socket = connected;
+                    out = new DataOutputStream(new BufferedOutputStream(connected.getOutputStream()));
+                }
+                out.writeInt(frame.length);
+                out.write(frame);
+                out.flush();
+            } catch (IOException e) {
+                disconnect();
+                throw new IOException("Failed to send invalidations to " + address, e);
+            }
+        }
+
+        private synchronized void disconnect() {
+            if (socket != null) {
+                try {
+                    socket.close();
+                } catch (IOException e) {
+                    // Déjà fermée
+                }
+            }
+            socket = null;
+            out = null;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.portagecybertech.urlshortener.url_shortener.invalidation;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.MulticastSocket;
+import java.net.NetworkInterface;
+import java.net.SocketException;
+import java.net.StandardSocketOptions;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Transport UDP multicast : une trame par datagramme, reçue par tous les membres du groupe.
+ *
+ * <p>Les trames sont limitées à 1400 octets pour tenir dans un datagramme non fragmenté.
+ * Un nœud reçoit aussi ses propres trames ; le bus les ignore.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ */
+public class UdpMulticastTransport implements InvalidationTransport {
+
+    private static final Logger log = LoggerFactory.getLogger(UdpMulticastTransport.class);
+
+    private static final int MAX_FRAME_SIZE = 1400;
+
+    private final InetSocketAddress group;
+
+    private final NetworkInterface networkInterface;
+
+    private final int ttl;
+
+    private MulticastSocket receiveSocket;
+
+    private MulticastSocket sendSocket;
+
+    private Thread receiverThread;
+
+    /**
+     * Constructeur principal.
+     *
+     * @param group l'adresse et le port du groupe multicast
+     * @param interfaceName l'interface réseau du groupe, ou vide pour celle par défaut du système
+     * @param ttl la portée des datagrammes (1 : réseau local)
+     * @throws SocketException si l'interface est introuvable
+     */
+    public UdpMulticastTransport(InetSocketAddress group, String interfaceName, int ttl) throws SocketException {
+        if (!group.getAddress().isMulticastAddress()) {
+            throw new IllegalArgumentException("Not a multicast address: " + group.getAddress());
+        }
+        this.group = group;
+        this.networkInterface = interfaceName == null || interfaceName.isBlank() ? null
+                : NetworkInterface.getByName(interfaceName);
+        if (interfaceName != null && !interfaceName.isBlank() && networkInterface == null) {
+            throw new SocketException("Unknown network interface: " + interfaceName);
+        }
+        this.ttl = ttl;
+    }
+
+    @Override
+    public synchronized void start(Consumer<byte[]> receiver) throws IOException {
+        receiveSocket = new MulticastSocket(group.getPort());
+        receiveSocket.joinGroup(group, networkInterface);
+        sendSocket = new MulticastSocket();
+        sendSocket.setTimeToLive(ttl);
+        sendSocket.setOption(StandardSocketOptions.IP_MULTICAST_LOOP, true);
+        if (networkInterface != null) {
+            sendSocket.setNetworkInterface(networkInterface);
+        }
+        MulticastSocket socket = receiveSocket;
+        receiverThread = new Thread(() -> receive(socket, receiver), "invalidation-udp");
+        receiverThread.setDaemon(true);
+        receiverThread.start();
+    }
+
+    private void receive(MulticastSocket socket, Consumer<byte[]> receiver) {
+        DatagramPacket packet = new DatagramPacket(new byte[MAX_FRAME_SIZE], MAX_FRAME_SIZE);
+        while (!socket.isClosed()) {
+            try {
+                packet.setLength(MAX_FRAME_SIZE);
+                socket.receive(packet);
+                receiver.accept(Arrays.copyOfRange(packet.getData(), packet.getOffset(),
+                        packet.getOffset() + packet.getLength()));
+            } catch (IOException e) {
+                if (!socket.isClosed()) {
+                    log.warn("Invalidation datagram receive failed", e);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void send(byte[] frame) throws IOException {
+        MulticastSocket socket = sendSocket;
+        if (socket == null) {
+            throw new IOException("Transport not started");
+        }
+        socket.send(new DatagramPacket(frame, frame.length, group));
+    }
+
+    @Override
+    public int maxFrameSize() {
+        return MAX_FRAME_SIZE;
+    }
+
+    @Override
+    public String name() {
+        return "udp://" + group.getAddress().getHostAddress() + ":" + group.getPort();
+    }
+
+    @Override
+    public synchronized void close() {
+        if (receiveSocket != null) {
+            receiveSocket.close();
+        }
+        if (sendSocket != null) {
+            sendSocket.close();
+        }
+    }
+
+    /**
+     * Crée le transport à partir d'une adresse de groupe.
+     *
+     * @param address l'adresse du groupe
+     * @param port le port du groupe
+     * @param interfaceName l'interface réseau, ou vide
+     * @param ttl la portée des datagrammes
+     * @return le transport
+     * @throws IOException si l'adresse ou l'interface sont invalides
+     */
+    static UdpMulticastTransport of(String address, int port, String interfaceName, int ttl) throws IOException {
+        return new UdpMulticastTransport(new InetSocketAddress(InetAddress.getByName(address), port), interfaceName, ttl);
+    }
+}
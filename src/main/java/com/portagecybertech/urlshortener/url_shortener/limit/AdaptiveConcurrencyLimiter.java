@@ -0,0 +1,202 @@
+package com.portagecybertech.urlshortener.url_shortener.limit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Limiteur de concurrence adaptatif basé sur la latence observée.
+ *
+ * <p>Ce limiteur borne le nombre d'appels simultanés vers une ressource lente
+ * (typiquement la base H2) et ajuste cette borne en continu selon un algorithme
+ * de type <em>gradient</em> :
+ * <ul>
+ *   <li>Une moyenne courte et une moyenne longue de la latence sont maintenues</li>
+ *   <li>Le gradient {@code longRtt / shortRtt} (borné entre 0.5 et 1) réduit la limite
+ *       dès que la latence courante dépasse la latence de référence</li>
+ *   <li>Une marge de {@code sqrt(limite)} permet de sonder une capacité supérieure
+ *       tant que la latence reste stable</li>
+ * </ul>
+ *
+ * <p>Lorsque la limite est atteinte, l'appel échoue immédiatement avec une
+ * {@link ServiceOverloadedException} au lieu de s'empiler dans le pool de threads
+ * de Tomcat.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ * @see ConcurrencyLimits
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    /**
+     * Facteur de lissage de la moyenne courte de latence.
+     */
+    private static final double SHORT_RTT_ALPHA = 0.1;
+
+    /**
+     * Facteur de lissage de la moyenne longue (latence de référence).
+     */
+    private static final double LONG_RTT_ALPHA = 0.002;
+
+    /**
+     * Facteur de lissage appliqué à chaque nouvelle limite calculée.
+     */
+    private static final double LIMIT_SMOOTHING = 0.2;
+
+    /**
+     * Tolérance appliquée à la latence de référence avant de réduire la limite.
+     */
+    private static final double RTT_TOLERANCE = 1.5;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int retryAfterSeconds;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+
+    private volatile double limit;
+    private double shortRtt;
+    private double longRtt;
+
+    /**
+     * Crée un limiteur adaptatif.
+     *
+     * @param name le nom du budget (ex: "write", "read"), utilisé dans les métriques
+     * @param initialLimit la limite initiale de concurrence
+     * @param minLimit la limite minimale (jamais descendue en dessous)
+     * @param maxLimit la limite maximale (jamais dépassée)
+     * @param retryAfterSeconds le délai conseillé aux clients rejetés
+     * @throws IllegalArgumentException si les bornes sont incohérentes
+     */
+    public AdaptiveConcurrencyLimiter(String name, int initialLimit, int minLimit, int maxLimit, int retryAfterSeconds) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Invalid limits for " + name);
+        }
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * Exécute un appel si la limite de concurrence le permet.
+     *
+     * <p>La latence de l'appel est mesurée (y compris s'il lève une exception métier)
+     * et sert à ajuster la limite.
+     *
+     * @param call l'appel à protéger
+     * @param <T> le type de résultat
+     * @return le résultat de l'appel
+     * @throws ServiceOverloadedException si la limite de concurrence est atteinte
+     */
+    public <T> T execute(Supplier<T> call) {
+        if (!tryAcquire()) {
+            rejected.increment();
+            throw new ServiceOverloadedException(name, retryAfterSeconds);
+        }
+        long start = System.nanoTime();
+        try {
+            return call.get();
+        } finally {
+            release(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Tente de réserver une place parmi les appels simultanés autorisés.
+     *
+     * @return true si la place est réservée, false si la limite est atteinte
+     */
+    boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Libère une place et intègre la latence mesurée dans le calcul de la limite.
+     *
+     * @param rttNanos la latence de l'appel en nanosecondes
+     */
+    void release(long rttNanos) {
+        int inFlightAtCompletion = inFlight.getAndDecrement();
+        onSample(rttNanos, inFlightAtCompletion);
+    }
+
+    /**
+     * Met à jour la limite à partir d'un échantillon de latence.
+     *
+     * @param rttNanos la latence observée
+     * @param inFlightAtCompletion le nombre d'appels en cours au moment de la mesure
+     */
+    private synchronized void onSample(long rttNanos, int inFlightAtCompletion) {
+        double rtt = Math.max(1, rttNanos);
+        if (longRtt == 0) {
+            shortRtt = rtt;
+            longRtt = rtt;
+            return;
+        }
+        shortRtt += (rtt - shortRtt) * SHORT_RTT_ALPHA;
+        longRtt += (rtt - longRtt) * LONG_RTT_ALPHA;
+        // Après une longue période dégradée, la référence ne doit pas rester au-dessus de la latence actuelle
+        if (longRtt > shortRtt * 2) {
+            longRtt *= 0.95;
+        }
+
+        double current = limit;
+        // Faible utilisation : la latence ne renseigne pas sur la capacité, on ne touche pas à la limite
+        if (inFlightAtCompletion < current / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, RTT_TOLERANCE * longRtt / shortRtt));
+        double target = current * gradient + Math.sqrt(current);
+        double smoothed = current * (1 - LIMIT_SMOOTHING) + target * LIMIT_SMOOTHING;
+        limit = Math.max(minLimit, Math.min(maxLimit, smoothed));
+    }
+
+    /**
+     * Retourne le nom du budget protégé par ce limiteur.
+     *
+     * @return le nom du budget
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Retourne la limite de concurrence courante.
+     *
+     * @return la limite courante (arrondie à l'entier inférieur)
+     */
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * Retourne le nombre d'appels actuellement en cours.
+     *
+     * @return le nombre d'appels en cours
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Retourne le nombre total d'appels rejetés depuis le démarrage.
+     *
+     * @return le nombre de rejets
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+}
@@ -0,0 +1,154 @@
+package com.portagecybertech.urlshortener.url_shortener.limit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Budgets de concurrence séparés pour les écritures et les lectures.
+ *
+ * <p>Deux limiteurs adaptatifs indépendants protègent la base de données :
+ * <ul>
+ *   <li><strong>write</strong> : raccourcissement d'URL ({@code UrlService.shorten})</li>
+ *   <li><strong>read</strong> : expansion et redirection ({@code UrlService.expand})</li>
+ * </ul>
+ *
+ * <p>Un afflux de raccourcissements ne peut donc pas consommer le budget des
+ * redirections, dont la latence reste protégée.
+ *
+ * <p><strong>Métriques exposées :</strong>
+ * <ul>
+ *   <li>{@code urlshortener.concurrency.limit} - limite courante par budget</li>
+ *   <li>{@code urlshortener.concurrency.inflight} - appels en cours par budget</li>
+ *   <li>{@code urlshortener.concurrency.rejected} - nombre de rejets par budget</li>
+ * </ul>
+ *
+ * <p><strong>Configuration :</strong> propriétés {@code app.limits.*}.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ * @see AdaptiveConcurrencyLimiter
+ */
+@Component
+public class ConcurrencyLimits {
+
+    /**
+     * Indique si la limitation est active.
+     */
+    private final boolean enabled;
+
+    /**
+     * Limiteur du budget d'écriture.
+     */
+    private final AdaptiveConcurrencyLimiter writeLimiter;
+
+    /**
+     * Limiteur du budget de lecture.
+     */
+    private final AdaptiveConcurrencyLimiter readLimiter;
+
+    /**
+     * Constructeur principal, alimenté par les propriétés {@code app.limits.*}.
+     *
+     * @param enabled active ou désactive la limitation
+     * @param retryAfterSeconds délai conseillé aux clients rejetés
+     * @param writeInitial limite initiale du budget d'écriture
+     * @param writeMin limite minimale du budget d'écriture
+     * @param writeMax limite maximale du budget d'écriture
+     * @param readInitial limite initiale du budget de lecture
+     * @param readMin limite minimale du budget de lecture
+     * @param readMax limite maximale du budget de lecture
+     * @param meterRegistry le registre de métriques
+     */
+    @Autowired
+    public ConcurrencyLimits(@Value("${app.limits.enabled:true}") boolean enabled,
+                             @Value("${app.limits.retry-after-seconds:1}") int retryAfterSeconds,
+                             @Value("${app.limits.write.initial:20}") int writeInitial,
+                             @Value("${app.limits.write.min:2}") int writeMin,
+                             @Value("${app.limits.write.max:200}") int writeMax,
+                             @Value("${app.limits.read.initial:100}") int readInitial,
+                             @Value("${app.limits.read.min:10}") int readMin,
+                             @Value("${app.limits.read.max:1000}") int readMax,
+                             MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.writeLimiter = new AdaptiveConcurrencyLimiter("write", writeInitial, writeMin, writeMax, retryAfterSeconds);
+        this.readLimiter = new AdaptiveConcurrencyLimiter("read", readInitial, readMin, readMax, retryAfterSeconds);
+        register(meterRegistry, writeLimiter);
+        register(meterRegistry, readLimiter);
+    }
+
+    private ConcurrencyLimits() {
+        this.enabled = false;
+        this.writeLimiter = new AdaptiveConcurrencyLimiter("write", 1, 1, 1, 1);
+        this.readLimiter = new AdaptiveConcurrencyLimiter("read", 1, 1, 1, 1);
+    }
+
+    /**
+     * Retourne une instance sans limitation, utile hors contexte Spring.
+     *
+     * @return des budgets désactivés
+     */
+    public static ConcurrencyLimits unlimited() {
+        return new ConcurrencyLimits();
+    }
+
+    /**
+     * Exécute une écriture dans le budget d'écriture.
+     *
+     * @param call l'appel à protéger
+     * @param <T> le type de résultat
+     * @return le résultat de l'appel
+     * @throws ServiceOverloadedException si le budget d'écriture est épuisé
+     */
+    public <T> T write(Supplier<T> call) {
+        return enabled ? writeLimiter.execute(call) : call.get();
+    }
+
+    /**
+     * Exécute une lecture dans le budget de lecture.
+     *
+     * @param call l'appel à protéger
+     * @param <T> le type de résultat
+     * @return le résultat de l'appel
+     * @throws ServiceOverloadedException si le budget de lecture est épuisé
+     */
+    public <T> T read(Supplier<T> call) {
+        return enabled ? readLimiter.execute(call) : call.get();
+    }
+
+    /**
+     * Retourne le limiteur du budget d'écriture.
+     *
+     * @return le limiteur d'écriture
+     */
+    public AdaptiveConcurrencyLimiter getWriteLimiter() {
+        return writeLimiter;
+    }
+
+    /**
+     * Retourne le limiteur du budget de lecture.
+     *
+     * @return le limiteur de lecture
+     */
+    public AdaptiveConcurrencyLimiter getReadLimiter() {
+        return readLimiter;
+    }
+
+    private static void register(MeterRegistry registry, AdaptiveConcurrencyLimiter limiter) {
+        Gauge.builder("urlshortener.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .tag("budget", limiter.getName())
+                .register(registry);
+        Gauge.builder("urlshortener.concurrency.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .tag("budget", limiter.getName())
+                .register(registry);
+        FunctionCounter.builder("urlshortener.concurrency.rejected", limiter, AdaptiveConcurrencyLimiter::getRejectedCount)
+                .tag("budget", limiter.getName())
+                .register(registry);
+    }
+}
@@ -0,0 +1,222 @@
+package com.portagecybertech.urlshortener.url_shortener.limit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Limites de débit par client, séparées par type de requête.
+ *
+ * <p>Là où {@link ConcurrencyLimits} protège la base de la charge totale, ces limites
+ * protègent les autres clients d'un seul client abusif : chacun dispose de ses propres
+ * seaux à jetons ({@link TokenBucketLimiter}), un par type de requête :
+ * <ul>
+ *   <li><strong>shorten</strong> : {@code POST /api/shorten}, et {@code /api/shorten/bulk} à raison
+ *       d'un jeton par URL du lot</li>
+ *   <li><strong>expand</strong> : {@code GET /api/expand/{code}} et {@code POST /api/expand/bulk}</li>
+ *   <li><strong>redirect</strong> : {@code GET /{code}}</li>
+ * </ul>
+ *
+ * <p>Un client est identifié par l'en-tête {@code key-header} s'il est configuré et
+ * présent, sinon par son adresse. Cet en-tête n'est pas authentifié : il ne doit être
+ * configuré que derrière une passerelle qui le renseigne elle-même.
+ *
+ * <p><strong>Métriques exposées :</strong>
+ * <ul>
+ *   <li>{@code urlshortener.ratelimit.rejected} - requêtes refusées par limite</li>
+ *   <li>{@code urlshortener.ratelimit.clients} - clients suivis par limite</li>
+ * </ul>
+ *
+ * <p><strong>Configuration :</strong> propriétés {@code app.rate-limit.*}.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ * @see com.portagecybertech.urlshortener.url_shortener.web.RateLimitFilter
+ */
+@Component
+public class RateLimits {
+
+    static final String LIMIT_HEADER = "RateLimit-Limit";
+
+    static final String REMAINING_HEADER = "RateLimit-Remaining";
+
+    static final String RESET_HEADER = "RateLimit-Reset";
+
+    /**
+     * Longueur maximale retenue d'une clé de client.
+     */
+    private static final int MAX_KEY_LENGTH = 128;
+
+    private final boolean enabled;
+
+    /**
+     * En-tête identifiant le client, ou null pour identifier par adresse.
+     */
+    private final String keyHeader;
+
+    private final TokenBucketLimiter shortenLimiter;
+
+    private final TokenBucketLimiter expandLimiter;
+
+    private final TokenBucketLimiter redirectLimiter;
+
+    /**
+     * Constructeur principal, alimenté par les propriétés {@code app.rate-limit.*}.
+     *
+     * @param enabled active ou désactive la limitation
+     * @param keyHeader l'en-tête identifiant le client, vide pour identifier par adresse
+     * @param maxClients le nombre maximal de clients suivis par limite
+     * @param shortenRate les raccourcissements par seconde et par client
+     * @param shortenBurst la rafale de raccourcissements autorisée
+     * @param expandRate les expansions par seconde et par client
+     * @param expandBurst la rafale d'expansions autorisée
+     * @param redirectRate les redirections par seconde et par client
+     * @param redirectBurst la rafale de redirections autorisée
+     * @param meterRegistry le registre de métriques
+     */
+    @Autowired
+    public RateLimits(@Value("${app.rate-limit.enabled:true}") boolean enabled,
+                      @Value("${app.rate-limit.key-header:}") String keyHeader,
+                      @Value("${app.rate-limit.max-clients:100000}") int maxClients,
+                      @Value("${app.rate-limit.shorten.rate:20}") double shortenRate,
+                      @Value("${app.rate-limit.shorten.burst:200}") int shortenBurst,
+                      @Value("${app.rate-limit.expand.rate:200}") double expandRate,
+                      @Value("${app.rate-limit.expand.burst:2000}") int expandBurst,
+                      @Value("${app.rate-limit.redirect.rate:500}") double redirectRate,
+                      @Value("${app.rate-limit.redirect.burst:5000}") int redirectBurst,
+                      MeterRegistry meterRegistry) {
+        this(enabled, keyHeader, maxClients, shortenRate, shortenBurst, expandRate, expandBurst, redirectRate,
+                redirectBurst, System::nanoTime);
+        register(meterRegistry, shortenLimiter);
+        register(meterRegistry, expandLimiter);
+        register(meterRegistry, redirectLimiter);
+    }
+
+    /**
+     * Constructeur avec horloge injectable, sans métriques.
+     *
+     * @param enabled active ou désactive la limitation
+     * @param keyHeader l'en-tête identifiant le client, vide pour identifier par adresse
+     * @param maxClients le nombre maximal de clients suivis par limite
+     * @param shortenRate les raccourcissements par seconde et par client
+     * @param shortenBurst la rafale de raccourcissements autorisée
+     * @param expandRate les expansions par seconde et par client
+     * @param expandBurst la rafale d'expansions autorisée
+     * @param redirectRate les redirections par seconde et par client
+     * @param redirectBurst la rafale de redirections autorisée
+     * @param clock l'horloge monotone, en nanosecondes
+     */
+    public RateLimits(boolean enabled, String keyHeader, int maxClients, double shortenRate, int shortenBurst,
+                      double expandRate, int expandBurst, double redirectRate, int redirectBurst, LongSupplier clock) {
+        this.enabled = enabled;
+        this.keyHeader = keyHeader == null || keyHeader.isBlank() ? null : keyHeader.trim();
+        this.shortenLimiter = new TokenBucketLimiter("shorten", shortenRate, shortenBurst, maxClients, clock);
+        this.expandLimiter = new TokenBucketLimiter("expand", expandRate, expandBurst, maxClients, clock);
+        this.redirectLimiter = new TokenBucketLimiter("redirect", redirectRate, redirectBurst, maxClients, clock);
+    }
+
+    /**
+     * Indique si la limitation est active.
+     *
+     * @return true si la limitation est active
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Retourne l'en-tête identifiant le client.
+     *
+     * @return le nom de l'en-tête, ou null pour identifier par adresse
+     */
+    public String getKeyHeader() {
+        return keyHeader;
+    }
+
+    /**
+     * Retourne la limite des raccourcissements.
+     *
+     * @return le limiteur des raccourcissements
+     */
+    public TokenBucketLimiter getShortenLimiter() {
+        return shortenLimiter;
+    }
+
+    /**
+     * Retourne la limite des expansions.
+     *
+     * @return le limiteur des expansions
+     */
+    public TokenBucketLimiter getExpandLimiter() {
+        return expandLimiter;
+    }
+
+    /**
+     * Retourne la limite des redirections.
+     *
+     * @return le limiteur des redirections
+     */
+    public TokenBucketLimiter getRedirectLimiter() {
+        return redirectLimiter;
+    }
+
+    /**
+     * Identifie le client : en-tête de clé s'il est configuré et présent, sinon adresse.
+     * Les clés sont préfixées pour ne jamais partager le seau d'une adresse.
+     *
+     * @param request la requête
+     * @return l'identifiant du client
+     */
+    public String clientKey(HttpServletRequest request) {
+        if (keyHeader != null) {
+            String key = request.getHeader(keyHeader);
+            if (key != null && !key.isEmpty()) {
+                return "key:" + (key.length() > MAX_KEY_LENGTH ? key.substring(0, MAX_KEY_LENGTH) : key);
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    /**
+     * Construit les en-têtes d'une réponse limitée.
+     *
+     * <p>{@code RateLimit-Limit} (taille du seau), {@code RateLimit-Remaining} (jetons
+     * restants) et {@code RateLimit-Reset} (secondes avant que le seau soit plein), plus
+     * {@code Retry-After} (secondes avant le prochain jeton) si la requête est refusée.
+     *
+     * @param limiter la limite appliquée
+     * @param decision la décision rendue pour la requête
+     * @return les en-têtes à poser sur la réponse
+     */
+    public static HttpHeaders headers(TokenBucketLimiter limiter, TokenBucketLimiter.Decision decision) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(LIMIT_HEADER, String.valueOf(limiter.getBurst()));
+        headers.set(REMAINING_HEADER, String.valueOf(decision.remaining()));
+        headers.set(RESET_HEADER, String.valueOf(toSeconds(decision.resetNanos())));
+        if (!decision.allowed()) {
+            headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, toSeconds(decision.retryAfterNanos()))));
+        }
+        return headers;
+    }
+
+    private static long toSeconds(long nanos) {
+        return (nanos + 999_999_999L) / 1_000_000_000L;
+    }
+
+    private static void register(MeterRegistry registry, TokenBucketLimiter limiter) {
+        FunctionCounter.builder("urlshortener.ratelimit.rejected", limiter, TokenBucketLimiter::getRejectedCount)
+                .tag("limit", limiter.getName())
+                .register(registry);
+        Gauge.builder("urlshortener.ratelimit.clients", limiter, TokenBucketLimiter::getClientCount)
+                .tag("limit", limiter.getName())
+                .register(registry);
+    }
+}
@@ -0,0 +1,42 @@
+package com.portagecybertech.urlshortener.url_shortener.limit;
+
+/**
+ * Exception levée lorsqu'un appel est rejeté pour cause de surcharge.
+ *
+ * <p>Les contrôleurs traduisent cette exception en réponse HTTP 503
+ * accompagnée de l'en-tête {@code Retry-After}.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ * @see AdaptiveConcurrencyLimiter
+ */
+public class ServiceOverloadedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Délai conseillé avant une nouvelle tentative, en secondes.
+     */
+    private final int retryAfterSeconds;
+
+    /**
+     * Crée une exception de surcharge.
+     *
+     * @param budget le nom du budget de concurrence épuisé
+     * @param retryAfterSeconds le délai conseillé avant une nouvelle tentative
+     */
+    public ServiceOverloadedException(String budget, int retryAfterSeconds) {
+        super("Service overloaded (" + budget + ")");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    /**
+     * Retourne le délai conseillé avant une nouvelle tentative.
+     *
+     * @return le délai en secondes
+     */
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,213 @@
+package com.portagecybertech.urlshortener.url_shortener.limit;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Seaux à jetons par client, en mémoire et sans verrou.
+ *
+ * <p>Chaque client dispose de {@code burst} jetons, regagnés au rythme de {@code rate}
+ * par seconde ; une requête consomme un jeton et est refusée lorsqu'il n'en reste plus.
+ *
+ * <p><strong>État :</strong> le seau est tenu sous la forme GCRA (<em>generic cell rate
+ * algorithm</em>), équivalente : un seul {@code long}, l'instant (en nanosecondes) où le
+ * seau sera de nouveau plein. Une requête avance cet instant d'un intervalle
+ * {@code 1/rate} par un {@code compareAndSet}, sans verrou ni minuterie de remplissage ;
+ * elle est refusée si l'instant dépasserait {@code burst} intervalles dans le futur.
+ *
+ * <p><strong>Bornes :</strong> un seau dont l'instant est passé est plein, donc
+ * identique à un seau neuf : il peut être oublié sans rien changer. Lorsque la table
+ * atteint {@code max-clients}, elle est purgée de ces seaux (au plus une fois par
+ * seconde) ; si elle reste pleine, les nouveaux clients partagent un seau de
+ * débordement, ce qui borne la mémoire face à une rotation d'adresses.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ * @see RateLimits
+ */
+public class TokenBucketLimiter {
+
+    private static final long SWEEP_INTERVAL_NANOS = 1_000_000_000L;
+
+    private final String name;
+
+    private final int burst;
+
+    /**
+     * Intervalle entre deux jetons, en nanosecondes.
+     */
+    private final long intervalNanos;
+
+    /**
+     * Avance maximale de l'instant de remplissage sur l'horloge : {@code burst} intervalles.
+     */
+    private final long capacityNanos;
+
+    private final int maxClients;
+
+    private final LongSupplier clock;
+
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * Seau partagé par les clients arrivés lorsque la table est pleine.
+     */
+    private final AtomicLong overflow;
+
+    private final AtomicLong lastSweepNanos;
+
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * Crée un limiteur.
+     *
+     * @param name le nom du limiteur (métriques)
+     * @param rate le nombre de jetons regagnés par seconde
+     * @param burst le nombre maximal de jetons d'un seau
+     * @param maxClients le nombre maximal de seaux conservés
+     * @param clock l'horloge monotone, en nanosecondes
+     */
+    public TokenBucketLimiter(String name, double rate, int burst, int maxClients, LongSupplier clock) {
+        if (rate <= 0 || burst <= 0 || maxClients <= 0) {
+            throw new IllegalArgumentException("Rate limit " + name + ": rate, burst and max-clients must be positive");
+        }
+        this.name = name;
+        this.burst = burst;
+        this.intervalNanos = Math.max(1, Math.round(1e9 / rate));
+        this.capacityNanos = intervalNanos * burst;
+        this.maxClients = maxClients;
+        this.clock = clock;
+        long now = clock.getAsLong();
+        this.overflow = new AtomicLong(now);
+        this.lastSweepNanos = new AtomicLong(now - SWEEP_INTERVAL_NANOS);
+    }
+
+    /**
+     * Consomme un jeton du seau d'un client.
+     *
+     * @param client l'identifiant du client (clé d'API ou adresse)
+     * @return la décision, avec de quoi renseigner les en-têtes de limitation
+     */
+    public Decision tryAcquire(String client) {
+        return tryAcquire(client, 1);
+    }
+
+    /**
+     * Consomme plusieurs jetons du seau d'un client, un par élément d'un lot.
+     *
+     * <p>Un lot est admis dès qu'il reste un jeton, même s'il en demande davantage que
+     * le seau n'en contient : le client s'endette alors et ses requêtes suivantes sont
+     * refusées jusqu'au remboursement. Le débit moyen reste ainsi de {@code rate}
+     * éléments par seconde, quelle que soit la taille des lots.
+     *
+     * @param client l'identifiant du client (clé d'API ou adresse)
+     * @param permits le nombre de jetons à consommer (au moins 1)
+     * @return la décision, avec de quoi renseigner les en-têtes de limitation
+     */
+    public Decision tryAcquire(String client, int permits) {
+        if (permits <= 0) {
+            throw new IllegalArgumentException("Rate limit " + name + ": permits must be positive");
+        }
+        long now = clock.getAsLong();
+        AtomicLong bucket = buckets.get(client);
+        if (bucket == null) {
+            bucket = newBucket(client, now);
+        }
+        long cost = intervalNanos * permits;
+        while (true) {
+            long full = bucket.get();
+            long start = Math.max(full, now);
+            long ahead = start + intervalNanos - now;
+            if (ahead > capacityNanos) {
+                rejected.increment();
+                return new Decision(false, 0, ahead - capacityNanos, ahead - intervalNanos);
+            }
+            long next = start + cost;
+            if (bucket.compareAndSet(full, next)) {
+                long reset = next - now;
+                return new Decision(true, (int) Math.max(0, (capacityNanos - reset) / intervalNanos), 0, reset);
+            }
+        }
+    }
+
+    /**
+     * Crée le seau d'un nouveau client, ou retourne le seau de débordement si la table
+     * reste pleine après purge.
+     */
+    private AtomicLong newBucket(String client, long now) {
+        if (buckets.size() >= maxClients) {
+            sweep(now);
+            if (buckets.size() >= maxClients) {
+                return overflow;
+            }
+        }
+        return buckets.computeIfAbsent(client, key -> new AtomicLong(now));
+    }
+
+    /**
+     * Oublie les seaux pleins ; un seul thread purge, au plus une fois par seconde.
+     * Un jeton consommé pendant la purge peut être perdu, au bénéfice du client.
+     */
+    private void sweep(long now) {
+        long last = lastSweepNanos.get();
+        if (now - last < SWEEP_INTERVAL_NANOS || !lastSweepNanos.compareAndSet(last, now)) {
+            return;
+        }
+        for (Iterator<AtomicLong> it = buckets.values().iterator(); it.hasNext(); ) {
+            if (it.next().get() <= now) {
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Retourne le nom du limiteur.
+     *
+     * @return le nom
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Retourne le nombre maximal de jetons d'un seau.
+     *
+     * @return la capacité des seaux
+     */
+    public int getBurst() {
+        return burst;
+    }
+
+    /**
+     * Retourne le nombre de clients suivis.
+     *
+     * @return le nombre de seaux conservés
+     */
+    public int getClientCount() {
+        return buckets.size();
+    }
+
+    /**
+     * Retourne le nombre de requêtes refusées depuis le démarrage.
+     *
+     * @return le nombre de refus
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * Décision pour une requête.
+     *
+     * @param allowed true si un jeton a été consommé
+     * @param remaining les jetons restants
+     * @param retryAfterNanos le délai avant le prochain jeton, 0 si la requête est acceptée
+     * @param resetNanos le délai avant que le seau soit de nouveau plein
+     */
+    public record Decision(boolean allowed, int remaining, long retryAfterNanos, long resetNanos) {}
+}
@@ -0,0 +1,157 @@
+package com.portagecybertech.urlshortener.url_shortener.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogramme de latences sans verrou, à seaux log-linéaires.
+ *
+ * <p>Chaque puissance de deux est découpée en 8 sous-seaux : l'erreur relative d'un
+ * percentile est inférieure à 12,5 %, sur toute la plage de {@code long}, avec
+ * moins de 500 seaux. L'enregistrement se réduit au calcul de l'indice et à
+ * l'incrément d'un {@link LongAdder}, réparti entre cellules sous contention.
+ *
+ * <p>Les compteurs sont cumulatifs : les percentiles d'un intervalle se calculent
+ * sur la différence de deux instantanés (voir {@link #delta(long[], long[])}), sans
+ * remise à zéro concurrente des écrivains.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ */
+public final class LatencyHistogram {
+
+    /**
+     * Bits de sous-seau par puissance de deux.
+     */
+    private static final int SUB_BITS = 3;
+
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+
+    /**
+     * Nombre de seaux couvrant {@code [0, Long.MAX_VALUE]}.
+     */
+    static final int BUCKETS = indexOf(Long.MAX_VALUE) + 1;
+
+    private final LongAdder[] counts = new LongAdder[BUCKETS];
+
+    /**
+     * Crée un histogramme vide.
+     */
+    public LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Enregistre une latence.
+     *
+     * @param nanos la latence en nanosecondes (les valeurs négatives comptent pour 0)
+     */
+    public void record(long nanos) {
+        counts[indexOf(Math.max(0, nanos))].increment();
+    }
+
+    /**
+     * Retourne les compteurs cumulés de chaque seau.
+     *
+     * @return un nouveau tableau de {@link #BUCKETS} compteurs
+     */
+    public long[] snapshot() {
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts[i].sum();
+        }
+        return snapshot;
+    }
+
+    /**
+     * Calcule les compteurs d'un intervalle à partir de deux instantanés.
+     *
+     * @param current l'instantané de fin
+     * @param previous l'instantané de début
+     * @return un nouveau tableau, différence seau par seau
+     */
+    public static long[] delta(long[] current, long[] previous) {
+        long[] delta = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            delta[i] = current[i] - previous[i];
+        }
+        return delta;
+    }
+
+    /**
+     * Retourne le nombre total de valeurs d'un tableau de compteurs.
+     *
+     * @param counts les compteurs par seau
+     * @return la somme des compteurs
+     */
+    public static long total(long[] counts) {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Estime un percentile (milieu du seau qui le contient).
+     *
+     * @param counts les compteurs par seau
+     * @param quantile le quantile, dans {@code [0, 1]}
+     * @return la latence estimée en nanosecondes, ou 0 si aucune valeur
+     */
+    public static long percentile(long[] counts, double quantile) {
+        long total = total(counts);
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return midpoint(i);
+            }
+        }
+        return midpoint(BUCKETS - 1);
+    }
+
+    /**
+     * Calcule l'indice du seau d'une valeur positive ou nulle.
+     *
+     * @param value la valeur
+     * @return l'indice du seau
+     */
+    static int indexOf(long value) {
+        if (value < SUB_COUNT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_COUNT - 1);
+        return (exponent - SUB_BITS + 1) * SUB_COUNT + sub;
+    }
+
+    /**
+     * Retourne la plus petite valeur d'un seau.
+     *
+     * @param index l'indice du seau
+     * @return la borne basse du seau
+     */
+    static long lowerBound(int index) {
+        if (index < SUB_COUNT) {
+            return index;
+        }
+        int exponent = index / SUB_COUNT + SUB_BITS - 1;
+        long sub = index % SUB_COUNT;
+        return (SUB_COUNT + sub) << (exponent - SUB_BITS);
+    }
+
+    private static long midpoint(int index) {
+        if (index < SUB_COUNT) {
+            return index;
+        }
+        int exponent = index / SUB_COUNT + SUB_BITS - 1;
+        return lowerBound(index) + ((1L << (exponent - SUB_BITS)) >> 1);
+    }
+}
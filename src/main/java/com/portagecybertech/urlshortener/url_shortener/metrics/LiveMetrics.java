@@ -0,0 +1,183 @@
+package com.portagecybertech.urlshortener.url_shortener.metrics;
+
+import com.portagecybertech.urlshortener.url_shortener.service.ExpandCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Agrégateurs en mémoire des métriques du tableau de bord temps réel.
+ *
+ * <p>Les chemins de requête n'écrivent que dans des structures sans verrou :
+ * un {@link LatencyHistogram} par opération et, pour les codes les plus consultés,
+ * une table de compteurs propre à la fenêtre courante. {@link #snapshot()} calcule
+ * les valeurs de la fenêtre écoulée depuis l'appel précédent (débit, percentiles,
+ * taux de succès du cache, codes les plus demandés) puis ouvre une nouvelle fenêtre.
+ *
+ * <p>La table des codes est bornée par {@code app.metrics.live.max-tracked-codes} :
+ * une fois pleine, seuls les codes déjà présents sont comptés jusqu'à la fenêtre
+ * suivante. Les codes chauds apparaissant tôt dans la fenêtre, le classement reste
+ * représentatif.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ * @see MetricsStreamPublisher
+ */
+@Component
+public class LiveMetrics {
+
+    /**
+     * Opérations mesurées.
+     */
+    public enum Operation {
+        /**
+         * Redirection {@code GET /{shortCode}}.
+         */
+        REDIRECT,
+        /**
+         * Raccourcissement {@code POST /api/shorten}.
+         */
+        SHORTEN,
+        /**
+         * Résolution {@code GET /api/expand/{shortCode}}.
+         */
+        EXPAND
+    }
+
+    private final ExpandCache expandCache;
+
+    private final int maxTrackedCodes;
+
+    private final int hotCodes;
+
+    private final Map<Operation, LatencyHistogram> histograms = new EnumMap<>(Operation.class);
+
+    /**
+     * Compteurs des codes consultés dans la fenêtre courante.
+     */
+    private final AtomicReference<ConcurrentHashMap<String, LongAdder>> codeHits =
+            new AtomicReference<>(new ConcurrentHashMap<>());
+
+    /**
+     * Instantanés de la fenêtre précédente, modifiés uniquement par {@link #snapshot()}.
+     */
+    private final Map<Operation, long[]> previousCounts = new EnumMap<>(Operation.class);
+
+    private long previousCacheHits;
+
+    private long previousCacheMisses;
+
+    private long previousNanos;
+
+    /**
+     * Constructeur principal, alimenté par les propriétés {@code app.metrics.live.*}.
+     *
+     * @param expandCache le cache des résolutions, pour son taux de succès
+     * @param maxTrackedCodes le nombre maximal de codes distincts comptés par fenêtre
+     * @param hotCodes le nombre de codes les plus consultés publiés
+     */
+    public LiveMetrics(ExpandCache expandCache,
+                       @Value("${app.metrics.live.max-tracked-codes:10000}") int maxTrackedCodes,
+                       @Value("${app.metrics.live.hot-codes:10}") int hotCodes) {
+        this.expandCache = expandCache;
+        this.maxTrackedCodes = maxTrackedCodes;
+        this.hotCodes = hotCodes;
+        for (Operation operation : Operation.values()) {
+            LatencyHistogram histogram = new LatencyHistogram();
+            histograms.put(operation, histogram);
+            previousCounts.put(operation, histogram.snapshot());
+        }
+        this.previousCacheHits = expandCache.hitCount();
+        this.previousCacheMisses = expandCache.missCount();
+        this.previousNanos = System.nanoTime();
+    }
+
+    /**
+     * Enregistre la latence d'une opération.
+     *
+     * @param operation l'opération
+     * @param nanos la durée en nanosecondes
+     */
+    public void record(Operation operation, long nanos) {
+        histograms.get(operation).record(nanos);
+    }
+
+    /**
+     * Compte une consultation de code court.
+     *
+     * @param shortCode le code consulté
+     */
+    public void recordHit(String shortCode) {
+        ConcurrentHashMap<String, LongAdder> hits = codeHits.get();
+        LongAdder counter = hits.get(shortCode);
+        if (counter == null) {
+            if (hits.size() >= maxTrackedCodes) {
+                return;
+            }
+            counter = hits.computeIfAbsent(shortCode, code -> new LongAdder());
+        }
+        counter.increment();
+    }
+
+    /**
+     * Calcule les métriques de la fenêtre écoulée et ouvre la suivante.
+     *
+     * @return les métriques de la fenêtre
+     */
+    public synchronized MetricsSnapshot snapshot() {
+        long now = System.nanoTime();
+        double seconds = Math.max(1, now - previousNanos) / 1e9;
+        previousNanos = now;
+
+        List<MetricsSnapshot.OperationStats> operations = new ArrayList<>(histograms.size());
+        for (Map.Entry<Operation, LatencyHistogram> entry : histograms.entrySet()) {
+            long[] current = entry.getValue().snapshot();
+            long[] window = LatencyHistogram.delta(current, previousCounts.put(entry.getKey(), current));
+            long count = LatencyHistogram.total(window);
+            operations.add(new MetricsSnapshot.OperationStats(entry.getKey().name().toLowerCase(), count,
+                    count / seconds,
+                    LatencyHistogram.percentile(window, 0.50) / 1e3,
+                    LatencyHistogram.percentile(window, 0.90) / 1e3,
+                    LatencyHistogram.percentile(window, 0.99) / 1e3,
+                    LatencyHistogram.percentile(window, 0.999) / 1e3));
+        }
+
+        long cacheHits = expandCache.hitCount();
+        long cacheMisses = expandCache.missCount();
+        long lookups = (cacheHits - previousCacheHits) + (cacheMisses - previousCacheMisses);
+        Double hitRate = lookups == 0 ? null : (double) (cacheHits - previousCacheHits) / lookups;
+        previousCacheHits = cacheHits;
+        previousCacheMisses = cacheMisses;
+
+        return new MetricsSnapshot(System.currentTimeMillis(), Math.round(seconds * 1e3), operations,
+                hitRate, expandCache.size(), topCodes(codeHits.getAndSet(new ConcurrentHashMap<>())));
+    }
+
+    private List<MetricsSnapshot.HotCode> topCodes(Map<String, LongAdder> hits) {
+        PriorityQueue<MetricsSnapshot.HotCode> top =
+                new PriorityQueue<>(Comparator.comparingLong(MetricsSnapshot.HotCode::hits));
+        for (Map.Entry<String, LongAdder> entry : hits.entrySet()) {
+            long count = entry.getValue().sum();
+            if (top.size() < hotCodes) {
+                top.add(new MetricsSnapshot.HotCode(entry.getKey(), count));
+            } else if (hotCodes > 0 && count > top.peek().hits()) {
+                top.poll();
+                top.add(new MetricsSnapshot.HotCode(entry.getKey(), count));
+            }
+        }
+        List<MetricsSnapshot.HotCode> sorted = new ArrayList<>(top);
+        sorted.sort(Comparator.comparingLong(MetricsSnapshot.HotCode::hits).reversed()
+                .thenComparing(MetricsSnapshot.HotCode::code));
+        return sorted;
+    }
+}
@@ -0,0 +1,47 @@
+package com.portagecybertech.urlshortener.url_shortener.metrics;
+
+import java.util.List;
+
+/**
+ * Métriques d'une fenêtre, publiées sur le flux {@code /api/metrics/stream}.
+ *
+ * @param timestamp la fin de la fenêtre, en millisecondes depuis l'epoch
+ * @param intervalMillis la durée de la fenêtre
+ * @param operations le débit et les percentiles de latence de chaque opération
+ * @param cacheHitRate le taux de succès du cache des résolutions, ou null sans consultation
+ * @param cacheEntries le nombre d'entrées du cache des résolutions
+ * @param hotCodes les codes les plus consultés, par ordre décroissant
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ */
+public record MetricsSnapshot(long timestamp,
+                              long intervalMillis,
+                              List<OperationStats> operations,
+                              Double cacheHitRate,
+                              int cacheEntries,
+                              List<HotCode> hotCodes) {
+
+    /**
+     * Débit et latences d'une opération sur la fenêtre.
+     *
+     * @param name le nom de l'opération
+     * @param count le nombre d'opérations
+     * @param ratePerSecond le débit, en opérations par seconde
+     * @param p50Micros la latence médiane, en microsecondes
+     * @param p90Micros le 90e percentile, en microsecondes
+     * @param p99Micros le 99e percentile, en microsecondes
+     * @param p999Micros le 99,9e percentile, en microsecondes
+     */
+    public record OperationStats(String name, long count, double ratePerSecond,
+                                 double p50Micros, double p90Micros, double p99Micros, double p999Micros) {}
+
+    /**
+     * Code court et nombre de consultations sur la fenêtre.
+     *
+     * @param code le code court
+     * @param hits le nombre de consultations
+     */
+    public record HotCode(String code, long hits) {}
+}
@@ -0,0 +1,168 @@
+package com.portagecybertech.urlshortener.url_shortener.metrics;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Diffusion périodique des métriques temps réel aux abonnés Server-Sent Events.
+ *
+ * <p>Un thread unique calcule une fois par intervalle l'instantané de {@link LiveMetrics},
+ * le sérialise une seule fois en JSON et l'envoie à chaque abonné sous forme d'un
+ * événement {@code metrics}. Le coût est donc indépendant du nombre de tableaux de bord
+ * ouverts, et aucun abonné ne déclenche de calcul.
+ *
+ * <p>Un abonné dont l'envoi échoue (connexion fermée) est retiré. Le nombre d'abonnés
+ * simultanés est borné ; {@code EventSource} se reconnecte de lui-même à l'expiration
+ * d'un flux.
+ *
+ * <p><strong>Configuration :</strong> {@code app.metrics.stream.*}.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ */
+@Component
+public class MetricsStreamPublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(MetricsStreamPublisher.class);
+
+    /**
+     * Nom des événements publiés.
+     */
+    public static final String EVENT_NAME = "metrics";
+
+    private final LiveMetrics liveMetrics;
+
+    private final ObjectMapper objectMapper;
+
+    private final int maxClients;
+
+    private final long emitterTimeoutMillis;
+
+    private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+
+    /**
+     * Dernier instantané publié, envoyé dès l'abonnement.
+     */
+    private volatile String lastPayload;
+
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Constructeur principal, alimenté par les propriétés {@code app.metrics.stream.*}.
+     *
+     * @param liveMetrics les agrégateurs de métriques
+     * @param objectMapper le sérialiseur JSON
+     * @param intervalMillis l'intervalle entre deux publications
+     * @param maxClients le nombre maximal d'abonnés simultanés
+     * @param emitterTimeoutMillis la durée de vie d'un flux avant reconnexion du client
+     */
+    public MetricsStreamPublisher(LiveMetrics liveMetrics,
+                                  ObjectMapper objectMapper,
+                                  @Value("${app.metrics.stream.interval-ms:1000}") long intervalMillis,
+                                  @Value("${app.metrics.stream.max-clients:50}") int maxClients,
+                                  @Value("${app.metrics.stream.emitter-timeout-ms:1800000}") long emitterTimeoutMillis) {
+        this.liveMetrics = liveMetrics;
+        this.objectMapper = objectMapper;
+        this.maxClients = maxClients;
+        this.emitterTimeoutMillis = emitterTimeoutMillis;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "metrics-stream");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::publishSafely, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Abonne un client au flux.
+     *
+     * @return le flux du client, ou null si le nombre maximal d'abonnés est atteint
+     */
+    public SseEmitter subscribe() {
+        if (emitters.size() >= maxClients) {
+            return null;
+        }
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMillis);
+        emitter.onCompletion(() -> emitters.remove(emitter));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> emitters.remove(emitter));
+        emitters.add(emitter);
+        String payload = lastPayload;
+        if (payload != null) {
+            send(emitter, payload);
+        }
+        return emitter;
+    }
+
+    /**
+     * Retourne le nombre d'abonnés.
+     *
+     * @return le nombre d'abonnés
+     */
+    public int subscriberCount() {
+        return emitters.size();
+    }
+
+    /**
+     * Calcule l'instantané de la fenêtre écoulée et le diffuse aux abonnés.
+     *
+     * @return l'instantané publié
+     */
+    public MetricsSnapshot publish() {
+        MetricsSnapshot snapshot = liveMetrics.snapshot();
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(snapshot);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize metrics snapshot", e);
+        }
+        lastPayload = payload;
+        for (SseEmitter emitter : emitters) {
+            send(emitter, payload);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Arrête la diffusion et ferme les flux.
+     */
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+        for (SseEmitter emitter : emitters) {
+            emitter.complete();
+        }
+        emitters.clear();
+    }
+
+    private void send(SseEmitter emitter, String payload) {
+        try {
+            emitter.send(SseEmitter.event().name(EVENT_NAME).data(payload));
+        } catch (IOException | IllegalStateException e) {
+            // Client parti : le conteneur terminera la requête asynchrone
+            emitters.remove(emitter);
+        }
+    }
+
+    private void publishSafely() {
+        try {
+            publish();
+        } catch (RuntimeException e) {
+            log.warn("Failed to publish live metrics", e);
+        }
+    }
+}
@@ -0,0 +1,270 @@
+package com.portagecybertech.urlshortener.url_shortener.migration;
+
+import com.portagecybertech.urlshortener.url_shortener.service.UrlPrefixDictionary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Migrations de schéma exécutées avant l'initialisation de JPA.
+ *
+ * <p>Le schéma est géré par Hibernate ({@code ddl-auto=update}), qui sait ajouter
+ * des tables et des colonnes mais ni transformer des données existantes, ni supprimer
+ * des colonnes devenues obsolètes. Les bases créées par une version antérieure
+ * (par exemple {@code data/urlshortener.mv.db}) sont donc converties ici, via JDBC,
+ * avant que Hibernate ne compare le schéma aux entités.
+ *
+ * <p>Chaque étape est idempotente : elle détecte l'ancien format et ne fait rien
+ * sur une base neuve ou déjà migrée.
+ *
+ * <p><strong>Étapes :</strong>
+ * <ol>
+ *   <li>Compression des URLs : {@code url_mapping.original_url} est remplacée par
+ *       {@code prefix_id} + {@code url_suffix} et le dictionnaire {@code url_prefix}</li>
+ *   <li>Domaines courts : ajout de {@code domain_id} (0, domaine par défaut) à
+ *       {@code url_mapping} et {@code mapping_change}, et suppression des contraintes
+ *       d'unicité globales, remplacées par Hibernate par les index composites par domaine</li>
+ *   <li>Hôte des préfixes : ajout et remplissage de {@code url_prefix.host}, qui permet
+ *       de filtrer les listings par hôte en SQL</li>
+ * </ol>
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ */
+@Component
+public class SchemaMigrations implements InitializingBean {
+
+    private static final Logger log = LoggerFactory.getLogger(SchemaMigrations.class);
+
+    /**
+     * Source de données de l'application.
+     */
+    private final DataSource dataSource;
+
+    /**
+     * Constructeur principal.
+     *
+     * @param dataSource la source de données à migrer
+     */
+    public SchemaMigrations(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Exécute toutes les étapes de migration dans une transaction unique.
+     *
+     * @throws SQLException si une migration échoue (la transaction est annulée)
+     */
+    @Override
+    public void afterPropertiesSet() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                migrateOriginalUrlToPrefixDictionary(connection);
+                partitionMappingsByDomain(connection);
+                indexPrefixHosts(connection);
+                connection.commit();
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+    }
+
+    /**
+     * Remplace la colonne {@code original_url} par le couple {@code (prefix_id, url_suffix)}.
+     *
+     * @param connection la connexion JDBC (transaction en cours)
+     * @throws SQLException en cas d'erreur SQL
+     */
+    void migrateOriginalUrlToPrefixDictionary(Connection connection) throws SQLException {
+        if (!hasColumn(connection, "URL_MAPPING", "ORIGINAL_URL")) {
+            return;
+        }
+        log.info("Migrating url_mapping.original_url to the URL prefix dictionary");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("create table if not exists url_prefix ("
+                    + "id integer generated by default as identity primary key, "
+                    + "prefix varchar(2048) not null)");
+            if (!hasColumn(connection, "URL_MAPPING", "PREFIX_ID")) {
+                statement.execute("alter table url_mapping add column prefix_id integer");
+            }
+            if (!hasColumn(connection, "URL_MAPPING", "URL_SUFFIX")) {
+                statement.execute("alter table url_mapping add column url_suffix varchar(2048)");
+            }
+        }
+
+        Map<String, Integer> prefixIds = new HashMap<>();
+        int migrated = 0;
+        try (Statement select = connection.createStatement();
+             ResultSet rows = select.executeQuery("select id, original_url from url_mapping");
+             PreparedStatement update = connection.prepareStatement(
+                     "update url_mapping set prefix_id = ?, url_suffix = ? where id = ?")) {
+            while (rows.next()) {
+                String originalUrl = rows.getString(2);
+                int split = UrlPrefixDictionary.splitIndex(originalUrl);
+                String prefix = originalUrl.substring(0, split);
+                Integer prefixId = prefixIds.get(prefix);
+                if (prefixId == null) {
+                    prefixId = internPrefix(connection, prefix);
+                    prefixIds.put(prefix, prefixId);
+                }
+                update.setInt(1, prefixId);
+                update.setString(2, originalUrl.substring(split));
+                update.setLong(3, rows.getLong(1));
+                update.addBatch();
+                migrated++;
+            }
+            update.executeBatch();
+        }
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("alter table url_mapping alter column prefix_id set not null");
+            statement.execute("alter table url_mapping alter column url_suffix set not null");
+            statement.execute("alter table url_mapping drop column original_url");
+        }
+        log.info("Migrated {} URL mappings into {} prefixes", migrated, prefixIds.size());
+    }
+
+    /**
+     * Rattache les mappings existants au domaine par défaut et rend les codes uniques par domaine.
+     *
+     * <p>Les index uniques {@code (short_code)} et {@code (prefix_id, url_suffix)} sont
+     * supprimés : laissés en place, ils interdiraient le même code ou la même URL dans
+     * deux domaines. Hibernate crée ensuite les index {@code (domain_id, ...)} déclarés
+     * par l'entité.
+     *
+     * @param connection la connexion JDBC (transaction en cours)
+     * @throws SQLException en cas d'erreur SQL
+     */
+    void partitionMappingsByDomain(Connection connection) throws SQLException {
+        if (hasColumn(connection, "MAPPING_CHANGE", "SHORT_CODE") && !hasColumn(connection, "MAPPING_CHANGE", "DOMAIN_ID")) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("alter table mapping_change add column domain_id integer default 0 not null");
+            }
+        }
+        if (!hasColumn(connection, "URL_MAPPING", "SHORT_CODE") || hasColumn(connection, "URL_MAPPING", "DOMAIN_ID")) {
+            return;
+        }
+        log.info("Partitioning url_mapping by short domain");
+        List<String> uniqueConstraints = new ArrayList<>();
+        try (PreparedStatement select = connection.prepareStatement(
+                "select constraint_name from information_schema.table_constraints "
+                        + "where table_schema = ? and table_name = 'URL_MAPPING' and constraint_type = 'UNIQUE'")) {
+            select.setString(1, connection.getSchema());
+            try (ResultSet rows = select.executeQuery()) {
+                while (rows.next()) {
+                    uniqueConstraints.add(rows.getString(1));
+                }
+            }
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("alter table url_mapping add column domain_id integer default 0 not null");
+            for (String constraint : uniqueConstraints) {
+                statement.execute("alter table url_mapping drop constraint \"" + constraint + "\"");
+            }
+            statement.execute("drop index if exists idx_url_mapping_shortcode");
+            statement.execute("drop index if exists idx_url_mapping_prefix_suffix");
+        }
+        log.info("Moved existing mappings to the default domain, dropped {} global unique constraint(s)",
+                uniqueConstraints.size());
+    }
+
+    /**
+     * Ajoute la colonne {@code url_prefix.host} et la remplit à partir des préfixes existants.
+     *
+     * <p>Hibernate ajouterait la colonne, mais ne peut pas la déclarer non nulle sur une
+     * table déjà remplie ; l'index {@code idx_url_prefix_host} est ensuite créé par Hibernate.
+     *
+     * @param connection la connexion JDBC (transaction en cours)
+     * @throws SQLException en cas d'erreur SQL
+     */
+    void indexPrefixHosts(Connection connection) throws SQLException {
+        if (!hasColumn(connection, "URL_PREFIX", "PREFIX") || hasColumn(connection, "URL_PREFIX", "HOST")) {
+            return;
+        }
+        log.info("Adding the host column to url_prefix");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("alter table url_prefix add column host varchar(2048)");
+        }
+        int indexed = 0;
+        try (Statement select = connection.createStatement();
+             ResultSet rows = select.executeQuery("select id, prefix from url_prefix");
+             PreparedStatement update = connection.prepareStatement("update url_prefix set host = ? where id = ?")) {
+            while (rows.next()) {
+                update.setString(1, UrlPrefixDictionary.hostOf(rows.getString(2)));
+                update.setInt(2, rows.getInt(1));
+                update.addBatch();
+                indexed++;
+            }
+            update.executeBatch();
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("alter table url_prefix alter column host set not null");
+        }
+        log.info("Stored the host of {} URL prefixes", indexed);
+    }
+
+    private static int internPrefix(Connection connection, String prefix) throws SQLException {
+        try (PreparedStatement find = connection.prepareStatement("select id from url_prefix where prefix = ?")) {
+            find.setString(1, prefix);
+            try (ResultSet found = find.executeQuery()) {
+                if (found.next()) {
+                    return found.getInt(1);
+                }
+            }
+        }
+        try (PreparedStatement insert = connection.prepareStatement(
+                "insert into url_prefix (prefix) values (?)", Statement.RETURN_GENERATED_KEYS)) {
+            insert.setString(1, prefix);
+            insert.executeUpdate();
+            try (ResultSet keys = insert.getGeneratedKeys()) {
+                keys.next();
+                return keys.getInt(1);
+            }
+        }
+    }
+
+    /**
+     * Indique si une colonne existe dans le schéma courant.
+     *
+     * @param connection la connexion JDBC
+     * @param table le nom de la table (en majuscules)
+     * @param column le nom de la colonne (en majuscules)
+     * @return true si la colonne existe
+     * @throws SQLException en cas d'erreur d'accès aux métadonnées
+     */
+    static boolean hasColumn(Connection connection, String table, String column) throws SQLException {
+        try (ResultSet columns = connection.getMetaData().getColumns(null, connection.getSchema(), table, column)) {
+            return columns.next();
+        }
+    }
+
+    /**
+     * Garantit que les migrations sont exécutées avant la création de l'EntityManagerFactory.
+     */
+    @Component
+    static class JpaDependency extends EntityManagerFactoryDependsOnPostProcessor {
+
+        JpaDependency() {
+            super(SchemaMigrations.class);
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.portagecybertech.urlshortener.url_shortener.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+
+/**
+ * Entité JPA marquant comme supprimé un mapping archivé.
+ *
+ * <p>Les segments d'archive sont immuables : la suppression d'un code archivé est
+ * enregistrée ici et masque l'entrée du segment lors des résolutions. Le code reste
+ * réservé et n'est jamais réattribué.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ */
+@Entity
+@Table(name = "archive_tombstone")
+public class ArchiveTombstone {
+
+    /**
+     * Code court supprimé.
+     */
+    @Id
+    @Column(name = "short_code", length = 10)
+    private String shortCode;
+
+    /**
+     * Date de la suppression.
+     */
+    @Column(name = "deleted_at", nullable = false)
+    private Instant deletedAt;
+
+    /**
+     * Constructeur par défaut requis par JPA.
+     */
+    protected ArchiveTombstone() {
+    }
+
+    /**
+     * Constructeur principal.
+     *
+     * @param shortCode le code court supprimé
+     * @param deletedAt la date de la suppression
+     */
+    public ArchiveTombstone(String shortCode, Instant deletedAt) {
+        this.shortCode = shortCode;
+        this.deletedAt = deletedAt;
+    }
+
+    /**
+     * Retourne le code court supprimé.
+     *
+     * @return le code court
+     */
+    public String getShortCode() {
+        return shortCode;
+    }
+
+    /**
+     * Retourne la date de la suppression.
+     *
+     * @return la date de la suppression
+     */
+    public Instant getDeletedAt() {
+        return deletedAt;
+    }
+}
@@ -0,0 +1,163 @@
+package com.portagecybertech.urlshortener.url_shortener.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+
+/**
+ * Entité JPA du dernier état connu de la destination d'un mapping.
+ *
+ * <p>Tenue à part de {@code url_mapping} : les vérifications réécrivent cette table
+ * par lots sans toucher aux lignes lues par les redirections. L'état d'un mapping
+ * supprimé disparaît à la prochaine vérification complète.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ */
+@Entity
+@Table(name = "destination_status")
+public class DestinationStatus {
+
+    /**
+     * Identifiant du mapping vérifié.
+     */
+    @Id
+    @Column(name = "mapping_id")
+    private Long mappingId;
+
+    /**
+     * True si la destination a répondu avec un statut inférieur à 400.
+     */
+    @Column(name = "healthy", nullable = false)
+    private boolean healthy;
+
+    /**
+     * Statut HTTP de la dernière réponse, 0 si aucune réponse n'a été obtenue.
+     */
+    @Column(name = "http_status", nullable = false)
+    private int httpStatus;
+
+    /**
+     * Cause de l'échec sans réponse (délai dépassé, connexion refusée...), ou null.
+     */
+    @Column(name = "error", length = 255)
+    private String error;
+
+    /**
+     * Durée de la vérification, en millisecondes.
+     */
+    @Column(name = "latency_ms", nullable = false)
+    private int latencyMillis;
+
+    /**
+     * Nombre de vérifications en échec consécutives.
+     */
+    @Column(name = "consecutive_failures", nullable = false)
+    private int consecutiveFailures;
+
+    /**
+     * Date de la dernière vérification.
+     */
+    @Column(name = "checked_at", nullable = false)
+    private Instant checkedAt;
+
+    /**
+     * Constructeur par défaut requis par JPA.
+     */
+    protected DestinationStatus() {
+    }
+
+    /**
+     * Constructeur principal.
+     *
+     * @param mappingId l'identifiant du mapping vérifié
+     */
+    public DestinationStatus(Long mappingId) {
+        this.mappingId = mappingId;
+    }
+
+    /**
+     * Enregistre le résultat d'une vérification.
+     *
+     * @param healthy true si la destination est joignable
+     * @param httpStatus le statut HTTP, 0 sans réponse
+     * @param error la cause de l'échec sans réponse, ou null
+     * @param latencyMillis la durée de la vérification
+     * @param checkedAt la date de la vérification
+     */
+    public void record(boolean healthy, int httpStatus, String error, int latencyMillis, Instant checkedAt) {
+        this.consecutiveFailures = healthy ? 0 : consecutiveFailures + 1;
+        this.healthy = healthy;
+        this.httpStatus = httpStatus;
+        this.error = error == null || error.length() <= 255 ? error : error.substring(0, 255);
+        this.latencyMillis = latencyMillis;
+        this.checkedAt = checkedAt;
+    }
+
+    /**
+     * Retourne l'identifiant du mapping vérifié.
+     *
+     * @return l'identifiant du mapping
+     */
+    public Long getMappingId() {
+        return mappingId;
+    }
+
+    /**
+     * Indique si la destination est joignable.
+     *
+     * @return true si le dernier statut est inférieur à 400
+     */
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    /**
+     * Retourne le statut HTTP de la dernière réponse.
+     *
+     * @return le statut, 0 sans réponse
+     */
+    public int getHttpStatus() {
+        return httpStatus;
+    }
+
+    /**
+     * Retourne la cause du dernier échec sans réponse.
+     *
+     * @return la cause, ou null
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * Retourne la durée de la dernière vérification.
+     *
+     * @return la durée en millisecondes
+     */
+    public int getLatencyMillis() {
+        return latencyMillis;
+    }
+
+    /**
+     * Retourne le nombre de vérifications en échec consécutives.
+     *
+     * @return le nombre d'échecs consécutifs
+     */
+    public int getConsecutiveFailures() {
+        return consecutiveFailures;
+    }
+
+    /**
+     * Retourne la date de la dernière vérification.
+     *
+     * @return la date de la vérification
+     */
+    public Instant getCheckedAt() {
+        return checkedAt;
+    }
+}
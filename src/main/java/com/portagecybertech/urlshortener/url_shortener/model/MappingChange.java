@@ -0,0 +1,158 @@
+package com.portagecybertech.urlshortener.url_shortener.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+
+/**
+ * Entité JPA représentant une entrée du journal des modifications ({@code mapping_change}).
+ *
+ * <p>Chaque création ou suppression de mapping ajoute une ligne à ce journal, dans
+ * la même transaction que la modification elle-même (motif <em>outbox</em>). Le
+ * numéro de séquence, croissant, permet aux réplicas de suivre le journal et
+ * d'appliquer les modifications de façon incrémentale.
+ *
+ * <p>L'URL originale y est stockée en entier : une entrée se suffit à elle-même
+ * et ne dépend pas du dictionnaire de préfixes du primaire.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ * @see UrlMapping
+ */
+@Entity
+@Table(name = "mapping_change")
+public class MappingChange {
+
+    /**
+     * Type de modification journalisée.
+     */
+    public enum Operation {
+        /** Création d'un mapping. */
+        CREATE,
+        /** Suppression d'un mapping. */
+        DELETE
+    }
+
+    /**
+     * Numéro de séquence, attribué par la base dans l'ordre des insertions.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long seq;
+
+    /**
+     * Type de modification.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "operation", length = 8, nullable = false)
+    private Operation operation;
+
+    /**
+     * Identifiant du domaine court du code concerné.
+     */
+    @Column(name = "domain_id", nullable = false)
+    private int domainId;
+
+    /**
+     * Code court concerné.
+     */
+    @Column(name = "short_code", length = 10, nullable = false)
+    private String shortCode;
+
+    /**
+     * URL originale complète (null pour une suppression).
+     */
+    @Column(name = "original_url", length = 2048)
+    private String originalUrl;
+
+    /**
+     * Instant d'enregistrement de la modification.
+     */
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    /**
+     * Constructeur par défaut requis par JPA.
+     */
+    protected MappingChange() {
+    }
+
+    /**
+     * Constructeur principal pour journaliser une modification.
+     *
+     * @param operation le type de modification
+     * @param domainId l'identifiant du domaine court
+     * @param shortCode le code court concerné
+     * @param originalUrl l'URL originale complète, ou null pour une suppression
+     * @param createdAt l'instant de la modification
+     */
+    public MappingChange(Operation operation, int domainId, String shortCode, String originalUrl, Instant createdAt) {
+        this.operation = operation;
+        this.domainId = domainId;
+        this.shortCode = shortCode;
+        this.originalUrl = originalUrl;
+        this.createdAt = createdAt;
+    }
+
+    /**
+     * Retourne le numéro de séquence.
+     *
+     * @return le numéro généré par la base, ou null si pas encore persisté
+     */
+    public Long getSeq() {
+        return seq;
+    }
+
+    /**
+     * Retourne le type de modification.
+     *
+     * @return l'opération journalisée
+     */
+    public Operation getOperation() {
+        return operation;
+    }
+
+    /**
+     * Retourne l'identifiant du domaine court du code concerné.
+     *
+     * @return l'identifiant du domaine
+     */
+    public int getDomainId() {
+        return domainId;
+    }
+
+    /**
+     * Retourne le code court concerné.
+     *
+     * @return le code court
+     */
+    public String getShortCode() {
+        return shortCode;
+    }
+
+    /**
+     * Retourne l'URL originale complète.
+     *
+     * @return l'URL originale, ou null pour une suppression
+     */
+    public String getOriginalUrl() {
+        return originalUrl;
+    }
+
+    /**
+     * Retourne l'instant de la modification.
+     *
+     * @return l'instant d'enregistrement
+     */
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+}
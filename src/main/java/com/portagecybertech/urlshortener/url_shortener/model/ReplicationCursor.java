@@ -0,0 +1,79 @@
+package com.portagecybertech.urlshortener.url_shortener.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Entité JPA mémorisant la position d'un réplica dans le journal des modifications.
+ *
+ * <p>Mise à jour dans la même transaction que l'application des modifications :
+ * après un redémarrage, le réplica reprend exactement là où il s'était arrêté.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ * @see MappingChange
+ */
+@Entity
+@Table(name = "replication_cursor")
+public class ReplicationCursor {
+
+    /**
+     * Nom de la source suivie (ex: {@code jdbc}, {@code segments}).
+     */
+    @Id
+    @Column(name = "source", length = 64)
+    private String source;
+
+    /**
+     * Numéro de séquence de la dernière modification appliquée.
+     */
+    @Column(name = "applied_seq", nullable = false)
+    private long appliedSeq;
+
+    /**
+     * Constructeur par défaut requis par JPA.
+     */
+    protected ReplicationCursor() {
+    }
+
+    /**
+     * Constructeur principal.
+     *
+     * @param source le nom de la source suivie
+     * @param appliedSeq la dernière séquence appliquée
+     */
+    public ReplicationCursor(String source, long appliedSeq) {
+        this.source = source;
+        this.appliedSeq = appliedSeq;
+    }
+
+    /**
+     * Retourne le nom de la source suivie.
+     *
+     * @return le nom de la source
+     */
+    public String getSource() {
+        return source;
+    }
+
+    /**
+     * Retourne la dernière séquence appliquée.
+     *
+     * @return la dernière séquence appliquée
+     */
+    public long getAppliedSeq() {
+        return appliedSeq;
+    }
+
+    /**
+     * Met à jour la dernière séquence appliquée.
+     *
+     * @param appliedSeq la nouvelle position
+     */
+    public void setAppliedSeq(long appliedSeq) {
+        this.appliedSeq = appliedSeq;
+    }
+}
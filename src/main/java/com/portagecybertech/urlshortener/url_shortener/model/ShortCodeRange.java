@@ -0,0 +1,70 @@
+package com.portagecybertech.urlshortener.url_shortener.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Entité JPA mémorisant la prochaine séquence non réservée du pool de codes courts.
+ *
+ * <p>Chaque réservation avance {@code next_seq} d'un lot entier dans une transaction
+ * commitée avant que les codes du lot ne soient distribués : après un arrêt brutal,
+ * les codes réservés et non utilisés sont abandonnés, jamais réattribués.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ */
+@Entity
+@Table(name = "short_code_range")
+public class ShortCodeRange {
+
+    /**
+     * Nom de la séquence (une par pool).
+     */
+    @Id
+    @Column(name = "name", length = 64)
+    private String name;
+
+    /**
+     * Première séquence non encore réservée.
+     */
+    @Column(name = "next_seq", nullable = false)
+    private long nextSeq;
+
+    /**
+     * Constructeur par défaut requis par JPA.
+     */
+    protected ShortCodeRange() {
+    }
+
+    /**
+     * Constructeur principal.
+     *
+     * @param name le nom de la séquence
+     * @param nextSeq la première séquence non réservée
+     */
+    public ShortCodeRange(String name, long nextSeq) {
+        this.name = name;
+        this.nextSeq = nextSeq;
+    }
+
+    /**
+     * Retourne le nom de la séquence.
+     *
+     * @return le nom de la séquence
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Retourne la première séquence non encore réservée.
+     *
+     * @return la première séquence non réservée
+     */
+    public long getNextSeq() {
+        return nextSeq;
+    }
+}
@@ -0,0 +1,90 @@
+package com.portagecybertech.urlshortener.url_shortener.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Entité JPA représentant un domaine court (espace de noms des codes courts).
+ *
+ * <p>Chaque mapping appartient à un domaine ; un même code court peut désigner des URLs
+ * différentes dans deux domaines. L'identifiant est fixé par la configuration
+ * ({@code app.domains}) et non généré : il doit être identique sur le primaire et les
+ * réplicas, et ne jamais être réattribué à un autre hôte tant que des mappings le référencent.
+ *
+ * <p>Le domaine {@code 0} est le domaine par défaut, construit depuis {@code app.base-url}.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ */
+@Entity
+@Table(name = "short_domain")
+public class ShortDomain {
+
+    /**
+     * Identifiant du domaine, référencé par {@code url_mapping.domain_id}.
+     */
+    @Id
+    @Column(name = "id")
+    private Integer id;
+
+    /**
+     * Nom d'hôte du domaine, en minuscules et sans port (unicité vérifiée sur la configuration).
+     */
+    @Column(name = "host", length = 253, nullable = false)
+    private String host;
+
+    /**
+     * URL de base des URLs raccourcies du domaine (ex: {@code https://go.example.com}).
+     */
+    @Column(name = "base_url", length = 2048, nullable = false)
+    private String baseUrl;
+
+    /**
+     * Constructeur par défaut requis par JPA.
+     */
+    protected ShortDomain() {
+    }
+
+    /**
+     * Constructeur principal.
+     *
+     * @param id l'identifiant du domaine
+     * @param host le nom d'hôte, en minuscules et sans port
+     * @param baseUrl l'URL de base des URLs raccourcies
+     */
+    public ShortDomain(int id, String host, String baseUrl) {
+        this.id = id;
+        this.host = host;
+        this.baseUrl = baseUrl;
+    }
+
+    /**
+     * Retourne l'identifiant du domaine.
+     *
+     * @return l'identifiant
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Retourne le nom d'hôte du domaine.
+     *
+     * @return le nom d'hôte, en minuscules et sans port
+     */
+    public String getHost() {
+        return host;
+    }
+
+    /**
+     * Retourne l'URL de base des URLs raccourcies du domaine.
+     *
+     * @return l'URL de base, sans {@code /} final
+     */
+    public String getBaseUrl() {
+        return baseUrl;
+    }
+}
@@ -8,17 +8,28 @@ import jakarta.persistence.Id;
 import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 
+import java.time.Instant;
+
 /**
  * Entité JPA représentant le mapping entre une URL courte et une URL originale.
  * 
  * <p>Cette classe stocke la correspondance entre :
  * <ul>
- *   <li>Un code court généré (shortCode) - identifiant unique de l'URL raccourcie</li>
- *   <li>L'URL originale complète (originalUrl) - l'URL de destination</li>
+ *   <li>Un domaine court (domainId) - espace de noms du code, voir {@link ShortDomain}</li>
+ *   <li>Un code court généré (shortCode) - identifiant unique de l'URL raccourcie dans son domaine</li>
+ *   <li>L'URL originale (l'URL de destination), sous forme compressée :
+ *       l'identifiant de son préfixe {@code scheme://authority} dans le dictionnaire
+ *       {@link UrlPrefix} et le suffixe restant</li>
  * </ul>
  * 
- * <p>La table est optimisée avec des index uniques sur les deux colonnes principales
- * pour garantir l'unicité et améliorer les performances de recherche.
+ * <p>La table est optimisée avec des index uniques sur (domaine, code court) et sur
+ * (domaine, préfixe, suffixe) pour garantir l'unicité par domaine et améliorer les
+ * performances de recherche. Le domaine en tête de chaque index le partitionne : les
+ * entrées d'un domaine sont contiguës. Le préfixe n'étant stocké qu'une fois, les lignes
+ * et l'index restent compacts.
+ * 
+ * <p>Les dates de création et de dernier accès permettent d'archiver les mappings
+ * inactifs hors de la base (voir {@code archive.ArchiveTiering}).
  * 
  * @author Aziz Rayene Delaa
  * @version 1.0
@@ -28,8 +39,9 @@ import jakarta.persistence.Table;
 @Table(
     name = "url_mapping",
     indexes = {
-        @Index(name = "idx_url_mapping_shortcode", columnList = "short_code", unique = true),
-        @Index(name = "idx_url_mapping_originalurl", columnList = "original_url", unique = true)
+        @Index(name = "idx_url_mapping_domain_shortcode", columnList = "domain_id, short_code", unique = true),
+        @Index(name = "idx_url_mapping_domain_prefix_suffix", columnList = "domain_id, prefix_id, url_suffix", unique = true),
+        @Index(name = "idx_url_mapping_prefix_id", columnList = "prefix_id, id")
     }
 )
 public class UrlMapping {
@@ -42,33 +54,61 @@ public class UrlMapping {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    /**
+     * Identifiant du domaine court du mapping.
+     * 
+     * <p>Référence une entrée de la table {@code short_domain} ; 0 désigne le domaine
+     * par défaut ({@code app.base-url}).
+     */
+    @Column(name = "domain_id", nullable = false)
+    private int domainId;
+
     /**
      * Code court généré pour l'URL raccourcie.
      * 
      * <p>Caractéristiques :
      * <ul>
      *   <li>Longueur maximale : 10 caractères</li>
-     *   <li>Unique dans la base de données</li>
+     *   <li>Unique dans son domaine</li>
      *   <li>Non nullable</li>
      *   <li>Utilisé dans l'URL raccourcie : http://localhost:8080/{shortCode}</li>
      * </ul>
      */
-    @Column(name = "short_code", length = 10, nullable = false, unique = true)
+    @Column(name = "short_code", length = 10, nullable = false)
     private String shortCode;
 
     /**
-     * URL originale complète à raccourcir.
+     * Identifiant du préfixe {@code scheme://authority} de l'URL originale.
+     * 
+     * <p>Référence une entrée de la table {@code url_prefix}.
+     */
+    @Column(name = "prefix_id", nullable = false)
+    private int prefixId;
+
+    /**
+     * Suffixe de l'URL originale (chemin, requête et fragment).
      * 
      * <p>Caractéristiques :
      * <ul>
      *   <li>Longueur maximale : 2048 caractères</li>
-     *   <li>Unique dans la base de données (évite les doublons)</li>
-     *   <li>Non nullable</li>
-     *   <li>Doit être une URL HTTP/HTTPS valide</li>
+     *   <li>Unique avec le préfixe (évite les doublons)</li>
+     *   <li>Non nullable (vide si l'URL se limite à son préfixe)</li>
      * </ul>
      */
-    @Column(name = "original_url", length = 2048, nullable = false, unique = true)
-    private String originalUrl;
+    @Column(name = "url_suffix", length = 2048, nullable = false)
+    private String urlSuffix;
+
+    /**
+     * Date de création du mapping (null pour les lignes antérieures à cette colonne).
+     */
+    @Column(name = "created_at")
+    private Instant createdAt;
+
+    /**
+     * Date approximative du dernier accès, mise à jour par lots (null si jamais consulté).
+     */
+    @Column(name = "last_accessed_at")
+    private Instant lastAccessedAt;
 
     /**
      * Constructeur par défaut requis par JPA.
@@ -80,16 +120,31 @@ public class UrlMapping {
     protected UrlMapping() {
     }
 
+    /**
+     * Crée une correspondance URL dans le domaine par défaut.
+     * 
+     * @param shortCode le code court généré pour l'URL raccourcie
+     * @param prefixId l'identifiant du préfixe de l'URL originale dans le dictionnaire
+     * @param urlSuffix le suffixe de l'URL originale
+     */
+    public UrlMapping(String shortCode, int prefixId, String urlSuffix) {
+        this(0, shortCode, prefixId, urlSuffix);
+    }
+
     /**
      * Constructeur principal pour créer une nouvelle correspondance URL.
      * 
+     * @param domainId l'identifiant du domaine court
      * @param shortCode le code court généré pour l'URL raccourcie
-     * @param originalUrl l'URL originale complète à raccourcir
-     * @throws IllegalArgumentException si l'un des paramètres est null ou vide
+     * @param prefixId l'identifiant du préfixe de l'URL originale dans le dictionnaire
+     * @param urlSuffix le suffixe de l'URL originale
      */
-    public UrlMapping(String shortCode, String originalUrl) {
+    public UrlMapping(int domainId, String shortCode, int prefixId, String urlSuffix) {
+        this.domainId = domainId;
         this.shortCode = shortCode;
-        this.originalUrl = originalUrl;
+        this.prefixId = prefixId;
+        this.urlSuffix = urlSuffix;
+        this.createdAt = Instant.now();
     }
 
     /**
@@ -101,23 +156,57 @@ public class UrlMapping {
         return id;
     }
 
+    /**
+     * Retourne l'identifiant du domaine court du mapping.
+     * 
+     * @return l'identifiant du domaine (0 pour le domaine par défaut)
+     */
+    public int getDomainId() {
+        return domainId;
+    }
+
     /**
      * Retourne le code court de l'URL raccourcie.
      * 
-     * @return le code court unique, non null
+     * @return le code court, unique dans son domaine, non null
      */
     public String getShortCode() {
         return shortCode;
     }
 
     /**
-     * Retourne l'URL originale complète.
+     * Retourne l'identifiant du préfixe de l'URL originale.
      * 
-     * @return l'URL originale, non null
+     * @return l'identifiant dans le dictionnaire {@code url_prefix}
      */
-    public String getOriginalUrl() {
-        return originalUrl;
+    public int getPrefixId() {
+        return prefixId;
     }
-}
 
+    /**
+     * Retourne le suffixe de l'URL originale.
+     * 
+     * @return le suffixe, éventuellement vide, non null
+     */
+    public String getUrlSuffix() {
+        return urlSuffix;
+    }
 
+    /**
+     * Retourne la date de création du mapping.
+     * 
+     * @return la date de création, ou null pour une ligne ancienne
+     */
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Retourne la date approximative du dernier accès.
+     * 
+     * @return la date du dernier accès enregistré, ou null
+     */
+    public Instant getLastAccessedAt() {
+        return lastAccessedAt;
+    }
+}
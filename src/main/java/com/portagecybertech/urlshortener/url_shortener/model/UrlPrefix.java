@@ -0,0 +1,100 @@
+package com.portagecybertech.urlshortener.url_shortener.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * Entité JPA représentant une entrée du dictionnaire de préfixes d'URLs.
+ *
+ * <p>Les URLs originales partagent un petit nombre de préfixes
+ * {@code scheme://authority} (ex: {@code https://www.example.com}). Chaque préfixe
+ * distinct n'est stocké qu'une seule fois dans cette table ; les lignes de
+ * {@code url_mapping} ne conservent que l'identifiant du préfixe et le suffixe
+ * restant (chemin, requête, fragment).
+ *
+ * <p>L'hôte du préfixe est dénormalisé et indexé pour que le filtrage des
+ * listings par hôte reste une requête SQL, sans parcours du dictionnaire.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ * @see UrlMapping
+ */
+@Entity
+@Table(
+    name = "url_prefix",
+    indexes = {
+        @Index(name = "idx_url_prefix_prefix", columnList = "prefix", unique = true),
+        @Index(name = "idx_url_prefix_host", columnList = "host")
+    }
+)
+public class UrlPrefix {
+
+    /**
+     * Identifiant compact du préfixe, référencé par {@code url_mapping.prefix_id}.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    /**
+     * Préfixe {@code scheme://authority} tel qu'il apparaît dans l'URL originale.
+     */
+    @Column(name = "prefix", length = 2048, nullable = false, unique = true)
+    private String prefix;
+
+    /**
+     * Hôte du préfixe, en minuscules, sans informations d'utilisateur ni port.
+     */
+    @Column(name = "host", length = 2048, nullable = false)
+    private String host;
+
+    /**
+     * Constructeur par défaut requis par JPA.
+     */
+    protected UrlPrefix() {
+    }
+
+    /**
+     * Constructeur principal pour créer une nouvelle entrée du dictionnaire.
+     *
+     * @param prefix le préfixe {@code scheme://authority}
+     * @param host l'hôte du préfixe, en minuscules
+     */
+    public UrlPrefix(String prefix, String host) {
+        this.prefix = prefix;
+        this.host = host;
+    }
+
+    /**
+     * Retourne l'identifiant du préfixe.
+     *
+     * @return l'ID généré par la base de données, ou null si pas encore persisté
+     */
+    public Integer getId() {
+        return id;
+    }
+
+    /**
+     * Retourne la valeur du préfixe.
+     *
+     * @return le préfixe, non null
+     */
+    public String getPrefix() {
+        return prefix;
+    }
+
+    /**
+     * Retourne l'hôte du préfixe.
+     *
+     * @return l'hôte, en minuscules
+     */
+    public String getHost() {
+        return host;
+    }
+}
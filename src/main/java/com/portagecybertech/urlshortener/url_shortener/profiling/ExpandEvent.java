@@ -0,0 +1,60 @@
+package com.portagecybertech.urlshortener.url_shortener.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Événement JFR d'une résolution de code court ({@code UrlService.findOriginalUrl}).
+ *
+ * <p>Le niveau indique où la résolution a été servie : cache mémoire, base ou archive.
+ * Un code inconnu a le niveau de la dernière source consultée et {@code found = false}.
+ *
+ * <p>Les traces de pile sont désactivées. Le seuil par défaut (100 µs) écarte les
+ * succès de cache, de loin les plus nombreux, et ne garde que les résolutions qui
+ * ont touché le stockage ; il peut être abaissé à 0 par les paramètres de l'enregistrement.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ */
+@Name("com.portagecybertech.urlshortener.Expand")
+@Label("Expand")
+@Category({"URL Shortener", "Service"})
+@Description("Résolution d'un code court")
+@StackTrace(false)
+@Threshold("100 us")
+public class ExpandEvent extends Event {
+
+    /**
+     * Résolution servie par le cache mémoire.
+     */
+    public static final String TIER_CACHE = "cache";
+
+    /**
+     * Résolution servie par la base.
+     */
+    public static final String TIER_DATABASE = "database";
+
+    /**
+     * Résolution servie par l'archive.
+     */
+    public static final String TIER_ARCHIVE = "archive";
+
+    @Label("Domain Id")
+    public int domainId;
+
+    @Label("Short Code")
+    public String shortCode;
+
+    @Label("Tier")
+    @Description("cache, database ou archive")
+    public String tier;
+
+    @Label("Found")
+    public boolean found;
+}
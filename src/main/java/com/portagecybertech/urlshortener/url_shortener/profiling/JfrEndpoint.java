@@ -0,0 +1,104 @@
+package com.portagecybertech.urlshortener.url_shortener.profiling;
+
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Endpoint Actuator de pilotage de l'enregistrement Java Flight Recorder.
+ *
+ * <p><strong>Opérations :</strong>
+ * <ul>
+ *   <li>{@code GET /actuator/jfr} - État de l'enregistrement</li>
+ *   <li>{@code POST /actuator/jfr/start} - Démarre l'enregistrement avec {@code app.jfr.settings} ;
+ *       {@code POST /actuator/jfr/start/profile} choisit la configuration JDK</li>
+ *   <li>{@code POST /actuator/jfr/stop} - Arrête l'enregistrement et retourne le chemin du fichier écrit</li>
+ *   <li>{@code GET /actuator/jfr/dump} - Télécharge un instantané ({@code .jfr}) sans arrêter l'enregistrement</li>
+ * </ul>
+ *
+ * <p>L'endpoint n'est publié que s'il figure dans {@code management.endpoints.web.exposure.include},
+ * ce qui n'est pas le cas par défaut : il n'est pas authentifié et ses instantanés contiennent
+ * les variables d'environnement et les propriétés système.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ * @see JfrRecordings
+ */
+@Component
+@WebEndpoint(id = "jfr")
+public class JfrEndpoint {
+
+    private final JfrRecordings recordings;
+
+    /**
+     * Constructeur principal de l'endpoint.
+     *
+     * @param recordings l'enregistrement piloté
+     */
+    public JfrEndpoint(JfrRecordings recordings) {
+        this.recordings = recordings;
+    }
+
+    /**
+     * Retourne l'état de l'enregistrement.
+     *
+     * @return l'état courant
+     */
+    @ReadOperation
+    public JfrRecordings.Status status() {
+        return recordings.status();
+    }
+
+    /**
+     * Démarre ou arrête l'enregistrement.
+     *
+     * <p>Les arguments sont dans le chemin : les requêtes n'ont pas de corps.
+     *
+     * @param path {@code start}, {@code start/<configuration JDK>} ou {@code stop}
+     * @return l'état après {@code start}, le fichier écrit après {@code stop}, 400 pour une action inconnue
+     */
+    @WriteOperation
+    public WebEndpointResponse<Object> control(@Selector(match = Selector.Match.ALL_REMAINING) String[] path) {
+        String action = path[0];
+        try {
+            switch (action) {
+                case "start":
+                    return new WebEndpointResponse<>(recordings.start(path.length > 1 ? path[1] : null));
+                case "stop":
+                    Path file = recordings.stop();
+                    return new WebEndpointResponse<>(Map.of("file", file == null ? "" : file.toString()));
+                default:
+                    return new WebEndpointResponse<>("Unknown action: " + action, WebEndpointResponse.STATUS_BAD_REQUEST);
+            }
+        } catch (IllegalArgumentException e) {
+            return new WebEndpointResponse<>(e.getMessage(), WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+    }
+
+    /**
+     * Écrit et retourne un instantané de l'enregistrement en cours.
+     *
+     * @param action {@code dump}
+     * @return le fichier {@code .jfr}, 404 pour une autre action, 409 sans enregistrement en cours
+     */
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> dump(@Selector String action) {
+        if (!"dump".equals(action)) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        try {
+            return new WebEndpointResponse<>(new FileSystemResource(recordings.dump()));
+        } catch (IllegalStateException e) {
+            return new WebEndpointResponse<>(409);
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.portagecybertech.urlshortener.url_shortener.profiling;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Enregistrement Java Flight Recorder piloté par l'application.
+ *
+ * <p>Un seul enregistrement à la fois, démarré à partir d'une configuration JDK
+ * ({@code default}, faible surcoût, ou {@code profile}) à laquelle s'ajoutent les
+ * événements de l'application ({@link ShortenEvent}, {@link ExpandEvent},
+ * {@link RedirectEvent}, {@link ShortCodeCollisionEvent}) avec les seuils configurés.
+ * L'enregistrement est circulaire : bornés par {@code max-age-ms} et {@code max-size-bytes},
+ * les tampons peuvent tourner en continu en production.
+ *
+ * <p>Les fichiers (instantanés et enregistrement final à l'arrêt) sont écrits dans
+ * {@code app.jfr.dir} ; seuls les {@code max-files} plus récents sont conservés, les
+ * plus anciens étant supprimés après chaque écriture. Les instantanés contenant les
+ * variables d'environnement et les propriétés système, le répertoire doit rester privé.
+ *
+ * <p><strong>Configuration :</strong> {@code app.jfr.*} ; {@code start-on-startup=true}
+ * démarre l'enregistrement continu avec l'application.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ * @see JfrEndpoint
+ */
+@Component
+public class JfrRecordings {
+
+    private static final Logger log = LoggerFactory.getLogger(JfrRecordings.class);
+
+    /**
+     * Nom de l'enregistrement, visible dans {@code jcmd JFR.check}.
+     */
+    public static final String RECORDING_NAME = "url-shortener";
+
+    private static final DateTimeFormatter FILE_TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS").withZone(ZoneOffset.UTC);
+
+    private final String defaultSettings;
+
+    private final Duration maxAge;
+
+    private final long maxSizeBytes;
+
+    private final Path dir;
+
+    /**
+     * Nombre de fichiers d'enregistrement conservés dans {@link #dir}.
+     */
+    private final int maxFiles;
+
+    private final Duration shortenThreshold;
+
+    private final Duration expandThreshold;
+
+    private final Duration redirectThreshold;
+
+    /**
+     * Enregistrement en cours, ou null ; protégé par {@code this}.
+     */
+    private Recording recording;
+
+    /**
+     * Configuration JDK de l'enregistrement en cours.
+     */
+    private String settings;
+
+    /**
+     * Constructeur principal, alimenté par les propriétés {@code app.jfr.*}.
+     *
+     * @param defaultSettings la configuration JDK par défaut ({@code default} ou {@code profile})
+     * @param maxAgeMs l'âge maximal des données conservées, en millisecondes
+     * @param maxSizeBytes la taille maximale des données conservées, en octets
+     * @param dir le répertoire des fichiers d'enregistrement
+     * @param maxFiles le nombre de fichiers d'enregistrement conservés (au moins 1)
+     * @param shortenThresholdUs le seuil de {@link ShortenEvent}, en microsecondes
+     * @param expandThresholdUs le seuil de {@link ExpandEvent}, en microsecondes
+     * @param redirectThresholdUs le seuil de {@link RedirectEvent}, en microsecondes
+     * @param startOnStartup true pour démarrer l'enregistrement continu au démarrage
+     */
+    @Autowired
+    public JfrRecordings(@Value("${app.jfr.settings:default}") String defaultSettings,
+                         @Value("${app.jfr.max-age-ms:3600000}") long maxAgeMs,
+                         @Value("${app.jfr.max-size-bytes:268435456}") long maxSizeBytes,
+                         @Value("${app.jfr.dir:./logs/jfr}") String dir,
+                         @Value("${app.jfr.max-files:10}") int maxFiles,
+                         @Value("${app.jfr.threshold.shorten-us:0}") long shortenThresholdUs,
+                         @Value("${app.jfr.threshold.expand-us:100}") long expandThresholdUs,
+                         @Value("${app.jfr.threshold.redirect-us:100}") long redirectThresholdUs,
+                         @Value("${app.jfr.start-on-startup:false}") boolean startOnStartup) {
+        this.defaultSettings = defaultSettings;
+        this.maxAge = Duration.ofMillis(maxAgeMs);
+        this.maxSizeBytes = maxSizeBytes;
+        this.dir = Paths.get(dir);
+        this.maxFiles = Math.max(1, maxFiles);
+        this.shortenThreshold = Duration.ofNanos(shortenThresholdUs * 1_000);
+        this.expandThreshold = Duration.ofNanos(expandThresholdUs * 1_000);
+        this.redirectThreshold = Duration.ofNanos(redirectThresholdUs * 1_000);
+        if (startOnStartup) {
+            start(null);
+        }
+    }
+
+    /**
+     * Démarre l'enregistrement, s'il n'est pas déjà en cours.
+     *
+     * @param settings la configuration JDK ({@code default} ou {@code profile}), ou null
+     *                 pour celle de {@code app.jfr.settings}
+     * @return l'état de l'enregistrement
+     * @throws IllegalArgumentException si la configuration est inconnue
+     */
+    public synchronized Status start(String settings) {
+        if (recording != null) {
+            return status();
+        }
+        String name = settings == null || settings.isBlank() ? defaultSettings : settings;
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(name);
+        } catch (IOException | ParseException e) {
+            throw new IllegalArgumentException("Unknown JFR settings: " + name, e);
+        }
+        Recording started = new Recording(configuration);
+        started.setName(RECORDING_NAME);
+        started.setToDisk(true);
+        started.setMaxAge(maxAge);
+        started.setMaxSize(maxSizeBytes);
+        started.enable(ShortenEvent.class).withThreshold(shortenThreshold).withoutStackTrace();
+        started.enable(ExpandEvent.class).withThreshold(expandThreshold).withoutStackTrace();
+        started.enable(RedirectEvent.class).withThreshold(redirectThreshold).withoutStackTrace();
+        started.enable(ShortCodeCollisionEvent.class).withoutStackTrace();
+        started.start();
+        recording = started;
+        this.settings = name;
+        log.info("JFR recording started with '{}' settings (max age {}, max size {} bytes)", name, maxAge, maxSizeBytes);
+        return status();
+    }
+
+    /**
+     * Arrête l'enregistrement en cours et écrit ses données dans {@code app.jfr.dir}.
+     *
+     * @return le fichier écrit, ou null si aucun enregistrement n'était en cours
+     */
+    public synchronized Path stop() {
+        if (recording == null) {
+            return null;
+        }
+        try {
+            Path file = dump();
+            recording.stop();
+            return file;
+        } finally {
+            recording.close();
+            recording = null;
+            settings = null;
+        }
+    }
+
+    /**
+     * Écrit un instantané de l'enregistrement en cours, qui continue, puis supprime les
+     * fichiers au-delà des {@code max-files} plus récents.
+     *
+     * @return le fichier écrit
+     * @throws IllegalStateException si aucun enregistrement n'est en cours
+     */
+    public synchronized Path dump() {
+        if (recording == null) {
+            throw new IllegalStateException("No JFR recording in progress");
+        }
+        try {
+            Files.createDirectories(dir);
+            Instant stamp = Instant.now();
+            Path file;
+            while (Files.exists(file = dir.resolve(RECORDING_NAME + "-" + FILE_TIMESTAMP.format(stamp) + ".jfr"))) {
+                stamp = stamp.plusMillis(1);
+            }
+            recording.dump(file);
+            pruneFiles();
+            return file;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write JFR recording", e);
+        }
+    }
+
+    /**
+     * Supprime les fichiers d'enregistrement les plus anciens au-delà de {@code max-files}.
+     * Les noms horodatés se trient dans l'ordre chronologique.
+     */
+    private void pruneFiles() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, RECORDING_NAME + "-*.jfr")) {
+            stream.forEach(files::add);
+        }
+        if (files.size() <= maxFiles) {
+            return;
+        }
+        files.sort(null);
+        for (Path old : files.subList(0, files.size() - maxFiles)) {
+            Files.deleteIfExists(old);
+        }
+    }
+
+    /**
+     * Retourne l'état de l'enregistrement.
+     *
+     * @return l'état courant
+     */
+    public synchronized Status status() {
+        if (recording == null) {
+            return new Status(false, null, null, 0, maxAge.toMillis(), maxSizeBytes, dir.toString());
+        }
+        return new Status(recording.getState() == RecordingState.RUNNING, settings, recording.getStartTime(),
+                recording.getSize(), maxAge.toMillis(), maxSizeBytes, dir.toString());
+    }
+
+    /**
+     * Arrête l'enregistrement à l'arrêt de l'application, en conservant ses données.
+     */
+    @PreDestroy
+    public void shutdown() {
+        Path file = stop();
+        if (file != null) {
+            log.info("JFR recording written to {}", file);
+        }
+    }
+
+    /**
+     * État de l'enregistrement.
+     *
+     * @param running true si un enregistrement est en cours
+     * @param settings la configuration JDK de l'enregistrement, ou null
+     * @param startTime l'instant de démarrage, ou null
+     * @param sizeBytes la taille des données enregistrées
+     * @param maxAgeMs l'âge maximal des données conservées
+     * @param maxSizeBytes la taille maximale des données conservées
+     * @param dir le répertoire des fichiers d'enregistrement
+     */
+    public record Status(boolean running, String settings, Instant startTime, long sizeBytes,
+                         long maxAgeMs, long maxSizeBytes, String dir) {}
+}
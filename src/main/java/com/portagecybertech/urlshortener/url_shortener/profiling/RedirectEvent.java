@@ -0,0 +1,44 @@
+package com.portagecybertech.urlshortener.url_shortener.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Événement JFR d'une redirection servie par le filtre {@code RedirectFastPathFilter}.
+ *
+ * <p>Couvre la résolution du domaine et du code, l'écriture de la réponse et la
+ * publication dans le journal d'accès. Un code inconnu ({@code found = false}) est
+ * ensuite traité par Spring MVC, hors de la durée de l'événement.
+ *
+ * <p>Les traces de pile sont désactivées ; seuil par défaut de 100 µs, comme {@link ExpandEvent}.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ */
+@Name("com.portagecybertech.urlshortener.Redirect")
+@Label("Redirect")
+@Category({"URL Shortener", "Web"})
+@Description("Redirection d'un code court")
+@StackTrace(false)
+@Threshold("100 us")
+public class RedirectEvent extends Event {
+
+    @Label("Domain Id")
+    public int domainId;
+
+    @Label("Short Code")
+    public String shortCode;
+
+    @Label("Found")
+    public boolean found;
+
+    @Label("Overloaded")
+    @Description("Requête rejetée par le budget de lecture (503)")
+    public boolean overloaded;
+}
@@ -0,0 +1,70 @@
+package com.portagecybertech.urlshortener.url_shortener.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Événement JFR instantané d'une collision dans la boucle de génération des codes.
+ *
+ * <p>Émis à chaque code candidat écarté : déjà attribué à une autre URL en base, ou
+ * présent dans l'archive (un code archivé n'est jamais réattribué).
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ * @see ShortenEvent
+ */
+@Name("com.portagecybertech.urlshortener.ShortCodeCollision")
+@Label("Short Code Collision")
+@Category({"URL Shortener", "Service"})
+@Description("Code candidat écarté lors d'un raccourcissement")
+@StackTrace(false)
+public class ShortCodeCollisionEvent extends Event {
+
+    /**
+     * Collision avec un mapping en base.
+     */
+    public static final String SOURCE_DATABASE = "database";
+
+    /**
+     * Collision avec un code archivé.
+     */
+    public static final String SOURCE_ARCHIVE = "archive";
+
+    @Label("Domain Id")
+    public int domainId;
+
+    @Label("Candidate")
+    public String candidate;
+
+    @Label("Attempt")
+    @Description("Rang du candidat écarté, à partir de 0")
+    public int attempt;
+
+    @Label("Source")
+    @Description("database ou archive")
+    public String source;
+
+    /**
+     * Émet une collision si l'événement est activé.
+     *
+     * @param domainId l'identifiant du domaine court
+     * @param candidate le code candidat écarté
+     * @param attempt le rang du candidat
+     * @param source {@link #SOURCE_DATABASE} ou {@link #SOURCE_ARCHIVE}
+     */
+    public static void emit(int domainId, String candidate, int attempt, String source) {
+        ShortCodeCollisionEvent event = new ShortCodeCollisionEvent();
+        if (event.shouldCommit()) {
+            event.domainId = domainId;
+            event.candidate = candidate;
+            event.attempt = attempt;
+            event.source = source;
+            event.commit();
+        }
+    }
+}
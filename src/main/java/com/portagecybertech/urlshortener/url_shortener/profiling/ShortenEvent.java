@@ -0,0 +1,55 @@
+package com.portagecybertech.urlshortener.url_shortener.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * Événement JFR d'un raccourcissement ({@code UrlService.shorten}).
+ *
+ * <p>La durée couvre la validation, l'attente des budgets de concurrence et, le cas
+ * échéant, du lot d'écritures groupées. Les champs permettent de rapprocher une pause
+ * GC ou une contention d'un code précis et du nombre de candidats essayés.
+ *
+ * <p>Les traces de pile sont désactivées. Le seuil par défaut (0) enregistre chaque
+ * raccourcissement ; il peut être relevé par les paramètres de l'enregistrement.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ */
+@Name("com.portagecybertech.urlshortener.Shorten")
+@Label("Shorten")
+@Category({"URL Shortener", "Service"})
+@Description("Raccourcissement d'une URL")
+@StackTrace(false)
+@Threshold("0 ms")
+public class ShortenEvent extends Event {
+
+    @Label("Domain Id")
+    public int domainId;
+
+    @Label("Short Code")
+    @Description("Code retourné, null en cas d'échec")
+    public String shortCode;
+
+    @Label("Attempts")
+    @Description("Codes candidats générés par hash ; 0 pour un mapping existant ou un code du pool")
+    public int attempts;
+
+    @Label("Deduplicated")
+    @Description("URL déjà raccourcie dans ce domaine : mapping existant retourné")
+    public boolean deduplicated;
+
+    @Label("Pooled")
+    @Description("Code pris dans le pool de codes réservés")
+    public boolean pooled;
+
+    @Label("Insert Races")
+    @Description("Créations reprises après une insertion concurrente de la même URL ou du même code")
+    public int insertRaces;
+}
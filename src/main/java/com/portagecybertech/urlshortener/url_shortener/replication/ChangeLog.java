@@ -0,0 +1,90 @@
+package com.portagecybertech.urlshortener.url_shortener.replication;
+
+import com.portagecybertech.urlshortener.url_shortener.model.MappingChange;
+import com.portagecybertech.urlshortener.url_shortener.model.MappingChange.Operation;
+import com.portagecybertech.urlshortener.url_shortener.repository.MappingChangeRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.function.Supplier;
+
+/**
+ * Journal des modifications des mappings (motif <em>outbox</em>).
+ *
+ * <p>Les écritures de {@code UrlService} s'exécutent dans {@link #inTransaction(Supplier)}
+ * et y appellent {@link #append(Operation, int, String, String)} : la modification et son
+ * entrée de journal sont commitées ensemble, ou pas du tout. Lorsqu'une transaction
+ * est déjà ouverte (lot d'écritures groupées), elle est rejointe.
+ *
+ * <p><strong>Configuration :</strong> {@code app.changelog.enabled} (activé par défaut).
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ * @see MappingChange
+ * @see ReplicaFollower
+ */
+@Component
+public class ChangeLog {
+
+    /**
+     * Indique si les modifications sont journalisées.
+     */
+    private final boolean enabled;
+
+    /**
+     * Repository du journal des modifications.
+     */
+    private final MappingChangeRepository mappingChangeRepository;
+
+    /**
+     * Modèle de transaction partagé par la modification et son entrée de journal.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Constructeur principal.
+     *
+     * @param enabled active la journalisation
+     * @param mappingChangeRepository le repository du journal
+     * @param transactionManager le gestionnaire de transactions
+     */
+    public ChangeLog(@Value("${app.changelog.enabled:true}") boolean enabled,
+                     MappingChangeRepository mappingChangeRepository,
+                     PlatformTransactionManager transactionManager) {
+        this.enabled = enabled;
+        this.mappingChangeRepository = mappingChangeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Exécute une écriture dans la transaction qui portera son entrée de journal.
+     *
+     * @param work l'écriture, qui appelle {@link #append(Operation, int, String, String)}
+     * @param <T> le type de résultat
+     * @return le résultat de l'écriture
+     */
+    public <T> T inTransaction(Supplier<T> work) {
+        if (!enabled) {
+            return work.get();
+        }
+        return transactionTemplate.execute(status -> work.get());
+    }
+
+    /**
+     * Ajoute une entrée au journal, dans la transaction courante.
+     *
+     * @param operation le type de modification
+     * @param domainId l'identifiant du domaine court
+     * @param shortCode le code court concerné
+     * @param originalUrl l'URL originale complète, ou null pour une suppression
+     */
+    public void append(Operation operation, int domainId, String shortCode, String originalUrl) {
+        if (enabled) {
+            mappingChangeRepository.save(new MappingChange(operation, domainId, shortCode, originalUrl, Instant.now()));
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.portagecybertech.urlshortener.url_shortener.replication;
+
+import com.portagecybertech.urlshortener.url_shortener.model.MappingChange.Operation;
+
+/**
+ * Entrée du journal des modifications telle que lue par un réplica.
+ *
+ * <p>Indépendante de JPA : une entrée peut provenir de la base du primaire
+ * ({@link JdbcChangeSource}) ou d'un fichier de segment ({@link SegmentChangeSource}).
+ *
+ * <p><strong>Format ligne</strong> (segments) : champs séparés par des tabulations,
+ * l'URL en dernier et vide pour une suppression :
+ * <pre>{@code seq	operation	domainId	shortCode	createdAtMillis	originalUrl}</pre>
+ * Une URL validée ne contient ni tabulation ni saut de ligne. Les lignes à cinq champs
+ * des segments antérieurs aux domaines (sans {@code domainId}) sont lues dans le
+ * domaine par défaut.
+ *
+ * @param seq le numéro de séquence
+ * @param operation le type de modification
+ * @param domainId l'identifiant du domaine court
+ * @param shortCode le code court concerné
+ * @param originalUrl l'URL originale complète, ou null pour une suppression
+ * @param createdAtMillis l'instant de la modification, en millisecondes epoch
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ */
+public record ChangeRecord(long seq, Operation operation, int domainId, String shortCode, String originalUrl,
+                           long createdAtMillis) {
+
+    /**
+     * Crée une entrée du domaine par défaut.
+     *
+     * @param seq le numéro de séquence
+     * @param operation le type de modification
+     * @param shortCode le code court concerné
+     * @param originalUrl l'URL originale complète, ou null pour une suppression
+     * @param createdAtMillis l'instant de la modification, en millisecondes epoch
+     */
+    public ChangeRecord(long seq, Operation operation, String shortCode, String originalUrl, long createdAtMillis) {
+        this(seq, operation, 0, shortCode, originalUrl, createdAtMillis);
+    }
+
+    /**
+     * Sérialise l'entrée au format ligne des segments, sans saut de ligne final.
+     *
+     * @return la ligne correspondante
+     */
+    public String toLine() {
+        return seq + "\t" + operation + "\t" + domainId + "\t" + shortCode + "\t" + createdAtMillis + "\t"
+                + (originalUrl == null ? "" : originalUrl);
+    }
+
+    /**
+     * Lit une entrée au format ligne des segments.
+     *
+     * @param line la ligne, sans saut de ligne final
+     * @return l'entrée correspondante
+     * @throws IllegalArgumentException si la ligne est mal formée
+     */
+    public static ChangeRecord parse(String line) {
+        String[] fields = line.split("\t", 6);
+        if (fields.length == 5) {
+            // Segment antérieur aux domaines : seq, operation, shortCode, createdAtMillis, originalUrl
+            return new ChangeRecord(
+                    Long.parseLong(fields[0]),
+                    Operation.valueOf(fields[1]),
+                    fields[2],
+                    fields[4].isEmpty() ? null : fields[4],
+                    Long.parseLong(fields[3]));
+        }
+        if (fields.length != 6) {
+            throw new IllegalArgumentException("Malformed change record: " + line);
+        }
+        return new ChangeRecord(
+                Long.parseLong(fields[0]),
+                Operation.valueOf(fields[1]),
+                Integer.parseInt(fields[2]),
+                fields[3],
+                fields[5].isEmpty() ? null : fields[5],
+                Long.parseLong(fields[4]));
+    }
+}
@@ -0,0 +1,169 @@
+package com.portagecybertech.urlshortener.url_shortener.replication;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Export du journal des modifications du primaire en fichiers de segments.
+ *
+ * <p>À intervalle régulier, les entrées suivant le dernier segment exporté sont
+ * écrites dans un nouveau segment immuable (voir {@link SegmentChangeSource}).
+ * Les réplicas peuvent alors suivre le journal sans aucune connexion à la base
+ * du primaire, le répertoire étant partagé ou copié (rsync, stockage objet...).
+ *
+ * <p>Comme pour un réplica, seul le préfixe contigu des séquences est exporté
+ * (voir {@link SequenceGapGuard}) : un segment publié n'est jamais complété après coup.
+ *
+ * <p><strong>Configuration :</strong> {@code app.replication.export.*}
+ * (désactivé tant que {@code dir} est vide).
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ */
+@Component
+public class ChangeSegmentExporter {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeSegmentExporter.class);
+
+    /**
+     * Journal local à exporter.
+     */
+    private final ChangeSource source;
+
+    /**
+     * Répertoire des segments, null si l'export est désactivé.
+     */
+    private final Path directory;
+
+    /**
+     * Nombre maximal d'entrées par segment.
+     */
+    private final int segmentMaxRecords;
+
+    /**
+     * Garde contre les trous de séquence non encore commités.
+     */
+    private final SequenceGapGuard gapGuard;
+
+    /**
+     * Dernière séquence exportée.
+     */
+    private long exportedSeq;
+
+    /**
+     * Planificateur de l'export périodique, null si l'export est désactivé.
+     */
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Constructeur principal, alimenté par les propriétés {@code app.replication.export.*}.
+     *
+     * @param directory le répertoire des segments (vide pour désactiver l'export)
+     * @param intervalMillis l'intervalle entre deux exports
+     * @param segmentMaxRecords le nombre maximal d'entrées par segment
+     * @param gapTimeoutMillis le délai de grâce avant de franchir un trou de séquence
+     * @param dataSource la base locale contenant le journal
+     */
+    @Autowired
+    public ChangeSegmentExporter(@Value("${app.replication.export.dir:}") String directory,
+                                 @Value("${app.replication.export.interval-ms:1000}") long intervalMillis,
+                                 @Value("${app.replication.export.segment-max-records:10000}") int segmentMaxRecords,
+                                 @Value("${app.replication.gap-timeout-ms:5000}") long gapTimeoutMillis,
+                                 DataSource dataSource) {
+        this(new JdbcChangeSource(dataSource), directory.isBlank() ? null : Paths.get(directory),
+                segmentMaxRecords, gapTimeoutMillis);
+        if (this.directory != null) {
+            scheduler.scheduleWithFixedDelay(this::exportSafely, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Constructeur sans export périodique, l'export étant déclenché par {@link #exportOnce()}.
+     *
+     * @param source le journal à exporter
+     * @param directory le répertoire des segments, null pour désactiver l'export
+     * @param segmentMaxRecords le nombre maximal d'entrées par segment
+     * @param gapTimeoutMillis le délai de grâce avant de franchir un trou de séquence
+     */
+    ChangeSegmentExporter(ChangeSource source, Path directory, int segmentMaxRecords, long gapTimeoutMillis) {
+        this.source = source;
+        this.directory = directory;
+        this.segmentMaxRecords = segmentMaxRecords;
+        this.gapGuard = new SequenceGapGuard(TimeUnit.MILLISECONDS.toNanos(gapTimeoutMillis));
+        this.exportedSeq = directory == null ? 0 : new SegmentChangeSource(directory).headSeq();
+        this.scheduler = directory == null ? null : Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "changelog-exporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Exporte les entrées disponibles dans un nouveau segment.
+     *
+     * @return le nombre d'entrées exportées (0 si rien de nouveau)
+     * @throws IOException si l'écriture du segment échoue
+     */
+    public synchronized int exportOnce() throws IOException {
+        if (directory == null) {
+            return 0;
+        }
+        List<ChangeRecord> batch = source.readAfter(exportedSeq, segmentMaxRecords);
+        if (exportedSeq == 0 && !batch.isEmpty()) {
+            // Premier export : le journal commence à sa plus ancienne entrée
+            exportedSeq = batch.get(0).seq() - 1;
+        }
+        List<ChangeRecord> ready = gapGuard.contiguous(exportedSeq, batch, System.nanoTime());
+        if (ready.isEmpty()) {
+            return 0;
+        }
+        Files.createDirectories(directory);
+        Path target = directory.resolve(SegmentChangeSource.segmentName(ready.get(0).seq()));
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            for (ChangeRecord record : ready) {
+                writer.write(record.toLine());
+                writer.write('\n');
+            }
+        }
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+        exportedSeq = ready.get(ready.size() - 1).seq();
+        return ready.size();
+    }
+
+    /**
+     * Arrête l'export périodique.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private void exportSafely() {
+        try {
+            exportOnce();
+        } catch (Exception e) {
+            log.warn("Change log export failed, will retry", e);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.portagecybertech.urlshortener.url_shortener.replication;
+
+import java.util.List;
+
+/**
+ * Source du journal des modifications suivie par un réplica.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ * @see JdbcChangeSource
+ * @see SegmentChangeSource
+ */
+public interface ChangeSource {
+
+    /**
+     * Retourne le nom de la source, utilisé comme clé de la position de réplication.
+     *
+     * @return le nom de la source
+     */
+    String name();
+
+    /**
+     * Lit les entrées suivant une séquence, par ordre de séquence croissant.
+     *
+     * @param afterSeq la dernière séquence déjà lue
+     * @param max le nombre maximal d'entrées à retourner
+     * @return les entrées suivantes (éventuellement vide)
+     */
+    List<ChangeRecord> readAfter(long afterSeq, int max);
+
+    /**
+     * Retourne la plus grande séquence disponible dans la source.
+     *
+     * @return la dernière séquence, ou 0 si la source est vide
+     */
+    long headSeq();
+}
@@ -0,0 +1,61 @@
+package com.portagecybertech.urlshortener.url_shortener.replication;
+
+import com.portagecybertech.urlshortener.url_shortener.model.MappingChange.Operation;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Source du journal des modifications lue directement dans la table {@code mapping_change}.
+ *
+ * <p>Chaque lecture est une requête par clé sur la séquence ({@code seq > ? order by seq}),
+ * servie par la clé primaire. La base visée peut être celle du processus courant
+ * (export de segments) ou celle du primaire, par exemple en mode serveur H2
+ * ({@code jdbc:h2:tcp://...}) ou avec {@code AUTO_SERVER=TRUE}.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ */
+public class JdbcChangeSource implements ChangeSource {
+
+    private static final RowMapper<ChangeRecord> ROW_MAPPER = (rs, rowNum) -> new ChangeRecord(
+            rs.getLong("seq"),
+            Operation.valueOf(rs.getString("operation")),
+            rs.getInt("domain_id"),
+            rs.getString("short_code"),
+            rs.getString("original_url"),
+            rs.getTimestamp("created_at").getTime());
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Constructeur principal.
+     *
+     * @param dataSource la base contenant le journal
+     */
+    public JdbcChangeSource(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Override
+    public String name() {
+        return "jdbc";
+    }
+
+    @Override
+    public List<ChangeRecord> readAfter(long afterSeq, int max) {
+        return jdbcTemplate.query(
+                "select seq, operation, domain_id, short_code, original_url, created_at from mapping_change "
+                        + "where seq > ? order by seq limit ?",
+                ROW_MAPPER, afterSeq, max);
+    }
+
+    @Override
+    public long headSeq() {
+        Long head = jdbcTemplate.queryForObject("select max(seq) from mapping_change", Long.class);
+        return head == null ? 0 : head;
+    }
+}
@@ -0,0 +1,376 @@
+package com.portagecybertech.urlshortener.url_shortener.replication;
+
+import com.portagecybertech.urlshortener.url_shortener.model.MappingChange.Operation;
+import com.portagecybertech.urlshortener.url_shortener.model.ReplicationCursor;
+import com.portagecybertech.urlshortener.url_shortener.model.UrlMapping;
+import com.portagecybertech.urlshortener.url_shortener.repository.MappingChangeRepository;
+import com.portagecybertech.urlshortener.url_shortener.repository.ReplicationCursorRepository;
+import com.portagecybertech.urlshortener.url_shortener.repository.UrlMappingRepository;
+import com.portagecybertech.urlshortener.url_shortener.service.ExpandCache;
+import com.portagecybertech.urlshortener.url_shortener.service.UrlPrefixDictionary;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Mode réplica : suit le journal des modifications du primaire et l'applique localement.
+ *
+ * <p>Un réplica dispose de sa propre base et de ses propres caches ; il sert les
+ * redirections sans interroger le primaire. Les modifications sont appliquées de
+ * façon incrémentale, sans rechargement complet :
+ * <ol>
+ *   <li>Lecture des entrées suivant la position courante, depuis la base du primaire
+ *       ({@code jdbc}) ou depuis des segments exportés ({@code segments})</li>
+ *   <li>Conservation du seul préfixe contigu des séquences (voir {@link SequenceGapGuard})</li>
+ *   <li>Application idempotente dans une transaction qui avance aussi la position
+ *       ({@link ReplicationCursor})</li>
+ *   <li>Invalidation des entrées concernées de l'{@link ExpandCache} après le commit</li>
+ * </ol>
+ *
+ * <p><strong>Conflits :</strong> le primaire fait foi. Un réplica refuse les écritures
+ * locales (voir {@code UrlService}) ; si une ligne locale contredit malgré tout une
+ * création du primaire (même code pour une autre URL, ou même URL sous un autre code),
+ * elle est remplacée, journalisée en avertissement et comptée dans
+ * {@code urlshortener.replication.conflicts}, plutôt que d'ignorer l'entrée ou de bloquer
+ * la réplication sur l'index unique.
+ *
+ * <p>Au premier démarrage, la position est initialisée à la plus grande séquence du
+ * journal local : un réplica amorcé à partir d'une copie de la base du primaire
+ * reprend donc là où la copie s'arrête.
+ *
+ * <p><strong>Métriques :</strong> {@code urlshortener.replication.lag.changes},
+ * {@code urlshortener.replication.lag.seconds}, {@code urlshortener.replication.applied},
+ * {@code urlshortener.replication.conflicts}.
+ *
+ * <p><strong>Configuration :</strong> {@code app.replication.mode=follower} et
+ * {@code app.replication.source.*} (mode {@code primary} par défaut).
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ * @see ChangeLog
+ */
+@Component
+public class ReplicaFollower {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaFollower.class);
+
+    /**
+     * Source suivie, null hors du mode réplica.
+     */
+    private final ChangeSource source;
+
+    /**
+     * Nombre maximal d'entrées appliquées par transaction.
+     */
+    private final int batchSize;
+
+    private final UrlMappingRepository urlMappingRepository;
+
+    private final UrlPrefixDictionary urlPrefixDictionary;
+
+    private final ExpandCache expandCache;
+
+    private final ReplicationCursorRepository replicationCursorRepository;
+
+    private final MappingChangeRepository mappingChangeRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Garde contre les trous de séquence non encore commités.
+     */
+    private final SequenceGapGuard gapGuard;
+
+    /**
+     * Nombre d'entrées appliquées depuis le démarrage.
+     */
+    private final Counter applied;
+
+    /**
+     * Nombre de lignes locales remplacées car en conflit avec le primaire.
+     */
+    private final Counter conflicts;
+
+    /**
+     * Planificateur du suivi périodique, null hors du mode réplica.
+     */
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Dernière séquence appliquée, -1 tant qu'elle n'a pas été chargée.
+     */
+    private volatile long appliedSeq = -1;
+
+    /**
+     * Nombre d'entrées disponibles à la source et non encore appliquées.
+     */
+    private volatile long lagChanges;
+
+    /**
+     * Ancienneté de la plus ancienne entrée non appliquée, en secondes.
+     */
+    private volatile double lagSeconds;
+
+    /**
+     * Constructeur principal, alimenté par les propriétés {@code app.replication.*}.
+     *
+     * @param mode {@code primary} ou {@code follower}
+     * @param sourceType {@code jdbc} ou {@code segments}
+     * @param jdbcUrl l'URL JDBC de la base du primaire (source {@code jdbc})
+     * @param username l'utilisateur de la base du primaire
+     * @param password le mot de passe de la base du primaire
+     * @param segmentsDir le répertoire des segments exportés (source {@code segments})
+     * @param pollIntervalMillis l'intervalle entre deux lectures de la source
+     * @param batchSize le nombre maximal d'entrées appliquées par transaction
+     * @param gapTimeoutMillis le délai de grâce avant de franchir un trou de séquence
+     * @param urlMappingRepository le repository local des mappings
+     * @param urlPrefixDictionary le dictionnaire local des préfixes
+     * @param expandCache le cache local des résolutions
+     * @param replicationCursorRepository le repository des positions de réplication
+     * @param mappingChangeRepository le repository du journal local
+     * @param transactionManager le gestionnaire de transactions local
+     * @param meterRegistry le registre de métriques
+     */
+    @Autowired
+    public ReplicaFollower(@Value("${app.replication.mode:primary}") String mode,
+                           @Value("${app.replication.source.type:jdbc}") String sourceType,
+                           @Value("${app.replication.source.jdbc-url:}") String jdbcUrl,
+                           @Value("${app.replication.source.username:sa}") String username,
+                           @Value("${app.replication.source.password:}") String password,
+                           @Value("${app.replication.source.segments-dir:}") String segmentsDir,
+                           @Value("${app.replication.poll-interval-ms:500}") long pollIntervalMillis,
+                           @Value("${app.replication.batch-size:500}") int batchSize,
+                           @Value("${app.replication.gap-timeout-ms:5000}") long gapTimeoutMillis,
+                           UrlMappingRepository urlMappingRepository,
+                           UrlPrefixDictionary urlPrefixDictionary,
+                           ExpandCache expandCache,
+                           ReplicationCursorRepository replicationCursorRepository,
+                           MappingChangeRepository mappingChangeRepository,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry) {
+        this("follower".equalsIgnoreCase(mode) ? createSource(sourceType, jdbcUrl, username, password, segmentsDir) : null,
+                batchSize, gapTimeoutMillis, urlMappingRepository, urlPrefixDictionary, expandCache,
+                replicationCursorRepository, mappingChangeRepository, transactionManager, meterRegistry);
+        if (source != null) {
+            log.info("Replica mode: following change log from source '{}'", source.name());
+            scheduler.scheduleWithFixedDelay(this::pollSafely, 0, pollIntervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Constructeur sans suivi périodique, l'application étant déclenchée par {@link #pollOnce()}.
+     *
+     * @param source la source suivie, null hors du mode réplica
+     * @param batchSize le nombre maximal d'entrées appliquées par transaction
+     * @param gapTimeoutMillis le délai de grâce avant de franchir un trou de séquence
+     * @param urlMappingRepository le repository local des mappings
+     * @param urlPrefixDictionary le dictionnaire local des préfixes
+     * @param expandCache le cache local des résolutions
+     * @param replicationCursorRepository le repository des positions de réplication
+     * @param mappingChangeRepository le repository du journal local
+     * @param transactionManager le gestionnaire de transactions local
+     * @param meterRegistry le registre de métriques
+     */
+    ReplicaFollower(ChangeSource source,
+                    int batchSize,
+                    long gapTimeoutMillis,
+                    UrlMappingRepository urlMappingRepository,
+                    UrlPrefixDictionary urlPrefixDictionary,
+                    ExpandCache expandCache,
+                    ReplicationCursorRepository replicationCursorRepository,
+                    MappingChangeRepository mappingChangeRepository,
+                    PlatformTransactionManager transactionManager,
+                    MeterRegistry meterRegistry) {
+        this.source = source;
+        this.batchSize = batchSize;
+        this.urlMappingRepository = urlMappingRepository;
+        this.urlPrefixDictionary = urlPrefixDictionary;
+        this.expandCache = expandCache;
+        this.replicationCursorRepository = replicationCursorRepository;
+        this.mappingChangeRepository = mappingChangeRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.gapGuard = new SequenceGapGuard(TimeUnit.MILLISECONDS.toNanos(gapTimeoutMillis));
+        this.applied = Counter.builder("urlshortener.replication.applied")
+                .description("Modifications du journal appliquées par le réplica")
+                .register(meterRegistry);
+        this.conflicts = Counter.builder("urlshortener.replication.conflicts")
+                .description("Lignes locales remplacées par une création du primaire")
+                .register(meterRegistry);
+        Gauge.builder("urlshortener.replication.lag.changes", this, follower -> follower.lagChanges)
+                .description("Modifications disponibles à la source et non encore appliquées")
+                .register(meterRegistry);
+        Gauge.builder("urlshortener.replication.lag.seconds", this, follower -> follower.lagSeconds)
+                .description("Ancienneté de la plus ancienne modification non appliquée")
+                .register(meterRegistry);
+        this.scheduler = source == null ? null : Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-follower");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Lit et applique un lot d'entrées du journal.
+     *
+     * @return le nombre d'entrées appliquées (0 si le réplica est à jour ou en attente d'un trou)
+     */
+    public synchronized int pollOnce() {
+        if (source == null) {
+            return 0;
+        }
+        if (appliedSeq < 0) {
+            appliedSeq = replicationCursorRepository.findById(source.name())
+                    .map(ReplicationCursor::getAppliedSeq)
+                    .orElseGet(mappingChangeRepository::findMaxSeq);
+        }
+        List<ChangeRecord> batch = source.readAfter(appliedSeq, batchSize);
+        List<ChangeRecord> ready = gapGuard.contiguous(appliedSeq, batch, System.nanoTime());
+        if (!ready.isEmpty()) {
+            apply(ready);
+        }
+        updateLag(batch, ready);
+        return ready.size();
+    }
+
+    /**
+     * Retourne la dernière séquence appliquée.
+     *
+     * @return la dernière séquence appliquée, -1 avant la première lecture
+     */
+    public long getAppliedSeq() {
+        return appliedSeq;
+    }
+
+    /**
+     * Arrête le suivi périodique.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private void apply(List<ChangeRecord> ready) {
+        // Les préfixes sont internés hors de la transaction du lot : l'opération est
+        // idempotente et le dictionnaire en mémoire ne doit jamais référencer un
+        // identifiant annulé avec le lot.
+        for (ChangeRecord record : ready) {
+            if (record.operation() == Operation.CREATE) {
+                urlPrefixDictionary.intern(record.originalUrl().substring(0, UrlPrefixDictionary.splitIndex(record.originalUrl())));
+            }
+        }
+        long lastSeq = ready.get(ready.size() - 1).seq();
+        List<UrlMapping> replaced = new ArrayList<>();
+        transactionTemplate.executeWithoutResult(status -> {
+            replaced.clear();
+            for (ChangeRecord record : ready) {
+                applyOne(record, replaced);
+            }
+            ReplicationCursor cursor = replicationCursorRepository.findById(source.name())
+                    .orElseGet(() -> new ReplicationCursor(source.name(), lastSeq));
+            cursor.setAppliedSeq(lastSeq);
+            replicationCursorRepository.save(cursor);
+        });
+        appliedSeq = lastSeq;
+        for (ChangeRecord record : ready) {
+            expandCache.invalidate(record.domainId(), record.shortCode());
+        }
+        for (UrlMapping mapping : replaced) {
+            expandCache.invalidate(mapping.getDomainId(), mapping.getShortCode());
+        }
+        conflicts.increment(replaced.size());
+        applied.increment(ready.size());
+    }
+
+    /**
+     * Applique une entrée du journal ; une création déjà présente à l'identique est ignorée.
+     *
+     * @param record l'entrée à appliquer
+     * @param replaced reçoit les lignes locales supprimées car en conflit avec une création
+     */
+    private void applyOne(ChangeRecord record, List<UrlMapping> replaced) {
+        switch (record.operation()) {
+            case CREATE -> {
+                String url = record.originalUrl();
+                int split = UrlPrefixDictionary.splitIndex(url);
+                int prefixId = urlPrefixDictionary.intern(url.substring(0, split));
+                String suffix = url.substring(split);
+                Optional<UrlMapping> byCode = urlMappingRepository.findByDomainIdAndShortCode(record.domainId(), record.shortCode());
+                if (byCode.isPresent() && byCode.get().getPrefixId() == prefixId && byCode.get().getUrlSuffix().equals(suffix)) {
+                    return;
+                }
+                Optional<UrlMapping> byUrl = urlMappingRepository.findByDomainIdAndPrefixIdAndUrlSuffix(record.domainId(), prefixId, suffix);
+                for (UrlMapping conflicting : Stream.of(byCode, byUrl).flatMap(Optional::stream).toList()) {
+                    log.warn("Replacing local mapping {} (domain {}) that conflicts with primary change {} ({} -> {})",
+                            conflicting.getShortCode(), conflicting.getDomainId(), record.seq(), record.shortCode(), url);
+                    urlMappingRepository.delete(conflicting);
+                    replaced.add(conflicting);
+                }
+                // Les suppressions précèdent l'insertion, qui réutilise le code ou l'URL
+                urlMappingRepository.flush();
+                urlMappingRepository.save(new UrlMapping(record.domainId(), record.shortCode(), prefixId, suffix));
+            }
+            case DELETE -> urlMappingRepository.findByDomainIdAndShortCode(record.domainId(), record.shortCode())
+                    .ifPresent(urlMappingRepository::delete);
+        }
+    }
+
+    private void updateLag(List<ChangeRecord> batch, List<ChangeRecord> ready) {
+        long head = Math.max(source.headSeq(), appliedSeq);
+        lagChanges = head - appliedSeq;
+        if (lagChanges == 0) {
+            lagSeconds = 0;
+            return;
+        }
+        // Ancienneté de la première entrée lue mais non appliquée, à défaut de la dernière appliquée
+        ChangeRecord oldest = ready.size() < batch.size() ? batch.get(ready.size())
+                : ready.isEmpty() ? null : ready.get(ready.size() - 1);
+        if (oldest != null) {
+            lagSeconds = Math.max(0, System.currentTimeMillis() - oldest.createdAtMillis()) / 1000.0;
+        }
+    }
+
+    private void pollSafely() {
+        try {
+            while (pollOnce() == batchSize) {
+                // Rattrapage : on enchaîne les lots tant que la source en fournit des pleins
+            }
+        } catch (Exception e) {
+            log.warn("Replica poll failed, will retry", e);
+        }
+    }
+
+    private static ChangeSource createSource(String type, String jdbcUrl, String username, String password,
+                                             String segmentsDir) {
+        if ("segments".equalsIgnoreCase(type)) {
+            if (segmentsDir.isBlank()) {
+                throw new IllegalStateException("app.replication.source.segments-dir is required for segment replication");
+            }
+            return new SegmentChangeSource(Paths.get(segmentsDir));
+        }
+        if (jdbcUrl.isBlank()) {
+            throw new IllegalStateException("app.replication.source.jdbc-url is required for JDBC replication");
+        }
+        return new JdbcChangeSource(new DriverManagerDataSource(jdbcUrl, username, password));
+    }
+}
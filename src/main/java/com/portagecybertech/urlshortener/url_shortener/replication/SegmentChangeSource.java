@@ -0,0 +1,122 @@
+package com.portagecybertech.urlshortener.url_shortener.replication;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Source du journal des modifications lue dans des fichiers de segments exportés.
+ *
+ * <p>Chaque segment {@code changes-<première séquence sur 20 chiffres>.log} contient
+ * des entrées consécutives au format ligne de {@link ChangeRecord}. Les segments
+ * sont produits par {@link ChangeSegmentExporter} de façon atomique (écriture dans
+ * un fichier temporaire puis renommage) et ne sont jamais modifiés ensuite : un
+ * réplica peut les lire depuis un répertoire partagé ou synchronisé, sans accès
+ * à la base du primaire.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ */
+public class SegmentChangeSource implements ChangeSource {
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("changes-(\\d{20})\\.log");
+
+    private final Path directory;
+
+    /**
+     * Constructeur principal.
+     *
+     * @param directory le répertoire des segments
+     */
+    public SegmentChangeSource(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Retourne le nom de fichier d'un segment commençant à une séquence donnée.
+     *
+     * @param firstSeq la première séquence du segment
+     * @return le nom du fichier de segment
+     */
+    static String segmentName(long firstSeq) {
+        return String.format("changes-%020d.log", firstSeq);
+    }
+
+    @Override
+    public String name() {
+        return "segments";
+    }
+
+    @Override
+    public List<ChangeRecord> readAfter(long afterSeq, int max) {
+        List<Segment> segments = segments();
+        // Premier segment à lire : le dernier qui commence au plus tard à afterSeq + 1
+        int start = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            if (segments.get(i).firstSeq() <= afterSeq + 1) {
+                start = i;
+            }
+        }
+        List<ChangeRecord> records = new ArrayList<>();
+        for (int i = start; i < segments.size() && records.size() < max; i++) {
+            try (BufferedReader reader = Files.newBufferedReader(segments.get(i).path(), StandardCharsets.UTF_8)) {
+                String line;
+                while (records.size() < max && (line = reader.readLine()) != null) {
+                    ChangeRecord record = ChangeRecord.parse(line);
+                    if (record.seq() > afterSeq) {
+                        records.add(record);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return records;
+    }
+
+    @Override
+    public long headSeq() {
+        List<Segment> segments = segments();
+        if (segments.isEmpty()) {
+            return 0;
+        }
+        try (Stream<String> lines = Files.lines(segments.get(segments.size() - 1).path(), StandardCharsets.UTF_8)) {
+            return lines.reduce((first, second) -> second)
+                    .map(line -> ChangeRecord.parse(line).seq())
+                    .orElse(0L);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<Segment> segments() {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(Segment::of)
+                    .filter(segment -> segment != null)
+                    .sorted((a, b) -> Long.compare(a.firstSeq(), b.firstSeq()))
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private record Segment(Path path, long firstSeq) {
+
+        static Segment of(Path path) {
+            Matcher matcher = SEGMENT_NAME.matcher(path.getFileName().toString());
+            return matcher.matches() ? new Segment(path, Long.parseLong(matcher.group(1))) : null;
+        }
+    }
+}
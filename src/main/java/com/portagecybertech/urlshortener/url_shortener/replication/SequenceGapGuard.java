@@ -0,0 +1,63 @@
+package com.portagecybertech.urlshortener.url_shortener.replication;
+
+import java.util.List;
+
+/**
+ * Détection des trous de séquence dans le journal des modifications.
+ *
+ * <p>Les séquences sont attribuées à l'insertion mais deviennent visibles au commit :
+ * une transaction lente peut publier la séquence 5 après qu'une autre a publié la 6.
+ * Avancer le curseur au-delà d'un trou ferait perdre définitivement la séquence 5.
+ *
+ * <p>Ce garde ne laisse passer que le préfixe contigu d'un lot. Un trou persistant
+ * au-delà du délai de grâce est considéré comme définitif (transaction annulée,
+ * séquence consommée sans ligne) et franchi.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ */
+class SequenceGapGuard {
+
+    private final long timeoutNanos;
+
+    private long gapSeq = -1;
+
+    private long gapSinceNanos;
+
+    /**
+     * Constructeur principal.
+     *
+     * @param timeoutNanos délai de grâce avant de franchir un trou, en nanosecondes
+     */
+    SequenceGapGuard(long timeoutNanos) {
+        this.timeoutNanos = timeoutNanos;
+    }
+
+    /**
+     * Retourne le préfixe du lot pouvant être appliqué sans risque de perte.
+     *
+     * @param cursor la dernière séquence appliquée
+     * @param batch les entrées lues après le curseur, triées par séquence
+     * @param nowNanos l'instant courant ({@link System#nanoTime()})
+     * @return le préfixe applicable du lot
+     */
+    List<ChangeRecord> contiguous(long cursor, List<ChangeRecord> batch, long nowNanos) {
+        long expected = cursor + 1;
+        int ready = 0;
+        for (ChangeRecord record : batch) {
+            if (record.seq() != expected) {
+                if (gapSeq != expected) {
+                    gapSeq = expected;
+                    gapSinceNanos = nowNanos;
+                }
+                if (nowNanos - gapSinceNanos < timeoutNanos) {
+                    break;
+                }
+            }
+            ready++;
+            expected = record.seq() + 1;
+        }
+        return batch.subList(0, ready);
+    }
+}
@@ -0,0 +1,15 @@
+package com.portagecybertech.urlshortener.url_shortener.repository;
+
+import com.portagecybertech.urlshortener.url_shortener.model.ArchiveTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * Repository Spring Data JPA des suppressions de mappings archivés.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ * @see ArchiveTombstone
+ */
+public interface ArchiveTombstoneRepository extends JpaRepository<ArchiveTombstone, String> {
+}
@@ -0,0 +1,29 @@
+package com.portagecybertech.urlshortener.url_shortener.repository;
+
+import com.portagecybertech.urlshortener.url_shortener.model.DestinationStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+
+/**
+ * Repository Spring Data JPA des états des destinations.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ * @see DestinationStatus
+ */
+public interface DestinationStatusRepository extends JpaRepository<DestinationStatus, Long> {
+
+    /**
+     * Supprime les états non vérifiés depuis une date (mappings supprimés depuis).
+     *
+     * @param cutoff la date de début de la dernière vérification complète
+     * @return le nombre d'états supprimés
+     */
+    @Modifying
+    @Query("delete from DestinationStatus s where s.checkedAt < :cutoff")
+    int deleteCheckedBefore(Instant cutoff);
+}
@@ -0,0 +1,27 @@
+package com.portagecybertech.urlshortener.url_shortener.repository;
+
+import com.portagecybertech.urlshortener.url_shortener.model.MappingChange;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+/**
+ * Repository Spring Data JPA pour le journal des modifications.
+ *
+ * <p>Le journal n'est écrit qu'en ajout ; sa lecture par séquence est assurée
+ * par {@code JdbcChangeSource}, qui peut viser la base d'un autre processus.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ * @see MappingChange
+ */
+public interface MappingChangeRepository extends JpaRepository<MappingChange, Long> {
+
+    /**
+     * Retourne la plus grande séquence présente dans le journal local.
+     *
+     * @return la dernière séquence, ou 0 si le journal est vide
+     */
+    @Query("select coalesce(max(c.seq), 0) from MappingChange c")
+    long findMaxSeq();
+}
@@ -0,0 +1,15 @@
+package com.portagecybertech.urlshortener.url_shortener.repository;
+
+import com.portagecybertech.urlshortener.url_shortener.model.ReplicationCursor;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * Repository Spring Data JPA pour les positions de réplication.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ * @see ReplicationCursor
+ */
+public interface ReplicationCursorRepository extends JpaRepository<ReplicationCursor, String> {
+}
@@ -0,0 +1,28 @@
+package com.portagecybertech.urlshortener.url_shortener.repository;
+
+import com.portagecybertech.urlshortener.url_shortener.model.ShortCodeRange;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+/**
+ * Repository Spring Data JPA des plages réservées du pool de codes courts.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ * @see ShortCodeRange
+ */
+public interface ShortCodeRangeRepository extends JpaRepository<ShortCodeRange, String> {
+
+    /**
+     * Avance atomiquement une séquence ; la ligne reste verrouillée jusqu'au commit.
+     *
+     * @param name le nom de la séquence
+     * @param count le nombre de séquences réservées
+     * @return le nombre de lignes mises à jour (0 si la séquence n'existe pas encore)
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("update ShortCodeRange r set r.nextSeq = r.nextSeq + :count where r.name = :name")
+    int advance(String name, long count);
+}
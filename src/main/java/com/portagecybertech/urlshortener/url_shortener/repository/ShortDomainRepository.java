@@ -0,0 +1,18 @@
+package com.portagecybertech.urlshortener.url_shortener.repository;
+
+import com.portagecybertech.urlshortener.url_shortener.model.ShortDomain;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+/**
+ * Repository Spring Data JPA des domaines courts.
+ *
+ * <p>Lu une seule fois au démarrage par {@code DomainRegistry} : la résolution des
+ * domaines sur le chemin des requêtes est entièrement en mémoire.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ * @see ShortDomain
+ */
+public interface ShortDomainRepository extends JpaRepository<ShortDomain, Integer> {
+}
@@ -1,26 +1,34 @@
 package com.portagecybertech.urlshortener.url_shortener.repository;
 
 import com.portagecybertech.urlshortener.url_shortener.model.UrlMapping;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
  * Repository Spring Data JPA pour la gestion des mappings d'URLs.
  * 
  * <p>Cette interface étend {@link JpaRepository} et fournit des méthodes
- * personnalisées pour rechercher des mappings d'URLs par code court ou URL originale.
+ * personnalisées pour rechercher des mappings d'URLs par code court ou URL originale
+ * (sous sa forme compressée préfixe + suffixe), toujours au sein d'un domaine court.
  * 
  * <p><strong>Fonctionnalités :</strong>
  * <ul>
- *   <li>Recherche par code court unique</li>
- *   <li>Recherche par URL originale unique</li>
+ *   <li>Recherche par code court, unique dans son domaine</li>
+ *   <li>Recherche par URL originale, unique dans son domaine (identifiant de préfixe + suffixe)</li>
+ *   <li>Parcours paginé par clé ({@code id > curseur}), éventuellement filtré par préfixes</li>
  *   <li>Opérations CRUD standard héritées de JpaRepository</li>
  * </ul>
  * 
  * <p><strong>Optimisations :</strong>
  * Les méthodes de recherche utilisent les index uniques définis sur la table
- * {@code url_mapping} pour des performances optimales.
+ * {@code url_mapping}, dont le domaine est la première colonne, pour des performances optimales.
  * 
  * @author Aziz Rayene Delaa
  * @version 1.0
@@ -31,27 +39,121 @@ import java.util.Optional;
 public interface UrlMappingRepository extends JpaRepository<UrlMapping, Long> {
     
     /**
-     * Recherche un mapping d'URL par son code court.
+     * Recherche un mapping d'URL par son code court dans un domaine.
      * 
      * <p>Cette méthode effectue une recherche optimisée utilisant l'index unique
-     * sur la colonne {@code short_code}.
+     * sur les colonnes {@code (domain_id, short_code)}.
      * 
+     * @param domainId l'identifiant du domaine court
      * @param shortCode le code court à rechercher
      * @return un Optional contenant le mapping trouvé, ou empty si non trouvé
      */
-    Optional<UrlMapping> findByShortCode(String shortCode);
+    Optional<UrlMapping> findByDomainIdAndShortCode(int domainId, String shortCode);
     
     /**
-     * Recherche un mapping d'URL par son URL originale.
+     * Recherche un mapping d'URL par son URL originale compressée dans un domaine.
      * 
      * <p>Cette méthode effectue une recherche optimisée utilisant l'index unique
-     * sur la colonne {@code original_url}. Elle permet de vérifier si une URL
-     * a déjà été raccourcie et d'éviter les doublons.
+     * sur les colonnes {@code (domain_id, prefix_id, url_suffix)}. Elle permet de vérifier
+     * si une URL a déjà été raccourcie dans le domaine et d'éviter les doublons.
      * 
-     * @param originalUrl l'URL originale à rechercher
+     * @param domainId l'identifiant du domaine court
+     * @param prefixId l'identifiant du préfixe de l'URL dans le dictionnaire
+     * @param urlSuffix le suffixe de l'URL
      * @return un Optional contenant le mapping trouvé, ou empty si non trouvé
      */
-    Optional<UrlMapping> findByOriginalUrl(String originalUrl);
-}
+    Optional<UrlMapping> findByDomainIdAndPrefixIdAndUrlSuffix(int domainId, int prefixId, String urlSuffix);
+
+    /**
+     * Retourne la page suivante de mappings, par ordre d'identifiant croissant.
+     * 
+     * <p>Pagination par clé (<em>keyset</em>) : la requête {@code id > ? order by id}
+     * parcourt l'index primaire à partir du curseur, quel que soit le nombre de pages
+     * déjà lues, contrairement à une pagination par {@code OFFSET}.
+     * 
+     * @param afterId l'identifiant du dernier mapping de la page précédente (0 pour la première)
+     * @param limit le nombre maximal de mappings à retourner
+     * @return les mappings suivants, triés par identifiant
+     */
+    List<UrlMapping> findByIdGreaterThanOrderByIdAsc(long afterId, Limit limit);
+
+    /**
+     * Retourne la page suivante de mappings dont l'URL originale a un hôte donné.
+     * 
+     * <p>Les préfixes de l'hôte sont résolus en base par l'index {@code url_prefix(host)},
+     * puis les mappings par l'index {@code (prefix_id, id)} : ni le dictionnaire ni une
+     * liste d'identifiants ne transitent par l'application.
+     * 
+     * <p>L'index ne fournit l'ordre des identifiants qu'à l'intérieur d'un préfixe : si
+     * l'hôte en a plusieurs, la base lit toutes leurs lignes au-delà du curseur et les
+     * trie avant d'appliquer la limite. Le coût d'une page suit alors le nombre de
+     * mappings restants de l'hôte.
+     * 
+     * @param afterId l'identifiant du dernier mapping de la page précédente (0 pour la première)
+     * @param host l'hôte recherché, en minuscules
+     * @param limit le nombre maximal de mappings à retourner
+     * @return les mappings suivants, triés par identifiant
+     */
+    @Query("select m from UrlMapping m where m.id > :afterId "
+            + "and m.prefixId in (select p.id from UrlPrefix p where p.host = :host) order by m.id")
+    List<UrlMapping> findPageByHost(long afterId, String host, Limit limit);
 
+    /**
+     * Retourne, parmi des codes courts, ceux qui sont déjà attribués dans un domaine.
+     * 
+     * <p>Une seule requête {@code in} sur l'index unique {@code (domain_id, short_code)}
+     * vérifie tout un lot de candidats, au lieu d'une recherche par code. L'appelant
+     * borne la taille du lot.
+     * 
+     * @param domainId l'identifiant du domaine court
+     * @param shortCodes les codes courts à vérifier
+     * @return les codes déjà attribués, sans ordre particulier
+     */
+    @Query("select m.shortCode from UrlMapping m where m.domainId = :domainId and m.shortCode in :shortCodes")
+    List<String> findExistingShortCodes(int domainId, Collection<String> shortCodes);
 
+    /**
+     * Retourne les mappings froids d'un domaine, candidats à l'archivage.
+     * 
+     * <p>Un mapping est froid lorsque son dernier accès, ou à défaut sa création, précède
+     * la date limite. Un mapping sans aucune des deux dates n'est jamais retenu : voir
+     * {@link #stampMissingCreatedAt(Instant)}.
+     * 
+     * @param domainId l'identifiant du domaine court
+     * @param cutoff la date limite (exclue)
+     * @param limit le nombre maximal de mappings à retourner
+     * @return les mappings froids, triés par code court
+     */
+    @Query("select m from UrlMapping m where m.domainId = :domainId "
+            + "and coalesce(m.lastAccessedAt, m.createdAt) < :cutoff order by m.shortCode")
+    List<UrlMapping> findColdMappings(int domainId, Instant cutoff, Limit limit);
+
+    /**
+     * Date les mappings créés avant l'ajout de la colonne {@code created_at}.
+     * 
+     * <p>Sans date, un mapping ne serait jamais jugé froid ; daté du premier passage de
+     * l'archivage, il le devient une fois le délai d'inactivité écoulé. À appeler dans
+     * une transaction.
+     * 
+     * @param now la date attribuée
+     * @return le nombre de mappings mis à jour
+     */
+    @Modifying
+    @Query("update UrlMapping m set m.createdAt = :now where m.createdAt is null")
+    int stampMissingCreatedAt(Instant now);
+
+    /**
+     * Enregistre la date du dernier accès d'un lot de codes courts.
+     * 
+     * <p>Une seule mise à jour par lot, les accès étant regroupés en mémoire entre deux
+     * écritures. L'appelant borne la taille du lot ; à appeler dans une transaction.
+     * 
+     * @param domainId l'identifiant du domaine court
+     * @param shortCodes les codes courts accédés
+     * @param now la date d'accès
+     * @return le nombre de mappings mis à jour
+     */
+    @Modifying
+    @Query("update UrlMapping m set m.lastAccessedAt = :now where m.domainId = :domainId and m.shortCode in :shortCodes")
+    int touch(int domainId, Collection<String> shortCodes, Instant now);
+}
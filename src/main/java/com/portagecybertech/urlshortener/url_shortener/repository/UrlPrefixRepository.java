@@ -0,0 +1,31 @@
+package com.portagecybertech.urlshortener.url_shortener.repository;
+
+import com.portagecybertech.urlshortener.url_shortener.model.UrlPrefix;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+/**
+ * Repository Spring Data JPA pour le dictionnaire de préfixes d'URLs.
+ *
+ * <p>Le dictionnaire est petit et presque exclusivement lu depuis la mémoire
+ * (voir {@code UrlPrefixDictionary}) ; ce repository n'est sollicité que lors
+ * de l'apparition d'un nouveau préfixe ou d'un chargement à froid.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ * @see UrlPrefix
+ */
+public interface UrlPrefixRepository extends JpaRepository<UrlPrefix, Integer> {
+
+    /**
+     * Recherche une entrée du dictionnaire par la valeur de son préfixe.
+     *
+     * <p>Utilise l'index unique sur la colonne {@code prefix}.
+     *
+     * @param prefix le préfixe {@code scheme://authority} à rechercher
+     * @return un Optional contenant l'entrée trouvée, ou empty si non trouvée
+     */
+    Optional<UrlPrefix> findByPrefix(String prefix);
+}
@@ -0,0 +1,15 @@
+package com.portagecybertech.urlshortener.url_shortener.service;
+
+/**
+ * Forme compressée d'une URL originale, identique à celle du stockage.
+ *
+ * <p>Seuls l'identifiant du préfixe (voir {@link UrlPrefixDictionary}) et le suffixe
+ * sont conservés ; le préfixe commun n'est présent qu'une fois en mémoire.
+ *
+ * @param prefixId l'identifiant du préfixe {@code scheme://authority}
+ * @param suffix le suffixe de l'URL (chemin, requête, fragment)
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ */
+public record CompactUrl(int prefixId, String suffix) {}
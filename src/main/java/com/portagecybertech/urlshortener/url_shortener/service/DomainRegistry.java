@@ -0,0 +1,276 @@
+package com.portagecybertech.urlshortener.url_shortener.service;
+
+import com.portagecybertech.urlshortener.url_shortener.model.ShortDomain;
+import com.portagecybertech.urlshortener.url_shortener.repository.ShortDomainRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Registre en mémoire des domaines courts (espaces de noms des codes courts).
+ *
+ * <p>Le domaine {@link #DEFAULT_DOMAIN_ID} est construit depuis {@code app.base-url} ;
+ * les domaines supplémentaires sont déclarés par {@code app.domains}, sous la forme
+ * d'une liste {@code id=baseUrl} séparée par des virgules :
+ * <pre>{@code app.domains=1=https://go.example.com,2=https://lnk.example.org}</pre>
+ * Les identifiants sont explicites pour être identiques sur le primaire et les réplicas :
+ * un identifiant ne doit jamais être réattribué à un autre domaine.
+ *
+ * <p>Au démarrage, la configuration est recopiée dans la table {@code short_domain}.
+ * Ensuite, toute résolution se fait dans des tables immuables en mémoire : le chemin
+ * des redirections ne fait qu'une recherche dans une {@link HashMap} par requête.
+ *
+ * <p><strong>Résolution d'un hôte :</strong> l'en-tête {@code Host} est d'abord cherché
+ * tel quel (cas courant : minuscules, sans port) puis, à défaut, après normalisation
+ * (minuscules, sans port ni point final). Un hôte inconnu (accès direct par adresse IP,
+ * {@code localhost}...) relève du domaine par défaut.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ * @see ShortDomain
+ */
+@Component
+public class DomainRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(DomainRegistry.class);
+
+    /**
+     * Identifiant du domaine par défaut ({@code app.base-url}).
+     */
+    public static final int DEFAULT_DOMAIN_ID = 0;
+
+    /**
+     * Domaines indexés par identifiant.
+     */
+    private final Map<Integer, ShortDomain> domainsById;
+
+    /**
+     * Identifiants des domaines indexés par nom d'hôte normalisé.
+     */
+    private final Map<String, Integer> idsByHost;
+
+    /**
+     * Constructeur principal : lit la configuration et la recopie dans {@code short_domain}.
+     *
+     * @param baseUrl l'URL de base du domaine par défaut (app.base-url)
+     * @param domains les domaines supplémentaires ({@code id=baseUrl,...}), éventuellement vide
+     * @param shortDomainRepository le repository des domaines
+     * @throws IllegalArgumentException si la configuration est invalide
+     */
+    @Autowired
+    public DomainRegistry(@Value("${app.base-url}") String baseUrl,
+                          @Value("${app.domains:}") String domains,
+                          ShortDomainRepository shortDomainRepository) {
+        this(parse(baseUrl, domains));
+        synchronize(shortDomainRepository);
+    }
+
+    private DomainRegistry(List<ShortDomain> domains) {
+        this.domainsById = domains.stream().collect(Collectors.toUnmodifiableMap(ShortDomain::getId, Function.identity()));
+        this.idsByHost = domains.stream().collect(Collectors.toUnmodifiableMap(ShortDomain::getHost, ShortDomain::getId));
+    }
+
+    /**
+     * Retourne un registre limité au domaine par défaut, sans persistance.
+     *
+     * @param baseUrl l'URL de base du domaine par défaut
+     * @return le registre
+     */
+    public static DomainRegistry single(String baseUrl) {
+        return new DomainRegistry(parse(baseUrl, ""));
+    }
+
+    /**
+     * Résout l'hôte d'une requête en identifiant de domaine.
+     *
+     * @param host le nom d'hôte de la requête (en-tête {@code Host}), éventuellement null
+     * @return l'identifiant du domaine, ou {@link #DEFAULT_DOMAIN_ID} si l'hôte est inconnu
+     */
+    public int resolve(String host) {
+        if (host == null) {
+            return DEFAULT_DOMAIN_ID;
+        }
+        Integer id = idsByHost.get(host);
+        if (id == null) {
+            id = idsByHost.get(normalizeHost(host));
+        }
+        return id == null ? DEFAULT_DOMAIN_ID : id;
+    }
+
+    /**
+     * Résout le domaine d'une requête d'API : le domaine demandé explicitement s'il est
+     * fourni, sinon celui de l'hôte de la requête.
+     *
+     * @param requested le nom d'hôte du domaine demandé (paramètre {@code domain}), ou null
+     * @param requestHost le nom d'hôte de la requête
+     * @return l'identifiant du domaine
+     * @throws IllegalArgumentException si le domaine demandé n'est pas configuré
+     */
+    public int resolve(String requested, String requestHost) {
+        if (requested == null || requested.isBlank()) {
+            return resolve(requestHost);
+        }
+        return findId(requested).orElseThrow(() -> new IllegalArgumentException("Unknown domain"));
+    }
+
+    /**
+     * Recherche un domaine par son nom d'hôte, sans repli sur le domaine par défaut.
+     *
+     * @param host le nom d'hôte demandé explicitement (ex: paramètre {@code domain} de l'API)
+     * @return l'identifiant du domaine, ou empty si l'hôte n'est pas un domaine configuré
+     */
+    public OptionalInt findId(String host) {
+        Integer id = host == null ? null : idsByHost.get(normalizeHost(host));
+        return id == null ? OptionalInt.empty() : OptionalInt.of(id);
+    }
+
+    /**
+     * Indique si un identifiant désigne un domaine configuré.
+     *
+     * @param domainId l'identifiant du domaine
+     * @return true si le domaine est configuré
+     */
+    public boolean contains(int domainId) {
+        return domainsById.containsKey(domainId);
+    }
+
+    /**
+     * Retourne l'URL de base des URLs raccourcies d'un domaine.
+     *
+     * @param domainId l'identifiant du domaine
+     * @return l'URL de base, sans {@code /} final
+     * @throws IllegalArgumentException si le domaine est inconnu
+     */
+    public String baseUrl(int domainId) {
+        ShortDomain domain = domainsById.get(domainId);
+        if (domain == null) {
+            throw new IllegalArgumentException("Unknown domain id " + domainId);
+        }
+        return domain.getBaseUrl();
+    }
+
+    /**
+     * Construit l'URL raccourcie complète d'un code dans un domaine.
+     *
+     * @param domainId l'identifiant du domaine
+     * @param shortCode le code court
+     * @return l'URL raccourcie
+     */
+    public String shortUrl(int domainId, String shortCode) {
+        return baseUrl(domainId) + "/" + shortCode;
+    }
+
+    /**
+     * Retourne les identifiants de tous les domaines configurés.
+     *
+     * @return les identifiants, dans un ordre quelconque
+     */
+    public List<Integer> domainIds() {
+        return List.copyOf(domainsById.keySet());
+    }
+
+    /**
+     * Recopie la configuration dans la table {@code short_domain}.
+     */
+    private void synchronize(ShortDomainRepository repository) {
+        Map<Integer, ShortDomain> stored = repository.findAll().stream()
+                .collect(Collectors.toMap(ShortDomain::getId, Function.identity()));
+        List<ShortDomain> changed = new ArrayList<>();
+        for (ShortDomain domain : domainsById.values()) {
+            ShortDomain row = stored.remove(domain.getId());
+            if (row == null || !row.getHost().equals(domain.getHost()) || !row.getBaseUrl().equals(domain.getBaseUrl())) {
+                if (row != null && !row.getHost().equals(domain.getHost())) {
+                    log.warn("Domain {} renamed from {} to {}: its short codes now resolve on the new host",
+                            domain.getId(), row.getHost(), domain.getHost());
+                }
+                changed.add(domain);
+            }
+        }
+        for (ShortDomain orphan : stored.values()) {
+            log.warn("Domain {} ({}) is no longer configured: its mappings are unreachable", orphan.getId(), orphan.getHost());
+        }
+        repository.saveAll(changed);
+    }
+
+    /**
+     * Lit et valide la configuration des domaines.
+     */
+    private static List<ShortDomain> parse(String baseUrl, String domains) {
+        List<ShortDomain> parsed = new ArrayList<>();
+        parsed.add(domain(DEFAULT_DOMAIN_ID, baseUrl));
+        if (domains != null && !domains.isBlank()) {
+            for (String entry : domains.split(",")) {
+                int separator = entry.indexOf('=');
+                if (separator < 0) {
+                    throw new IllegalArgumentException("app.domains: expected id=baseUrl, got '" + entry.trim() + "'");
+                }
+                int id;
+                try {
+                    id = Integer.parseInt(entry.substring(0, separator).trim());
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException("app.domains: invalid domain id in '" + entry.trim() + "'", e);
+                }
+                if (id <= DEFAULT_DOMAIN_ID) {
+                    throw new IllegalArgumentException("app.domains: domain ids must be positive (0 is app.base-url)");
+                }
+                parsed.add(domain(id, entry.substring(separator + 1).trim()));
+            }
+        }
+        Map<Integer, String> ids = new HashMap<>();
+        Map<String, Integer> hosts = new HashMap<>();
+        for (ShortDomain domain : parsed) {
+            if (ids.put(domain.getId(), domain.getHost()) != null) {
+                throw new IllegalArgumentException("app.domains: duplicate domain id " + domain.getId());
+            }
+            if (hosts.put(domain.getHost(), domain.getId()) != null) {
+                throw new IllegalArgumentException("app.domains: duplicate domain host " + domain.getHost());
+            }
+        }
+        return parsed;
+    }
+
+    private static ShortDomain domain(int id, String baseUrl) {
+        String trimmed = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        String host;
+        try {
+            host = URI.create(trimmed).getHost();
+        } catch (IllegalArgumentException e) {
+            host = null;
+        }
+        if (host == null || !HttpUrlValidator.isValid(trimmed)) {
+            throw new IllegalArgumentException("Invalid base URL for domain " + id + ": " + baseUrl);
+        }
+        return new ShortDomain(id, normalizeHost(host), trimmed);
+    }
+
+    /**
+     * Normalise un nom d'hôte : minuscules, sans port ni point final.
+     *
+     * @param host le nom d'hôte, éventuellement suivi d'un port
+     * @return le nom d'hôte normalisé
+     */
+    static String normalizeHost(String host) {
+        String normalized = host.trim();
+        int colon = normalized.lastIndexOf(':');
+        if (colon >= 0 && normalized.indexOf(']') < colon && (normalized.startsWith("[") || normalized.indexOf(':') == colon)) {
+            normalized = normalized.substring(0, colon);
+        }
+        if (normalized.endsWith(".")) {
+            normalized = normalized.substring(0, normalized.length() - 1);
+        }
+        return normalized.toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,366 @@
+package com.portagecybertech.urlshortener.url_shortener.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache mémoire borné des résolutions code court vers URL originale.
+ *
+ * <p>Les valeurs sont stockées sous leur forme compressée {@link CompactUrl}
+ * (identifiant de préfixe + suffixe), comme en base : le préfixe commun
+ * à de nombreuses URLs n'est pas dupliqué dans le tas.
+ *
+ * <p>Le cache est partitionné par domaine court : chaque domaine a sa propre table,
+ * bornée à {@code max-entries}. Un domaine très sollicité n'évince donc pas les entrées
+ * des autres, et un même code peut être mis en cache dans plusieurs domaines.
+ *
+ * <p>Lorsque la capacité d'une partition est atteinte, une de ses entrées arbitraire
+ * est évincée (l'ordre d'itération de {@link ConcurrentHashMap} suit la répartition des
+ * hachages, ce qui revient à une éviction pseudo-aléatoire sans verrou).
+ *
+ * <p><strong>Niveau hors tas :</strong> avec {@code app.cache.expand.off-heap.enabled=true},
+ * un {@link OffHeapUrlCache} de taille fixe ({@code max-bytes}) s'ajoute derrière le cache
+ * sur le tas, qui ne garde plus que les entrées les plus chaudes. Toute entrée est écrite
+ * dans les deux niveaux ; une entrée trouvée hors tas est recopiée sur le tas, sauf si
+ * la clé est invalidée pendant la copie (voir les époques ci-dessous). Le tas reste ainsi
+ * borné par {@code max-entries} quel que soit le volume mis en cache.
+ *
+ * <p><strong>Invalidations concurrentes :</strong> une invalidation (suppression locale,
+ * réplication ou message du bus) peut survenir entre la lecture en base d'un remplissage
+ * et son {@code put}, qui remettrait alors en cache un mapping supprimé, sans expiration.
+ * Chaque invalidation incrémente donc l'époque de la clé ({@value #EPOCH_STRIPES} époques
+ * partagées par hachage, sans état par clé) ; un remplissage relève l'époque avant sa lecture
+ * ({@link #stamp(int, String)}) et retire son entrée si elle a changé entre-temps
+ * ({@link #putIfNotInvalidated(int, String, CompactUrl, long)}). La promotion d'une entrée
+ * hors tas suit la même règle, et l'invalidation vide le hors tas avant le tas pour qu'une
+ * lecture concurrente ne puisse pas y retrouver l'entrée. L'invalidation l'emporte.
+ *
+ * <p>Les succès et les échecs de recherche sont comptés (cache activé uniquement),
+ * pour le taux de succès du tableau de bord temps réel.
+ *
+ * <p><strong>Métriques (niveau hors tas) :</strong> {@code urlshortener.cache.offheap.entries},
+ * {@code urlshortener.cache.offheap.bytes}, {@code urlshortener.cache.offheap.evictions}.
+ *
+ * <p><strong>Configuration :</strong> {@code app.cache.expand.max-entries}, par domaine
+ * (0 désactive le niveau sur le tas), et {@code app.cache.expand.off-heap.*}.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ * @see CompactUrl
+ */
+@Component
+public class ExpandCache {
+
+    /**
+     * Nombre maximal d'entrées conservées par domaine.
+     */
+    private final int maxEntries;
+
+    /**
+     * Partitions du cache, indexées par identifiant de domaine puis par code court.
+     */
+    private final Map<Integer, Map<String, CompactUrl>> partitions = new ConcurrentHashMap<>();
+
+    /**
+     * Nombre d'époques d'invalidation, puissance de 2.
+     */
+    static final int EPOCH_STRIPES = 4096;
+
+    /**
+     * Époques d'invalidation, incrémentées à chaque invalidation d'une clé de la tranche.
+     */
+    private final AtomicLongArray epochs = new AtomicLongArray(EPOCH_STRIPES);
+
+    /**
+     * Niveau hors tas, ou null s'il est désactivé.
+     */
+    private final OffHeapUrlCache offHeap;
+
+    /**
+     * Recherches servies par le cache.
+     */
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * Recherches absentes du cache.
+     */
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Crée un cache sur le tas uniquement.
+     *
+     * @param maxEntries nombre maximal d'entrées par domaine (0 pour désactiver le cache)
+     */
+    public ExpandCache(int maxEntries) {
+        this(maxEntries, null);
+    }
+
+    /**
+     * Crée un cache à deux niveaux.
+     *
+     * @param maxEntries nombre maximal d'entrées sur le tas, par domaine
+     * @param offHeap le niveau hors tas, ou null
+     */
+    ExpandCache(int maxEntries, OffHeapUrlCache offHeap) {
+        this.maxEntries = maxEntries;
+        this.offHeap = offHeap;
+    }
+
+    /**
+     * Constructeur principal du cache, alimenté par les propriétés {@code app.cache.expand.*}.
+     *
+     * @param maxEntries nombre maximal d'entrées sur le tas, par domaine (0 pour désactiver ce niveau)
+     * @param offHeapEnabled true pour ajouter le niveau hors tas
+     * @param offHeapMaxBytes la mémoire hors tas allouée, index compris
+     * @param offHeapSegments le nombre de segments verrouillés indépendamment, puissance de 2
+     * @param meterRegistry le registre de métriques
+     */
+    @Autowired
+    public ExpandCache(@Value("${app.cache.expand.max-entries:100000}") int maxEntries,
+                       @Value("${app.cache.expand.off-heap.enabled:false}") boolean offHeapEnabled,
+                       @Value("${app.cache.expand.off-heap.max-bytes:1073741824}") long offHeapMaxBytes,
+                       @Value("${app.cache.expand.off-heap.segments:16}") int offHeapSegments,
+                       MeterRegistry meterRegistry) {
+        this(maxEntries, offHeapEnabled ? new OffHeapUrlCache(offHeapMaxBytes, offHeapSegments) : null);
+        if (offHeap != null) {
+            Gauge.builder("urlshortener.cache.offheap.entries", offHeap, OffHeapUrlCache::size)
+                    .description("Entrées du cache hors tas des résolutions")
+                    .register(meterRegistry);
+            Gauge.builder("urlshortener.cache.offheap.bytes", offHeap, OffHeapUrlCache::capacityBytes)
+                    .description("Mémoire hors tas allouée au cache des résolutions")
+                    .baseUnit("bytes")
+                    .register(meterRegistry);
+            FunctionCounter.builder("urlshortener.cache.offheap.evictions", offHeap, OffHeapUrlCache::evictionCount)
+                    .description("Entrées évincées du cache hors tas (CLOCK)")
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Retourne un cache désactivé, qui ne conserve aucune entrée.
+     *
+     * @return un cache désactivé
+     */
+    public static ExpandCache disabled() {
+        return new ExpandCache(0);
+    }
+
+    /**
+     * Recherche la forme compressée associée à un code court du domaine par défaut.
+     *
+     * @param shortCode le code court
+     * @return l'URL compressée, ou null si absente du cache
+     */
+    public CompactUrl get(String shortCode) {
+        return get(DomainRegistry.DEFAULT_DOMAIN_ID, shortCode);
+    }
+
+    /**
+     * Recherche la forme compressée associée à un code court.
+     *
+     * @param domainId l'identifiant du domaine
+     * @param shortCode le code court
+     * @return l'URL compressée, ou null si absente du cache
+     */
+    public CompactUrl get(int domainId, String shortCode) {
+        Map<String, CompactUrl> partition = partitions.get(domainId);
+        CompactUrl url = partition == null ? null : partition.get(shortCode);
+        if (url == null && offHeap != null) {
+            int stripe = stripe(domainId, shortCode);
+            long stamp = epochs.get(stripe);
+            url = offHeap.get(domainId, shortCode);
+            if (url != null) {
+                putOnHeap(domainId, shortCode, url);
+                Map<String, CompactUrl> promoted = partitions.get(domainId);
+                if (promoted != null && epochs.get(stripe) != stamp) {
+                    // Invalidée pendant la promotion : l'entrée ne doit pas survivre sur le tas
+                    promoted.remove(shortCode, url);
+                }
+            }
+        }
+        if (maxEntries > 0 || offHeap != null) {
+            (url == null ? misses : hits).increment();
+        }
+        return url;
+    }
+
+    /**
+     * Ajoute ou remplace une entrée du domaine par défaut.
+     *
+     * @param shortCode le code court
+     * @param url l'URL compressée associée
+     */
+    public void put(String shortCode, CompactUrl url) {
+        put(DomainRegistry.DEFAULT_DOMAIN_ID, shortCode, url);
+    }
+
+    /**
+     * Ajoute ou remplace une entrée du cache.
+     *
+     * @param domainId l'identifiant du domaine
+     * @param shortCode le code court
+     * @param url l'URL compressée associée
+     */
+    public void put(int domainId, String shortCode, CompactUrl url) {
+        if (offHeap != null) {
+            offHeap.put(domainId, shortCode, url);
+        }
+        putOnHeap(domainId, shortCode, url);
+    }
+
+    /**
+     * Relève l'époque d'invalidation d'une clé, avant la lecture qui remplira le cache.
+     *
+     * @param domainId l'identifiant du domaine
+     * @param shortCode le code court
+     * @return l'époque à passer à {@link #putIfNotInvalidated(int, String, CompactUrl, long)}
+     */
+    public long stamp(int domainId, String shortCode) {
+        return epochs.get(stripe(domainId, shortCode));
+    }
+
+    /**
+     * Ajoute une entrée lue en base, sauf si la clé a été invalidée depuis {@code stamp}.
+     *
+     * <p>L'entrée est écrite puis l'époque revérifiée : une invalidation concurrente
+     * incrémente l'époque avant de retirer l'entrée, elle est donc vue soit ici, soit
+     * après l'écriture qu'elle retire.
+     *
+     * @param domainId l'identifiant du domaine
+     * @param shortCode le code court
+     * @param url l'URL compressée lue en base
+     * @param stamp l'époque relevée avant la lecture
+     */
+    public void putIfNotInvalidated(int domainId, String shortCode, CompactUrl url, long stamp) {
+        int stripe = stripe(domainId, shortCode);
+        if (epochs.get(stripe) != stamp) {
+            return;
+        }
+        put(domainId, shortCode, url);
+        if (epochs.get(stripe) != stamp) {
+            remove(domainId, shortCode, url);
+        }
+    }
+
+    private void putOnHeap(int domainId, String shortCode, CompactUrl url) {
+        if (maxEntries <= 0) {
+            return;
+        }
+        Map<String, CompactUrl> partition = partitions.computeIfAbsent(domainId, id -> new ConcurrentHashMap<>());
+        if (partition.size() >= maxEntries) {
+            Iterator<String> victims = partition.keySet().iterator();
+            if (victims.hasNext()) {
+                victims.next();
+                victims.remove();
+            }
+        }
+        partition.put(shortCode, url);
+    }
+
+    /**
+     * Retire une entrée du domaine par défaut.
+     *
+     * @param shortCode le code court à invalider
+     */
+    public void invalidate(String shortCode) {
+        invalidate(DomainRegistry.DEFAULT_DOMAIN_ID, shortCode);
+    }
+
+    /**
+     * Retire une entrée du cache.
+     *
+     * @param domainId l'identifiant du domaine
+     * @param shortCode le code court à invalider
+     */
+    public void invalidate(int domainId, String shortCode) {
+        epochs.incrementAndGet(stripe(domainId, shortCode));
+        // Hors tas d'abord : une lecture qui manque le tas ne peut plus y retrouver l'entrée
+        if (offHeap != null) {
+            offHeap.invalidate(domainId, shortCode);
+        }
+        Map<String, CompactUrl> partition = partitions.get(domainId);
+        if (partition != null) {
+            partition.remove(shortCode);
+        }
+    }
+
+    /**
+     * Retire l'entrée d'un remplissage devancé par une invalidation.
+     */
+    private void remove(int domainId, String shortCode, CompactUrl url) {
+        Map<String, CompactUrl> partition = partitions.get(domainId);
+        if (partition != null) {
+            partition.remove(shortCode, url);
+        }
+        if (offHeap != null) {
+            offHeap.invalidate(domainId, shortCode);
+        }
+    }
+
+    private static int stripe(int domainId, String shortCode) {
+        int hash = 31 * domainId + shortCode.hashCode();
+        return (hash ^ (hash >>> 16)) & (EPOCH_STRIPES - 1);
+    }
+
+    /**
+     * Vide entièrement le cache, tous domaines confondus.
+     *
+     * <p>Toutes les époques avancent : aucun remplissage en cours ne survit au vidage.
+     */
+    public void clear() {
+        for (int i = 0; i < EPOCH_STRIPES; i++) {
+            epochs.incrementAndGet(i);
+        }
+        partitions.values().forEach(Map::clear);
+        if (offHeap != null) {
+            offHeap.clear();
+        }
+    }
+
+    /**
+     * Retourne le nombre d'entrées actuellement en cache, tous domaines confondus.
+     *
+     * <p>Avec le niveau hors tas, qui contient aussi les entrées du tas, c'est sa taille.
+     *
+     * @return le nombre d'entrées
+     */
+    public int size() {
+        if (offHeap != null) {
+            return (int) Math.min(Integer.MAX_VALUE, offHeap.size());
+        }
+        int size = 0;
+        for (Map<String, CompactUrl> partition : partitions.values()) {
+            size += partition.size();
+        }
+        return size;
+    }
+
+    /**
+     * Retourne le nombre cumulé de recherches servies par le cache.
+     *
+     * @return le nombre de succès
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Retourne le nombre cumulé de recherches absentes du cache.
+     *
+     * @return le nombre d'échecs
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+}
@@ -0,0 +1,296 @@
+package com.portagecybertech.urlshortener.url_shortener.service;
+
+import com.portagecybertech.urlshortener.url_shortener.limit.ServiceOverloadedException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+
+/**
+ * Pipeline d'écriture asynchrone regroupant plusieurs écritures par transaction.
+ *
+ * <p>En mode fichier, chaque transaction H2 se termine par une écriture synchrone
+ * sur disque. Ce composant permet de partager ce coût entre plusieurs requêtes :
+ * <ol>
+ *   <li>Les écritures sont déposées dans une file bornée</li>
+ *   <li>Un unique thread d'écriture les regroupe, jusqu'à {@code max-batch} éléments
+ *       ou {@code max-delay-ms} millisecondes après la première</li>
+ *   <li>Le lot est exécuté dans une seule transaction</li>
+ *   <li>Le future de chaque appelant n'est complété qu'après le commit du lot</li>
+ * </ol>
+ *
+ * <p>La durabilité est donc identique à celle d'une transaction par requête.
+ * Si le lot échoue, chaque écriture est rejouée dans sa propre transaction afin
+ * qu'un seul élément fautif n'entraîne pas l'échec des autres.
+ *
+ * <p><strong>Arrêt :</strong> une écriture acceptée est toujours commitée ou mise en échec.
+ * Le dépôt dans la file et l'arrêt sont exclusifs (verrou lecture/écriture), et si le thread
+ * d'écriture ne s'arrête pas à temps, les écritures restées en file sont mises en échec.
+ *
+ * <p><strong>Configuration :</strong> propriétés {@code app.shorten.group-commit.*}
+ * (désactivé par défaut), et {@code app.limits.retry-after-seconds} pour le délai
+ * conseillé lorsque la file est pleine.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ * @see UrlService
+ */
+@Component
+public class GroupCommitExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(GroupCommitExecutor.class);
+
+    /**
+     * Indique si le pipeline asynchrone est actif.
+     */
+    private final boolean enabled;
+
+    /**
+     * Nombre maximal d'écritures par transaction.
+     */
+    private final int maxBatch;
+
+    /**
+     * Délai maximal d'attente après la première écriture d'un lot, en nanosecondes.
+     */
+    private final long maxDelayNanos;
+
+    /**
+     * File bornée des écritures en attente.
+     */
+    private final BlockingQueue<PendingWrite<?>> queue;
+
+    /**
+     * Délai conseillé aux appelants rejetés lorsque la file est pleine, en secondes.
+     */
+    private final int retryAfterSeconds;
+
+    /**
+     * Partagé par les dépôts, exclusif pour l'arrêt : aucun dépôt ne suit l'arrêt du pipeline.
+     */
+    private final ReadWriteLock lifecycle = new ReentrantReadWriteLock();
+
+    /**
+     * Modèle de transaction utilisé pour les lots et les rejeux unitaires.
+     */
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Distribution de la taille des lots commités.
+     */
+    private final DistributionSummary batchSizes;
+
+    /**
+     * Thread unique d'écriture, null si le pipeline est désactivé.
+     */
+    private final Thread writer;
+
+    private volatile boolean running;
+
+    /**
+     * Constructeur principal, alimenté par les propriétés {@code app.shorten.group-commit.*}.
+     *
+     * @param enabled active le pipeline asynchrone
+     * @param maxBatch nombre maximal d'écritures par transaction
+     * @param maxDelayMillis délai maximal de regroupement en millisecondes
+     * @param queueCapacity capacité de la file d'attente
+     * @param retryAfterSeconds délai conseillé lorsque la file est pleine, en secondes
+     * @param transactionManager le gestionnaire de transactions
+     * @param meterRegistry le registre de métriques
+     */
+    @Autowired
+    public GroupCommitExecutor(@Value("${app.shorten.group-commit.enabled:false}") boolean enabled,
+                               @Value("${app.shorten.group-commit.max-batch:64}") int maxBatch,
+                               @Value("${app.shorten.group-commit.max-delay-ms:5}") long maxDelayMillis,
+                               @Value("${app.shorten.group-commit.queue-capacity:10000}") int queueCapacity,
+                               @Value("${app.limits.retry-after-seconds:1}") int retryAfterSeconds,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.maxBatch = maxBatch;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSizes = DistributionSummary.builder("urlshortener.groupcommit.batch.size")
+                .description("Nombre d'écritures par transaction")
+                .register(meterRegistry);
+        if (enabled) {
+            running = true;
+            writer = new Thread(this::runWriter, "group-commit-writer");
+            writer.setDaemon(true);
+            writer.start();
+        } else {
+            writer = null;
+        }
+    }
+
+    /**
+     * Indique si le pipeline asynchrone est actif.
+     *
+     * @return true si les écritures doivent passer par {@link #submit(Supplier)}
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Soumet une écriture au pipeline.
+     *
+     * @param work l'écriture à exécuter dans la transaction du lot
+     * @param <T> le type de résultat
+     * @return un future complété après le commit du lot contenant l'écriture
+     * @throws IllegalStateException si le pipeline est désactivé ou arrêté
+     * @throws ServiceOverloadedException si la file d'attente est pleine
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> work) {
+        PendingWrite<T> pending = new PendingWrite<>(work);
+        lifecycle.readLock().lock();
+        try {
+            if (!running) {
+                throw new IllegalStateException("Group commit pipeline is not running");
+            }
+            if (!queue.offer(pending)) {
+                throw new ServiceOverloadedException("write-queue", retryAfterSeconds);
+            }
+        } finally {
+            lifecycle.readLock().unlock();
+        }
+        return pending.future;
+    }
+
+    /**
+     * Arrête le thread d'écriture après avoir vidé la file.
+     *
+     * <p>Les écritures encore en file si le thread ne s'est pas arrêté au bout de
+     * 10 secondes sont mises en échec plutôt que laissées sans réponse.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (writer == null) {
+            return;
+        }
+        lifecycle.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            lifecycle.writeLock().unlock();
+        }
+        writer.interrupt();
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<PendingWrite<?>> leftover = new ArrayList<>();
+        queue.drainTo(leftover);
+        if (!leftover.isEmpty()) {
+            log.warn("Group commit writer did not stop in time, failing {} queued writes", leftover.size());
+            IllegalStateException stopped = new IllegalStateException("Group commit pipeline stopped");
+            leftover.forEach(pending -> pending.future.completeExceptionally(stopped));
+        }
+    }
+
+    /**
+     * Boucle du thread d'écriture : regroupe puis exécute les lots.
+     */
+    private void runWriter() {
+        List<PendingWrite<?>> batch = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingWrite<?> first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < maxBatch) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingWrite<?> next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // Arrêt demandé : on termine le lot en cours puis on vide la file
+                queue.drainTo(batch, maxBatch - batch.size());
+            }
+            if (!batch.isEmpty()) {
+                commit(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Exécute un lot dans une transaction unique, avec repli unitaire en cas d'échec.
+     *
+     * @param batch les écritures du lot
+     */
+    private void commit(List<PendingWrite<?>> batch) {
+        Object[] results = new Object[batch.size()];
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = 0; i < batch.size(); i++) {
+                    results[i] = batch.get(i).work.get();
+                }
+            });
+        } catch (RuntimeException e) {
+            log.debug("Group commit of {} writes failed, retrying individually", batch.size(), e);
+            for (PendingWrite<?> pending : batch) {
+                pending.runAlone(transactionTemplate);
+            }
+            return;
+        }
+        batchSizes.record(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).complete(results[i]);
+        }
+    }
+
+    /**
+     * Écriture en attente et future de son appelant.
+     *
+     * @param <T> le type de résultat
+     */
+    private static final class PendingWrite<T> {
+
+        private final Supplier<T> work;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+
+        private PendingWrite(Supplier<T> work) {
+            this.work = work;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void complete(Object result) {
+            future.complete((T) result);
+        }
+
+        private void runAlone(TransactionTemplate template) {
+            try {
+                future.complete(template.execute(status -> work.get()));
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,467 @@
+package com.portagecybertech.urlshortener.url_shortener.service;
+
+/**
+ * Validation des URLs HTTP/HTTPS en une seule passe, sans allocation.
+ *
+ * <p>Reproduit la décision de {@code new java.net.URI(url)} suivi de la vérification
+ * {@code scheme ∈ {http, https} && getHost() != null}, sans construire d'objet
+ * {@link java.net.URI} ni d'exception pour les entrées invalides. Les classes de
+ * caractères sont celles de {@link java.net.URI} (RFC 2396 et RFC 2732), codées
+ * dans des masques de 128 bits.
+ *
+ * <p><strong>Règles vérifiées :</strong>
+ * <ul>
+ *   <li>Schéma {@code http} ou {@code https} (casse indifférente) suivi de {@code //}</li>
+ *   <li>Autorité de serveur : informations d'utilisateur optionnelles, hôte non vide,
+ *       port optionnel (chiffres uniquement)</li>
+ *   <li>Hôte : nom de domaine (étiquettes alphanumériques, tirets internes, dernière
+ *       étiquette commençant par une lettre), adresse IPv4 ou littéral IPv6 entre
+ *       crochets, avec identifiant de zone optionnel ({@code %eth0})</li>
+ *   <li>Chemin, requête et fragment : caractères autorisés et séquences {@code %XX}
+ *       bien formées ; les caractères non ASCII hors espaces et contrôles sont admis</li>
+ * </ul>
+ *
+ * <p><strong>Écart assumé :</strong> {@link java.net.URI} ne connaît pas les noms de
+ * domaine internationalisés et traite {@code http://bücher.de/} comme une autorité
+ * « de registre » sans hôte. Ce validateur accepte dans les étiquettes d'hôte les
+ * lettres, chiffres et marques combinantes non ASCII ; toutes les autres décisions
+ * sont identiques à celles de {@link java.net.URI}.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ * @see UrlService#shorten(String)
+ */
+public final class HttpUrlValidator {
+
+    private static final String DIGIT = "0123456789";
+
+    private static final String ALPHA = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+
+    private static final String UNRESERVED = ALPHA + DIGIT + "-_.!~*'()";
+
+    private static final long L_ALPHANUM = lowMask(ALPHA + DIGIT);
+    private static final long H_ALPHANUM = highMask(ALPHA + DIGIT);
+
+    private static final long L_ALPHANUM_DASH = lowMask(ALPHA + DIGIT + "-");
+    private static final long H_ALPHANUM_DASH = highMask(ALPHA + DIGIT + "-");
+
+    private static final long L_USERINFO = lowMask(UNRESERVED + ";:&=+$,");
+    private static final long H_USERINFO = highMask(UNRESERVED + ";:&=+$,");
+
+    private static final long L_PATH = lowMask(UNRESERVED + ":@&=+$,;/");
+    private static final long H_PATH = highMask(UNRESERVED + ":@&=+$,;/");
+
+    private static final long L_URIC = lowMask(UNRESERVED + ";/?:@&=+$,[]");
+    private static final long H_URIC = highMask(UNRESERVED + ";/?:@&=+$,[]");
+
+    private static final long L_SCOPE_ID = lowMask(ALPHA + DIGIT + "_.");
+    private static final long H_SCOPE_ID = highMask(ALPHA + DIGIT + "_.");
+
+    /**
+     * Résultat de {@link #hexSeqEnd} : séquence hexadécimale mal formée.
+     */
+    private static final int MALFORMED = -2;
+
+    private HttpUrlValidator() {
+    }
+
+    /**
+     * Indique si une chaîne est une URL HTTP/HTTPS absolue avec un hôte.
+     *
+     * @param url la chaîne à valider (null accepté)
+     * @return true si l'URL est valide, false sinon
+     */
+    public static boolean isValid(String url) {
+        if (url == null) {
+            return false;
+        }
+        int n = url.length();
+        int p = authorityStart(url, n);
+        if (p < 0) {
+            return false;
+        }
+        int q = p;
+        while (q < n) {
+            char c = url.charAt(q);
+            if (c == '/' || c == '?' || c == '#') {
+                break;
+            }
+            q++;
+        }
+        if (q == p || !isServerAuthority(url, p, q)) {
+            return false;
+        }
+        p = scan(url, q, n, L_PATH, H_PATH, true);
+        if (p >= 0 && p < n && url.charAt(p) == '?') {
+            p = scan(url, p + 1, n, L_URIC, H_URIC, true);
+        }
+        if (p >= 0 && p < n && url.charAt(p) == '#') {
+            p = scan(url, p + 1, n, L_URIC, H_URIC, true);
+        }
+        return p == n;
+    }
+
+    /**
+     * Reconnaît {@code http://} ou {@code https://} en ASCII strict : {@code String.regionMatches}
+     * accepterait aussi {@code ſ} (U+017F) pour {@code s}.
+     */
+    private static int authorityStart(String s, int n) {
+        if (n < 7 || (s.charAt(0) | 0x20) != 'h' || (s.charAt(1) | 0x20) != 't'
+                || (s.charAt(2) | 0x20) != 't' || (s.charAt(3) | 0x20) != 'p') {
+            return -1;
+        }
+        int p = (s.charAt(4) | 0x20) == 's' ? 5 : 4;
+        if (p + 3 > n || s.charAt(p) != ':' || s.charAt(p + 1) != '/' || s.charAt(p + 2) != '/') {
+            return -1;
+        }
+        return p + 3;
+    }
+
+    private static boolean isServerAuthority(String s, int p, int n) {
+        int at = indexOf(s, '@', p, n);
+        if (at >= 0) {
+            if (scan(s, p, at, L_USERINFO, H_USERINFO, true) != at) {
+                return false;
+            }
+            p = at + 1;
+        }
+        if (p < n && s.charAt(p) == '[') {
+            int close = indexOf(s, ']', p + 1, n);
+            if (close <= p + 1) {
+                return false;
+            }
+            int percent = indexOf(s, '%', p + 1, close);
+            if (percent >= 0) {
+                if (!isIPv6(s, p + 1, percent) || percent + 1 == close
+                        || scan(s, percent + 1, close, L_SCOPE_ID, H_SCOPE_ID, false) != close) {
+                    return false;
+                }
+            } else if (!isIPv6(s, p + 1, close)) {
+                return false;
+            }
+            p = close + 1;
+        } else {
+            int q = ipv4End(s, p, n);
+            if (q < 0) {
+                q = hostnameEnd(s, p, n);
+            }
+            if (q < 0) {
+                return false;
+            }
+            p = q;
+        }
+        if (p < n && s.charAt(p) == ':') {
+            long port = 0;
+            for (p++; p < n; p++) {
+                char c = s.charAt(p);
+                if (c < '0' || c > '9') {
+                    return false;
+                }
+                port = port * 10 + (c - '0');
+                if (port > Integer.MAX_VALUE) {
+                    return false;
+                }
+            }
+        }
+        return p == n;
+    }
+
+    /**
+     * Nom d'hôte : {@code *(étiquette ".") étiquette ["."]}, suivi de la fin ou d'un {@code :}.
+     *
+     * @return la fin du nom d'hôte, ou -1
+     */
+    private static int hostnameEnd(String s, int start, int n) {
+        int p = start;
+        int last = -1;
+        do {
+            int q = labelEnd(s, p, n, L_ALPHANUM, H_ALPHANUM);
+            if (q <= p) {
+                break;
+            }
+            last = p;
+            p = q;
+            q = labelEnd(s, p, n, L_ALPHANUM_DASH, H_ALPHANUM_DASH);
+            if (q > p) {
+                if (s.charAt(q - 1) == '-') {
+                    return -1;
+                }
+                p = q;
+            }
+            if (p >= n || s.charAt(p) != '.') {
+                break;
+            }
+            p++;
+        } while (p < n);
+        if (p < n && s.charAt(p) != ':') {
+            return -1;
+        }
+        if (last < 0) {
+            return -1;
+        }
+        char first = s.charAt(last);
+        if (last > start && !(isAsciiAlpha(first) || isIdnChar(first))) {
+            return -1;
+        }
+        return p;
+    }
+
+    private static int labelEnd(String s, int p, int n, long low, long high) {
+        while (p < n) {
+            char c = s.charAt(p);
+            if (!match(c, low, high) && !isIdnChar(c)) {
+                break;
+            }
+            p++;
+        }
+        return p;
+    }
+
+    /**
+     * Adresse IPv4 en position d'hôte, suivie de la fin ou d'un {@code :}.
+     *
+     * @return la fin de l'adresse, ou -1 (l'hôte est alors lu comme un nom)
+     */
+    private static int ipv4End(String s, int p, int n) {
+        int m = digitsAndDotsEnd(s, p, n);
+        if (m <= p || dottedQuadEnd(s, p, m) != m) {
+            return -1;
+        }
+        return m < n && s.charAt(m) != ':' ? -1 : m;
+    }
+
+    /**
+     * Adresse IPv4 occupant exactement {@code [p, n)}, à la fin d'un littéral IPv6.
+     */
+    private static boolean isStrictIPv4(String s, int p, int n) {
+        return p < n && digitsAndDotsEnd(s, p, n) == n && dottedQuadEnd(s, p, n) == n;
+    }
+
+    private static int digitsAndDotsEnd(String s, int p, int n) {
+        while (p < n) {
+            char c = s.charAt(p);
+            if (c != '.' && (c < '0' || c > '9')) {
+                break;
+            }
+            p++;
+        }
+        return p;
+    }
+
+    private static int dottedQuadEnd(String s, int p, int n) {
+        for (int i = 0; i < 4; i++) {
+            if (i > 0) {
+                if (p >= n || s.charAt(p) != '.') {
+                    return -1;
+                }
+                p++;
+            }
+            int value = 0;
+            int q = p;
+            while (q < n && s.charAt(q) >= '0' && s.charAt(q) <= '9') {
+                value = Math.min(value * 10 + (s.charAt(q) - '0'), 256);
+                q++;
+            }
+            if (q == p || value > 255) {
+                return -1;
+            }
+            p = q;
+        }
+        return p;
+    }
+
+    /**
+     * Littéral IPv6 (sans crochets ni zone) : huit groupes de 16 bits, ou moins avec
+     * un unique {@code ::}, les 32 derniers bits pouvant s'écrire en IPv4.
+     */
+    private static boolean isIPv6(String s, int p, int n) {
+        int bytes = 0;
+        boolean compressed = false;
+        int q = hexSeqEnd(s, p, n);
+        if (q == MALFORMED) {
+            return false;
+        }
+        if (q > p) {
+            bytes = groupBytes(s, p, q);
+            p = q;
+            if (isDoubleColon(s, p, n)) {
+                compressed = true;
+                p += 2;
+            } else if (p < n && s.charAt(p) == ':') {
+                if (!isStrictIPv4(s, p + 1, n)) {
+                    return false;
+                }
+                bytes += 4;
+                p = n;
+            }
+        } else if (isDoubleColon(s, p, n)) {
+            compressed = true;
+            p += 2;
+        }
+        if (compressed && p < n) {
+            q = hexSeqEnd(s, p, n);
+            if (q == MALFORMED) {
+                return false;
+            }
+            if (q > p) {
+                bytes += groupBytes(s, p, q);
+                p = q;
+                if (p < n && s.charAt(p) == ':') {
+                    if (!isStrictIPv4(s, p + 1, n)) {
+                        return false;
+                    }
+                    bytes += 4;
+                    p = n;
+                }
+            } else {
+                if (!isStrictIPv4(s, p, n)) {
+                    return false;
+                }
+                bytes += 4;
+                p = n;
+            }
+        }
+        return p == n && (compressed ? bytes < 16 : bytes == 16);
+    }
+
+    /**
+     * Séquence {@code h16 *(":" h16)} ; s'arrête avant un {@code ::} et avant le
+     * {@code :} qui précède une adresse IPv4 finale.
+     *
+     * @return la fin de la séquence, -1 si aucune, ou {@link #MALFORMED}
+     */
+    private static int hexSeqEnd(String s, int p, int n) {
+        int q = hexEnd(s, p, n);
+        if (q == p || (q < n && s.charAt(q) == '.')) {
+            return -1;
+        }
+        if (q > p + 4) {
+            return MALFORMED;
+        }
+        p = q;
+        while (p < n && s.charAt(p) == ':' && !isDoubleColon(s, p, n)) {
+            q = hexEnd(s, p + 1, n);
+            if (q == p + 1) {
+                return MALFORMED;
+            }
+            if (q < n && s.charAt(q) == '.') {
+                break;
+            }
+            if (q > p + 5) {
+                return MALFORMED;
+            }
+            p = q;
+        }
+        return p;
+    }
+
+    private static int hexEnd(String s, int p, int n) {
+        while (p < n && isHex(s.charAt(p))) {
+            p++;
+        }
+        return p;
+    }
+
+    private static int groupBytes(String s, int p, int q) {
+        int groups = 1;
+        for (int i = p; i < q; i++) {
+            if (s.charAt(i) == ':') {
+                groups++;
+            }
+        }
+        return groups * 2;
+    }
+
+    private static boolean isDoubleColon(String s, int p, int n) {
+        return p + 1 < n && s.charAt(p) == ':' && s.charAt(p + 1) == ':';
+    }
+
+    /**
+     * Avance tant que les caractères appartiennent à la classe ; avec {@code escapes},
+     * accepte aussi {@code %XX} et les caractères non ASCII hors espaces et contrôles.
+     *
+     * @return l'indice du premier caractère refusé, ou -1 sur un {@code %} mal formé
+     */
+    private static int scan(String s, int p, int n, long low, long high, boolean escapes) {
+        while (p < n) {
+            char c = s.charAt(p);
+            if (match(c, low, high)) {
+                p++;
+            } else if (!escapes) {
+                break;
+            } else if (c == '%') {
+                if (p + 2 >= n || !isHex(s.charAt(p + 1)) || !isHex(s.charAt(p + 2))) {
+                    return -1;
+                }
+                p += 3;
+            } else if (c > 128 && !Character.isSpaceChar(c) && !Character.isISOControl(c)) {
+                p++;
+            } else {
+                break;
+            }
+        }
+        return p;
+    }
+
+    private static int indexOf(String s, char c, int p, int n) {
+        for (; p < n; p++) {
+            if (s.charAt(p) == c) {
+                return p;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean match(char c, long low, long high) {
+        if (c < 64) {
+            return ((1L << c) & low) != 0;
+        }
+        return c < 128 && ((1L << (c - 64)) & high) != 0;
+    }
+
+    private static boolean isHex(char c) {
+        return (c >= '0' && c <= '9') || (c >= 'A' && c <= 'F') || (c >= 'a' && c <= 'f');
+    }
+
+    private static boolean isAsciiAlpha(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+    }
+
+    /**
+     * Caractère d'étiquette de nom de domaine internationalisé : lettre, chiffre ou
+     * marque combinante non ASCII (les demi-codets de substitution sont refusés).
+     */
+    private static boolean isIdnChar(char c) {
+        if (c < 128) {
+            return false;
+        }
+        if (Character.isLetterOrDigit(c)) {
+            return true;
+        }
+        int type = Character.getType(c);
+        return type == Character.NON_SPACING_MARK || type == Character.COMBINING_SPACING_MARK;
+    }
+
+    private static long lowMask(String chars) {
+        long mask = 0;
+        for (int i = 0; i < chars.length(); i++) {
+            char c = chars.charAt(i);
+            if (c < 64) {
+                mask |= 1L << c;
+            }
+        }
+        return mask;
+    }
+
+    private static long highMask(String chars) {
+        long mask = 0;
+        for (int i = 0; i < chars.length(); i++) {
+            char c = chars.charAt(i);
+            if (c >= 64 && c < 128) {
+                mask |= 1L << (c - 64);
+            }
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,24 @@
+package com.portagecybertech.urlshortener.url_shortener.service;
+
+/**
+ * Exception levée lorsqu'une clé d'idempotence est réutilisée pour une requête différente.
+ *
+ * <p>Les contrôleurs traduisent cette exception en réponse HTTP 422 : rejouer la réponse
+ * de la première requête masquerait l'erreur du client.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ * @see IdempotencyStore
+ */
+public class IdempotencyKeyMismatchException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Crée l'exception.
+     */
+    public IdempotencyKeyMismatchException() {
+        super("Idempotency-Key already used for a different request");
+    }
+}
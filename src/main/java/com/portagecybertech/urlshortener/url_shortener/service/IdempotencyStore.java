@@ -0,0 +1,314 @@
+package com.portagecybertech.urlshortener.url_shortener.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Fenêtre de déduplication en mémoire des requêtes portant un en-tête {@code Idempotency-Key}.
+ *
+ * <p>Un client qui réémet {@code POST /api/shorten} après un timeout réutilise la même clé :
+ * la réponse déjà calculée est rejouée depuis la mémoire, sans recherche en base ni
+ * génération de code. Une requête dupliquée arrivant pendant le calcul de l'originale
+ * s'attache au même {@link CompletableFuture} au lieu de le réexécuter.
+ *
+ * <p><strong>Portée :</strong> les clés sont propres à chaque client (clé d'API ou adresse,
+ * voir {@code RateLimits#clientKey}) : deux clients qui choisissent la même clé ne
+ * partagent ni réponse ni erreur de réutilisation.
+ *
+ * <p><strong>Empreinte :</strong> chaque clé est associée à l'empreinte de la requête
+ * (domaine et URL). Réutiliser une clé pour une requête différente lève
+ * {@link IdempotencyKeyMismatchException} plutôt que de rejouer une réponse sans rapport.
+ *
+ * <p><strong>Échecs :</strong> seuls les succès sont conservés. En cas d'exception (URL
+ * invalide, surcharge...), les requêtes en attente reçoivent la même exception et la
+ * clé est libérée : une nouvelle tentative réexécute le calcul.
+ *
+ * <p><strong>Bornes :</strong> les entrées expirent après {@code window-ms} et leur nombre
+ * est limité à {@code max-entries}. Les clés sont aussi enfilées par ordre d'insertion,
+ * qui est aussi leur ordre d'expiration : chaque insertion retire en tête de file les
+ * entrées expirées, puis les plus anciennes tant que la borne est dépassée, en temps
+ * constant amorti et sans parcours de la table. La borne porte sur la file elle-même :
+ * une entrée en échec, retirée de la table mais pas de la file, y compte jusqu'à son
+ * éviction, de sorte qu'une rafale d'échecs ne la fait pas grossir sans limite.
+ *
+ * <p><strong>Métriques :</strong> {@code urlshortener.idempotency.replayed},
+ * {@code urlshortener.idempotency.joined}, {@code urlshortener.idempotency.mismatched},
+ * {@code urlshortener.idempotency.entries}.
+ *
+ * <p><strong>Configuration :</strong> {@code app.idempotency.*}.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ */
+@Component
+public class IdempotencyStore {
+
+    /**
+     * Longueur maximale acceptée pour une clé.
+     */
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private final boolean enabled;
+
+    private final long windowNanos;
+
+    private final int maxEntries;
+
+    private final LongSupplier clock;
+
+    /**
+     * Entrées indexées par client et clé.
+     */
+    private final Map<Scope, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Entrées par ordre d'insertion, pour l'expiration et l'éviction.
+     */
+    private final ConcurrentLinkedQueue<Entry> insertionOrder = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Taille de {@link #insertionOrder}, dont {@code size()} parcourt la file.
+     */
+    private final AtomicInteger queued = new AtomicInteger();
+
+    /**
+     * Réponses rejouées depuis une entrée terminée.
+     */
+    private final Counter replayed;
+
+    /**
+     * Requêtes rattachées à un calcul en cours.
+     */
+    private final Counter joined;
+
+    /**
+     * Clés réutilisées pour une requête différente.
+     */
+    private final Counter mismatched;
+
+    /**
+     * Constructeur principal, alimenté par les propriétés {@code app.idempotency.*}.
+     *
+     * @param enabled true pour activer la déduplication
+     * @param windowMs la durée de conservation d'une réponse, en millisecondes
+     * @param maxEntries le nombre maximal de clés conservées
+     * @param meterRegistry le registre de métriques
+     */
+    @Autowired
+    public IdempotencyStore(@Value("${app.idempotency.enabled:true}") boolean enabled,
+                            @Value("${app.idempotency.window-ms:600000}") long windowMs,
+                            @Value("${app.idempotency.max-entries:100000}") int maxEntries,
+                            MeterRegistry meterRegistry) {
+        this(enabled, windowMs, maxEntries, meterRegistry, System::nanoTime);
+    }
+
+    /**
+     * Constructeur avec horloge injectable, pour les tests.
+     *
+     * @param enabled true pour activer la déduplication
+     * @param windowMs la durée de conservation d'une réponse, en millisecondes
+     * @param maxEntries le nombre maximal de clés conservées
+     * @param meterRegistry le registre de métriques
+     * @param clock l'horloge monotone, en nanosecondes
+     */
+    IdempotencyStore(boolean enabled, long windowMs, int maxEntries, MeterRegistry meterRegistry, LongSupplier clock) {
+        if (windowMs <= 0 || maxEntries <= 0) {
+            throw new IllegalArgumentException("app.idempotency: window-ms and max-entries must be positive");
+        }
+        this.enabled = enabled;
+        this.windowNanos = windowMs * 1_000_000L;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+        this.replayed = Counter.builder("urlshortener.idempotency.replayed")
+                .description("Réponses rejouées pour une clé d'idempotence déjà traitée")
+                .register(meterRegistry);
+        this.joined = Counter.builder("urlshortener.idempotency.joined")
+                .description("Requêtes dupliquées rattachées à un calcul en cours")
+                .register(meterRegistry);
+        this.mismatched = Counter.builder("urlshortener.idempotency.mismatched")
+                .description("Clés d'idempotence réutilisées pour une requête différente")
+                .register(meterRegistry);
+        Gauge.builder("urlshortener.idempotency.entries", entries, Map::size)
+                .description("Clés d'idempotence conservées")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Retourne un magasin désactivé, qui exécute chaque requête.
+     *
+     * @return un magasin désactivé
+     */
+    public static IdempotencyStore disabled() {
+        return new IdempotencyStore(false, 1, 1, new SimpleMeterRegistry(), System::nanoTime);
+    }
+
+    /**
+     * Indique si la déduplication est activée.
+     *
+     * @return true si la déduplication est activée
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Exécute une requête au plus une fois par client et par clé dans la fenêtre.
+     *
+     * @param client l'identifiant du client, qui délimite la portée des clés
+     * @param key la clé d'idempotence fournie par le client
+     * @param fingerprint l'empreinte de la requête, comparée à celle de la première requête
+     * @param action le calcul de la réponse, exécuté sur le thread appelant
+     * @return la réponse, indiquant si elle a été calculée par une autre requête
+     * @throws IllegalArgumentException si la clé est vide ou trop longue, ou si le calcul la lève
+     * @throws IdempotencyKeyMismatchException si la clé a déjà servi pour une autre empreinte
+     */
+    public Outcome execute(String client, String key, String fingerprint,
+                           Supplier<UrlService.ShortenResponse> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        if (!enabled) {
+            return new Outcome(action.get(), false);
+        }
+        long now = clock.getAsLong();
+        Scope scope = new Scope(client, key);
+        Entry entry = new Entry(scope, fingerprint, now);
+        Entry existing;
+        while ((existing = entries.putIfAbsent(scope, entry)) != null) {
+            if (now - existing.createdAtNanos < windowNanos) {
+                return attach(existing, fingerprint);
+            }
+            entries.remove(scope, existing);
+        }
+        insertionOrder.add(entry);
+        queued.incrementAndGet();
+        evict(now);
+        try {
+            UrlService.ShortenResponse response = action.get();
+            entry.future.complete(response);
+            return new Outcome(response, false);
+        } catch (RuntimeException | Error e) {
+            // L'entrée reste dans la file, bornée, jusqu'à son éviction
+            entries.remove(scope, entry);
+            entry.future.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Rattache une requête dupliquée à une entrée existante.
+     */
+    private Outcome attach(Entry existing, String fingerprint) {
+        if (!existing.fingerprint.equals(fingerprint)) {
+            mismatched.increment();
+            throw new IdempotencyKeyMismatchException();
+        }
+        (existing.future.isDone() ? replayed : joined).increment();
+        try {
+            return new Outcome(existing.future.get(), true);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the original request", e);
+        }
+    }
+
+    /**
+     * Retire les entrées expirées en tête de file, puis les plus anciennes au-delà de la borne.
+     */
+    private void evict(long now) {
+        Entry head;
+        while ((head = insertionOrder.peek()) != null
+                && (now - head.createdAtNanos >= windowNanos || queued.get() > maxEntries)) {
+            if (insertionOrder.remove(head)) {
+                queued.decrementAndGet();
+                entries.remove(head.scope, head);
+            }
+        }
+    }
+
+    /**
+     * Retourne le nombre de clés conservées.
+     *
+     * @return le nombre de clés
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Retourne le nombre d'entrées en file, échecs pas encore évincés compris.
+     *
+     * @return la taille de la file d'éviction
+     */
+    int queuedCount() {
+        return queued.get();
+    }
+
+    /**
+     * Vide la fenêtre de déduplication.
+     */
+    public void clear() {
+        entries.clear();
+        Entry head;
+        while ((head = insertionOrder.poll()) != null) {
+            queued.decrementAndGet();
+        }
+    }
+
+    /**
+     * Résultat d'une exécution idempotente.
+     *
+     * @param response la réponse
+     * @param replayed true si la réponse provient d'une requête antérieure ou concurrente
+     */
+    public record Outcome(UrlService.ShortenResponse response, boolean replayed) {}
+
+    /**
+     * Clé d'idempotence dans la portée d'un client.
+     */
+    private record Scope(String client, String key) {}
+
+    /**
+     * Clé conservée : empreinte de la première requête et réponse, terminée ou en cours.
+     */
+    private static final class Entry {
+
+        private final Scope scope;
+
+        private final String fingerprint;
+
+        private final long createdAtNanos;
+
+        private final CompletableFuture<UrlService.ShortenResponse> future = new CompletableFuture<>();
+
+        private Entry(Scope scope, String fingerprint, long createdAtNanos) {
+            this.scope = scope;
+            this.fingerprint = Objects.requireNonNull(fingerprint);
+            this.createdAtNanos = createdAtNanos;
+        }
+    }
+}
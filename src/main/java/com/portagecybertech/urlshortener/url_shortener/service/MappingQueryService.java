@@ -0,0 +1,165 @@
+package com.portagecybertech.urlshortener.url_shortener.service;
+
+import com.portagecybertech.urlshortener.url_shortener.limit.ConcurrencyLimits;
+import com.portagecybertech.urlshortener.url_shortener.model.UrlMapping;
+import com.portagecybertech.urlshortener.url_shortener.repository.UrlMappingRepository;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Service de consultation des mappings d'URLs pour l'outillage d'administration.
+ *
+ * <p>Le parcours utilise une pagination par clé (<em>keyset</em>) sur la colonne
+ * {@code id} : chaque page est obtenue par {@code id > curseur order by id limit n},
+ * ce qui reste en temps constant quelle que soit la profondeur, contrairement à
+ * un {@code OFFSET} qui relit toutes les lignes précédentes.
+ *
+ * <p><strong>Filtre par hôte :</strong> le temps constant ne vaut que pour un hôte à
+ * un seul préfixe, dont l'index {@code (prefix_id, id)} est parcouru dans l'ordre des
+ * identifiants. Pour un hôte à plusieurs préfixes, chaque page lit et trie toutes les
+ * lignes de ses préfixes au-delà du curseur : son coût suit le nombre de mappings de
+ * l'hôte restant à parcourir, et non la taille de page. Les pages déjà lues ne sont
+ * toutefois jamais relues.
+ *
+ * <p><strong>Fonctionnalités :</strong>
+ * <ul>
+ *   <li>Lecture d'une page à partir d'un curseur opaque (identifiant du dernier élément)</li>
+ *   <li>Filtrage optionnel par hôte, résolu en base par l'hôte indexé des préfixes</li>
+ *   <li>Parcours complet page par page, en mémoire constante</li>
+ * </ul>
+ *
+ * <p>Chaque requête de page consomme le budget de lecture ({@link ConcurrencyLimits}),
+ * de sorte qu'un export massif ne peut pas affamer les redirections.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ * @see UrlMappingRepository#findByIdGreaterThanOrderByIdAsc(long, Limit)
+ */
+@Service
+public class MappingQueryService {
+
+    /**
+     * Taille de page maximale acceptée.
+     */
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    /**
+     * Repository pour l'accès aux données des mappings d'URLs.
+     */
+    private final UrlMappingRepository urlMappingRepository;
+
+    /**
+     * Dictionnaire des préfixes d'URLs.
+     */
+    private final UrlPrefixDictionary urlPrefixDictionary;
+
+    /**
+     * Budgets de concurrence protégeant les lectures.
+     */
+    private final ConcurrencyLimits concurrencyLimits;
+
+    /**
+     * Domaines courts, pour construire les URLs raccourcies.
+     */
+    private final DomainRegistry domainRegistry;
+
+    /**
+     * Constructeur principal du service.
+     *
+     * @param urlMappingRepository le repository pour l'accès aux données
+     * @param urlPrefixDictionary le dictionnaire des préfixes d'URLs
+     * @param concurrencyLimits les budgets de concurrence lecture/écriture
+     * @param domainRegistry les domaines courts et leurs URLs de base
+     */
+    public MappingQueryService(UrlMappingRepository urlMappingRepository,
+                               UrlPrefixDictionary urlPrefixDictionary,
+                               ConcurrencyLimits concurrencyLimits,
+                               DomainRegistry domainRegistry) {
+        this.urlMappingRepository = urlMappingRepository;
+        this.urlPrefixDictionary = urlPrefixDictionary;
+        this.concurrencyLimits = concurrencyLimits;
+        this.domainRegistry = domainRegistry;
+    }
+
+    /**
+     * Retourne une page de mappings.
+     *
+     * @param afterId le curseur : identifiant du dernier mapping déjà lu (0 pour commencer)
+     * @param limit la taille de page souhaitée, ramenée entre 1 et {@link #MAX_PAGE_SIZE}
+     * @param host l'hôte des URLs originales à conserver, ou null pour tout lister
+     * @return la page et le curseur de la page suivante (null en fin de parcours)
+     */
+    public MappingPage page(long afterId, int limit, String host) {
+        return readPage(afterId, clamp(limit), hostFilter(host));
+    }
+
+    /**
+     * Parcourt tous les mappings à partir d'un curseur, page par page.
+     *
+     * <p>Une seule page est conservée en mémoire à la fois ; le filtre par hôte
+     * est résolu une seule fois pour tout le parcours.
+     *
+     * @param afterId le curseur de départ (0 pour commencer)
+     * @param pageSize la taille des pages lues, ramenée entre 1 et {@link #MAX_PAGE_SIZE}
+     * @param host l'hôte des URLs originales à conserver, ou null pour tout lister
+     * @param consumer le consommateur appelé pour chaque mapping, dans l'ordre des identifiants
+     */
+    public void forEach(long afterId, int pageSize, String host, Consumer<MappingView> consumer) {
+        int limit = clamp(pageSize);
+        String wanted = hostFilter(host);
+        Long cursor = afterId;
+        while (cursor != null) {
+            MappingPage page = readPage(cursor, limit, wanted);
+            page.items().forEach(consumer);
+            cursor = page.nextCursor();
+        }
+    }
+
+    private MappingPage readPage(long afterId, int limit, String host) {
+        List<UrlMapping> rows = concurrencyLimits.read(() -> host == null
+                ? urlMappingRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(limit))
+                : urlMappingRepository.findPageByHost(afterId, host, Limit.of(limit)));
+        List<MappingView> items = rows.stream().map(this::toView).toList();
+        Long next = rows.size() < limit ? null : rows.get(rows.size() - 1).getId();
+        return new MappingPage(items, next);
+    }
+
+    private static String hostFilter(String host) {
+        return host == null || host.isBlank() ? null : host.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static int clamp(int limit) {
+        return Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    private MappingView toView(UrlMapping mapping) {
+        return new MappingView(
+                mapping.getId(),
+                mapping.getShortCode(),
+                domainRegistry.shortUrl(mapping.getDomainId(), mapping.getShortCode()),
+                urlPrefixDictionary.expand(mapping.getPrefixId(), mapping.getUrlSuffix()));
+    }
+
+    /**
+     * Record représentant un mapping dans les réponses de listing.
+     *
+     * @param id l'identifiant du mapping (sert de curseur)
+     * @param shortCode le code court
+     * @param shortUrl l'URL raccourcie complète
+     * @param originalUrl l'URL originale
+     */
+    public record MappingView(Long id, String shortCode, String shortUrl, String originalUrl) {}
+
+    /**
+     * Record représentant une page de listing.
+     *
+     * @param items les mappings de la page, triés par identifiant
+     * @param nextCursor le curseur à passer en {@code after} pour la page suivante, ou null
+     */
+    public record MappingPage(List<MappingView> items, Long nextCursor) {}
+}
@@ -0,0 +1,559 @@
+package com.portagecybertech.urlshortener.url_shortener.service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Table de hachage hors tas des résolutions code court vers URL compressée.
+ *
+ * <p>Toutes les données (index et valeurs) sont dans des {@link ByteBuffer} directs :
+ * le tas ne contient que quelques tableaux de contrôle, dont la taille ne dépend pas
+ * du nombre d'entrées. Un cache de plusieurs dizaines de millions de mappings n'allonge
+ * donc ni le marquage ni les pauses du GC.
+ *
+ * <p><strong>Clé :</strong> un code Base62 de 1 à 10 caractères tient sur 60 bits
+ * (62^10 &lt; 2^60) ; sa longueur occupe les 4 bits de poids fort, pour distinguer
+ * {@code "0"} de {@code "00"}. La clé n'est jamais nulle, ce qui permet d'utiliser
+ * 0 comme marqueur de case vide. L'identifiant de domaine est comparé en plus de la
+ * clé. Les codes hors de ce format ne sont pas mis en cache.
+ *
+ * <p><strong>Segments :</strong> l'espace est partagé en segments indépendants,
+ * chacun protégé par un {@link StampedLock} : lectures concurrentes, écritures exclusives
+ * par segment. Chaque segment a sa part de la mémoire allouée.
+ *
+ * <p><strong>Index :</strong> adressage ouvert à sondage linéaire, cases de 16 octets
+ * (clé, domaine, position de la valeur), taux de remplissage maintenu sous 3/4 ;
+ * la suppression décale les cases suivantes au lieu de laisser des pierres tombales.
+ *
+ * <p><strong>Valeurs :</strong> l'identifiant de préfixe et le suffixe UTF-8 sont
+ * rangés dans une arène découpée en slabs de 64 Kio, chaque slab étant consacré à une
+ * classe de taille de blocs (48 à 4096 octets, facteur 1,5). Une valeur plus grande
+ * n'est pas mise en cache. Les slabs sont attribués aux classes à la demande et ne
+ * sont pas réattribués ensuite.
+ *
+ * <p><strong>Éviction :</strong> CLOCK par classe de taille. Une lecture positionne
+ * le bit de référence du bloc ; lorsqu'une classe est pleine, l'aiguille parcourt ses
+ * blocs, efface les bits de référence et évince le premier bloc non référencé. Une
+ * nouvelle entrée n'est pas marquée : une entrée jamais relue part en premier.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ * @see ExpandCache
+ */
+public final class OffHeapUrlCache {
+
+    /**
+     * Taille d'un slab.
+     */
+    static final int SLAB_SIZE = 64 * 1024;
+
+    /**
+     * Tailles des blocs des classes, en octets.
+     */
+    static final int[] CHUNK_SIZES = {48, 64, 96, 128, 192, 256, 384, 512, 768, 1024, 1536, 2048, 3072, 4096};
+
+    /**
+     * Octets de mémoire par case d'index prévus au dimensionnement (index : 10 à 20 % du segment).
+     */
+    private static final int BYTES_PER_SLOT = 80;
+
+    private static final int SLOT_SIZE = 16;
+
+    private static final int SLOT_DOMAIN = 8;
+
+    private static final int SLOT_CHUNK = 12;
+
+    /**
+     * Disposition d'un bloc : drapeaux (1 octet), domaine, clé, préfixe, longueur, suffixe UTF-8.
+     */
+    private static final int CHUNK_DOMAIN = 4;
+
+    private static final int CHUNK_KEY = 8;
+
+    private static final int CHUNK_PREFIX = 16;
+
+    private static final int CHUNK_LENGTH = 20;
+
+    private static final int CHUNK_HEADER = 24;
+
+    /**
+     * Dans un bloc libre, position du bloc libre suivant (à la place du domaine).
+     */
+    private static final int CHUNK_NEXT_FREE = 4;
+
+    private static final byte FLAG_USED = 1;
+
+    private static final byte FLAG_REFERENCED = 2;
+
+    private static final int NONE = -1;
+
+    private final Segment[] segments;
+
+    private final int segmentShift;
+
+    private final long capacityBytes;
+
+    private final LongAdder evictions = new LongAdder();
+
+    private final LongAdder rejections = new LongAdder();
+
+    /**
+     * Crée le cache et alloue toute sa mémoire.
+     *
+     * @param maxBytes la mémoire hors tas totale (index et valeurs)
+     * @param segmentCount le nombre de segments, puissance de 2
+     * @throws IllegalArgumentException si un segment serait trop petit ou dépasserait 2 Gio
+     */
+    public OffHeapUrlCache(long maxBytes, int segmentCount) {
+        if (segmentCount <= 0 || Integer.bitCount(segmentCount) != 1) {
+            throw new IllegalArgumentException("Off-heap cache segments must be a power of 2");
+        }
+        long segmentBytes = maxBytes / segmentCount;
+        if (segmentBytes < 4L * SLAB_SIZE || segmentBytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Off-heap cache segments must hold between 256 KiB and 2 GiB each, got "
+                    + segmentBytes + " bytes");
+        }
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment((int) segmentBytes);
+        }
+        this.segmentShift = 64 - Integer.numberOfTrailingZeros(segmentCount);
+        this.capacityBytes = segmentBytes * segmentCount;
+    }
+
+    /**
+     * Encode un code court Base62 en clé.
+     *
+     * @param shortCode le code court
+     * @return la clé {@code (longueur << 60) | valeur}, ou 0 si le code n'est pas un code Base62 de 1 à 10 caractères
+     */
+    static long packKey(String shortCode) {
+        int length = shortCode.length();
+        if (length < 1 || length > UrlService.MAX_SHORT_CODE_LENGTH) {
+            return 0;
+        }
+        long value = 0;
+        for (int i = 0; i < length; i++) {
+            char c = shortCode.charAt(i);
+            int digit;
+            if (c >= '0' && c <= '9') {
+                digit = c - '0';
+            } else if (c >= 'A' && c <= 'Z') {
+                digit = c - 'A' + 10;
+            } else if (c >= 'a' && c <= 'z') {
+                digit = c - 'a' + 36;
+            } else {
+                return 0;
+            }
+            value = value * 62 + digit;
+        }
+        return ((long) length << 60) | value;
+    }
+
+    private static long hash(long key, int domainId) {
+        long h = key ^ (domainId * 0x9E3779B97F4A7C15L);
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        return h ^ (h >>> 31);
+    }
+
+    private Segment segmentFor(long hash) {
+        return segments.length == 1 ? segments[0] : segments[(int) (hash >>> segmentShift)];
+    }
+
+    /**
+     * Recherche une entrée et marque son bloc comme référencé.
+     *
+     * @param domainId l'identifiant du domaine
+     * @param shortCode le code court
+     * @return l'URL compressée, ou null si absente
+     */
+    public CompactUrl get(int domainId, String shortCode) {
+        long key = packKey(shortCode);
+        if (key == 0) {
+            return null;
+        }
+        long hash = hash(key, domainId);
+        return segmentFor(hash).get(key, domainId, hash);
+    }
+
+    /**
+     * Ajoute ou remplace une entrée, en évinçant au besoin.
+     *
+     * @param domainId l'identifiant du domaine
+     * @param shortCode le code court
+     * @param url l'URL compressée
+     * @return false si l'entrée n'a pas pu être mise en cache (code hors format, valeur trop grande)
+     */
+    public boolean put(int domainId, String shortCode, CompactUrl url) {
+        long key = packKey(shortCode);
+        if (key == 0) {
+            return false;
+        }
+        byte[] suffix = url.suffix().getBytes(StandardCharsets.UTF_8);
+        int sizeClass = sizeClass(CHUNK_HEADER + suffix.length);
+        if (sizeClass == NONE) {
+            rejections.increment();
+            return false;
+        }
+        long hash = hash(key, domainId);
+        boolean stored = segmentFor(hash).put(key, domainId, hash, url.prefixId(), suffix, sizeClass);
+        if (!stored) {
+            rejections.increment();
+        }
+        return stored;
+    }
+
+    /**
+     * Retire une entrée.
+     *
+     * @param domainId l'identifiant du domaine
+     * @param shortCode le code court
+     */
+    public void invalidate(int domainId, String shortCode) {
+        long key = packKey(shortCode);
+        if (key != 0) {
+            long hash = hash(key, domainId);
+            segmentFor(hash).remove(key, domainId, hash);
+        }
+    }
+
+    /**
+     * Vide le cache ; la mémoire reste allouée.
+     */
+    public void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    /**
+     * Retourne le nombre d'entrées.
+     *
+     * @return le nombre d'entrées, tous segments confondus
+     */
+    public long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.count();
+        }
+        return size;
+    }
+
+    /**
+     * Retourne la mémoire hors tas allouée.
+     *
+     * @return la taille en octets
+     */
+    public long capacityBytes() {
+        return capacityBytes;
+    }
+
+    /**
+     * Retourne le nombre cumulé d'entrées évincées.
+     *
+     * @return le nombre d'évictions
+     */
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Retourne le nombre cumulé d'entrées refusées (valeur trop grande ou classe sans slab disponible).
+     *
+     * @return le nombre de refus
+     */
+    public long rejectionCount() {
+        return rejections.sum();
+    }
+
+    private static int sizeClass(int bytes) {
+        for (int i = 0; i < CHUNK_SIZES.length; i++) {
+            if (bytes <= CHUNK_SIZES[i]) {
+                return i;
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Segment : index et arène propres, protégés par un verrou.
+     */
+    private final class Segment {
+
+        private final StampedLock lock = new StampedLock();
+
+        private final ByteBuffer index;
+
+        private final int slotMask;
+
+        private final int maxEntries;
+
+        private final ByteBuffer arena;
+
+        private final int slabCount;
+
+        /**
+         * Slabs déjà attribués à une classe ; les suivants sont libres.
+         */
+        private int assignedSlabs;
+
+        /**
+         * Classe de taille de chaque slab attribué.
+         */
+        private final byte[] slabClasses;
+
+        /**
+         * Slabs de chaque classe, dans l'ordre d'attribution.
+         */
+        private final int[][] classSlabs = new int[CHUNK_SIZES.length][];
+
+        private final int[] classSlabCounts = new int[CHUNK_SIZES.length];
+
+        private final int[] freeHeads = new int[CHUNK_SIZES.length];
+
+        /**
+         * Aiguille CLOCK de chaque classe : rang du bloc dans la suite des blocs de la classe.
+         */
+        private final long[] hands = new long[CHUNK_SIZES.length];
+
+        private int count;
+
+        private Segment(int bytes) {
+            int slots = Integer.highestOneBit(bytes / BYTES_PER_SLOT);
+            this.index = ByteBuffer.allocateDirect(slots * SLOT_SIZE);
+            this.slotMask = slots - 1;
+            this.maxEntries = slots / 4 * 3;
+            this.slabCount = (bytes - slots * SLOT_SIZE) / SLAB_SIZE;
+            this.arena = ByteBuffer.allocateDirect(slabCount * SLAB_SIZE);
+            this.slabClasses = new byte[slabCount];
+            for (int i = 0; i < CHUNK_SIZES.length; i++) {
+                classSlabs[i] = new int[4];
+            }
+            resetClasses();
+        }
+
+        private void resetClasses() {
+            assignedSlabs = 0;
+            Arrays.fill(classSlabCounts, 0);
+            Arrays.fill(freeHeads, NONE);
+            Arrays.fill(hands, 0);
+            count = 0;
+        }
+
+        private int count() {
+            long stamp = lock.readLock();
+            try {
+                return count;
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        private CompactUrl get(long key, int domainId, long hash) {
+            long stamp = lock.readLock();
+            try {
+                int slot = find(key, domainId, hash);
+                if (slot == NONE) {
+                    return null;
+                }
+                int chunk = index.getInt(slot * SLOT_SIZE + SLOT_CHUNK);
+                byte flags = arena.get(chunk);
+                if ((flags & FLAG_REFERENCED) == 0) {
+                    // Seules les lectures posent le bit, toutes à la même valeur : écriture bénigne sous verrou partagé
+                    arena.put(chunk, (byte) (flags | FLAG_REFERENCED));
+                }
+                byte[] suffix = new byte[arena.getInt(chunk + CHUNK_LENGTH)];
+                arena.get(chunk + CHUNK_HEADER, suffix);
+                return new CompactUrl(arena.getInt(chunk + CHUNK_PREFIX), new String(suffix, StandardCharsets.UTF_8));
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        private boolean put(long key, int domainId, long hash, int prefixId, byte[] suffix, int sizeClass) {
+            long stamp = lock.writeLock();
+            try {
+                int slot = find(key, domainId, hash);
+                if (slot != NONE) {
+                    release(slot);
+                }
+                while (count >= maxEntries) {
+                    if (!evict(sizeClass) && !evictAnyClass()) {
+                        return false;
+                    }
+                }
+                int chunk = allocate(sizeClass);
+                if (chunk == NONE) {
+                    return false;
+                }
+                arena.put(chunk, FLAG_USED);
+                arena.putInt(chunk + CHUNK_DOMAIN, domainId);
+                arena.putLong(chunk + CHUNK_KEY, key);
+                arena.putInt(chunk + CHUNK_PREFIX, prefixId);
+                arena.putInt(chunk + CHUNK_LENGTH, suffix.length);
+                arena.put(chunk + CHUNK_HEADER, suffix);
+                int free = (int) hash & slotMask;
+                while (index.getLong(free * SLOT_SIZE) != 0) {
+                    free = (free + 1) & slotMask;
+                }
+                index.putLong(free * SLOT_SIZE, key);
+                index.putInt(free * SLOT_SIZE + SLOT_DOMAIN, domainId);
+                index.putInt(free * SLOT_SIZE + SLOT_CHUNK, chunk);
+                count++;
+                return true;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        private void remove(long key, int domainId, long hash) {
+            long stamp = lock.writeLock();
+            try {
+                int slot = find(key, domainId, hash);
+                if (slot != NONE) {
+                    release(slot);
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        private void clear() {
+            long stamp = lock.writeLock();
+            try {
+                for (int slot = 0; slot <= slotMask; slot++) {
+                    index.putLong(slot * SLOT_SIZE, 0);
+                }
+                resetClasses();
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        private int find(long key, int domainId, long hash) {
+            int slot = (int) hash & slotMask;
+            while (true) {
+                long candidate = index.getLong(slot * SLOT_SIZE);
+                if (candidate == 0) {
+                    return NONE;
+                }
+                if (candidate == key && index.getInt(slot * SLOT_SIZE + SLOT_DOMAIN) == domainId) {
+                    return slot;
+                }
+                slot = (slot + 1) & slotMask;
+            }
+        }
+
+        /**
+         * Libère le bloc d'une case puis vide la case, en remontant les cases suivantes
+         * de la même suite de sondage (suppression sans pierre tombale).
+         */
+        private void release(int slot) {
+            int chunk = index.getInt(slot * SLOT_SIZE + SLOT_CHUNK);
+            freeChunk(chunk, slabClasses[chunk / SLAB_SIZE]);
+            count--;
+            int hole = slot;
+            int next = slot;
+            while (true) {
+                next = (next + 1) & slotMask;
+                long key = index.getLong(next * SLOT_SIZE);
+                if (key == 0) {
+                    break;
+                }
+                int home = (int) hash(key, index.getInt(next * SLOT_SIZE + SLOT_DOMAIN)) & slotMask;
+                // La case reste en place si sa position d'origine est entre le trou (exclu) et elle (incluse)
+                boolean stays = hole <= next ? hole < home && home <= next : hole < home || home <= next;
+                if (!stays) {
+                    index.putLong(hole * SLOT_SIZE, key);
+                    index.putInt(hole * SLOT_SIZE + SLOT_DOMAIN, index.getInt(next * SLOT_SIZE + SLOT_DOMAIN));
+                    index.putInt(hole * SLOT_SIZE + SLOT_CHUNK, index.getInt(next * SLOT_SIZE + SLOT_CHUNK));
+                    hole = next;
+                }
+            }
+            index.putLong(hole * SLOT_SIZE, 0);
+        }
+
+        private void freeChunk(int chunk, int sizeClass) {
+            arena.put(chunk, (byte) 0);
+            arena.putInt(chunk + CHUNK_NEXT_FREE, freeHeads[sizeClass]);
+            freeHeads[sizeClass] = chunk;
+        }
+
+        private int allocate(int sizeClass) {
+            if (freeHeads[sizeClass] == NONE && !assignSlab(sizeClass) && !evict(sizeClass)) {
+                return NONE;
+            }
+            int chunk = freeHeads[sizeClass];
+            freeHeads[sizeClass] = arena.getInt(chunk + CHUNK_NEXT_FREE);
+            return chunk;
+        }
+
+        /**
+         * Attribue un slab libre à une classe et chaîne ses blocs dans la liste libre.
+         */
+        private boolean assignSlab(int sizeClass) {
+            if (assignedSlabs == slabCount) {
+                return false;
+            }
+            int slab = assignedSlabs++;
+            slabClasses[slab] = (byte) sizeClass;
+            if (classSlabCounts[sizeClass] == classSlabs[sizeClass].length) {
+                classSlabs[sizeClass] = Arrays.copyOf(classSlabs[sizeClass], classSlabs[sizeClass].length * 2);
+            }
+            classSlabs[sizeClass][classSlabCounts[sizeClass]++] = slab;
+            int size = CHUNK_SIZES[sizeClass];
+            for (int i = SLAB_SIZE / size - 1; i >= 0; i--) {
+                freeChunk(slab * SLAB_SIZE + i * size, sizeClass);
+            }
+            return true;
+        }
+
+        /**
+         * Évince un bloc de la classe par l'algorithme CLOCK.
+         *
+         * @return false si la classe n'a aucun bloc occupé
+         */
+        private boolean evict(int sizeClass) {
+            int perSlab = SLAB_SIZE / CHUNK_SIZES[sizeClass];
+            long chunks = (long) classSlabCounts[sizeClass] * perSlab;
+            if (chunks == 0) {
+                return false;
+            }
+            // Deux tours suffisent : le premier efface au pire tous les bits de référence
+            for (long step = 0; step < 2 * chunks; step++) {
+                long position = hands[sizeClass] % chunks;
+                hands[sizeClass] = position + 1;
+                int chunk = classSlabs[sizeClass][(int) (position / perSlab)] * SLAB_SIZE
+                        + (int) (position % perSlab) * CHUNK_SIZES[sizeClass];
+                byte flags = arena.get(chunk);
+                if ((flags & FLAG_USED) == 0) {
+                    continue;
+                }
+                if ((flags & FLAG_REFERENCED) != 0) {
+                    arena.put(chunk, FLAG_USED);
+                    continue;
+                }
+                long key = arena.getLong(chunk + CHUNK_KEY);
+                int domainId = arena.getInt(chunk + CHUNK_DOMAIN);
+                release(find(key, domainId, hash(key, domainId)));
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+
+        private boolean evictAnyClass() {
+            for (int sizeClass = 0; sizeClass < CHUNK_SIZES.length; sizeClass++) {
+                if (evict(sizeClass)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.portagecybertech.urlshortener.url_shortener.service;
+
+/**
+ * Exception levée lorsqu'une écriture est demandée à une instance en mode réplica.
+ *
+ * <p>Un réplica ne reçoit ses mappings que du journal du primaire : une écriture locale
+ * divergerait de celui-ci. Les contrôleurs traduisent cette exception en réponse
+ * HTTP 503 indiquant, s'il est configuré, l'adresse du primaire.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ * @see UrlService
+ */
+public class ReadOnlyReplicaException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Crée l'exception.
+     *
+     * @param primaryUrl l'URL du primaire ({@code app.replication.primary-url}), ou vide
+     */
+    public ReadOnlyReplicaException(String primaryUrl) {
+        super(primaryUrl == null || primaryUrl.isBlank()
+                ? "Read-only replica: send writes to the primary"
+                : "Read-only replica: send writes to the primary at " + primaryUrl);
+    }
+}
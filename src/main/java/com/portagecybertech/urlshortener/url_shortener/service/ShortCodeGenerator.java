@@ -0,0 +1,378 @@
+package com.portagecybertech.urlshortener.url_shortener.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Locale;
+
+/**
+ * Générateur des codes courts candidats : hash de {@code url + ":" + tentative}, en Base62.
+ *
+ * <p><strong>Algorithmes ({@code app.shortcode.hash}) :</strong>
+ * <ul>
+ *   <li>{@code md5} (défaut) - MD5, identique aux codes générés jusqu'ici</li>
+ *   <li>{@code murmur3} - MurmurHash3 x64 128 bits (graine 0), non cryptographique et
+ *       nettement plus rapide ; les codes produits diffèrent de ceux du mode MD5</li>
+ * </ul>
+ *
+ * <p>Le chemin de génération n'alloue que la chaîne du code : chaque thread réutilise
+ * son instance de {@link MessageDigest}, son tampon UTF-8 et ses tableaux de travail.
+ * L'entrée est encodée explicitement en UTF-8 (les demi-codets isolés deviennent
+ * {@code ?}, comme avec {@link String#getBytes(java.nio.charset.Charset)}).
+ *
+ * <p>Le hash de 128 bits est converti en Base62 par divisions successives par 62⁵ sur
+ * des mots de 32 bits ; le résultat est identique à la conversion par
+ * {@link java.math.BigInteger} utilisée auparavant, puis tronqué aux
+ * {@link UrlService#MAX_SHORT_CODE_LENGTH} premiers caractères.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ * @see UrlService#shorten(String)
+ */
+@Component
+public class ShortCodeGenerator {
+
+    /**
+     * Algorithmes de hash disponibles.
+     */
+    public enum Algorithm {
+        MD5,
+        MURMUR3
+    }
+
+    /**
+     * Nombre maximal de chiffres Base62 d'une valeur de 128 bits.
+     */
+    static final int MAX_BASE62_DIGITS = 22;
+
+    /**
+     * 62⁵ : plus grande puissance de 62 inférieure à 2³⁰.
+     */
+    private static final long BASE62_POW5 = 916_132_832L;
+
+    private static final char[] ALPHABET = UrlService.BASE62_ALPHABET.toCharArray();
+
+    private static final long MASK_32 = 0xFFFF_FFFFL;
+
+    /**
+     * Taille au-delà de laquelle un tampon agrandi n'est pas conservé par le thread.
+     */
+    private static final int MAX_RETAINED_BUFFER = 8192;
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    /**
+     * Algorithme configuré.
+     */
+    private final Algorithm algorithm;
+
+    /**
+     * Constructeur principal.
+     *
+     * @param algorithm le nom de l'algorithme ({@code md5} ou {@code murmur3}, injecté depuis app.shortcode.hash)
+     */
+    @Autowired
+    public ShortCodeGenerator(@Value("${app.shortcode.hash:md5}") String algorithm) {
+        this(Algorithm.valueOf(algorithm.trim().toUpperCase(Locale.ROOT)));
+    }
+
+    /**
+     * Constructeur avec un algorithme explicite.
+     *
+     * @param algorithm l'algorithme de hash
+     */
+    public ShortCodeGenerator(Algorithm algorithm) {
+        this.algorithm = algorithm;
+    }
+
+    /**
+     * Retourne l'algorithme configuré.
+     *
+     * @return l'algorithme de hash
+     */
+    public Algorithm getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Génère le code court candidat d'une entrée pour une tentative donnée.
+     *
+     * @param input la chaîne d'entrée (généralement l'URL originale)
+     * @param salt le numéro de tentative, pour sortir des collisions
+     * @return le code court, d'au plus {@link UrlService#MAX_SHORT_CODE_LENGTH} caractères
+     * @throws IllegalStateException si l'algorithme MD5 n'est pas disponible
+     */
+    public String generate(String input, int salt) {
+        Scratch scratch = SCRATCH.get();
+        byte[] bytes = scratch.encode(input, salt);
+        int length = scratch.length;
+        long hi;
+        long lo;
+        if (algorithm == Algorithm.MD5) {
+            byte[] digest = scratch.md5(bytes, length);
+            hi = readLongBigEndian(digest, 0);
+            lo = readLongBigEndian(digest, 8);
+        } else {
+            long[] hash = scratch.hash;
+            murmur3x64128(bytes, length, 0, hash);
+            hi = hash[0];
+            lo = hash[1];
+        }
+        char[] digits = scratch.digits;
+        int start = toBase62(hi, lo, digits);
+        return new String(digits, start, Math.min(digits.length - start, UrlService.MAX_SHORT_CODE_LENGTH));
+    }
+
+    /**
+     * Écrit en Base62 l'entier non signé de 128 bits {@code hi:lo}, aligné à droite.
+     *
+     * @param hi les 64 bits de poids fort
+     * @param lo les 64 bits de poids faible
+     * @param out le tableau de sortie, d'au moins {@link #MAX_BASE62_DIGITS} caractères
+     * @return l'indice du premier chiffre dans {@code out}
+     */
+    static int toBase62(long hi, long lo, char[] out) {
+        int p = out.length;
+        long w0 = hi >>> 32;
+        long w1 = hi & MASK_32;
+        long w2 = lo >>> 32;
+        long w3 = lo & MASK_32;
+        while ((w0 | w1 | w2 | w3) != 0) {
+            long r = w0;
+            w0 = r / BASE62_POW5;
+            r = ((r - w0 * BASE62_POW5) << 32) | w1;
+            w1 = r / BASE62_POW5;
+            r = ((r - w1 * BASE62_POW5) << 32) | w2;
+            w2 = r / BASE62_POW5;
+            r = ((r - w2 * BASE62_POW5) << 32) | w3;
+            w3 = r / BASE62_POW5;
+            int chunk = (int) (r - w3 * BASE62_POW5);
+            // Cinq chiffres par division, sauf les zéros de tête du dernier bloc
+            boolean last = (w0 | w1 | w2 | w3) == 0;
+            for (int i = 0; i < 5 && !(last && chunk == 0); i++) {
+                out[--p] = ALPHABET[chunk % 62];
+                chunk /= 62;
+            }
+        }
+        if (p == out.length) {
+            out[--p] = ALPHABET[0];
+        }
+        return p;
+    }
+
+    /**
+     * MurmurHash3 x64 128 bits (Austin Appleby, domaine public).
+     *
+     * @param data les octets à hasher
+     * @param length le nombre d'octets utiles
+     * @param seed la graine
+     * @param out reçoit {@code h1} puis {@code h2}
+     */
+    // La queue (1 à 15 octets) est lue par un switch dont chaque cas enchaîne volontairement sur le suivant
+    @SuppressWarnings("fallthrough")
+    static void murmur3x64128(byte[] data, int length, long seed, long[] out) {
+        final long c1 = 0x87c37b91114253d5L;
+        final long c2 = 0x4cf5ad432745937fL;
+        long h1 = seed;
+        long h2 = seed;
+        int blocks = length >>> 4;
+        for (int i = 0; i < blocks; i++) {
+            long k1 = readLongLittleEndian(data, i << 4);
+            long k2 = readLongLittleEndian(data, (i << 4) + 8);
+
+            k1 *= c1;
+            k1 = Long.rotateLeft(k1, 31);
+            k1 *= c2;
+            h1 ^= k1;
+            h1 = Long.rotateLeft(h1, 27);
+            h1 += h2;
+            h1 = h1 * 5 + 0x52dce729;
+
+            k2 *= c2;
+            k2 = Long.rotateLeft(k2, 33);
+            k2 *= c1;
+            h2 ^= k2;
+            h2 = Long.rotateLeft(h2, 31);
+            h2 += h1;
+            h2 = h2 * 5 + 0x38495ab5;
+        }
+
+        int tail = blocks << 4;
+        long k1 = 0;
+        long k2 = 0;
+        switch (length & 15) {
+            case 15: k2 ^= (long) (data[tail + 14] & 0xFF) << 48;
+            case 14: k2 ^= (long) (data[tail + 13] & 0xFF) << 40;
+            case 13: k2 ^= (long) (data[tail + 12] & 0xFF) << 32;
+            case 12: k2 ^= (long) (data[tail + 11] & 0xFF) << 24;
+            case 11: k2 ^= (long) (data[tail + 10] & 0xFF) << 16;
+            case 10: k2 ^= (long) (data[tail + 9] & 0xFF) << 8;
+            case 9:
+                k2 ^= data[tail + 8] & 0xFF;
+                k2 *= c2;
+                k2 = Long.rotateLeft(k2, 33);
+                k2 *= c1;
+                h2 ^= k2;
+            case 8: k1 ^= (long) (data[tail + 7] & 0xFF) << 56;
+            case 7: k1 ^= (long) (data[tail + 6] & 0xFF) << 48;
+            case 6: k1 ^= (long) (data[tail + 5] & 0xFF) << 40;
+            case 5: k1 ^= (long) (data[tail + 4] & 0xFF) << 32;
+            case 4: k1 ^= (long) (data[tail + 3] & 0xFF) << 24;
+            case 3: k1 ^= (long) (data[tail + 2] & 0xFF) << 16;
+            case 2: k1 ^= (long) (data[tail + 1] & 0xFF) << 8;
+            case 1:
+                k1 ^= data[tail] & 0xFF;
+                k1 *= c1;
+                k1 = Long.rotateLeft(k1, 31);
+                k1 *= c2;
+                h1 ^= k1;
+            default:
+                break;
+        }
+
+        h1 ^= length;
+        h2 ^= length;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix64(h1);
+        h2 = fmix64(h2);
+        h1 += h2;
+        h2 += h1;
+        out[0] = h1;
+        out[1] = h2;
+    }
+
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+
+    private static long readLongBigEndian(byte[] b, int offset) {
+        long value = 0;
+        for (int i = 0; i < 8; i++) {
+            value = (value << 8) | (b[offset + i] & 0xFF);
+        }
+        return value;
+    }
+
+    private static long readLongLittleEndian(byte[] b, int offset) {
+        long value = 0;
+        for (int i = 7; i >= 0; i--) {
+            value = (value << 8) | (b[offset + i] & 0xFF);
+        }
+        return value;
+    }
+
+    /**
+     * État de travail réutilisé par un thread.
+     */
+    private static final class Scratch {
+
+        private final MessageDigest md5;
+
+        private final byte[] digest = new byte[16];
+
+        private final long[] hash = new long[2];
+
+        private final char[] digits = new char[MAX_BASE62_DIGITS];
+
+        private byte[] buffer = new byte[256];
+
+        /**
+         * Longueur utile de {@link #buffer} après {@link #encode}.
+         */
+        private int length;
+
+        Scratch() {
+            try {
+                md5 = MessageDigest.getInstance("MD5");
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("MD5 not available", e);
+            }
+        }
+
+        /**
+         * Encode {@code input + ":" + salt} en UTF-8 dans le tampon du thread.
+         *
+         * @return le tampon (ou un tableau temporaire pour une entrée très longue)
+         */
+        byte[] encode(String input, int salt) {
+            int n = input.length();
+            int needed = n * 3 + 12;
+            byte[] out = buffer;
+            if (out.length < needed) {
+                out = new byte[needed];
+                if (needed <= MAX_RETAINED_BUFFER) {
+                    buffer = out;
+                }
+            }
+            int p = 0;
+            for (int i = 0; i < n; i++) {
+                char c = input.charAt(i);
+                if (c < 0x80) {
+                    out[p++] = (byte) c;
+                } else if (c < 0x800) {
+                    out[p++] = (byte) (0xC0 | (c >> 6));
+                    out[p++] = (byte) (0x80 | (c & 0x3F));
+                } else if (Character.isSurrogate(c)) {
+                    char low = i + 1 < n ? input.charAt(i + 1) : 0;
+                    if (Character.isHighSurrogate(c) && Character.isLowSurrogate(low)) {
+                        int cp = Character.toCodePoint(c, low);
+                        out[p++] = (byte) (0xF0 | (cp >> 18));
+                        out[p++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                        out[p++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                        out[p++] = (byte) (0x80 | (cp & 0x3F));
+                        i++;
+                    } else {
+                        out[p++] = '?';
+                    }
+                } else {
+                    out[p++] = (byte) (0xE0 | (c >> 12));
+                    out[p++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    out[p++] = (byte) (0x80 | (c & 0x3F));
+                }
+            }
+            out[p++] = ':';
+            p = appendDecimal(out, p, salt);
+            length = p;
+            return out;
+        }
+
+        byte[] md5(byte[] bytes, int length) {
+            md5.update(bytes, 0, length);
+            try {
+                md5.digest(digest, 0, digest.length);
+            } catch (DigestException e) {
+                md5.reset();
+                throw new IllegalStateException("MD5 digest failed", e);
+            }
+            return digest;
+        }
+
+        private static int appendDecimal(byte[] out, int p, int value) {
+            long v = value;
+            if (v < 0) {
+                out[p++] = '-';
+                v = -v;
+            }
+            int digits = 1;
+            for (long t = v; t >= 10; t /= 10) {
+                digits++;
+            }
+            for (int i = p + digits - 1; i >= p; i--) {
+                out[i] = (byte) ('0' + v % 10);
+                v /= 10;
+            }
+            return p + digits;
+        }
+    }
+}
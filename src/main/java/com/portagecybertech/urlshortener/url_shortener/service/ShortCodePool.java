@@ -0,0 +1,327 @@
+package com.portagecybertech.urlshortener.url_shortener.service;
+
+import com.portagecybertech.urlshortener.url_shortener.model.ShortCodeRange;
+import com.portagecybertech.urlshortener.url_shortener.repository.ShortCodeRangeRepository;
+import com.portagecybertech.urlshortener.url_shortener.repository.UrlMappingRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pool de codes courts réservés et vérifiés à l'avance, rempli en arrière-plan.
+ *
+ * <p>Avec le pool, la création d'un mapping se réduit à une insertion : le code est
+ * pris dans une file sans verrou, sans hash ni contrôle de collision sur le thread
+ * de la requête. Lorsque le pool est vide, {@link UrlService} revient à la génération
+ * par hash.
+ *
+ * <p><strong>Génération :</strong> les codes sont les images d'une séquence croissante
+ * par la permutation {@code seq -> (seq * A + B) mod 62^7}, écrites sur 7 caractères
+ * Base62. {@code A} impair et non multiple de 31 est premier avec 62^7 : deux séquences
+ * distinctes (modulo 62^7) donnent deux codes distincts, et les codes consécutifs ne se
+ * suivent pas. Les codes par hash ayant 10 caractères, les deux espaces sont disjoints.
+ *
+ * <p><strong>Réservation :</strong> chaque lot de séquences est réservé dans la table
+ * {@code short_code_range} par une transaction commitée avant la distribution des codes.
+ * Plusieurs instances partageant la base obtiennent des plages disjointes, et un
+ * redémarrage abandonne les codes non distribués au lieu de les réattribuer. Les codes
+ * déjà présents en base dans l'un des domaines (par exemple créés par un réplica ou par
+ * une autre permutation) sont écartés lors du remplissage : un code du pool est libre
+ * dans tous les domaines et sert indifféremment l'un d'eux.
+ *
+ * <p><strong>Remplissage :</strong> lorsqu'un prélèvement fait passer le pool sous le
+ * seuil bas, un thread unique le remplit par lots jusqu'à sa capacité.
+ *
+ * <p><strong>Métriques :</strong> {@code urlshortener.shortcode.pool.size},
+ * {@code urlshortener.shortcode.pool.misses}.
+ *
+ * <p><strong>Configuration :</strong> {@code app.shortcode.pool.*} (désactivé par défaut).
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ * @see ShortCodeRange
+ */
+@Component
+public class ShortCodePool {
+
+    private static final Logger log = LoggerFactory.getLogger(ShortCodePool.class);
+
+    /**
+     * Longueur des codes du pool.
+     */
+    public static final int CODE_LENGTH = 7;
+
+    /**
+     * Taille de l'espace des codes : 62^7.
+     */
+    static final long CODE_SPACE = 3_521_614_606_208L;
+
+    /**
+     * Borne (exclue) du multiplicateur, pour que {@code seq * A} tienne sur 63 bits.
+     */
+    static final long MAX_MULTIPLIER = 1L << 21;
+
+    /**
+     * Nom de la séquence dans {@code short_code_range}.
+     */
+    static final String RANGE_NAME = "pool";
+
+    private final boolean enabled;
+
+    private final int capacity;
+
+    private final int lowWatermark;
+
+    private final int batchSize;
+
+    private final long multiplier;
+
+    private final long offset;
+
+    private final ShortCodeRangeRepository shortCodeRangeRepository;
+
+    private final UrlMappingRepository urlMappingRepository;
+
+    private final DomainRegistry domainRegistry;
+
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Codes disponibles.
+     */
+    private final ConcurrentLinkedQueue<String> codes = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Taille de {@link #codes}, maintenue à part : {@code ConcurrentLinkedQueue.size()} est linéaire.
+     */
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * Vrai tant qu'un remplissage est demandé ou en cours.
+     */
+    private final AtomicBoolean refilling = new AtomicBoolean();
+
+    /**
+     * Prélèvements sur un pool vide.
+     */
+    private final Counter misses;
+
+    /**
+     * Thread de remplissage, null si le pool est désactivé.
+     */
+    private final ExecutorService refiller;
+
+    /**
+     * Constructeur principal, alimenté par les propriétés {@code app.shortcode.pool.*}.
+     *
+     * @param enabled true pour activer le pool
+     * @param capacity le nombre de codes visé après un remplissage
+     * @param lowWatermark le seuil déclenchant un remplissage
+     * @param batchSize le nombre de séquences réservées par transaction
+     * @param multiplier le multiplicateur {@code A} de la permutation
+     * @param offset le décalage {@code B} de la permutation
+     * @param shortCodeRangeRepository le repository des plages réservées
+     * @param urlMappingRepository le repository des mappings, pour écarter les codes existants
+     * @param domainRegistry les domaines courts dans lesquels les codes doivent être libres
+     * @param transactionManager le gestionnaire de transactions
+     * @param meterRegistry le registre de métriques
+     */
+    @Autowired
+    public ShortCodePool(@Value("${app.shortcode.pool.enabled:false}") boolean enabled,
+                         @Value("${app.shortcode.pool.capacity:10000}") int capacity,
+                         @Value("${app.shortcode.pool.low-watermark:2000}") int lowWatermark,
+                         @Value("${app.shortcode.pool.batch-size:1000}") int batchSize,
+                         @Value("${app.shortcode.pool.multiplier:1594323}") long multiplier,
+                         @Value("${app.shortcode.pool.offset:1000000007}") long offset,
+                         ShortCodeRangeRepository shortCodeRangeRepository,
+                         UrlMappingRepository urlMappingRepository,
+                         DomainRegistry domainRegistry,
+                         PlatformTransactionManager transactionManager,
+                         MeterRegistry meterRegistry) {
+        if (multiplier <= 0 || multiplier >= MAX_MULTIPLIER || multiplier % 2 == 0 || multiplier % 31 == 0) {
+            throw new IllegalArgumentException(
+                    "app.shortcode.pool.multiplier must be odd, not a multiple of 31 and below 2^21");
+        }
+        if (capacity <= 0 || batchSize <= 0 || lowWatermark < 0 || lowWatermark >= capacity) {
+            throw new IllegalArgumentException("app.shortcode.pool: expected 0 <= low-watermark < capacity and batch-size > 0");
+        }
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.lowWatermark = lowWatermark;
+        this.batchSize = batchSize;
+        this.multiplier = multiplier;
+        this.offset = Math.floorMod(offset, CODE_SPACE);
+        this.shortCodeRangeRepository = shortCodeRangeRepository;
+        this.urlMappingRepository = urlMappingRepository;
+        this.domainRegistry = domainRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.misses = Counter.builder("urlshortener.shortcode.pool.misses")
+                .description("Créations servies par la génération par hash faute de code disponible dans le pool")
+                .register(meterRegistry);
+        Gauge.builder("urlshortener.shortcode.pool.size", size, AtomicInteger::get)
+                .description("Codes courts réservés disponibles dans le pool")
+                .register(meterRegistry);
+        this.refiller = enabled ? Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "short-code-pool");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+        if (enabled) {
+            triggerRefill();
+        }
+    }
+
+    /**
+     * Indique si le pool est activé.
+     *
+     * @return true si le pool est activé
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Prélève un code réservé, sans verrou ni accès à la base.
+     *
+     * @return un code inutilisé, ou null si le pool est désactivé ou momentanément vide
+     */
+    public String poll() {
+        if (!enabled) {
+            return null;
+        }
+        String code = codes.poll();
+        if (code == null) {
+            misses.increment();
+        }
+        if ((code == null ? size.get() : size.decrementAndGet()) <= lowWatermark) {
+            triggerRefill();
+        }
+        return code;
+    }
+
+    /**
+     * Retourne le nombre de codes disponibles.
+     *
+     * @return le nombre de codes disponibles
+     */
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Remplit le pool jusqu'à sa capacité.
+     *
+     * @return le nombre de codes ajoutés
+     */
+    synchronized int refill() {
+        int added = 0;
+        while (size.get() < capacity) {
+            added += refillBatch();
+        }
+        return added;
+    }
+
+    /**
+     * Calcule le code d'une séquence.
+     *
+     * @param seq la séquence
+     * @param multiplier le multiplicateur {@code A}
+     * @param offset le décalage {@code B}, dans {@code [0, 62^7)}
+     * @return le code, sur {@link #CODE_LENGTH} caractères Base62
+     */
+    static String codeFor(long seq, long multiplier, long offset) {
+        long value = (Math.floorMod(seq, CODE_SPACE) * multiplier + offset) % CODE_SPACE;
+        char[] chars = new char[CODE_LENGTH];
+        for (int i = CODE_LENGTH - 1; i >= 0; i--) {
+            chars[i] = UrlService.BASE62_ALPHABET.charAt((int) (value % 62));
+            value /= 62;
+        }
+        return new String(chars);
+    }
+
+    /**
+     * Arrête le thread de remplissage.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (refiller != null) {
+            refiller.shutdownNow();
+        }
+    }
+
+    private void triggerRefill() {
+        if (refilling.compareAndSet(false, true)) {
+            try {
+                refiller.execute(this::refillSafely);
+            } catch (RuntimeException e) {
+                refilling.set(false);
+            }
+        }
+    }
+
+    private void refillSafely() {
+        try {
+            refill();
+        } catch (RuntimeException e) {
+            log.warn("Short code pool refill failed; shorten falls back to hashing until the next attempt", e);
+        } finally {
+            refilling.set(false);
+        }
+    }
+
+    private int refillBatch() {
+        long start = reserve(batchSize);
+        List<String> candidates = new ArrayList<>(batchSize);
+        for (long seq = start; seq < start + batchSize; seq++) {
+            candidates.add(codeFor(seq, multiplier, offset));
+        }
+        Set<String> existing = new HashSet<>();
+        for (int domainId : domainRegistry.domainIds()) {
+            existing.addAll(urlMappingRepository.findExistingShortCodes(domainId, candidates));
+        }
+        int added = 0;
+        for (String candidate : candidates) {
+            if (!existing.contains(candidate)) {
+                codes.offer(candidate);
+                size.incrementAndGet();
+                added++;
+            }
+        }
+        return added;
+    }
+
+    /**
+     * Réserve une plage de séquences et la rend durable avant toute distribution.
+     *
+     * @return la première séquence de la plage
+     */
+    private long reserve(int count) {
+        Long start = transactionTemplate.execute(status -> {
+            if (shortCodeRangeRepository.advance(RANGE_NAME, count) == 0) {
+                shortCodeRangeRepository.saveAndFlush(new ShortCodeRange(RANGE_NAME, count));
+                return 0L;
+            }
+            return shortCodeRangeRepository.findById(RANGE_NAME).orElseThrow().getNextSeq() - count;
+        });
+        return start;
+    }
+}
@@ -0,0 +1,288 @@
+package com.portagecybertech.urlshortener.url_shortener.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Forme canonique des URLs, calculée avant la recherche de doublons et le stockage.
+ *
+ * <p>Deux écritures d'une même adresse reçoivent ainsi le même code court, au lieu
+ * d'une ligne, d'un code et d'une entrée de cache chacune.
+ *
+ * <p><strong>Règles</strong>, appliquées en une passe sur une URL déjà validée
+ * ({@link HttpUrlValidator}) :
+ * <ul>
+ *   <li>Schéma et hôte en minuscules ({@code HTTP://Example.COM} → {@code http://example.com})</li>
+ *   <li>Port par défaut supprimé ({@code :80} en http, {@code :443} en https, port vide)</li>
+ *   <li>Encodage pourcent normalisé (RFC 3986 §6.2.2) : chiffres hexadécimaux en
+ *       majuscules, caractères non réservés décodés ({@code %7E} → {@code ~})</li>
+ *   <li>Paramètres de requête de suivi supprimés selon {@code strip-params} (nom exact ou
+ *       préfixe terminé par {@code *}, casse indifférente) ; paramètres vides et {@code ?}
+ *       final supprimés</li>
+ *   <li>Paramètres triés par nom si {@code sort-query=true} (tri stable : l'ordre des
+ *       valeurs d'un même paramètre est conservé)</li>
+ * </ul>
+ * Le chemin n'est pas autrement modifié : {@code /a} et {@code /a/} restent distincts,
+ * comme le fragment et les informations d'utilisateur.
+ *
+ * <p>Une URL déjà canonique est retournée telle quelle ; sinon, une seule chaîne est construite.
+ *
+ * <p><strong>Configuration :</strong> {@code app.canonicalize.*}.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ * @see UrlService#shorten(int, String)
+ */
+@Component
+public class UrlCanonicalizer {
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private final boolean enabled;
+
+    /**
+     * Noms de paramètres supprimés, en minuscules.
+     */
+    private final String[] stripNames;
+
+    /**
+     * Préfixes de noms de paramètres supprimés, en minuscules.
+     */
+    private final String[] stripPrefixes;
+
+    private final boolean sortQuery;
+
+    /**
+     * Constructeur principal, alimenté par les propriétés {@code app.canonicalize.*}.
+     *
+     * @param enabled false pour stocker les URLs telles que reçues
+     * @param stripParams les paramètres supprimés, séparés par des virgules ({@code utm_*} pour un préfixe)
+     * @param sortQuery true pour trier les paramètres de requête par nom
+     */
+    @Autowired
+    public UrlCanonicalizer(@Value("${app.canonicalize.enabled:true}") boolean enabled,
+                            @Value("${app.canonicalize.strip-params:utm_*,fbclid,gclid}") String stripParams,
+                            @Value("${app.canonicalize.sort-query:false}") boolean sortQuery) {
+        this(enabled, Arrays.asList(stripParams.split(",")), sortQuery);
+    }
+
+    /**
+     * Crée un canonicaliseur avec une liste de paramètres explicite.
+     *
+     * @param enabled false pour stocker les URLs telles que reçues
+     * @param stripParams les paramètres supprimés ({@code utm_*} pour un préfixe)
+     * @param sortQuery true pour trier les paramètres de requête par nom
+     */
+    public UrlCanonicalizer(boolean enabled, Collection<String> stripParams, boolean sortQuery) {
+        List<String> names = new ArrayList<>();
+        List<String> prefixes = new ArrayList<>();
+        for (String param : stripParams) {
+            String rule = param.trim().toLowerCase(Locale.ROOT);
+            if (rule.endsWith("*")) {
+                prefixes.add(rule.substring(0, rule.length() - 1));
+            } else if (!rule.isEmpty()) {
+                names.add(rule);
+            }
+        }
+        this.enabled = enabled;
+        this.stripNames = names.toArray(String[]::new);
+        this.stripPrefixes = prefixes.toArray(String[]::new);
+        this.sortQuery = sortQuery;
+    }
+
+    /**
+     * Crée un canonicaliseur qui retourne les URLs inchangées.
+     *
+     * @return un canonicaliseur désactivé
+     */
+    public static UrlCanonicalizer disabled() {
+        return new UrlCanonicalizer(false, List.of(), false);
+    }
+
+    /**
+     * Retourne la forme canonique d'une URL.
+     *
+     * @param url une URL HTTP/HTTPS valide au sens de {@link HttpUrlValidator#isValid(String)}
+     * @return la forme canonique, ou {@code url} elle-même si elle l'est déjà
+     */
+    public String canonicalize(String url) {
+        if (!enabled) {
+            return url;
+        }
+        int n = url.length();
+        StringBuilder sb = new StringBuilder(n);
+        int p = url.indexOf("://");
+        boolean https = p == 5;
+        for (int i = 0; i < p; i++) {
+            sb.append((char) (url.charAt(i) | 0x20));
+        }
+        sb.append("://");
+        p += 3;
+
+        int authorityEnd = p;
+        while (authorityEnd < n && "/?#".indexOf(url.charAt(authorityEnd)) < 0) {
+            authorityEnd++;
+        }
+        int at = url.indexOf('@', p);
+        if (at >= 0 && at < authorityEnd) {
+            sb.append(url, p, at + 1);
+            p = at + 1;
+        }
+        int hostEnd = url.charAt(p) == '[' ? url.indexOf(']', p) + 1 : p;
+        while (hostEnd < authorityEnd && url.charAt(hostEnd) != ':') {
+            hostEnd++;
+        }
+        for (int i = p; i < hostEnd; i++) {
+            char c = url.charAt(i);
+            sb.append(c >= 'A' && c <= 'Z' ? (char) (c | 0x20) : c);
+        }
+        if (hostEnd < authorityEnd && !isDefaultPort(url, hostEnd + 1, authorityEnd, https)) {
+            sb.append(url, hostEnd, authorityEnd);
+        }
+        p = authorityEnd;
+
+        int pathEnd = p;
+        while (pathEnd < n && url.charAt(pathEnd) != '?' && url.charAt(pathEnd) != '#') {
+            pathEnd++;
+        }
+        appendNormalized(url, p, pathEnd, sb);
+        p = pathEnd;
+        if (p < n && url.charAt(p) == '?') {
+            int queryEnd = url.indexOf('#', p);
+            if (queryEnd < 0) {
+                queryEnd = n;
+            }
+            appendQuery(url, p + 1, queryEnd, sb);
+            p = queryEnd;
+        }
+        if (p < n) {
+            sb.append('#');
+            appendNormalized(url, p + 1, n, sb);
+        }
+        return sb.length() == n && url.contentEquals(sb) ? url : sb.toString();
+    }
+
+    private static boolean isDefaultPort(String url, int from, int to, boolean https) {
+        int port = 0;
+        for (int i = from; i < to; i++) {
+            port = port * 10 + (url.charAt(i) - '0');
+            if (port > 65_535) {
+                return false;
+            }
+        }
+        return from == to || port == (https ? 443 : 80);
+    }
+
+    /**
+     * Ajoute les paramètres conservés ; chacun est normalisé dans le tampon, puis
+     * retiré si son nom normalisé est à supprimer.
+     */
+    private void appendQuery(String url, int from, int to, StringBuilder sb) {
+        int queryStart = sb.length();
+        sb.append('?');
+        int kept = 0;
+        int segment = from;
+        while (segment <= to) {
+            int end = url.indexOf('&', segment);
+            if (end < 0 || end > to) {
+                end = to;
+            }
+            if (end > segment) {
+                int start = sb.length();
+                if (kept > 0) {
+                    sb.append('&');
+                }
+                int nameStart = sb.length();
+                appendNormalized(url, segment, end, sb);
+                int nameEnd = nameStart;
+                while (nameEnd < sb.length() && sb.charAt(nameEnd) != '=') {
+                    nameEnd++;
+                }
+                if (isStripped(sb, nameStart, nameEnd)) {
+                    sb.setLength(start);
+                } else {
+                    kept++;
+                }
+            }
+            segment = end + 1;
+        }
+        if (kept == 0) {
+            sb.setLength(queryStart);
+        } else if (sortQuery && kept > 1) {
+            String[] params = sb.substring(queryStart + 1).split("&");
+            Arrays.sort(params, Comparator.comparing(UrlCanonicalizer::paramName));
+            sb.setLength(queryStart + 1);
+            sb.append(String.join("&", params));
+        }
+    }
+
+    private static String paramName(String param) {
+        int equals = param.indexOf('=');
+        return equals < 0 ? param : param.substring(0, equals);
+    }
+
+    private boolean isStripped(CharSequence sb, int from, int to) {
+        int length = to - from;
+        for (String name : stripNames) {
+            if (name.length() == length && regionMatchesLowerCase(sb, from, name)) {
+                return true;
+            }
+        }
+        for (String prefix : stripPrefixes) {
+            if (prefix.length() <= length && regionMatchesLowerCase(sb, from, prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean regionMatchesLowerCase(CharSequence sb, int from, String lower) {
+        for (int i = 0; i < lower.length(); i++) {
+            char c = sb.charAt(from + i);
+            if ((c >= 'A' && c <= 'Z' ? (char) (c | 0x20) : c) != lower.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Copie une portion d'URL en normalisant ses séquences {@code %XX} ; un {@code %}
+     * isolé est recopié tel quel.
+     */
+    private static void appendNormalized(String url, int from, int to, StringBuilder sb) {
+        for (int i = from; i < to; i++) {
+            char c = url.charAt(i);
+            int high = c == '%' && i + 2 < to ? Character.digit(url.charAt(i + 1), 16) : -1;
+            int low = high < 0 ? -1 : Character.digit(url.charAt(i + 2), 16);
+            if (low < 0) {
+                sb.append(c);
+                continue;
+            }
+            int value = high << 4 | low;
+            if (isUnreserved(value)) {
+                sb.append((char) value);
+            } else {
+                sb.append('%').append(HEX[value >> 4]).append(HEX[value & 0xF]);
+            }
+            i += 2;
+        }
+    }
+
+    /**
+     * Caractère non réservé de la RFC 3986 : son encodage pourcent est superflu.
+     */
+    private static boolean isUnreserved(int c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')
+                || c == '-' || c == '.' || c == '_' || c == '~';
+    }
+}
@@ -0,0 +1,211 @@
+package com.portagecybertech.urlshortener.url_shortener.service;
+
+import com.portagecybertech.urlshortener.url_shortener.model.UrlPrefix;
+import com.portagecybertech.urlshortener.url_shortener.repository.UrlPrefixRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dictionnaire des préfixes d'URLs, partagé entre le stockage et les caches.
+ *
+ * <p>Une URL originale est découpée en deux parties :
+ * <ul>
+ *   <li><strong>Préfixe</strong> : {@code scheme://authority} (ex: {@code https://www.example.com})</li>
+ *   <li><strong>Suffixe</strong> : tout ce qui suit (chemin, requête, fragment)</li>
+ * </ul>
+ *
+ * <p>Chaque préfixe distinct est interné dans la table {@code url_prefix} et
+ * identifié par un entier. Le dictionnaire est conservé en mémoire dans les deux
+ * sens, ce qui permet de reconstruire une URL sans accès à la base.
+ *
+ * <p>Le découpage est volontairement limité à {@code scheme://authority} : il est
+ * déterministe et ne dépend d'aucune configuration, de sorte qu'une même URL
+ * aboutit toujours au même couple (préfixe, suffixe) et reste dédupliquée.
+ *
+ * <p><strong>Transactions :</strong> un préfixe lu ou inséré dans une transaction
+ * n'entre en mémoire qu'après son commit. Un lot annulé (voir {@link GroupCommitExecutor})
+ * ne laisse donc aucun identifiant jamais commité dans le dictionnaire : son rejeu
+ * relit ou réinsère le préfixe.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ * @see UrlPrefix
+ */
+@Component
+public class UrlPrefixDictionary {
+
+    /**
+     * Repository du dictionnaire de préfixes.
+     */
+    private final UrlPrefixRepository urlPrefixRepository;
+
+    /**
+     * Cache préfixe vers identifiant.
+     */
+    private final Map<String, Integer> idsByPrefix = new ConcurrentHashMap<>();
+
+    /**
+     * Cache identifiant vers préfixe.
+     */
+    private final Map<Integer, String> prefixesById = new ConcurrentHashMap<>();
+
+    /**
+     * Constructeur principal du dictionnaire.
+     *
+     * @param urlPrefixRepository le repository du dictionnaire de préfixes
+     */
+    public UrlPrefixDictionary(UrlPrefixRepository urlPrefixRepository) {
+        this.urlPrefixRepository = urlPrefixRepository;
+    }
+
+    /**
+     * Calcule la position à laquelle commence le suffixe d'une URL.
+     *
+     * <p>Le préfixe s'étend jusqu'au premier {@code /}, {@code ?} ou {@code #}
+     * suivant {@code ://}. Une URL sans {@code ://} a un préfixe vide.
+     *
+     * @param url l'URL à découper
+     * @return l'index du début du suffixe
+     */
+    public static int splitIndex(String url) {
+        int schemeEnd = url.indexOf("://");
+        if (schemeEnd < 0) {
+            return 0;
+        }
+        for (int i = schemeEnd + 3; i < url.length(); i++) {
+            char c = url.charAt(i);
+            if (c == '/' || c == '?' || c == '#') {
+                return i;
+            }
+        }
+        return url.length();
+    }
+
+    /**
+     * Recherche l'identifiant d'un préfixe sans le créer.
+     *
+     * @param prefix le préfixe à rechercher
+     * @return l'identifiant du préfixe, ou empty s'il n'a jamais été interné
+     */
+    public Optional<Integer> findId(String prefix) {
+        Integer cached = idsByPrefix.get(prefix);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        return urlPrefixRepository.findByPrefix(prefix).map(this::remember);
+    }
+
+    /**
+     * Retourne l'identifiant d'un préfixe, en l'ajoutant au dictionnaire si nécessaire.
+     *
+     * @param prefix le préfixe à interner
+     * @return l'identifiant du préfixe
+     */
+    public int intern(String prefix) {
+        Optional<Integer> existing = findId(prefix);
+        if (existing.isPresent()) {
+            return existing.get();
+        }
+        try {
+            return remember(urlPrefixRepository.save(new UrlPrefix(prefix, hostOf(prefix))));
+        } catch (DataIntegrityViolationException e) {
+            // Préfixe inséré en parallèle par une autre requête
+            return urlPrefixRepository.findByPrefix(prefix)
+                    .map(this::remember)
+                    .orElseThrow(() -> e);
+        }
+    }
+
+    /**
+     * Retourne le préfixe associé à un identifiant.
+     *
+     * @param prefixId l'identifiant du préfixe
+     * @return le préfixe correspondant
+     * @throws IllegalStateException si l'identifiant est inconnu
+     */
+    public String resolve(int prefixId) {
+        String cached = prefixesById.get(prefixId);
+        if (cached != null) {
+            return cached;
+        }
+        UrlPrefix prefix = urlPrefixRepository.findById(prefixId)
+                .orElseThrow(() -> new IllegalStateException("Unknown URL prefix " + prefixId));
+        remember(prefix);
+        return prefix.getPrefix();
+    }
+
+    /**
+     * Reconstruit une URL complète à partir de sa forme compressée.
+     *
+     * @param prefixId l'identifiant du préfixe
+     * @param suffix le suffixe de l'URL
+     * @return l'URL originale complète
+     */
+    public String expand(int prefixId, String suffix) {
+        String prefix = resolve(prefixId);
+        return suffix.isEmpty() ? prefix : prefix.concat(suffix);
+    }
+
+    /**
+     * Extrait l'hôte (en minuscules) d'un préfixe {@code scheme://authority}.
+     *
+     * <p>Le schéma, les informations d'utilisateur et le port sont ignorés :
+     * {@code http://example.com} et {@code https://user@EXAMPLE.com:8443} ont
+     * tous deux l'hôte {@code example.com}, stocké dans {@code url_prefix.host}.
+     *
+     * @param prefix le préfixe
+     * @return l'hôte, sans informations d'utilisateur ni port
+     */
+    public static String hostOf(String prefix) {
+        int start = prefix.indexOf("://");
+        start = start < 0 ? 0 : start + 3;
+        int at = prefix.lastIndexOf('@');
+        if (at >= start) {
+            start = at + 1;
+        }
+        int end = prefix.length();
+        if (start < end && prefix.charAt(start) == '[') {
+            int close = prefix.indexOf(']', start);
+            end = close < 0 ? end : close + 1;
+        } else {
+            int colon = prefix.indexOf(':', start);
+            end = colon < 0 ? end : colon;
+        }
+        return prefix.substring(start, end).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Met un préfixe en mémoire, après le commit de la transaction en cours s'il y en a une.
+     *
+     * @param prefix l'entrée du dictionnaire
+     * @return l'identifiant du préfixe
+     */
+    private int remember(UrlPrefix prefix) {
+        int id = prefix.getId();
+        String value = prefix.getPrefix();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache(id, value);
+                }
+            });
+        } else {
+            cache(id, value);
+        }
+        return id;
+    }
+
+    private void cache(int id, String prefix) {
+        idsByPrefix.put(prefix, id);
+        prefixesById.put(id, prefix);
+    }
+}
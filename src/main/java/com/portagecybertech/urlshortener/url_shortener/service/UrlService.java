@@ -1,16 +1,24 @@
 package com.portagecybertech.urlshortener.url_shortener.service;
 
+import com.portagecybertech.urlshortener.url_shortener.archive.AccessTracker;
+import com.portagecybertech.urlshortener.url_shortener.archive.ArchiveStore;
+import com.portagecybertech.urlshortener.url_shortener.invalidation.InvalidationBus;
+import com.portagecybertech.urlshortener.url_shortener.limit.ConcurrencyLimits;
+import com.portagecybertech.urlshortener.url_shortener.limit.ServiceOverloadedException;
+import com.portagecybertech.urlshortener.url_shortener.model.MappingChange.Operation;
 import com.portagecybertech.urlshortener.url_shortener.model.UrlMapping;
+import com.portagecybertech.urlshortener.url_shortener.profiling.ExpandEvent;
+import com.portagecybertech.urlshortener.url_shortener.profiling.ShortCodeCollisionEvent;
+import com.portagecybertech.urlshortener.url_shortener.profiling.ShortenEvent;
+import com.portagecybertech.urlshortener.url_shortener.replication.ChangeLog;
 import com.portagecybertech.urlshortener.url_shortener.repository.UrlMappingRepository;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
-import java.math.BigInteger;
-import java.net.URI;
-import java.net.URISyntaxException;
-import java.security.MessageDigest;
-import java.security.NoSuchAlgorithmException;
 import java.util.Optional;
+import java.util.concurrent.CompletionException;
 
 /**
  * Service principal pour la gestion des URLs raccourcies.
@@ -19,6 +27,7 @@ import java.util.Optional;
  * <ul>
  *   <li><strong>Raccourcissement</strong> : Convertit une URL longue en URL courte</li>
  *   <li><strong>Expansion</strong> : Récupère l'URL originale à partir du code court</li>
+ *   <li><strong>Suppression</strong> : Retire un mapping et invalide le cache</li>
  *   <li><strong>Gestion des collisions</strong> : Assure l'unicité des codes courts</li>
  *   <li><strong>Validation</strong> : Vérifie la validité des URLs</li>
  * </ul>
@@ -27,13 +36,58 @@ import java.util.Optional;
  * <ol>
  *   <li>Validation de l'URL originale (HTTP/HTTPS)</li>
  *   <li>Vérification si l'URL existe déjà</li>
- *   <li>Génération d'un hash MD5 de l'URL</li>
+ *   <li>Génération d'un hash de l'URL (MD5 ou MurmurHash3, voir {@link ShortCodeGenerator})</li>
  *   <li>Conversion en Base62 pour obtenir un code court</li>
  *   <li>Gestion des collisions potentielles</li>
  * </ol>
  * 
- * <p><strong>Configuration :</strong>
- * Le service utilise la propriété {@code app.base-url} pour construire les URLs raccourcies.
+ * <p><strong>Domaines courts :</strong>
+ * Chaque mapping appartient à un domaine ({@link DomainRegistry}) : un code court est
+ * unique dans son domaine, et l'URL raccourcie est construite depuis l'URL de base de
+ * ce domaine. Les méthodes sans domaine opèrent sur le domaine par défaut
+ * ({@code app.base-url}).
+ * 
+ * <p><strong>Protection contre la surcharge :</strong>
+ * Les accès à la base passent par des budgets de concurrence adaptatifs distincts
+ * pour les écritures et les lectures (voir {@link ConcurrencyLimits}).
+ * 
+ * <p><strong>Stockage compressé :</strong>
+ * Les URLs originales sont stockées et mises en cache sous la forme
+ * (identifiant de préfixe, suffixe) grâce au {@link UrlPrefixDictionary}.
+ * 
+ * <p><strong>Pool de codes :</strong>
+ * Lorsque {@code app.shortcode.pool.enabled=true}, les nouveaux mappings reçoivent un code
+ * réservé à l'avance (voir {@link ShortCodePool}) ; la génération par hash ne sert plus
+ * que lorsque le pool est vide.
+ * 
+ * <p><strong>Archivage :</strong>
+ * Les mappings inactifs sont déplacés hors de la base dans des segments d'archive
+ * (voir {@code archive.ArchiveTiering}). Une résolution absente de la base est
+ * recherchée dans l'archive ({@link ArchiveStore}) ; les accès sont datés par lots
+ * ({@link AccessTracker}). L'archive ne couvre que le domaine par défaut.
+ * 
+ * <p><strong>Créations concurrentes :</strong>
+ * Deux requêtes peuvent insérer en même temps la même URL ou le même code candidat.
+ * Les index uniques de {@code url_mapping} départagent les insertions : la requête
+ * perdante recommence la création et retrouve alors la ligne gagnante.
+ * 
+ * <p><strong>Écritures groupées :</strong>
+ * Lorsque {@code app.shorten.group-commit.enabled=true}, les créations de mappings
+ * sont regroupées dans des transactions communes (voir {@link GroupCommitExecutor}).
+ * 
+ * <p><strong>Plusieurs instances :</strong>
+ * Les suppressions sont diffusées aux autres instances partageant la base, qui
+ * invalident leur cache (voir {@link InvalidationBus}). Une invalidation qui arrive
+ * pendant la lecture d'un code en base l'emporte sur sa mise en cache
+ * (voir {@link ExpandCache#stamp(int, String)}).
+ * 
+ * <p><strong>Réplica :</strong>
+ * Avec {@code app.replication.mode=follower}, les mappings ne viennent que du journal du
+ * primaire : créations et suppressions locales sont refusées ({@link ReadOnlyReplicaException}).
+ * 
+ * <p><strong>Profilage :</strong>
+ * Raccourcissements, résolutions et collisions de codes émettent des événements
+ * Java Flight Recorder ({@code profiling}), sans coût notable hors enregistrement.
  * 
  * @author Aziz Rayene Delaa
  * @version 1.0
@@ -50,7 +104,7 @@ public class UrlService {
      * <p>Contient les caractères : 0-9, A-Z, a-z (62 caractères au total).
      * Cet alphabet permet de générer des codes courts lisibles et URL-safe.
      */
-    private static final String BASE62_ALPHABET = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+    public static final String BASE62_ALPHABET = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
     
     /**
      * Longueur maximale autorisée pour un code court.
@@ -58,197 +112,566 @@ public class UrlService {
      * <p>Cette limite garantit que les URLs raccourcies restent courtes
      * tout en offrant suffisamment de combinaisons possibles.
      */
-    private static final int MAX_SHORT_CODE_LENGTH = 10;
+    public static final int MAX_SHORT_CODE_LENGTH = 10;
+
+    /**
+     * Nombre maximal de reprises d'une création perdue face à une insertion concurrente.
+     */
+    private static final int MAX_INSERT_RACES = 3;
 
     /**
      * Repository pour l'accès aux données des mappings d'URLs.
      */
     private final UrlMappingRepository urlMappingRepository;
+
+    /**
+     * Dictionnaire des préfixes d'URLs (compression du stockage).
+     */
+    private final UrlPrefixDictionary urlPrefixDictionary;
+
+    /**
+     * Cache mémoire des résolutions code court vers URL compressée.
+     */
+    private final ExpandCache expandCache;
     
     /**
-     * URL de base configurée pour construire les URLs raccourcies.
+     * Domaines courts et leurs URLs de base, pour construire les URLs raccourcies.
+     */
+    private final DomainRegistry domainRegistry;
+
+    /**
+     * Budgets de concurrence protégeant les écritures et les lectures.
+     */
+    private final ConcurrencyLimits concurrencyLimits;
+
+    /**
+     * Pipeline d'écritures groupées, ou null pour des écritures synchrones.
+     */
+    private final GroupCommitExecutor groupCommitExecutor;
+
+    /**
+     * Journal des modifications, ou null pour ne pas journaliser.
+     */
+    private final ChangeLog changeLog;
+
+    /**
+     * Générateur des codes courts candidats.
+     */
+    private final ShortCodeGenerator shortCodeGenerator;
+
+    /**
+     * Pool de codes courts réservés à l'avance, ou null pour toujours générer par hash.
+     */
+    private final ShortCodePool shortCodePool;
+
+    /**
+     * Segments d'archive des mappings inactifs, ou null sans archive.
+     */
+    private final ArchiveStore archiveStore;
+
+    /**
+     * Suivi des accès pour l'archivage, ou null sans suivi.
+     */
+    private final AccessTracker accessTracker;
+
+    /**
+     * Bus d'invalidation des caches des autres instances, ou null pour une instance seule.
+     */
+    private final InvalidationBus invalidationBus;
+
+    /**
+     * Forme canonique des URLs avant recherche de doublons et stockage.
+     */
+    private final UrlCanonicalizer urlCanonicalizer;
+
+    /**
+     * Indique si l'instance est un réplica, qui refuse les écritures locales.
+     */
+    private final boolean readOnly;
+
+    /**
+     * URL du primaire, indiquée aux clients d'un réplica.
+     */
+    private final String primaryUrl;
+
+    /**
+     * Constructeur simplifié, sans cache, limitation de concurrence, écritures groupées,
+     * journal des modifications, archive ni canonicalisation, avec des codes courts MD5 et le seul
+     * domaine par défaut.
      * 
-     * <p>Cette valeur est injectée depuis la propriété {@code app.base-url}
-     * du fichier de configuration.
+     * @param urlMappingRepository le repository pour l'accès aux données
+     * @param urlPrefixDictionary le dictionnaire des préfixes d'URLs
+     * @param baseUrl l'URL de base configurée
      */
-    private final String baseUrl;
+    public UrlService(UrlMappingRepository urlMappingRepository,
+                      UrlPrefixDictionary urlPrefixDictionary,
+                      String baseUrl) {
+        this(urlMappingRepository, urlPrefixDictionary, ExpandCache.disabled(), DomainRegistry.single(baseUrl),
+                ConcurrencyLimits.unlimited(), null, null, new ShortCodeGenerator(ShortCodeGenerator.Algorithm.MD5), null,
+                null, null, null, UrlCanonicalizer.disabled(), "primary", "");
+    }
 
     /**
      * Constructeur principal du service.
      * 
      * @param urlMappingRepository le repository pour l'accès aux données
-     * @param baseUrl l'URL de base configurée (injectée depuis app.base-url)
+     * @param urlPrefixDictionary le dictionnaire des préfixes d'URLs
+     * @param expandCache le cache des résolutions de codes courts
+     * @param domainRegistry les domaines courts et leurs URLs de base
+     * @param concurrencyLimits les budgets de concurrence lecture/écriture
+     * @param groupCommitExecutor le pipeline d'écritures groupées (peut être null)
+     * @param changeLog le journal des modifications (peut être null)
+     * @param shortCodeGenerator le générateur des codes courts candidats
+     * @param shortCodePool le pool de codes réservés (peut être null)
+     * @param archiveStore les segments d'archive (peut être null)
+     * @param accessTracker le suivi des accès (peut être null)
+     * @param invalidationBus le bus d'invalidation entre instances (peut être null)
+     * @param urlCanonicalizer la forme canonique des URLs raccourcies
+     * @param replicationMode {@code primary}, ou {@code follower} pour refuser les écritures
+     * @param primaryUrl l'URL du primaire, indiquée aux clients d'un réplica (peut être vide)
      */
+    @Autowired
     public UrlService(UrlMappingRepository urlMappingRepository, 
-                     @Value("${app.base-url}") String baseUrl) {
+                     UrlPrefixDictionary urlPrefixDictionary,
+                     ExpandCache expandCache,
+                     DomainRegistry domainRegistry,
+                     ConcurrencyLimits concurrencyLimits,
+                     GroupCommitExecutor groupCommitExecutor,
+                     ChangeLog changeLog,
+                     ShortCodeGenerator shortCodeGenerator,
+                     ShortCodePool shortCodePool,
+                     ArchiveStore archiveStore,
+                     AccessTracker accessTracker,
+                     InvalidationBus invalidationBus,
+                     UrlCanonicalizer urlCanonicalizer,
+                     @Value("${app.replication.mode:primary}") String replicationMode,
+                     @Value("${app.replication.primary-url:}") String primaryUrl) {
         this.urlMappingRepository = urlMappingRepository;
-        this.baseUrl = baseUrl;
+        this.urlPrefixDictionary = urlPrefixDictionary;
+        this.expandCache = expandCache;
+        this.domainRegistry = domainRegistry;
+        this.concurrencyLimits = concurrencyLimits;
+        this.groupCommitExecutor = groupCommitExecutor;
+        this.changeLog = changeLog;
+        this.shortCodeGenerator = shortCodeGenerator;
+        this.shortCodePool = shortCodePool;
+        this.archiveStore = archiveStore;
+        this.accessTracker = accessTracker;
+        this.invalidationBus = invalidationBus;
+        this.urlCanonicalizer = urlCanonicalizer;
+        this.readOnly = "follower".equalsIgnoreCase(replicationMode);
+        this.primaryUrl = primaryUrl;
     }
 
     /**
-     * Raccourcit une URL originale en générant un code court unique.
+     * Raccourcit une URL originale dans le domaine par défaut.
+     * 
+     * @param originalUrl l'URL originale à raccourcir (doit être HTTP/HTTPS valide)
+     * @return une réponse contenant l'URL raccourcie complète
+     * @throws IllegalArgumentException si l'URL originale est invalide, null ou vide
+     * @throws ServiceOverloadedException si le budget d'écriture est épuisé
+     * @see #shorten(int, String)
+     */
+    public ShortenResponse shorten(String originalUrl) {
+        return shorten(DomainRegistry.DEFAULT_DOMAIN_ID, originalUrl);
+    }
+
+    /**
+     * Raccourcit une URL originale en générant un code court unique dans un domaine.
      * 
      * <p><strong>Processus :</strong>
      * <ol>
      *   <li>Validation de l'URL originale</li>
+     *   <li>Mise sous forme canonique ({@link UrlCanonicalizer})</li>
      *   <li>Vérification si l'URL existe déjà</li>
      *   <li>Génération d'un nouveau code court si nécessaire</li>
      *   <li>Gestion des collisions potentielles</li>
      *   <li>Retour de l'URL raccourcie complète</li>
      * </ol>
      * 
-     * @param originalUrl l'URL originale à raccourcir (doit être HTTP/HTTPS valide)
+     * @param domainId l'identifiant du domaine court
+     * @param rawUrl l'URL originale à raccourcir (doit être HTTP/HTTPS valide)
      * @return une réponse contenant l'URL raccourcie complète
-     * @throws IllegalArgumentException si l'URL originale est invalide, null ou vide
+     * @throws IllegalArgumentException si l'URL originale est invalide, null ou vide, ou le domaine inconnu
+     * @throws ServiceOverloadedException si le budget d'écriture est épuisé
+     * @throws ReadOnlyReplicaException si l'instance est un réplica
      * @throws RuntimeException si une erreur survient lors de la génération du hash
      */
-    public ShortenResponse shorten(String originalUrl) {
-        if (!isValidHttpUrl(originalUrl)) {
+    public ShortenResponse shorten(int domainId, String rawUrl) {
+        requireWritable();
+        if (!isValidHttpUrl(rawUrl)) {
             throw new IllegalArgumentException("Invalid URL");
         }
+        String originalUrl = urlCanonicalizer.canonicalize(rawUrl);
+        if (!domainRegistry.contains(domainId)) {
+            throw new IllegalArgumentException("Unknown domain");
+        }
+        ShortenEvent event = new ShortenEvent();
+        event.begin();
+        try {
+            if (groupCommitExecutor != null && groupCommitExecutor.isEnabled()) {
+                return concurrencyLimits.write(() -> awaitCommit(domainId, originalUrl, event));
+            }
+            return concurrencyLimits.write(() -> createMappingResolvingRaces(domainId, originalUrl, event));
+        } finally {
+            if (event.shouldCommit()) {
+                event.domainId = domainId;
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Soumet la création au pipeline d'écritures groupées et attend le commit du lot.
+     * 
+     * @param domainId l'identifiant du domaine court
+     * @param originalUrl l'URL originale valide
+     * @param event l'événement JFR du raccourcissement
+     * @return la réponse, disponible une fois le lot commité
+     */
+    private ShortenResponse awaitCommit(int domainId, String originalUrl, ShortenEvent event) {
+        try {
+            return groupCommitExecutor.submit(() -> createMapping(domainId, originalUrl, event)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof DataIntegrityViolationException) {
+                // Course perdue dans le lot : reprise hors lot, qui relit la ligne gagnante
+                event.insertRaces++;
+                return createMappingResolvingRaces(domainId, originalUrl, event);
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Crée le mapping d'une URL en reprenant les insertions perdues face à une requête concurrente.
+     * 
+     * <p>Une violation d'index unique signifie que la même URL ou le même code vient
+     * d'être inséré par une autre transaction, désormais visible : la reprise retourne
+     * le mapping existant ou passe au code candidat suivant.
+     * 
+     * @param domainId l'identifiant du domaine court
+     * @param originalUrl l'URL originale valide
+     * @param event l'événement JFR du raccourcissement
+     * @return une réponse contenant l'URL raccourcie complète
+     */
+    private ShortenResponse createMappingResolvingRaces(int domainId, String originalUrl, ShortenEvent event) {
+        for (int race = 0; ; race++) {
+            try {
+                return createMapping(domainId, originalUrl, event);
+            } catch (DataIntegrityViolationException e) {
+                if (race >= MAX_INSERT_RACES) {
+                    throw e;
+                }
+                event.insertRaces++;
+            }
+        }
+    }
+
+    /**
+     * Recherche ou crée le mapping d'une URL déjà validée.
+     * 
+     * <p>Les codes du pool sont uniques dans tous les domaines ; les codes par hash ne
+     * sont vérifiés que dans le domaine visé, et dans l'archive pour le domaine par défaut.
+     * 
+     * @param domainId l'identifiant du domaine court
+     * @param originalUrl l'URL originale valide
+     * @param event l'événement JFR du raccourcissement, complété par le chemin suivi
+     * @return une réponse contenant l'URL raccourcie complète
+     */
+    private ShortenResponse createMapping(int domainId, String originalUrl, ShortenEvent event) {
+        event.attempts = 0;
+        event.pooled = false;
+        int split = UrlPrefixDictionary.splitIndex(originalUrl);
+        String prefix = originalUrl.substring(0, split);
+        String suffix = originalUrl.substring(split);
 
-        Optional<UrlMapping> existing = urlMappingRepository.findByOriginalUrl(originalUrl);
+        Optional<UrlMapping> existing = urlPrefixDictionary.findId(prefix)
+                .flatMap(prefixId -> urlMappingRepository.findByDomainIdAndPrefixIdAndUrlSuffix(domainId, prefixId, suffix));
         if (existing.isPresent()) {
-            return new ShortenResponse(baseUrl + "/" + existing.get().getShortCode());
+            event.deduplicated = true;
+            return response(domainId, existing.get().getShortCode(), event);
         }
 
+        int prefixId = urlPrefixDictionary.intern(prefix);
+        String pooled = shortCodePool == null ? null : shortCodePool.poll();
+        if (pooled != null) {
+            // Code réservé et vérifié en arrière-plan : une simple insertion suffit
+            event.pooled = true;
+            UrlMapping saved = insert(new UrlMapping(domainId, pooled, prefixId, suffix), originalUrl);
+            return response(domainId, saved.getShortCode(), event);
+        }
         int attempt = 0;
         while (true) {
-            String candidate = generateShortCode(originalUrl, attempt);
-            Optional<UrlMapping> existingCode = urlMappingRepository.findByShortCode(candidate);
+            String candidate = shortCodeGenerator.generate(originalUrl, attempt);
+            event.attempts = attempt + 1;
+            Optional<UrlMapping> existingCode = urlMappingRepository.findByDomainIdAndShortCode(domainId, candidate);
             if (existingCode.isEmpty()) {
-                UrlMapping saved = urlMappingRepository.save(new UrlMapping(candidate, originalUrl));
-                return new ShortenResponse(baseUrl + "/" + saved.getShortCode());
+                String archived = isArchived(domainId) ? archiveStore.lookup(candidate) : null;
+                if (archived == null) {
+                    UrlMapping saved = insert(new UrlMapping(domainId, candidate, prefixId, suffix), originalUrl);
+                    return response(domainId, saved.getShortCode(), event);
+                }
+                if (archived.equals(originalUrl) && !archiveStore.isDeleted(candidate)) {
+                    // Mapping archivé : son code reste valide
+                    event.deduplicated = true;
+                    return response(domainId, candidate, event);
+                }
+                // Code archivé (même supprimé) : jamais réattribué
+                ShortCodeCollisionEvent.emit(domainId, candidate, attempt, ShortCodeCollisionEvent.SOURCE_ARCHIVE);
+                attempt++;
+                continue;
             }
-            if (existingCode.get().getOriginalUrl().equals(originalUrl)) {
+            if (existingCode.get().getPrefixId() == prefixId && existingCode.get().getUrlSuffix().equals(suffix)) {
                 // Same mapping already present (race condition scenario)
-                return new ShortenResponse(baseUrl + "/" + existingCode.get().getShortCode());
+                event.deduplicated = true;
+                return response(domainId, existingCode.get().getShortCode(), event);
             }
+            ShortCodeCollisionEvent.emit(domainId, candidate, attempt, ShortCodeCollisionEvent.SOURCE_DATABASE);
             attempt++;
         }
     }
 
+    private ShortenResponse response(int domainId, String shortCode, ShortenEvent event) {
+        event.shortCode = shortCode;
+        return new ShortenResponse(domainRegistry.shortUrl(domainId, shortCode));
+    }
+
     /**
-     * Récupère l'URL originale à partir d'un code court.
+     * Indique si les codes d'un domaine sont archivés (domaine par défaut avec archive).
      * 
-     * <p>Cette méthode effectue une recherche dans la base de données pour trouver
-     * l'URL originale correspondant au code court fourni.
-     * 
-     * @param shortCode le code court à rechercher
-     * @return l'URL originale correspondante
-     * @throws IllegalArgumentException si le code court n'est pas trouvé dans la base de données
+     * @param domainId l'identifiant du domaine court
+     * @return true si l'archive doit être consultée pour ce domaine
      */
-    public String expand(String shortCode) {
-        return urlMappingRepository.findByShortCode(shortCode)
-                .map(UrlMapping::getOriginalUrl)
-                .orElseThrow(() -> new IllegalArgumentException("Short code not found"));
+    private boolean isArchived(int domainId) {
+        return archiveStore != null && domainId == DomainRegistry.DEFAULT_DOMAIN_ID;
     }
 
     /**
-     * Record représentant la réponse du service de raccourcissement.
+     * Enregistre un nouveau mapping et son entrée dans le journal des modifications.
      * 
-     * <p>Cette classe immuable contient l'URL raccourcie générée.
+     * @param mapping le mapping à enregistrer
+     * @param originalUrl l'URL originale complète, journalisée telle quelle
+     * @return le mapping enregistré
+     */
+    private UrlMapping insert(UrlMapping mapping, String originalUrl) {
+        if (changeLog == null) {
+            return urlMappingRepository.save(mapping);
+        }
+        return changeLog.inTransaction(() -> {
+            UrlMapping saved = urlMappingRepository.save(mapping);
+            changeLog.append(Operation.CREATE, saved.getDomainId(), saved.getShortCode(), originalUrl);
+            return saved;
+        });
+    }
+
+    /**
+     * Supprime le mapping d'un code court du domaine par défaut.
      * 
-     * @param shortUrl l'URL raccourcie complète (ex: http://localhost:8080/abc123)
+     * @param shortCode le code court à supprimer
+     * @return true si un mapping a été supprimé, false si le code est inconnu
+     * @throws ServiceOverloadedException si le budget d'écriture est épuisé
      */
-    public record ShortenResponse(String shortUrl) {}
+    public boolean delete(String shortCode) {
+        return delete(DomainRegistry.DEFAULT_DOMAIN_ID, shortCode);
+    }
 
     /**
-     * Valide qu'une chaîne représente une URL HTTP/HTTPS valide.
+     * Supprime le mapping d'un code court dans un domaine.
      * 
-     * <p>Cette méthode vérifie :
-     * <ul>
-     *   <li>Que la chaîne n'est pas null ou vide</li>
-     *   <li>Que l'URL a un schéma HTTP ou HTTPS</li>
-     *   <li>Que l'URL a un host valide</li>
-     *   <li>Que l'URL est syntaxiquement correcte</li>
-     * </ul>
+     * <p>La suppression est journalisée dans la même transaction, puis l'entrée
+     * correspondante est retirée du cache, localement et sur les autres instances.
+     * Un code archivé est marqué comme supprimé dans l'archive.
      * 
-     * @param value la chaîne à valider
-     * @return true si l'URL est valide, false sinon
+     * @param domainId l'identifiant du domaine court
+     * @param shortCode le code court à supprimer
+     * @return true si un mapping a été supprimé, false si le code est inconnu
+     * @throws ServiceOverloadedException si le budget d'écriture est épuisé
+     * @throws ReadOnlyReplicaException si l'instance est un réplica
      */
-    private boolean isValidHttpUrl(String value) {
-        if (value == null || value.trim().isEmpty()) {
-            return false;
+    public boolean delete(int domainId, String shortCode) {
+        requireWritable();
+        boolean deleted = concurrencyLimits.write(() -> {
+            Optional<UrlMapping> mapping = urlMappingRepository.findByDomainIdAndShortCode(domainId, shortCode);
+            if (mapping.isEmpty()) {
+                return isArchived(domainId) && deleteArchived(shortCode);
+            }
+            if (changeLog == null) {
+                urlMappingRepository.delete(mapping.get());
+            } else {
+                changeLog.inTransaction(() -> {
+                    urlMappingRepository.delete(mapping.get());
+                    changeLog.append(Operation.DELETE, domainId, shortCode, null);
+                    return null;
+                });
+            }
+            return true;
+        });
+        expandCache.invalidate(domainId, shortCode);
+        if (deleted && invalidationBus != null) {
+            invalidationBus.publish(domainId, shortCode);
         }
-        try {
-            URI uri = new URI(value);
-            String scheme = uri.getScheme();
-            return scheme != null && (scheme.equalsIgnoreCase("http") || scheme.equalsIgnoreCase("https")) && uri.getHost() != null;
-        } catch (URISyntaxException e) {
-            return false;
+        return deleted;
+    }
+
+    private void requireWritable() {
+        if (readOnly) {
+            throw new ReadOnlyReplicaException(primaryUrl);
         }
     }
 
     /**
-     * Génère un code court à partir d'une chaîne d'entrée et d'un salt.
-     * 
-     * <p>Cette méthode utilise l'algorithme suivant :
-     * <ol>
-     *   <li>Concatène l'entrée avec le salt</li>
-     *   <li>Génère un hash MD5 de la chaîne résultante</li>
-     *   <li>Convertit le hash en Base62</li>
-     *   <li>Tronque à la longueur maximale si nécessaire</li>
-     * </ol>
+     * Supprime un code archivé et journalise la suppression.
      * 
-     * @param input la chaîne d'entrée (généralement l'URL originale)
-     * @param salt le salt pour éviter les collisions
-     * @return le code court généré
+     * @param shortCode le code court, absent de la base
+     * @return true si un code archivé a été supprimé
      */
-    private String generateShortCode(String input, int salt) {
-        byte[] digest = md5(input + ":" + salt);
-        String base62 = toBase62(digest);
-        if (base62.length() <= MAX_SHORT_CODE_LENGTH) {
-            return base62;
+    private boolean deleteArchived(String shortCode) {
+        if (changeLog == null) {
+            return archiveStore.delete(shortCode);
         }
-        return base62.substring(0, MAX_SHORT_CODE_LENGTH);
+        return changeLog.inTransaction(() -> {
+            boolean deleted = archiveStore.delete(shortCode);
+            if (deleted) {
+                changeLog.append(Operation.DELETE, DomainRegistry.DEFAULT_DOMAIN_ID, shortCode, null);
+            }
+            return deleted;
+        });
     }
 
     /**
-     * Génère un hash MD5 d'une chaîne d'entrée.
+     * Récupère l'URL originale à partir d'un code court du domaine par défaut.
      * 
-     * <p>Cette méthode utilise l'algorithme MD5 pour générer un hash
-     * de la chaîne fournie. MD5 est utilisé ici pour sa rapidité et
-     * sa distribution uniforme des valeurs.
+     * @param shortCode le code court à rechercher
+     * @return l'URL originale correspondante
+     * @throws IllegalArgumentException si le code court n'est pas trouvé dans la base de données
+     * @throws ServiceOverloadedException si le budget de lecture est épuisé
+     */
+    public String expand(String shortCode) {
+        return expand(DomainRegistry.DEFAULT_DOMAIN_ID, shortCode);
+    }
+
+    /**
+     * Récupère l'URL originale à partir d'un code court.
      * 
-     * @param input la chaîne à hasher
-     * @return le hash MD5 sous forme de tableau de bytes
-     * @throws IllegalStateException si l'algorithme MD5 n'est pas disponible
+     * <p>Cette méthode consulte d'abord le cache mémoire, puis la base de données,
+     * puis l'archive pour trouver l'URL originale correspondant au code court fourni.
+     * 
+     * @param domainId l'identifiant du domaine court
+     * @param shortCode le code court à rechercher
+     * @return l'URL originale correspondante
+     * @throws IllegalArgumentException si le code court n'est pas trouvé dans la base de données
+     * @throws ServiceOverloadedException si le budget de lecture est épuisé
+     */
+    public String expand(int domainId, String shortCode) {
+        return findOriginalUrl(domainId, shortCode)
+                .orElseThrow(() -> new IllegalArgumentException("Short code not found"));
+    }
+
+    /**
+     * Recherche l'URL originale d'un code court du domaine par défaut.
+     * 
+     * @param shortCode le code court à rechercher
+     * @return l'URL originale, ou empty si le code est inconnu
+     * @throws ServiceOverloadedException si le budget de lecture est épuisé
+     */
+    public Optional<String> findOriginalUrl(String shortCode) {
+        return findOriginalUrl(DomainRegistry.DEFAULT_DOMAIN_ID, shortCode);
+    }
+
+    /**
+     * Recherche l'URL originale d'un code court sans lever d'exception en cas d'absence.
+     * 
+     * <p>Variante de {@link #expand(int, String)} destinée aux chemins critiques
+     * (redirections), où un code inconnu est un cas courant et non une erreur.
+     * 
+     * @param domainId l'identifiant du domaine court
+     * @param shortCode le code court à rechercher
+     * @return l'URL originale, ou empty si le code est inconnu
+     * @throws ServiceOverloadedException si le budget de lecture est épuisé
      */
-    private byte[] md5(String input) {
+    public Optional<String> findOriginalUrl(int domainId, String shortCode) {
+        ExpandEvent event = new ExpandEvent();
+        event.begin();
+        Optional<String> originalUrl = Optional.empty();
         try {
-            MessageDigest md = MessageDigest.getInstance("MD5");
-            return md.digest(input.getBytes());
-        } catch (NoSuchAlgorithmException e) {
-            throw new IllegalStateException("MD5 not available", e);
+            originalUrl = lookup(domainId, shortCode, event);
+            return originalUrl;
+        } finally {
+            if (event.shouldCommit()) {
+                event.domainId = domainId;
+                event.shortCode = shortCode;
+                event.found = originalUrl.isPresent();
+                if (event.tier == null) {
+                    event.tier = ExpandEvent.TIER_CACHE;
+                }
+                event.commit();
+            }
         }
     }
 
     /**
-     * Convertit un tableau de bytes en représentation Base62.
-     * 
-     * <p>Cette méthode convertit un hash binaire en une chaîne Base62
-     * utilisant l'alphabet défini dans {@code BASE62_ALPHABET}.
+     * Résout un code court dans le cache, puis la base, puis l'archive.
      * 
-     * @param bytes le tableau de bytes à convertir
-     * @return la représentation Base62 du tableau de bytes
+     * @param domainId l'identifiant du domaine court
+     * @param shortCode le code court à rechercher
+     * @param event l'événement JFR de la résolution, dont le niveau est renseigné hors cache
+     * @return l'URL originale, ou empty si le code est inconnu
      */
-    private String toBase62(byte[] bytes) {
-        // convert to positive BigInteger to avoid negative values
-        BigInteger number = new BigInteger(1, bytes);
-        if (number.equals(BigInteger.ZERO)) {
-            return "0";
+    private Optional<String> lookup(int domainId, String shortCode, ExpandEvent event) {
+        CompactUrl cached = expandCache.get(domainId, shortCode);
+        if (cached == null) {
+            event.tier = ExpandEvent.TIER_DATABASE;
+            // Relevée avant la lecture : une suppression qui la suit ne sera pas mise en cache
+            long stamp = expandCache.stamp(domainId, shortCode);
+            Optional<UrlMapping> mapping = concurrencyLimits.read(
+                    () -> urlMappingRepository.findByDomainIdAndShortCode(domainId, shortCode));
+            if (mapping.isEmpty()) {
+                if (!isArchived(domainId)) {
+                    return Optional.empty();
+                }
+                // Les résolutions archivées ne sont pas mises en cache : le cache reste aux mappings vivants
+                event.tier = ExpandEvent.TIER_ARCHIVE;
+                return Optional.ofNullable(archiveStore.find(shortCode));
+            }
+            cached = new CompactUrl(mapping.get().getPrefixId(), mapping.get().getUrlSuffix());
+            expandCache.putIfNotInvalidated(domainId, shortCode, cached, stamp);
         }
-        StringBuilder sb = new StringBuilder();
-        BigInteger base = BigInteger.valueOf(62);
-        while (number.compareTo(BigInteger.ZERO) > 0) {
-            BigInteger[] divRem = number.divideAndRemainder(base);
-            int index = divRem[1].intValue();
-            sb.append(BASE62_ALPHABET.charAt(index));
-            number = divRem[0];
+        if (accessTracker != null && domainId == DomainRegistry.DEFAULT_DOMAIN_ID) {
+            accessTracker.record(shortCode);
         }
-        return sb.reverse().toString();
+        return Optional.of(urlPrefixDictionary.expand(cached.prefixId(), cached.suffix()));
     }
-}
 
+    /**
+     * Record représentant la réponse du service de raccourcissement.
+     * 
+     * <p>Cette classe immuable contient l'URL raccourcie générée.
+     * 
+     * @param shortUrl l'URL raccourcie complète (ex: http://localhost:8080/abc123)
+     */
+    public record ShortenResponse(String shortUrl) {}
 
+    /**
+     * Valide qu'une chaîne représente une URL HTTP/HTTPS valide.
+     * 
+     * <p>Cette méthode vérifie :
+     * <ul>
+     *   <li>Que la chaîne n'est pas null ou vide</li>
+     *   <li>Que l'URL a un schéma HTTP ou HTTPS</li>
+     *   <li>Que l'URL a un host valide</li>
+     *   <li>Que l'URL est syntaxiquement correcte</li>
+     * </ul>
+     *
+     * <p>La validation se fait en une passe sans allocation, selon les règles de
+     * {@link java.net.URI} (voir {@link HttpUrlValidator}).
+     * 
+     * @param value la chaîne à valider
+     * @return true si l'URL est valide, false sinon
+     */
+    private boolean isValidHttpUrl(String value) {
+        return HttpUrlValidator.isValid(value);
+    }
+}
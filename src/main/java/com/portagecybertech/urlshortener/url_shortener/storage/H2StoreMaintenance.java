@@ -0,0 +1,427 @@
+package com.portagecybertech.urlshortener.url_shortener.storage;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.h2.engine.Session;
+import org.h2.engine.SessionLocal;
+import org.h2.jdbc.JdbcConnection;
+import org.h2.mvstore.FileStore;
+import org.h2.mvstore.MVStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Clock;
+import java.time.LocalTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Réglages et maintenance en ligne du stockage H2 (MVStore) de la base fichier.
+ *
+ * <p>MVStore écrit chaque modification dans un nouveau chunk en fin de fichier ; les
+ * pages remplacées restent dans les anciens chunks jusqu'à leur réécriture. Sans
+ * compaction, le fichier ne fait que grossir et ses lectures se dispersent.
+ *
+ * <p><strong>Au démarrage</strong>, les réglages {@code app.h2.*} sont appliqués par SQL :
+ * taille du cache de pages ({@code CACHE_SIZE}), délai d'écriture des modifications
+ * ({@code WRITE_DELAY}, qui regroupe les commits d'un intervalle dans un même chunk) et
+ * taille maximale du fichier de trace ({@code TRACE_MAX_FILE_SIZE}). Le taux de
+ * remplissage sous lequel H2 réécrit lui-même les chunks ({@code AUTO_COMPACT_FILL_RATE})
+ * et la durée de compaction à la fermeture ({@code MAX_COMPACT_TIME}) ne peuvent être
+ * fixés que dans l'URL JDBC.
+ *
+ * <p><strong>Maintenance :</strong> toutes les {@code interval-ms}, si l'heure locale est
+ * dans la fenêtre {@code window} ({@code HH:mm-HH:mm}, vide pour toute heure) et que la
+ * base a écrit moins de {@code max-write-rate} octets par seconde depuis le passage
+ * précédent, les chunks les moins remplis sont réécrits par tranches de {@code step-bytes},
+ * jusqu'à atteindre {@code target-fill-rate} ou épuiser {@code time-budget-ms}. Chaque
+ * tranche ne prend le verrou du store que s'il est libre : une écriture concurrente
+ * reporte la tranche au lieu d'attendre. L'espace des chunks libérés est réutilisé par
+ * les écritures suivantes, ce qui borne la taille du fichier.
+ *
+ * <p>Le déplacement des chunks vers le début du fichier, qui seul le réduit, n'est pas
+ * sûr sur un store ouvert en H2 2.3 ; il est laissé à la fermeture de la base
+ * ({@code MAX_COMPACT_TIME}).
+ *
+ * <p><strong>Métriques :</strong> {@code urlshortener.h2.file.size},
+ * {@code urlshortener.h2.fill.rate} (pages vivantes dans les chunks),
+ * {@code urlshortener.h2.chunks.fill.rate} (chunks dans le fichier),
+ * {@code urlshortener.h2.cache.used}, {@code urlshortener.h2.write.bytes},
+ * {@code urlshortener.h2.compaction.bytes}, {@code urlshortener.h2.write.amplification}
+ * (octets écrits par rapport aux octets écrits hors maintenance),
+ * {@code urlshortener.h2.compaction.runs} (par {@code result}),
+ * {@code urlshortener.h2.compaction.seconds}.
+ *
+ * <p>Sur une base en mémoire ou distante (pas de fichier local), les réglages SQL sont
+ * appliqués mais la maintenance ne fait rien.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ */
+@Component
+public class H2StoreMaintenance {
+
+    private static final Logger log = LoggerFactory.getLogger(H2StoreMaintenance.class);
+
+    private final DataSource dataSource;
+
+    private final LocalTime windowStart;
+
+    private final LocalTime windowEnd;
+
+    private final long maxWriteRate;
+
+    private final long timeBudgetMillis;
+
+    private final int targetFillRate;
+
+    private final int stepBytes;
+
+    private final Clock clock;
+
+    /**
+     * Store résolu depuis la source de données, null tant qu'il ne l'est pas.
+     */
+    private volatile MVStore store;
+
+    /**
+     * Octets écrits par la base au passage précédent, pour mesurer son activité.
+     */
+    private long lastWriteBytes;
+
+    private long lastTickNanos = System.nanoTime();
+
+    /**
+     * Octets écrits pendant les compactions explicites.
+     */
+    private volatile long compactionBytes;
+
+    private volatile double lastCompactionSeconds;
+
+    private final Counter compacted;
+
+    private final Counter skippedWindow;
+
+    private final Counter skippedBusy;
+
+    /**
+     * Planificateur de la maintenance, null si elle est désactivée.
+     */
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * Constructeur principal, alimenté par les propriétés {@code app.h2.*}.
+     *
+     * @param cacheSizeKb la taille du cache de pages en Kio, 0 pour garder celle de H2
+     * @param writeDelayMillis le délai d'écriture des modifications, négatif pour garder celui de H2
+     * @param traceMaxFileSizeMb la taille maximale du fichier de trace en Mio, 0 pour garder celle de H2
+     * @param enabled true pour activer la maintenance périodique
+     * @param intervalMillis l'intervalle entre deux passages
+     * @param window la fenêtre horaire {@code HH:mm-HH:mm} de la maintenance, vide pour toute heure
+     * @param maxWriteRate le débit d'écriture (octets/s) au-delà duquel un passage est reporté
+     * @param timeBudgetMillis la durée maximale d'une compaction
+     * @param targetFillRate le taux de remplissage visé par la réécriture des chunks
+     * @param stepBytes le volume réécrit par tranche
+     * @param dataSource la source de données de l'application
+     * @param meterRegistry le registre de métriques
+     */
+    @Autowired
+    public H2StoreMaintenance(@Value("${app.h2.cache-size-kb:0}") int cacheSizeKb,
+                              @Value("${app.h2.write-delay-ms:-1}") int writeDelayMillis,
+                              @Value("${app.h2.trace-max-file-size-mb:0}") int traceMaxFileSizeMb,
+                              @Value("${app.h2.maintenance.enabled:true}") boolean enabled,
+                              @Value("${app.h2.maintenance.interval-ms:600000}") long intervalMillis,
+                              @Value("${app.h2.maintenance.window:}") String window,
+                              @Value("${app.h2.maintenance.max-write-rate:262144}") long maxWriteRate,
+                              @Value("${app.h2.maintenance.time-budget-ms:500}") long timeBudgetMillis,
+                              @Value("${app.h2.maintenance.target-fill-rate:80}") int targetFillRate,
+                              @Value("${app.h2.maintenance.step-bytes:1048576}") int stepBytes,
+                              DataSource dataSource,
+                              MeterRegistry meterRegistry) {
+        this(cacheSizeKb, writeDelayMillis, traceMaxFileSizeMb, enabled, intervalMillis, window, maxWriteRate,
+                timeBudgetMillis, targetFillRate, stepBytes, dataSource, meterRegistry,
+                Clock.systemDefaultZone());
+    }
+
+    H2StoreMaintenance(int cacheSizeKb, int writeDelayMillis, int traceMaxFileSizeMb, boolean enabled,
+                       long intervalMillis, String window, long maxWriteRate, long timeBudgetMillis,
+                       int targetFillRate, int stepBytes, DataSource dataSource,
+                       MeterRegistry meterRegistry, Clock clock) {
+        this.dataSource = dataSource;
+        this.maxWriteRate = maxWriteRate;
+        this.timeBudgetMillis = timeBudgetMillis;
+        this.targetFillRate = targetFillRate;
+        this.stepBytes = stepBytes;
+        this.clock = clock;
+        if (window.isBlank()) {
+            this.windowStart = null;
+            this.windowEnd = null;
+        } else {
+            int dash = window.indexOf('-');
+            if (dash < 0) {
+                throw new IllegalArgumentException("Invalid maintenance window (expected HH:mm-HH:mm): " + window);
+            }
+            this.windowStart = LocalTime.parse(window.substring(0, dash).trim());
+            this.windowEnd = LocalTime.parse(window.substring(dash + 1).trim());
+        }
+
+        configure(cacheSizeKb, writeDelayMillis, traceMaxFileSizeMb);
+        this.lastWriteBytes = writeBytes();
+
+        fileGauge(meterRegistry, "urlshortener.h2.file.size", "Taille du fichier de la base", "bytes",
+                fileStore -> fileStore.size());
+        fileGauge(meterRegistry, "urlshortener.h2.fill.rate", "Part des pages vivantes dans les chunks", "percent",
+                fileStore -> fileStore.getFillRate());
+        fileGauge(meterRegistry, "urlshortener.h2.chunks.fill.rate", "Part du fichier occupée par des chunks",
+                "percent", fileStore -> fileStore.getChunksFillRate());
+        fileGauge(meterRegistry, "urlshortener.h2.cache.used", "Occupation du cache de pages", "bytes",
+                fileStore -> fileStore.getCacheSizeUsed() * 1024.0 * 1024.0);
+        FunctionCounter.builder("urlshortener.h2.write.bytes", this, maintenance -> maintenance.writeBytes())
+                .description("Octets écrits dans le fichier de la base")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        FunctionCounter.builder("urlshortener.h2.compaction.bytes", this, maintenance -> maintenance.compactionBytes)
+                .description("Octets écrits par les compactions explicites")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("urlshortener.h2.write.amplification", this, H2StoreMaintenance::writeAmplification)
+                .description("Octets écrits par rapport aux octets écrits hors maintenance")
+                .register(meterRegistry);
+        Gauge.builder("urlshortener.h2.compaction.seconds", this, maintenance -> maintenance.lastCompactionSeconds)
+                .description("Durée de la dernière compaction")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        this.compacted = runs(meterRegistry, "compacted");
+        this.skippedWindow = runs(meterRegistry, "outside-window");
+        this.skippedBusy = runs(meterRegistry, "busy");
+
+        if (enabled) {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "h2-maintenance");
+                thread.setDaemon(true);
+                return thread;
+            });
+            scheduler.scheduleWithFixedDelay(this::maintainSafely, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.scheduler = null;
+        }
+    }
+
+    /**
+     * Exécute un passage de maintenance : compaction si l'heure et l'activité le permettent.
+     *
+     * @return le bilan du passage
+     */
+    public synchronized MaintenanceResult maintain() {
+        MVStore mvStore = store();
+        FileStore<?> fileStore = mvStore == null ? null : mvStore.getFileStore();
+        if (fileStore == null) {
+            return new MaintenanceResult(Outcome.UNAVAILABLE, 0, 0, 0, 0);
+        }
+        long now = System.nanoTime();
+        long written = writeBytes(fileStore);
+        double seconds = Math.max(now - lastTickNanos, 1) / 1e9;
+        boolean busy = (written - lastWriteBytes) / seconds > maxWriteRate;
+        lastTickNanos = now;
+        lastWriteBytes = written;
+        long size = fileStore.size();
+        if (!inWindow(LocalTime.now(clock))) {
+            skippedWindow.increment();
+            return new MaintenanceResult(Outcome.OUTSIDE_WINDOW, size, size, 0, 0);
+        }
+        if (busy) {
+            skippedBusy.increment();
+            return new MaintenanceResult(Outcome.BUSY, size, size, 0, 0);
+        }
+
+        long deadline = now + TimeUnit.MILLISECONDS.toNanos(timeBudgetMillis);
+        while (System.nanoTime() < deadline && mvStore.compact(targetFillRate, stepBytes)) {
+            mvStore.tryCommit();
+        }
+        long after = writeBytes(fileStore);
+        long rewritten = after - written;
+        compactionBytes += rewritten;
+        lastWriteBytes = after;
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - now);
+        lastCompactionSeconds = elapsedMillis / 1e3;
+        compacted.increment();
+        if (rewritten > 0) {
+            log.info("H2 store compaction rewrote {} bytes in {} ms", rewritten, elapsedMillis);
+        }
+        return new MaintenanceResult(Outcome.COMPACTED, size, fileStore.size(), rewritten, elapsedMillis);
+    }
+
+    /**
+     * Arrête la maintenance périodique.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private void maintainSafely() {
+        try {
+            maintain();
+        } catch (RuntimeException e) {
+            log.warn("H2 store maintenance failed, will retry at the next interval", e);
+        }
+    }
+
+    /**
+     * Applique les réglages modifiables à chaud.
+     */
+    private void configure(int cacheSizeKb, int writeDelayMillis, int traceMaxFileSizeMb) {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            if (!"H2".equals(connection.getMetaData().getDatabaseProductName())) {
+                return;
+            }
+            if (cacheSizeKb > 0) {
+                statement.execute("SET CACHE_SIZE " + cacheSizeKb);
+            }
+            if (writeDelayMillis >= 0) {
+                statement.execute("SET WRITE_DELAY " + writeDelayMillis);
+            }
+            if (traceMaxFileSizeMb > 0) {
+                statement.execute("SET TRACE_MAX_FILE_SIZE " + traceMaxFileSizeMb);
+            }
+            log.info("H2 store settings: cache {} KB, write delay {} ms, auto-compact fill rate {}%",
+                    setting(connection, "CACHE_SIZE"), setting(connection, "WRITE_DELAY"),
+                    setting(connection, "AUTO_COMPACT_FILL_RATE"));
+        } catch (SQLException e) {
+            log.warn("Could not apply H2 store settings", e);
+        }
+    }
+
+    private static String setting(Connection connection, String name) throws SQLException {
+        try (PreparedStatement select = connection.prepareStatement(
+                "select setting_value from information_schema.settings where setting_name = ?")) {
+            select.setString(1, name);
+            try (ResultSet rows = select.executeQuery()) {
+                return rows.next() ? rows.getString(1) : "?";
+            }
+        }
+    }
+
+    /**
+     * Résout le store de la base embarquée, ou null pour une autre base.
+     */
+    private MVStore store() {
+        MVStore current = store;
+        if (current != null && !current.isClosed()) {
+            return current;
+        }
+        try (Connection connection = dataSource.getConnection()) {
+            if (!connection.isWrapperFor(JdbcConnection.class)) {
+                return null;
+            }
+            Session session = connection.unwrap(JdbcConnection.class).getSession();
+            if (!(session instanceof SessionLocal local)) {
+                return null;
+            }
+            current = local.getDatabase().getStore().getMvStore();
+            store = current;
+            return current;
+        } catch (SQLException e) {
+            log.debug("H2 store unavailable", e);
+            return null;
+        }
+    }
+
+    private boolean inWindow(LocalTime time) {
+        if (windowStart == null) {
+            return true;
+        }
+        if (windowStart.isBefore(windowEnd)) {
+            return !time.isBefore(windowStart) && time.isBefore(windowEnd);
+        }
+        return !time.isBefore(windowStart) || time.isBefore(windowEnd);
+    }
+
+    private long writeBytes() {
+        MVStore mvStore = store();
+        FileStore<?> fileStore = mvStore == null ? null : mvStore.getFileStore();
+        return fileStore == null ? 0 : writeBytes(fileStore);
+    }
+
+    /**
+     * Octets écrits dans le fichier depuis son ouverture, que {@link FileStore} ne
+     * publie que parmi ses informations.
+     */
+    private static long writeBytes(FileStore<?> fileStore) {
+        Map<String, String> info = new HashMap<>();
+        fileStore.populateInfo(info::put);
+        String value = info.get("info.FILE_WRITE_BYTES");
+        return value == null ? 0 : Long.parseLong(value);
+    }
+
+    private double writeAmplification() {
+        long written = writeBytes();
+        long ordinary = written - compactionBytes;
+        return ordinary <= 0 ? Double.NaN : (double) written / ordinary;
+    }
+
+    private void fileGauge(MeterRegistry meterRegistry, String name, String description, String unit,
+                           ToDoubleFunction<FileStore<?>> value) {
+        Gauge.builder(name, this, maintenance -> {
+                    MVStore mvStore = maintenance.store();
+                    FileStore<?> fileStore = mvStore == null ? null : mvStore.getFileStore();
+                    return fileStore == null ? Double.NaN : value.applyAsDouble(fileStore);
+                })
+                .description(description)
+                .baseUnit(unit)
+                .register(meterRegistry);
+    }
+
+    private static Counter runs(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("urlshortener.h2.compaction.runs")
+                .description("Passages de maintenance du stockage H2")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Issue d'un passage de maintenance.
+     */
+    public enum Outcome {
+        /** Compaction exécutée. */
+        COMPACTED,
+        /** Reportée : hors de la fenêtre de maintenance. */
+        OUTSIDE_WINDOW,
+        /** Reportée : la base écrit trop depuis le passage précédent. */
+        BUSY,
+        /** Pas de fichier H2 local à compacter. */
+        UNAVAILABLE
+    }
+
+    /**
+     * Bilan d'un passage de maintenance.
+     *
+     * @param outcome l'issue du passage
+     * @param sizeBefore la taille du fichier avant le passage
+     * @param sizeAfter la taille du fichier après le passage
+     * @param rewrittenBytes les octets écrits pendant la compaction
+     * @param elapsedMillis la durée de la compaction
+     */
+    public record MaintenanceResult(Outcome outcome, long sizeBefore, long sizeAfter, long rewrittenBytes,
+                                    long elapsedMillis) {}
+}
@@ -0,0 +1,43 @@
+package com.portagecybertech.urlshortener.url_shortener.web;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Support de l'encodage binaire CBOR pour l'API REST.
+ *
+ * <p>Les appels service à service sur {@code /api/shorten} et {@code /api/expand}
+ * passent l'essentiel de leur temps CPU dans la sérialisation JSON. Ce convertisseur
+ * permet aux clients de choisir CBOR (RFC 8949) via les en-têtes standards :
+ * <ul>
+ *   <li>{@code Content-Type: application/cbor} pour le corps de la requête</li>
+ *   <li>{@code Accept: application/cbor} pour le corps de la réponse</li>
+ * </ul>
+ *
+ * <p>Les records de l'API sont inchangés : CBOR reprend le modèle de données de JSON
+ * (mêmes noms de champs), seul l'encodage diffère. JSON reste le format par défaut.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ */
+@Configuration
+public class CborConfiguration {
+
+    /**
+     * Convertisseur {@code application/cbor}, ajouté par Spring Boot aux convertisseurs MVC.
+     *
+     * <p>Le constructeur injecté est un prototype : le remplacement de la fabrique
+     * n'affecte pas le mapper JSON de l'application.
+     *
+     * @param builder le constructeur de mappers configuré par Spring Boot
+     * @return le convertisseur CBOR
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+}
@@ -0,0 +1,61 @@
+package com.portagecybertech.urlshortener.url_shortener.web;
+
+import org.apache.coyote.UpgradeProtocol;
+import org.apache.coyote.http2.Http2Protocol;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Réglage du protocole HTTP/2 du serveur Tomcat embarqué.
+ *
+ * <p>Spring Boot active HTTP/2 via {@code server.http2.enabled} :
+ * <ul>
+ *   <li><strong>h2</strong> (TLS, négocié par ALPN) lorsque {@code server.ssl.*} est configuré</li>
+ *   <li><strong>h2c</strong> (en clair) sinon, par {@code Upgrade: h2c} ou en connaissance
+ *       préalable ({@code prior knowledge}), pour le trafic interne</li>
+ * </ul>
+ *
+ * <p>Les valeurs par défaut de Tomcat (100 flux par connexion, dont 20 exécutés
+ * simultanément, fenêtre initiale de 64 Kio) limitent le multiplexage des clients
+ * qui regroupent leurs appels sur quelques connexions. Ce composant les expose dans
+ * les propriétés {@code app.http2.*}.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ */
+@Configuration
+public class Http2Configuration {
+
+    /**
+     * Applique les réglages {@code app.http2.*} au protocole HTTP/2 du connecteur.
+     *
+     * <p>Sans effet si HTTP/2 n'est pas activé ({@code server.http2.enabled=false}).
+     *
+     * @param maxConcurrentStreams nombre maximal de flux ouverts par connexion
+     * @param maxConcurrentStreamExecution nombre maximal de flux exécutés simultanément par connexion
+     * @param initialWindowSize fenêtre de contrôle de flux initiale de chaque flux, en octets
+     * @param keepAliveTimeoutMillis délai d'inactivité avant fermeture d'une connexion
+     * @return le personnalisateur de la fabrique Tomcat
+     */
+    @Bean
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> http2Customizer(
+            @Value("${app.http2.max-concurrent-streams:200}") long maxConcurrentStreams,
+            @Value("${app.http2.max-concurrent-stream-execution:200}") int maxConcurrentStreamExecution,
+            @Value("${app.http2.initial-window-size:1048576}") int initialWindowSize,
+            @Value("${app.http2.keep-alive-timeout-ms:60000}") long keepAliveTimeoutMillis) {
+        return factory -> factory.addConnectorCustomizers(connector -> {
+            for (UpgradeProtocol protocol : connector.findUpgradeProtocols()) {
+                if (protocol instanceof Http2Protocol http2) {
+                    http2.setMaxConcurrentStreams(maxConcurrentStreams);
+                    http2.setMaxConcurrentStreamExecution(maxConcurrentStreamExecution);
+                    http2.setInitialWindowSize(initialWindowSize);
+                    http2.setKeepAliveTimeout(keepAliveTimeoutMillis);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,101 @@
+package com.portagecybertech.urlshortener.url_shortener.web;
+
+import com.portagecybertech.urlshortener.url_shortener.limit.RateLimits;
+import com.portagecybertech.urlshortener.url_shortener.limit.TokenBucketLimiter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Filtre servlet appliquant les limites de débit par client ({@link RateLimits}).
+ *
+ * <p>Placé avant {@link RedirectFastPathFilter}, il refuse une requête excédentaire
+ * avant toute résolution de code ou tout accès à la base. Les requêtes qui ne relèvent
+ * d'aucune limite (pages, ressources statiques, autres routes de l'API) le traversent
+ * sans autre coût que la reconnaissance du chemin. {@code POST /api/shorten/bulk} et
+ * {@code POST /api/expand/bulk} sont laissés au contrôleur, qui seul connaît la taille
+ * du lot et prélève un jeton par élément.
+ *
+ * <p><strong>En-têtes :</strong> chaque réponse limitée porte les en-têtes
+ * {@code RateLimit-*} ({@link RateLimits#headers}). Une requête refusée reçoit
+ * 429 Too Many Requests avec {@code Retry-After}.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ * @see TokenBucketLimiter
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 50)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    /**
+     * Limites de débit par client.
+     */
+    private final RateLimits rateLimits;
+
+    /**
+     * Constructeur principal du filtre.
+     *
+     * @param rateLimits les limites de débit par client
+     */
+    public RateLimitFilter(RateLimits rateLimits) {
+        this.rateLimits = rateLimits;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !rateLimits.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        TokenBucketLimiter limiter = limiterFor(request);
+        if (limiter == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        TokenBucketLimiter.Decision decision = limiter.tryAcquire(rateLimits.clientKey(request));
+        RateLimits.headers(limiter, decision).forEach((name, values) -> response.setHeader(name, values.get(0)));
+        if (decision.allowed()) {
+            chain.doFilter(request, response);
+            return;
+        }
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setContentType(MediaType.TEXT_PLAIN_VALUE);
+        response.getWriter().write("Too many requests");
+    }
+
+    /**
+     * Retourne la limite dont relève une requête.
+     *
+     * @param request la requête
+     * @return le limiteur, ou null si la requête n'est pas limitée
+     */
+    TokenBucketLimiter limiterFor(HttpServletRequest request) {
+        String path = request.getRequestURI();
+        int start = request.getContextPath().length();
+        String method = request.getMethod();
+        if ("POST".equals(method)) {
+            return path.length() - start == 12 && path.startsWith("/api/shorten", start)
+                    ? rateLimits.getShortenLimiter() : null;
+        }
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            return null;
+        }
+        if (path.startsWith("/api/expand/", start)) {
+            return rateLimits.getExpandLimiter();
+        }
+        return RedirectFastPathFilter.isShortCodePath(path, start + 1) ? rateLimits.getRedirectLimiter() : null;
+    }
+}
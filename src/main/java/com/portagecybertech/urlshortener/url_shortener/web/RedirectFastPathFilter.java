@@ -0,0 +1,216 @@
+package com.portagecybertech.urlshortener.url_shortener.web;
+
+import com.portagecybertech.urlshortener.url_shortener.accesslog.AccessLog;
+import com.portagecybertech.urlshortener.url_shortener.limit.ServiceOverloadedException;
+import com.portagecybertech.urlshortener.url_shortener.metrics.LiveMetrics;
+import com.portagecybertech.urlshortener.url_shortener.metrics.LiveMetrics.Operation;
+import com.portagecybertech.urlshortener.url_shortener.profiling.RedirectEvent;
+import com.portagecybertech.urlshortener.url_shortener.service.DomainRegistry;
+import com.portagecybertech.urlshortener.url_shortener.service.UrlService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Filtre servlet servant les redirections sans passer par Spring MVC.
+ *
+ * <p>Pour {@code GET /{shortCode}}, le pipeline complet du {@code DispatcherServlet}
+ * (résolution du handler, des arguments, conversion de la {@code ResponseEntity})
+ * coûte plus cher que la résolution elle-même lorsqu'elle est servie par le cache.
+ * Ce filtre reconnaît directement les chemins de la forme {@code /[0-9A-Za-z]{1,10}}
+ * et écrit la réponse 302.
+ *
+ * <p>L'hôte de la requête désigne le domaine court du code ; sa résolution
+ * ({@link DomainRegistry#resolve(String)}) est une simple recherche en mémoire.
+ *
+ * <p>Chaque redirection servie est publiée dans le journal d'accès ({@link AccessLog})
+ * et comptée, avec sa latence, par le tableau de bord temps réel ({@link LiveMetrics}),
+ * et émet un événement Java Flight Recorder ({@link RedirectEvent}).
+ *
+ * <p><strong>Repli sur Spring MVC :</strong>
+ * <ul>
+ *   <li>Chemins hors de l'alphabet Base62 ou trop longs ({@code /}, {@code /api/**},
+ *       ressources statiques...) : filtre ignoré</li>
+ *   <li>Code inconnu désignant une autre route à un segment ({@link #RESERVED_PATHS},
+ *       ex: {@code /actuator}) : la requête poursuit son chemin</li>
+ * </ul>
+ *
+ * <p>Tout autre code inconnu reçoit directement une réponse 404 sans corps, comme celle
+ * de {@code RedirectController} : la renvoyer au contrôleur coûterait une seconde
+ * résolution, donc une seconde lecture en base et un second jeton de lecture.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ * @see UrlService#findOriginalUrl(int, String)
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 100)
+public class RedirectFastPathFilter extends OncePerRequestFilter {
+
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    /**
+     * Routes à un segment servies par d'autres handlers que les redirections.
+     */
+    static final Set<String> RESERVED_PATHS = Set.of("actuator", "error");
+
+    /**
+     * Service de résolution des codes courts.
+     */
+    private final UrlService urlService;
+
+    /**
+     * Domaines courts, pour résoudre l'hôte de la requête.
+     */
+    private final DomainRegistry domainRegistry;
+
+    /**
+     * Journal d'audit des redirections.
+     */
+    private final AccessLog accessLog;
+
+    /**
+     * Agrégateurs du tableau de bord temps réel.
+     */
+    private final LiveMetrics liveMetrics;
+
+    /**
+     * Constructeur principal du filtre.
+     *
+     * @param urlService le service de résolution des codes courts
+     * @param domainRegistry les domaines courts
+     * @param accessLog le journal d'audit des redirections
+     * @param liveMetrics les agrégateurs du tableau de bord temps réel
+     */
+    public RedirectFastPathFilter(UrlService urlService, DomainRegistry domainRegistry, AccessLog accessLog,
+                                  LiveMetrics liveMetrics) {
+        this.urlService = urlService;
+        this.domainRegistry = domainRegistry;
+        this.accessLog = accessLog;
+        this.liveMetrics = liveMetrics;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String method = request.getMethod();
+        return !"GET".equals(method) && !"HEAD".equals(method);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String path = request.getRequestURI();
+        int start = request.getContextPath().length() + 1;
+        if (!isShortCodePath(path, start)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        long startNanos = System.nanoTime();
+        RedirectEvent event = new RedirectEvent();
+        event.begin();
+        String shortCode = path.substring(start);
+        int domainId = domainRegistry.resolve(request.getServerName());
+        Optional<String> originalUrl;
+        try {
+            originalUrl = urlService.findOriginalUrl(domainId, shortCode);
+        } catch (ServiceOverloadedException e) {
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()));
+            commit(event, domainId, shortCode, false, true);
+            return;
+        }
+        if (originalUrl.isEmpty()) {
+            commit(event, domainId, shortCode, false, false);
+            if (RESERVED_PATHS.contains(shortCode)) {
+                chain.doFilter(request, response);
+            } else {
+                response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            }
+            return;
+        }
+        response.setStatus(HttpServletResponse.SC_FOUND);
+        response.setHeader(HttpHeaders.LOCATION, toLocationHeader(originalUrl.get()));
+        accessLog.record(shortCode, request);
+        liveMetrics.recordHit(shortCode);
+        liveMetrics.record(Operation.REDIRECT, System.nanoTime() - startNanos);
+        commit(event, domainId, shortCode, true, false);
+    }
+
+    private static void commit(RedirectEvent event, int domainId, String shortCode, boolean found, boolean overloaded) {
+        if (event.shouldCommit()) {
+            event.domainId = domainId;
+            event.shortCode = shortCode;
+            event.found = found;
+            event.overloaded = overloaded;
+            event.commit();
+        }
+    }
+
+    /**
+     * Indique si un chemin désigne potentiellement un code court.
+     *
+     * @param path le chemin de la requête
+     * @param start l'index du premier caractère après le {@code /} initial
+     * @return true si le chemin est {@code /} suivi de 1 à 10 caractères Base62
+     */
+    static boolean isShortCodePath(String path, int start) {
+        int length = path.length() - start;
+        if (length < 1 || length > UrlService.MAX_SHORT_CODE_LENGTH || path.charAt(start - 1) != '/') {
+            return false;
+        }
+        for (int i = start; i < path.length(); i++) {
+            char c = path.charAt(i);
+            if (!((c >= '0' && c <= '9') || (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Encode une URL pour l'en-tête {@code Location}.
+     *
+     * <p>Les en-têtes HTTP n'acceptent que l'ASCII : les caractères non ASCII, les espaces
+     * et les caractères de contrôle sont encodés en UTF-8 ({@code %XX}). Une URL déjà ASCII,
+     * cas de loin le plus fréquent, est renvoyée telle quelle sans allocation.
+     *
+     * @param url l'URL originale
+     * @return la valeur de l'en-tête {@code Location}
+     */
+    static String toLocationHeader(String url) {
+        int i = 0;
+        while (i < url.length() && isHeaderSafe(url.charAt(i))) {
+            i++;
+        }
+        if (i == url.length()) {
+            return url;
+        }
+        StringBuilder sb = new StringBuilder(url.length() + 16).append(url, 0, i);
+        for (byte b : url.substring(i).getBytes(StandardCharsets.UTF_8)) {
+            int c = b & 0xFF;
+            if (isHeaderSafe((char) c)) {
+                sb.append((char) c);
+            } else {
+                sb.append('%').append(HEX[c >> 4]).append(HEX[c & 0xF]);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static boolean isHeaderSafe(char c) {
+        return c > 0x20 && c < 0x7F;
+    }
+}
@@ -0,0 +1,56 @@
+package com.portagecybertech.urlshortener.url_shortener.web;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.VersionResourceResolver;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration du service des ressources statiques de l'interface web.
+ *
+ * <p>Les fichiers {@code /css/**} et {@code /js/**} sont servis avec :
+ * <ul>
+ *   <li><strong>Empreinte de contenu</strong> : les URLs générées par Thymeleaf
+ *       ({@code @{/css/style.css}}) sont réécrites en {@code /css/style-<md5>.css}</li>
+ *   <li><strong>Variantes précompressées</strong> : {@code .br} ou {@code .gz} produites
+ *       au build, choisies selon l'en-tête {@code Accept-Encoding}</li>
+ *   <li><strong>Cache longue durée</strong> : {@code Cache-Control: max-age=31536000, public, immutable},
+ *       sans risque puisque toute modification du contenu change l'URL</li>
+ * </ul>
+ *
+ * <p>La réécriture des liens est assurée par le {@code ResourceUrlEncodingFilter}
+ * enregistré par Spring Boot lorsque {@code spring.web.resources.chain.enabled=true}.
+ *
+ * @author Aziz Rayene Delaa
+ * @version 1.0
+ * @since 1.0
+ */
+@Configuration
+public class StaticResourceConfiguration implements WebMvcConfigurer {
+
+    /**
+     * Durée de mise en cache des ressources versionnées.
+     */
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS)
+            .cachePublic()
+            .immutable();
+
+    @Override
+    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+        register(registry, "css");
+        register(registry, "js");
+    }
+
+    private static void register(ResourceHandlerRegistry registry, String directory) {
+        registry.addResourceHandler("/" + directory + "/**")
+                .addResourceLocations("classpath:/static/" + directory + "/")
+                .setCacheControl(IMMUTABLE)
+                .resourceChain(true)
+                .addResolver(new EncodedResourceResolver())
+                .addResolver(new VersionResourceResolver().addContentVersionStrategy("/**"));
+    }
+}
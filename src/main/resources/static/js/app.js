@@ -280,9 +280,107 @@ class UrlShortener {
     }
 }
 
+/**
+ * Tableau de bord temps réel
+ * Le flux SSE n'est ouvert que lorsque le panneau est déplié
+ */
+class LiveDashboard {
+    constructor(panel) {
+        this.panel = panel;
+        this.source = null;
+        this.rates = [];
+        this.maxPoints = 60;
+        panel.addEventListener('toggle', () => panel.open ? this.connect() : this.disconnect());
+    }
+
+    connect() {
+        if (this.source) return;
+        this.source = new EventSource('/api/metrics/stream');
+        this.source.addEventListener('metrics', (e) => this.render(JSON.parse(e.data)));
+        this.source.onopen = () => this.setStatus(true);
+        // EventSource se reconnecte seul ; on signale simplement la coupure
+        this.source.onerror = () => this.setStatus(false);
+    }
+
+    disconnect() {
+        if (this.source) {
+            this.source.close();
+            this.source = null;
+        }
+        this.setStatus(false);
+    }
+
+    setStatus(online) {
+        const status = document.getElementById('liveStatus');
+        status.textContent = online ? 'en direct' : 'hors ligne';
+        status.classList.toggle('online', online);
+    }
+
+    render(snapshot) {
+        const ops = {};
+        snapshot.operations.forEach(op => { ops[op.name] = op; });
+        const redirect = ops.redirect || { ratePerSecond: 0, count: 0 };
+        const shorten = ops.shorten || { ratePerSecond: 0 };
+
+        document.getElementById('statRedirectRate').textContent = this.formatRate(redirect.ratePerSecond);
+        document.getElementById('statShortenRate').textContent = this.formatRate(shorten.ratePerSecond);
+        document.getElementById('statLatency').textContent = redirect.count > 0
+            ? `${this.formatMicros(redirect.p50Micros)} / ${this.formatMicros(redirect.p99Micros)}`
+            : '–';
+        document.getElementById('statCacheHitRate').textContent = snapshot.cacheHitRate == null
+            ? '–'
+            : `${(snapshot.cacheHitRate * 100).toFixed(1)} %`;
+
+        const list = document.getElementById('hotCodes');
+        list.replaceChildren(...snapshot.hotCodes.map(hot => {
+            const item = document.createElement('li');
+            item.textContent = hot.code;
+            const hits = document.createElement('span');
+            hits.textContent = `${hot.hits} hits`;
+            item.appendChild(hits);
+            return item;
+        }));
+
+        this.rates.push(redirect.ratePerSecond);
+        if (this.rates.length > this.maxPoints) this.rates.shift();
+        this.drawChart();
+    }
+
+    drawChart() {
+        const canvas = document.getElementById('rateChart');
+        const ctx = canvas.getContext('2d');
+        const { width, height } = canvas;
+        ctx.clearRect(0, 0, width, height);
+        const max = Math.max(1, ...this.rates);
+        const step = width / (this.maxPoints - 1);
+        ctx.beginPath();
+        this.rates.forEach((rate, i) => {
+            const x = (this.maxPoints - this.rates.length + i) * step;
+            const y = height - 4 - (rate / max) * (height - 8);
+            i === 0 ? ctx.moveTo(x, y) : ctx.lineTo(x, y);
+        });
+        ctx.strokeStyle = getComputedStyle(document.documentElement).getPropertyValue('--primary-color');
+        ctx.lineWidth = 2;
+        ctx.stroke();
+    }
+
+    formatRate(rate) {
+        return rate >= 1000 ? `${(rate / 1000).toFixed(1)} k` : rate.toFixed(rate < 10 ? 1 : 0);
+    }
+
+    formatMicros(micros) {
+        return micros >= 1000 ? `${(micros / 1000).toFixed(1)} ms` : `${Math.round(micros)} µs`;
+    }
+}
+
 // Initialisation de l'application
 document.addEventListener('DOMContentLoaded', () => {
     new UrlShortener();
+
+    const dashboard = document.getElementById('liveDashboard');
+    if (dashboard) {
+        new LiveDashboard(dashboard);
+    }
     
     // Stocker le texte original des boutons
     const buttons = document.querySelectorAll('.btn');
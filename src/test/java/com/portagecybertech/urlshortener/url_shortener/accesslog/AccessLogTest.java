@@ -0,0 +1,128 @@
+package com.portagecybertech.urlshortener.url_shortener.accesslog;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AccessLogTest {
+
+    @Test
+    void ring_dropsWhenFull_andDeliversInOrderAfterDrain() {
+        AccessLogRing ring = new AccessLogRing(4, AccessLogRing.WhenFull.DROP);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ring.publish(i, "c" + i, null, null));
+        }
+        assertFalse(ring.publish(4, "c4", null, null));
+
+        List<String> codes = new ArrayList<>();
+        assertEquals(4, ring.drain(record -> codes.add(record.shortCode), 100));
+        assertEquals(List.of("c0", "c1", "c2", "c3"), codes);
+        assertTrue(ring.publish(5, "c5", null, null));
+        assertEquals(1, ring.backlog());
+    }
+
+    @Test
+    void ring_blockingPolicy_loosesNothingUnderConcurrentProducers() throws Exception {
+        AccessLogRing ring = new AccessLogRing(64, AccessLogRing.WhenFull.BLOCK);
+        int producers = 4;
+        int perProducer = 20_000;
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            String prefix = "p" + p + "-";
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < perProducer; i++) {
+                    ring.publish(i, prefix + i, null, null);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        Set<String> seen = new HashSet<>();
+        while (seen.size() < producers * perProducer) {
+            ring.drain(record -> seen.add(record.shortCode), 256);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(producers * perProducer, seen.size());
+        assertEquals(0, ring.backlog());
+    }
+
+    @Test
+    void accessLog_writesRollingSegments_readableAsCsv(@TempDir Path dir) throws Exception {
+        AccessLog accessLog = new AccessLog(true, dir.toString(), 1024, 4096, "block", 10, new SimpleMeterRegistry());
+        int records = 200;
+        for (int i = 0; i < records; i++) {
+            accessLog.record("code" + i, "https://ref.example.org/?a=1,b=\"2\"", "Agent/1.0 é");
+        }
+        accessLog.shutdown();
+
+        List<Path> segments;
+        try (Stream<Path> files = Files.list(dir)) {
+            segments = files.sorted().toList();
+        }
+        assertTrue(segments.size() > 1, "small segments should roll over");
+
+        StringWriter csv = new StringWriter();
+        int total = 0;
+        for (Path segment : segments) {
+            total += AccessLogReader.toCsv(segment, csv);
+        }
+        assertEquals(records, total);
+        String[] lines = csv.toString().split("\n");
+        assertTrue(lines[0].endsWith(",code0,\"https://ref.example.org/?a=1,b=\"\"2\"\"\",Agent/1.0 é"), lines[0]);
+        assertTrue(lines[records - 1].contains(",code" + (records - 1) + ","));
+    }
+
+    @Test
+    void accessLog_keepsConsuming_afterUnexpectedWriteError(@TempDir Path dir) throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        AccessLog accessLog = new AccessLog(true, dir.toString(), 16, 4096, "block", 10, registry);
+        // Un code null fait échouer l'encodage par une NullPointerException
+        accessLog.record(null, null, null);
+        int records = 100;
+        for (int i = 0; i < records; i++) {
+            accessLog.record("code" + i, null, null);
+        }
+        accessLog.shutdown();
+
+        int total = 0;
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path segment : files.sorted().toList()) {
+                total += AccessLogReader.toCsv(segment, new StringWriter());
+            }
+        }
+        assertEquals(records, total);
+        assertEquals(1, registry.get("urlshortener.accesslog.errors").counter().count());
+        assertEquals(1, registry.get("urlshortener.accesslog.dropped").counter().count());
+    }
+
+    @Test
+    void segmentWriter_truncatesLongHeadersOnCharacterBoundary(@TempDir Path dir) throws Exception {
+        AccessRecord record = new AccessRecord();
+        record.set(0, "abc", "é".repeat(600), null);
+        try (AccessLogSegmentWriter writer = new AccessLogSegmentWriter(dir, 8192)) {
+            writer.write(record);
+        }
+        Path segment;
+        try (Stream<Path> files = Files.list(dir)) {
+            segment = files.findFirst().orElseThrow();
+        }
+        StringWriter csv = new StringWriter();
+        assertEquals(1, AccessLogReader.toCsv(segment, csv));
+        assertTrue(csv.toString().contains(",abc," + "é".repeat(AccessLogSegmentWriter.MAX_REFERRER_BYTES / 2) + ","));
+    }
+}
@@ -0,0 +1,108 @@
+package com.portagecybertech.urlshortener.url_shortener.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CborNegotiationTest {
+
+    private static final CBORMapper CBOR = new CBORMapper();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void shortenAndExpand_roundTripInCbor() throws Exception {
+        byte[] response = mockMvc.perform(post("/api/shorten")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(CBOR.writeValueAsBytes(Map.of("originalUrl", "https://cbor.example.org/a"))))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        String shortUrl = CBOR.readTree(response).get("shortUrl").asText();
+        String shortCode = shortUrl.substring(shortUrl.lastIndexOf('/') + 1);
+
+        byte[] expanded = mockMvc.perform(get("/api/expand/" + shortCode).accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertEquals("https://cbor.example.org/a", CBOR.readTree(expanded).get("originalUrl").asText());
+    }
+
+    @Test
+    void json_remainsTheDefault() throws Exception {
+        mockMvc.perform(post("/api/shorten")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("originalUrl", "https://cbor.example.org/json"))))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.shortUrl").exists());
+    }
+
+    @Test
+    void bulk_shortenThenExpand_inCbor() throws Exception {
+        List<String> urls = List.of("https://bulk.example.org/1", "not a url", "https://bulk.example.org/2");
+        byte[] shortened = mockMvc.perform(post("/api/shorten/bulk")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(CBOR.writeValueAsBytes(Map.of("originalUrls", urls))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        JsonNode results = CBOR.readTree(shortened).get("results");
+        assertEquals(3, results.size());
+        assertEquals("Invalid URL", results.get(1).get("error").asText());
+        assertTrue(results.get(1).get("shortUrl").isNull());
+
+        List<String> codes = new ArrayList<>();
+        codes.add(code(results.get(0).get("shortUrl").asText()));
+        codes.add("unknown0");
+        codes.add(code(results.get(2).get("shortUrl").asText()));
+        byte[] expanded = mockMvc.perform(post("/api/expand/bulk")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(CBOR.writeValueAsBytes(Map.of("shortCodes", codes))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        JsonNode expandResults = CBOR.readTree(expanded).get("results");
+        assertEquals("https://bulk.example.org/1", expandResults.get(0).get("originalUrl").asText());
+        assertTrue(expandResults.get(1).get("originalUrl").isNull());
+        assertEquals("https://bulk.example.org/2", expandResults.get(2).get("originalUrl").asText());
+    }
+
+    @Test
+    void bulk_rejectsOversizedBatch() throws Exception {
+        List<String> codes = Collections.nCopies(UrlController.MAX_BULK_SIZE + 1, "abc");
+        mockMvc.perform(post("/api/expand/bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("shortCodes", codes))))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static String code(String shortUrl) {
+        return shortUrl.substring(shortUrl.lastIndexOf('/') + 1);
+    }
+}
@@ -0,0 +1,126 @@
+package com.portagecybertech.urlshortener.url_shortener.api;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class MappingControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void list_pagesThroughHostWithKeysetCursor() throws Exception {
+        List<String> urls = List.of(
+                "https://paging.example.org/1",
+                "https://paging.example.org/2",
+                "https://paging.example.org/3");
+        for (String url : urls) {
+            shorten(url);
+        }
+        shorten("https://other.example.org/1");
+
+        List<String> seen = new ArrayList<>();
+        long after = 0;
+        long previousId = 0;
+        do {
+            String body = mockMvc.perform(get("/api/mappings")
+                            .param("host", "PAGING.example.org")
+                            .param("limit", "2")
+                            .param("after", String.valueOf(after)))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode page = objectMapper.readTree(body);
+            for (JsonNode item : page.get("items")) {
+                assertTrue(item.get("id").asLong() > previousId, "ids must be strictly increasing");
+                previousId = item.get("id").asLong();
+                seen.add(item.get("originalUrl").asText());
+            }
+            after = page.get("nextCursor").isNull() ? -1 : page.get("nextCursor").asLong();
+        } while (after >= 0);
+
+        assertEquals(urls, seen);
+    }
+
+    @Test
+    void list_unknownHost_returnsEmptyPage() throws Exception {
+        mockMvc.perform(get("/api/mappings").param("host", "nowhere.invalid"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items").isEmpty())
+                .andExpect(jsonPath("$.nextCursor").isEmpty());
+    }
+
+    @Test
+    void list_negativeCursor_returns400() throws Exception {
+        mockMvc.perform(get("/api/mappings").param("after", "-1"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void list_streamMode_writesNdjsonAcrossPages() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            shorten("https://stream.example.org/" + i);
+        }
+
+        MvcResult result = mockMvc.perform(get("/api/mappings")
+                        .param("host", "stream.example.org")
+                        .param("limit", "2")
+                        .param("stream", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MappingController.NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.trim().split("\n");
+        assertEquals(5, lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            assertEquals("https://stream.example.org/" + i,
+                    objectMapper.readTree(lines[i]).get("originalUrl").asText());
+        }
+    }
+
+    @Test
+    void delete_removesMapping_thenReturns404() throws Exception {
+        String shortUrl = shorten("https://delete.example.org/x");
+        String shortCode = shortUrl.substring(shortUrl.lastIndexOf('/') + 1);
+        mockMvc.perform(get("/api/expand/" + shortCode)).andExpect(status().isOk());
+
+        mockMvc.perform(delete("/api/mappings/" + shortCode)).andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/expand/" + shortCode)).andExpect(status().isNotFound());
+        mockMvc.perform(delete("/api/mappings/" + shortCode)).andExpect(status().isNotFound());
+    }
+
+    private String shorten(String url) throws Exception {
+        String body = mockMvc.perform(post("/api/shorten")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("originalUrl", url))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("shortUrl").asText();
+    }
+}
@@ -0,0 +1,62 @@
+package com.portagecybertech.urlshortener.url_shortener.api;
+
+import com.portagecybertech.urlshortener.url_shortener.metrics.MetricsStreamPublisher;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "app.metrics.stream.interval-ms=3600000")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class MetricsStreamControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MetricsStreamPublisher publisher;
+
+    @Test
+    void stream_pushesAggregatedMetricsAsServerSentEvents() throws Exception {
+        String shortUrl = mockMvc.perform(post("/api/shorten")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"originalUrl\":\"https://metrics.example.org/live\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String code = shortUrl.substring(shortUrl.lastIndexOf('/') + 1, shortUrl.lastIndexOf('"'));
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/" + code)).andExpect(status().isFound());
+        }
+
+        MvcResult result = mockMvc.perform(get("/api/metrics/stream").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        publisher.publish();
+
+        String body = result.getResponse().getContentAsString();
+        assertTrue(body.contains("event:metrics"), body);
+        assertTrue(body.contains("\"name\":\"redirect\""), body);
+        assertTrue(body.contains("{\"code\":\"" + code + "\",\"hits\":3}"), body);
+        assertTrue(body.contains("\"name\":\"shorten\",\"count\":1"), body);
+    }
+
+    @Test
+    void homePage_containsLiveDashboardPanel() throws Exception {
+        mockMvc.perform(get("/"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("id=\"liveDashboard\"")));
+    }
+}
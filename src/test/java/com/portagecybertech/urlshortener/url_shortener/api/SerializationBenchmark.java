@@ -0,0 +1,75 @@
+package com.portagecybertech.urlshortener.url_shortener.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.portagecybertech.urlshortener.url_shortener.service.UrlService;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Banc de mesure : coût de sérialisation et taille des messages de l'API, JSON contre CBOR.
+ *
+ * <p>Ce n'est pas un test (aucune assertion, durée de plusieurs secondes) ; il se lance
+ * à la main après {@code ./mvnw test-compile} :
+ * <pre>{@code
+ * ./mvnw -q dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *      com.portagecybertech.urlshortener.url_shortener.api.SerializationBenchmark
+ * }</pre>
+ *
+ * <p>Pour chaque message et chaque format : taille en octets, puis temps moyen
+ * d'un aller-retour (écriture puis lecture) après une phase de chauffe.
+ */
+public class SerializationBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 200_000;
+
+    private static final int MEASURED_ITERATIONS = 500_000;
+
+    public static void main(String[] args) throws Exception {
+        ObjectMapper json = new ObjectMapper();
+        ObjectMapper cbor = new CBORMapper();
+
+        List<String> urls = new ArrayList<>();
+        List<UrlController.BulkExpandResult> expanded = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            urls.add("https://www.example.com/articles/2024/" + i + "/a-fairly-long-slug?utm_source=newsletter");
+            expanded.add(new UrlController.BulkExpandResult("aB3xY" + i, urls.get(i)));
+        }
+
+        Object[][] messages = {
+                {"ShortenRequest", new UrlController.ShortenRequest(urls.get(0))},
+                {"ShortenResponse", new UrlService.ShortenResponse("http://localhost:8080/aB3xY9kQ")},
+                {"ExpandResponse", new UrlController.ExpandResponse(urls.get(0))},
+                {"BulkShortenRequest(100)", new UrlController.BulkShortenRequest(urls)},
+                {"BulkExpandResponse(100)", new UrlController.BulkExpandResponse(expanded)},
+        };
+
+        System.out.printf("%-26s %-6s %10s %14s%n", "message", "format", "bytes", "ns/round-trip");
+        for (Object[] message : messages) {
+            String name = (String) message[0];
+            Object value = message[1];
+            int iterations = name.contains("(100)") ? MEASURED_ITERATIONS / 100 : MEASURED_ITERATIONS;
+            report(name, "json", json, value, iterations);
+            report(name, "cbor", cbor, value, iterations);
+        }
+    }
+
+    private static void report(String name, String format, ObjectMapper mapper, Object value, int iterations)
+            throws Exception {
+        Class<?> type = value.getClass();
+        byte[] encoded = mapper.writeValueAsBytes(value);
+        long sink = 0;
+        for (int i = 0; i < Math.min(WARMUP_ITERATIONS, iterations); i++) {
+            sink += mapper.readValue(mapper.writeValueAsBytes(value), type).hashCode();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += mapper.readValue(mapper.writeValueAsBytes(value), type).hashCode();
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("%-26s %-6s %10d %14.1f%s%n", name, format, encoded.length,
+                (double) elapsed / iterations, sink == 42 ? " " : "");
+    }
+}
@@ -0,0 +1,54 @@
+package com.portagecybertech.urlshortener.url_shortener.api;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class StaticResourcesTest {
+
+    private static final Pattern VERSIONED_CSS = Pattern.compile("/css/style-[0-9a-f]{32}\\.css");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void index_referencesFingerprintedAssets() throws Exception {
+        String html = mockMvc.perform(get("/"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(VERSIONED_CSS.matcher(html).find(), "style.css should be fingerprinted");
+        assertTrue(Pattern.compile("/js/app-[0-9a-f]{32}\\.js").matcher(html).find(), "app.js should be fingerprinted");
+    }
+
+    @Test
+    void fingerprintedAsset_isServedPrecompressed_withImmutableCaching() throws Exception {
+        String html = mockMvc.perform(get("/")).andReturn().getResponse().getContentAsString();
+        Matcher css = VERSIONED_CSS.matcher(html);
+        assertTrue(css.find());
+
+        mockMvc.perform(get(css.group()).header("Accept-Encoding", "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("Vary", org.hamcrest.Matchers.containsString("Accept-Encoding")))
+                .andExpect(header().string("Cache-Control", "max-age=31536000, public, immutable"));
+
+        mockMvc.perform(get(css.group()))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(content().string(org.hamcrest.Matchers.containsString(":root")));
+    }
+}
@@ -0,0 +1,172 @@
+package com.portagecybertech.urlshortener.url_shortener.archive;
+
+import com.portagecybertech.urlshortener.url_shortener.model.UrlMapping;
+import com.portagecybertech.urlshortener.url_shortener.repository.UrlMappingRepository;
+import com.portagecybertech.urlshortener.url_shortener.service.DomainRegistry;
+import com.portagecybertech.urlshortener.url_shortener.service.UrlService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ArchiveTieringTest {
+
+    @Autowired
+    private UrlService urlService;
+
+    @Autowired
+    private ArchiveTiering archiveTiering;
+
+    @Autowired
+    private ArchiveStore archiveStore;
+
+    @Autowired
+    private UrlMappingRepository urlMappingRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void segment_roundTripsEveryEntryAcrossBlocks() throws Exception {
+        List<ArchiveEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            entries.add(new ArchiveEntry(String.format("c%06d", i * 2), "https://example.org/item/" + i));
+        }
+        Path path = tempDir.resolve("roundtrip.seg");
+        ArchiveSegmentWriter.write(path, entries, 512);
+
+        try (ArchiveSegment segment = ArchiveSegment.open(path)) {
+            assertEquals(5_000, segment.entryCount());
+            assertTrue(segment.blockCount() > 100);
+            for (ArchiveEntry entry : entries) {
+                int block = segment.blockFor(entry.shortCode());
+                assertEquals(entry.originalUrl(), ArchiveSegment.findInBlock(segment.readBlock(block), entry.shortCode()));
+            }
+            // Codes absents : entre deux entrées, avant la première, après la dernière
+            assertNull(ArchiveSegment.findInBlock(segment.readBlock(segment.blockFor("c000001")), "c000001"));
+            assertEquals(-1, segment.blockFor("a"));
+            assertEquals(-1, segment.blockFor("c999999"));
+        }
+        assertFalse(Files.exists(tempDir.resolve("roundtrip.seg.tmp")));
+    }
+
+    @Test
+    void segment_bloomFilterRulesOutAbsentCodes_inBothFormats() throws Exception {
+        List<ArchiveEntry> entries = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            entries.add(new ArchiveEntry(String.format("c%06d", i * 2), "https://example.org/item/" + i));
+        }
+        Path current = tempDir.resolve("current.seg");
+        Path legacy = tempDir.resolve("legacy.seg");
+        ArchiveSegmentWriter.write(current, entries, 512);
+        ArchiveSegmentWriter.write(legacy, entries, 512, ArchiveSegmentWriter.VERSION_WITHOUT_FILTER);
+
+        try (ArchiveSegment withFilter = ArchiveSegment.open(current);
+             ArchiveSegment rebuilt = ArchiveSegment.open(legacy)) {
+            for (ArchiveEntry entry : entries) {
+                assertTrue(withFilter.mightContain(entry.shortCode()));
+                assertTrue(rebuilt.mightContain(entry.shortCode()));
+            }
+            // Codes impairs : dans l'intervalle de clés, mais absents
+            int falsePositives = 0;
+            for (int i = 0; i < 5_000; i++) {
+                String absent = String.format("c%06d", i * 2 + 1);
+                assertEquals(withFilter.mightContain(absent), rebuilt.mightContain(absent));
+                if (withFilter.mightContain(absent)) {
+                    falsePositives++;
+                }
+            }
+            assertTrue(falsePositives < 150, "false positives: " + falsePositives);
+        }
+    }
+
+    @Test
+    void writer_rejectsUnsortedOrEmptyEntries() {
+        Path path = tempDir.resolve("invalid.seg");
+        assertThrows(IllegalArgumentException.class, () -> ArchiveSegmentWriter.write(path,
+                List.of(new ArchiveEntry("b", "https://b"), new ArchiveEntry("a", "https://a")), 512));
+        assertThrows(IllegalArgumentException.class, () -> ArchiveSegmentWriter.write(path, List.of(), 512));
+        assertFalse(Files.exists(path));
+        assertFalse(Files.exists(tempDir.resolve("invalid.seg.tmp")));
+    }
+
+    @Test
+    void runOnce_movesColdMappingsToTheArchiveAndKeepsThemResolvable() {
+        List<String> cold = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            cold.add(shortenAged("https://cold.example.org/page/" + i, Duration.ofDays(400)));
+        }
+        String warm = shortenAged("https://warm.example.org/", Duration.ofDays(1));
+
+        assertEquals(20, archiveTiering.runOnce(Instant.now().minus(Duration.ofDays(365))));
+        assertTrue(archiveStore.segmentCount() > 0);
+        for (int i = 0; i < cold.size(); i++) {
+            assertTrue(urlMappingRepository.findByDomainIdAndShortCode(DomainRegistry.DEFAULT_DOMAIN_ID, cold.get(i)).isEmpty());
+            assertEquals("https://cold.example.org/page/" + i, urlService.expand(cold.get(i)));
+        }
+        assertTrue(urlMappingRepository.findByDomainIdAndShortCode(DomainRegistry.DEFAULT_DOMAIN_ID, warm).isPresent());
+
+        // Raccourcir de nouveau une URL archivée redonne son code
+        assertEquals("http://localhost:8080/" + cold.get(3),
+                urlService.shorten("https://cold.example.org/page/3").shortUrl());
+
+        // Suppression d'un code archivé : masqué, puis plus rien à supprimer
+        assertTrue(urlService.delete(cold.get(0)));
+        assertTrue(urlService.findOriginalUrl(cold.get(0)).isEmpty());
+        assertFalse(urlService.delete(cold.get(0)));
+        assertEquals("https://cold.example.org/page/1", urlService.expand(cold.get(1)));
+    }
+
+    @Test
+    void accessTracker_stampsLastAccessInBatches() {
+        String code = shortenAged("https://tracked.example.org/", Duration.ofDays(400));
+        AccessTracker tracker = new AccessTracker(true, 3_600_000, 2, urlMappingRepository, transactionManager);
+        try {
+            tracker.record(code);
+            tracker.record(code);
+            tracker.record("unknown1");
+            tracker.record("unknown2");
+            assertEquals(2, tracker.pendingCount());
+            assertEquals(1, tracker.flush());
+            assertEquals(0, tracker.pendingCount());
+            UrlMapping mapping = urlMappingRepository.findByDomainIdAndShortCode(DomainRegistry.DEFAULT_DOMAIN_ID, code).orElseThrow();
+            assertNotNull(mapping.getLastAccessedAt());
+        } finally {
+            tracker.shutdown();
+        }
+        // Le mapping consulté n'est plus froid malgré sa date de création
+        archiveTiering.runOnce(Instant.now().minus(Duration.ofDays(365)));
+        assertTrue(urlMappingRepository.findByDomainIdAndShortCode(DomainRegistry.DEFAULT_DOMAIN_ID, code).isPresent());
+    }
+
+    private String shortenAged(String url, Duration age) {
+        String shortUrl = urlService.shorten(url).shortUrl();
+        String code = shortUrl.substring(shortUrl.lastIndexOf('/') + 1);
+        UrlMapping mapping = urlMappingRepository.findByDomainIdAndShortCode(DomainRegistry.DEFAULT_DOMAIN_ID, code).orElseThrow();
+        ReflectionTestUtils.setField(mapping, "createdAt", Instant.now().minus(age));
+        urlMappingRepository.save(mapping);
+        return code;
+    }
+}
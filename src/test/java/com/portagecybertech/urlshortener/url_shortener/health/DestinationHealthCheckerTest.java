@@ -0,0 +1,302 @@
+package com.portagecybertech.urlshortener.url_shortener.health;
+
+import com.portagecybertech.urlshortener.url_shortener.model.DestinationStatus;
+import com.portagecybertech.urlshortener.url_shortener.model.UrlMapping;
+import com.portagecybertech.urlshortener.url_shortener.repository.DestinationStatusRepository;
+import com.portagecybertech.urlshortener.url_shortener.repository.UrlMappingRepository;
+import com.portagecybertech.urlshortener.url_shortener.service.UrlPrefixDictionary;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class DestinationHealthCheckerTest {
+
+    private static final int PER_HOST = 2;
+
+    private static final AtomicInteger CODES = new AtomicInteger((int) (System.currentTimeMillis() % 1_000_000) * 1_000);
+
+    @Autowired
+    private UrlMappingRepository urlMappingRepository;
+
+    @Autowired
+    private DestinationStatusRepository destinationStatusRepository;
+
+    @Autowired
+    private UrlPrefixDictionary urlPrefixDictionary;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private HttpServer server;
+
+    private ExecutorService serverThreads;
+
+    private final AtomicInteger concurrent = new AtomicInteger();
+
+    private final AtomicInteger maxConcurrent = new AtomicInteger();
+
+    private final AtomicInteger headRequests = new AtomicInteger();
+
+    private final AtomicInteger getRequests = new AtomicInteger();
+
+    private String baseUrl;
+
+    @BeforeEach
+    void startStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        serverThreads = Executors.newFixedThreadPool(16);
+        server.setExecutor(serverThreads);
+        server.createContext("/ok", exchange -> respond(exchange, 200, 0));
+        server.createContext("/gone", exchange -> respond(exchange, 404, 0));
+        server.createContext("/error", exchange -> respond(exchange, 500, 0));
+        server.createContext("/slow", exchange -> respond(exchange, 200, 100));
+        server.createContext("/hang", exchange -> respond(exchange, 200, 3_000));
+        server.createContext("/no-head", exchange ->
+                respond(exchange, "HEAD".equals(exchange.getRequestMethod()) ? 405 : 200, 0));
+        server.createContext("/moved", exchange -> redirect(exchange, "/ok"));
+        server.createContext("/loop", exchange -> redirect(exchange, "/loop"));
+        server.createContext("/to-private", exchange ->
+                redirect(exchange, "http://localhost:" + server.getAddress().getPort() + "/ok"));
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void stopStub() {
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    @Test
+    void sweep_recordsStatuses_withHeadThenGetFallback_andPerHostCap() throws Exception {
+        DestinationHealthChecker checker = checker(1_000, 10_000);
+        List<Long> slow = new ArrayList<>();
+        long ok = save("/ok");
+        long gone = save("/gone");
+        long error = save("/error");
+        long noHead = save("/no-head");
+        long refused = save("/", "http://127.0.0.1:1");
+        for (int i = 0; i < 8; i++) {
+            slow.add(save("/slow/" + i));
+        }
+
+        try {
+            DestinationHealthChecker.SweepResult result = checker.sweepAfter(ok - 1);
+
+            assertEquals(13, result.checked());
+            assertEquals(3, result.unhealthy());
+            assertStatus(ok, true, 200);
+            assertStatus(gone, false, 404);
+            assertStatus(error, false, 500);
+            assertStatus(noHead, true, 200);
+            DestinationStatus unreachable = destinationStatusRepository.findById(refused).orElseThrow();
+            assertFalse(unreachable.isHealthy());
+            assertEquals(0, unreachable.getHttpStatus());
+            assertNotNull(unreachable.getError());
+            slow.forEach(id -> assertStatus(id, true, 200));
+
+            // 404 est définitif ; 405 et 500 sont revérifiés par GET
+            assertEquals(2, getRequests.get());
+            assertTrue(maxConcurrent.get() <= PER_HOST, "per-host cap exceeded: " + maxConcurrent.get());
+
+            checker.sweepAfter(ok - 1);
+            assertEquals(2, destinationStatusRepository.findById(gone).orElseThrow().getConsecutiveFailures());
+            assertEquals(0, destinationStatusRepository.findById(ok).orElseThrow().getConsecutiveFailures());
+        } finally {
+            checker.shutdown();
+        }
+    }
+
+    @Test
+    void sweep_adaptsTimeoutToObservedLatency() throws Exception {
+        DestinationHealthChecker checker = checker(200, 10_000);
+        try {
+            long first = save("/ok");
+            for (int i = 0; i < 10; i++) {
+                save("/ok?" + i);
+            }
+            checker.sweepAfter(first - 1);
+
+            // Latence observée de quelques millisecondes : le délai tombe bien en dessous
+            // des 3 s de /hang, alors que le délai maximal (10 s) l'aurait attendu
+            long hang = save("/hang");
+            DestinationHealthChecker.SweepResult result = checker.sweepAfter(hang - 1);
+
+            assertEquals(1, result.unhealthy());
+            assertTrue(result.elapsedMillis() < 3_000, "timeout did not adapt: " + result.elapsedMillis() + " ms");
+            assertEquals("Timeout", destinationStatusRepository.findById(hang).orElseThrow().getError());
+        } finally {
+            checker.shutdown();
+        }
+    }
+
+    @Test
+    void sweep_probesOtherHosts_whileDominantHostIsSaturated() throws Exception {
+        HttpServer other = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        AtomicInteger slowSeenByOther = new AtomicInteger(-1);
+        other.createContext("/", exchange -> {
+            slowSeenByOther.set(headRequests.get());
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        other.start();
+        DestinationHealthChecker checker = checker(1_000, 10_000);
+        try {
+            long first = save("/slow/0");
+            for (int i = 1; i < 20; i++) {
+                save("/slow/" + i);
+            }
+            long last = save("/", "http://127.0.0.1:" + other.getAddress().getPort());
+
+            DestinationHealthChecker.SweepResult result = checker.sweepAfter(first - 1);
+
+            assertEquals(21, result.checked());
+            assertStatus(last, true, 200);
+            // Les 20 sondes de l'hôte saturé sont mises de côté au lieu d'occuper les
+            // 16 places : l'autre hôte est sondé pendant les premières d'entre elles
+            assertTrue(slowSeenByOther.get() <= 2 * PER_HOST,
+                    "other host waited for " + slowSeenByOther.get() + " slow probes");
+            assertTrue(maxConcurrent.get() <= PER_HOST, "per-host cap exceeded: " + maxConcurrent.get());
+        } finally {
+            checker.shutdown();
+            other.stop(0);
+        }
+    }
+
+    @Test
+    void sweep_skipsPrivateAddresses_unlessAllowed() throws Exception {
+        DestinationHealthChecker checker = checker(1_000, 10_000, false);
+        try {
+            long loopback = save("/ok");
+            long metadata = save("/latest/meta-data", "http://169.254.169.254");
+
+            DestinationHealthChecker.SweepResult result = checker.sweepAfter(loopback - 1);
+
+            assertEquals(0, result.checked());
+            assertEquals(2, result.skipped());
+            assertEquals(0, headRequests.get());
+            assertFalse(destinationStatusRepository.findById(loopback).isPresent());
+            assertFalse(destinationStatusRepository.findById(metadata).isPresent());
+        } finally {
+            checker.shutdown();
+        }
+    }
+
+    @Test
+    void sweep_followsRedirects_upToTheLimit() throws Exception {
+        DestinationHealthChecker checker = checker(1_000, 10_000);
+        try {
+            long moved = save("/moved");
+            long loop = save("/loop");
+
+            DestinationHealthChecker.SweepResult result = checker.sweepAfter(moved - 1);
+
+            assertEquals(1, result.unhealthy());
+            assertStatus(moved, true, 200);
+            assertEquals("IOException: Too many redirects", destinationStatusRepository.findById(loop).orElseThrow().getError());
+        } finally {
+            checker.shutdown();
+        }
+    }
+
+    @Test
+    void sweep_rechecksEachRedirect_forPrivateAddresses() throws Exception {
+        // 127.0.0.1 tient lieu d'hôte public ; localhost, vers lequel il redirige, reste privé
+        DestinationHealthChecker checker = new DestinationHealthChecker(false, 60_000, 4, 16, PER_HOST, 1_000, 1_000,
+                10_000, 5, false, urlMappingRepository, destinationStatusRepository, urlPrefixDictionary,
+                transactionManager, new SimpleMeterRegistry()) {
+            @Override
+            boolean isPrivate(String host) throws IOException {
+                return !host.equals("127.0.0.1") && super.isPrivate(host);
+            }
+        };
+        try {
+            long redirected = save("/to-private");
+
+            DestinationHealthChecker.SweepResult result = checker.sweepAfter(redirected - 1);
+
+            assertEquals(1, result.unhealthy());
+            DestinationStatus status = destinationStatusRepository.findById(redirected).orElseThrow();
+            assertEquals("IOException: Redirect to a private address: localhost", status.getError());
+            // Seule la première étape est contactée, jamais /ok derrière localhost
+            assertEquals(1, headRequests.get());
+        } finally {
+            checker.shutdown();
+        }
+    }
+
+    private DestinationHealthChecker checker(long minTimeoutMillis, long maxTimeoutMillis) {
+        return checker(minTimeoutMillis, maxTimeoutMillis, true);
+    }
+
+    private DestinationHealthChecker checker(long minTimeoutMillis, long maxTimeoutMillis, boolean allowPrivate) {
+        return new DestinationHealthChecker(false, 60_000, 4, 16, PER_HOST, 1_000, minTimeoutMillis, maxTimeoutMillis,
+                5, allowPrivate, urlMappingRepository, destinationStatusRepository, urlPrefixDictionary, transactionManager,
+                new SimpleMeterRegistry());
+    }
+
+    private long save(String path) {
+        return save(path, baseUrl);
+    }
+
+    private long save(String path, String base) {
+        String url = base + path;
+        int split = UrlPrefixDictionary.splitIndex(url);
+        String code = "hc" + Integer.toString(CODES.incrementAndGet(), 36);
+        UrlMapping mapping = new UrlMapping(code, urlPrefixDictionary.intern(url.substring(0, split)), url.substring(split));
+        return urlMappingRepository.save(mapping).getId();
+    }
+
+    private void assertStatus(long mappingId, boolean healthy, int httpStatus) {
+        DestinationStatus status = destinationStatusRepository.findById(mappingId).orElseThrow();
+        assertEquals(healthy, status.isHealthy(), "mapping " + mappingId + ": " + status.getError());
+        assertEquals(httpStatus, status.getHttpStatus(), "mapping " + mappingId + ": " + status.getError());
+    }
+
+    private void redirect(HttpExchange exchange, String location) throws IOException {
+        (exchange.getRequestMethod().equals("HEAD") ? headRequests : getRequests).incrementAndGet();
+        exchange.getResponseHeaders().set("Location", location);
+        exchange.sendResponseHeaders(302, -1);
+        exchange.close();
+    }
+
+    private void respond(HttpExchange exchange, int status, long delayMillis) throws IOException {
+        int now = concurrent.incrementAndGet();
+        maxConcurrent.accumulateAndGet(now, Math::max);
+        (exchange.getRequestMethod().equals("HEAD") ? headRequests : getRequests).incrementAndGet();
+        try {
+            if (delayMillis > 0) {
+                Thread.sleep(delayMillis);
+            }
+            exchange.sendResponseHeaders(status, -1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            concurrent.decrementAndGet();
+            exchange.close();
+        }
+    }
+}
@@ -9,7 +9,9 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -110,6 +112,108 @@ class UrlShortenerIntegrationTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void idempotencyKey_replaysResponse_andRejectsReuseForAnotherUrl() throws Exception {
+        Map<String, String> requestBody = new HashMap<>();
+        requestBody.put("originalUrl", "https://www.example.com/idempotent");
+
+        String first = mockMvc.perform(
+                        post("/api/shorten")
+                                .header("Idempotency-Key", "retry-1")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(requestBody))
+                )
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Idempotent-Replayed"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        // Nouvelle tentative du client : réponse rejouée depuis la mémoire
+        mockMvc.perform(
+                        post("/api/shorten")
+                                .header("Idempotency-Key", "retry-1")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(requestBody))
+                )
+                .andExpect(status().isOk())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(content().json(first));
+
+        requestBody.put("originalUrl", "https://www.example.com/another");
+        mockMvc.perform(
+                        post("/api/shorten")
+                                .header("Idempotency-Key", "retry-1")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(requestBody))
+                )
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    void bulkShorten_chargesOneTokenPerUrl() throws Exception {
+        // Adresse propre au test : la dette du lot ne touche pas les autres tests
+        Map<String, List<String>> requestBody = Map.of("originalUrls", Collections.nCopies(300, "not a url"));
+
+        // Lot plus grand que la rafale (200) : admis, mais le client s'endette
+        mockMvc.perform(
+                        post("/api/shorten/bulk")
+                                .with(request -> {
+                                    request.setRemoteAddr("10.50.0.1");
+                                    return request;
+                                })
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(requestBody))
+                )
+                .andExpect(status().isOk())
+                .andExpect(header().string("RateLimit-Limit", "200"))
+                .andExpect(header().string("RateLimit-Remaining", "0"));
+
+        mockMvc.perform(
+                        post("/api/shorten/bulk")
+                                .with(request -> {
+                                    request.setRemoteAddr("10.50.0.1");
+                                    return request;
+                                })
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(Map.of("originalUrls", List.of("not a url"))))
+                )
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+
+        Map<String, String> single = Map.of("originalUrl", "https://www.example.com/after-bulk");
+        mockMvc.perform(
+                        post("/api/shorten")
+                                .with(request -> {
+                                    request.setRemoteAddr("10.50.0.1");
+                                    return request;
+                                })
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(single))
+                )
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void bulkExpand_chargesOneTokenPerCode() throws Exception {
+        // Adresse propre au test : la dette du lot ne touche pas les autres tests
+        Map<String, List<String>> requestBody = Map.of("shortCodes", Collections.nCopies(1000, "unknown"));
+
+        // Le seau est débité avant les lectures : 1000 jetons prélevés sur une rafale de 2000
+        mockMvc.perform(
+                        post("/api/expand/bulk")
+                                .with(request -> {
+                                    request.setRemoteAddr("10.50.0.2");
+                                    return request;
+                                })
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(objectMapper.writeValueAsString(requestBody))
+                )
+                .andExpect(status().isOk())
+                .andExpect(header().string("RateLimit-Limit", "2000"))
+                .andExpect(header().string("RateLimit-Remaining", "1000"));
+    }
+
     @Test
     void nonExistentShortCode_returnsNotFound() throws Exception {
         mockMvc.perform(get("/api/expand/nonexistent"))
@@ -0,0 +1,195 @@
+package com.portagecybertech.urlshortener.url_shortener.invalidation;
+
+import com.portagecybertech.urlshortener.url_shortener.service.CompactUrl;
+import com.portagecybertech.urlshortener.url_shortener.service.ExpandCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.NetworkInterface;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class InvalidationBusTest {
+
+    private final List<InvalidationBus> buses = new ArrayList<>();
+
+    @AfterEach
+    void shutdown() {
+        buses.forEach(InvalidationBus::shutdown);
+    }
+
+    @Test
+    void message_roundTrips_andRejectsForeignFrames() {
+        InvalidationMessage message = new InvalidationMessage(42L, 7L,
+                List.of(new InvalidationMessage.Key(0, "abc"), new InvalidationMessage.Key(3, "zzzzzzzzzz")));
+
+        InvalidationMessage decoded = InvalidationMessage.decode(message.encode());
+
+        assertEquals(message, decoded);
+        assertTrue(new InvalidationMessage(42L, 7L, List.of()).heartbeat());
+        assertThrows(IllegalArgumentException.class, () -> InvalidationMessage.decode(new byte[]{1, 2, 3}));
+        byte[] truncated = message.encode();
+        assertThrows(IllegalArgumentException.class,
+                () -> InvalidationMessage.decode(Arrays.copyOf(truncated, truncated.length - 2)));
+    }
+
+    @Test
+    void receive_appliesContiguousBatches_andFlushesOnGap() throws IOException {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ExpandCache cache = cacheWith("a1", "a2", "a3", "a4");
+        InvalidationBus bus = bus(null, cache, meterRegistry);
+
+        bus.receive(frame(9L, 1, "a1"));
+        assertNull(cache.get(0, "a1"));
+        assertNotNull(cache.get(0, "a2"));
+
+        // Battement de cœur au même numéro : rien de perdu
+        bus.receive(frame(9L, 1));
+        bus.receive(frame(9L, 2, "a2"));
+        assertNotNull(cache.get(0, "a3"));
+        assertEquals(0.0, meterRegistry.get("urlshortener.invalidation.gaps").counter().count());
+
+        // Lot 3 perdu : le lot 4 provoque un vidage complet
+        bus.receive(frame(9L, 4, "a4"));
+        assertNull(cache.get(0, "a3"));
+        assertEquals(1.0, meterRegistry.get("urlshortener.invalidation.gaps").counter().count());
+        assertEquals(2.0, meterRegistry.get("urlshortener.invalidation.received").counter().count());
+    }
+
+    @Test
+    void receive_flushesWhenHeartbeatRevealsLostTail_orPeerJoinsLate() throws IOException {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ExpandCache cache = cacheWith("b1");
+        InvalidationBus bus = bus(null, cache, meterRegistry);
+
+        bus.receive(frame(5L, 0));
+        assertNotNull(cache.get(0, "b1"));
+
+        bus.receive(frame(5L, 2));
+        assertNull(cache.get(0, "b1"));
+
+        cache.put(0, "b1", new CompactUrl(0, "/b1"));
+        bus.receive(frame(6L, 12, "other"));
+        assertNull(cache.get(0, "b1"));
+        assertEquals(2.0, meterRegistry.get("urlshortener.invalidation.gaps").counter().count());
+    }
+
+    @Test
+    void checkPeers_flushesWhilePeerIsSilent_thenForgetsIt() throws IOException {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ExpandCache cache = cacheWith("e1");
+        InvalidationBus bus = bus(null, cache, meterRegistry);
+        long heartbeat = TimeUnit.MILLISECONDS.toNanos(1_000);
+
+        bus.receive(frame(7L, 1, "other"));
+        long seen = System.nanoTime();
+        bus.checkPeers(seen + heartbeat);
+        assertNotNull(cache.get(0, "e1"));
+
+        // Échéance manquée (partition) : vidage compté comme un trou
+        long deadline = seen + (InvalidationBus.PEER_DEADLINE_HEARTBEATS + 1) * heartbeat;
+        bus.checkPeers(deadline);
+        assertNull(cache.get(0, "e1"));
+        assertEquals(1.0, meterRegistry.get("urlshortener.invalidation.gaps").counter().count());
+
+        // Le silence dure : nouveau vidage à chaque battement, sans nouveau trou
+        cache.put(0, "e1", new CompactUrl(0, "/e1"));
+        bus.checkPeers(deadline + heartbeat / 2);
+        assertNotNull(cache.get(0, "e1"));
+        bus.checkPeers(deadline + heartbeat);
+        assertNull(cache.get(0, "e1"));
+        assertEquals(1.0, meterRegistry.get("urlshortener.invalidation.gaps").counter().count());
+
+        // Nœud oublié : plus de vidage
+        cache.put(0, "e1", new CompactUrl(0, "/e1"));
+        bus.checkPeers(seen + (InvalidationBus.PEER_EXPIRY_HEARTBEATS + 1) * heartbeat);
+        assertNotNull(cache.get(0, "e1"));
+        assertEquals(0.0, meterRegistry.get("urlshortener.invalidation.peers").gauge().value());
+    }
+
+    @Test
+    void tcpMesh_propagatesDeletesOverLoopback() throws Exception {
+        ExpandCache remoteCache = cacheWith("c1", "c2");
+        TcpMeshTransport remoteTransport = new TcpMeshTransport(0, List.of());
+        bus(remoteTransport, remoteCache, new SimpleMeterRegistry());
+        InvalidationBus local = bus(new TcpMeshTransport(0,
+                        List.of(new InetSocketAddress(InetAddress.getLoopbackAddress(), remoteTransport.localPort()))),
+                ExpandCache.disabled(), new SimpleMeterRegistry());
+
+        local.publish(0, "c1");
+
+        awaitTrue(() -> remoteCache.get(0, "c1") == null);
+        assertNotNull(remoteCache.get(0, "c2"));
+    }
+
+    @Test
+    void udpMulticast_propagatesDeletesOverLoopback_andIgnoresOwnFrames() throws Exception {
+        NetworkInterface loopback = NetworkInterface.getByInetAddress(InetAddress.getLoopbackAddress());
+        assumeTrue(loopback != null && loopback.isUp());
+        int port = 45_000 + (int) (ProcessHandle.current().pid() % 1_000);
+        ExpandCache senderCache = cacheWith("d1");
+        ExpandCache receiverCache = cacheWith("d1", "d2");
+        SimpleMeterRegistry senderMetrics = new SimpleMeterRegistry();
+        InvalidationBus sender;
+        try {
+            sender = bus(UdpMulticastTransport.of("239.255.27.9", port, loopback.getName(), 0), senderCache, senderMetrics);
+            bus(UdpMulticastTransport.of("239.255.27.9", port, loopback.getName(), 0), receiverCache, new SimpleMeterRegistry());
+        } catch (IOException e) {
+            assumeTrue(false, "Multicast unavailable on loopback: " + e.getMessage());
+            return;
+        }
+
+        sender.publish(0, "d1");
+
+        awaitTrue(() -> receiverCache.get(0, "d1") == null);
+        assertNotNull(receiverCache.get(0, "d2"));
+        // Ses propres trames reviennent à l'émetteur, qui les ignore
+        assertNotNull(senderCache.get(0, "d1"));
+        assertEquals(0.0, senderMetrics.get("urlshortener.invalidation.received").counter().count());
+    }
+
+    private InvalidationBus bus(InvalidationTransport transport, ExpandCache cache, SimpleMeterRegistry meterRegistry)
+            throws IOException {
+        InvalidationBus bus = new InvalidationBus(transport, 5, 256, 1_000, cache, meterRegistry);
+        buses.add(bus);
+        return bus;
+    }
+
+    private static ExpandCache cacheWith(String... codes) {
+        ExpandCache cache = new ExpandCache(100);
+        for (String code : codes) {
+            cache.put(0, code, new CompactUrl(0, "/" + code));
+        }
+        return cache;
+    }
+
+    private static byte[] frame(long nodeId, long seq, String... codes) {
+        List<InvalidationMessage.Key> keys = new ArrayList<>();
+        for (String code : codes) {
+            keys.add(new InvalidationMessage.Key(0, code));
+        }
+        return new InvalidationMessage(nodeId, seq, keys).encode();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "Condition not met within 5 s");
+            Thread.sleep(10);
+        }
+    }
+}
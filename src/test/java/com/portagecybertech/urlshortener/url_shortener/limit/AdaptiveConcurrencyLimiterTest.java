@@ -0,0 +1,92 @@
+package com.portagecybertech.urlshortener.url_shortener.limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    @Test
+    void execute_returnsResult_whenUnderLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 2, 1, 10, 1);
+
+        assertEquals("ok", limiter.execute(() -> "ok"));
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void execute_rejectsWithRetryAfter_whenLimitReached() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 1, 1, 1, 3);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> blocked = executor.submit(() -> limiter.execute(() -> {
+                started.countDown();
+                await(release);
+                return "done";
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            ServiceOverloadedException e = assertThrows(ServiceOverloadedException.class,
+                    () -> limiter.execute(() -> "rejected"));
+            assertEquals(3, e.getRetryAfterSeconds());
+            assertEquals(1, limiter.getRejectedCount());
+
+            release.countDown();
+            assertEquals("done", blocked.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_releasesPermit_whenCallThrows() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 1, 1, 1, 1);
+
+        assertThrows(IllegalArgumentException.class, () -> limiter.execute(() -> {
+            throw new IllegalArgumentException("boom");
+        }));
+        assertEquals("ok", limiter.execute(() -> "ok"));
+    }
+
+    @Test
+    void limit_grows_whenLatencyIsStable_andShrinks_whenLatencyDegrades() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 50, 5, 100, 1);
+
+        saturate(limiter, 20, 1_000_000);
+        int stable = limiter.getLimit();
+        assertTrue(stable > 50, "limit should grow while latency is stable");
+
+        saturate(limiter, 20, 50_000_000);
+        assertTrue(limiter.getLimit() < stable, "limit should shrink under degraded latency");
+        assertTrue(limiter.getLimit() >= 5);
+    }
+
+    private static void saturate(AdaptiveConcurrencyLimiter limiter, int rounds, long rttNanos) {
+        for (int i = 0; i < rounds; i++) {
+            while (limiter.tryAcquire()) {
+                // occuper toutes les places disponibles
+            }
+            while (limiter.getInFlight() > 0) {
+                limiter.release(rttNanos);
+            }
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.portagecybertech.urlshortener.url_shortener.limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketLimiterTest {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private final AtomicLong now = new AtomicLong(-5 * SECOND);
+
+    @Test
+    void tryAcquire_allowsBurst_thenRefillsAtRate() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter("test", 2, 3, 100, now::get);
+
+        for (int remaining = 2; remaining >= 0; remaining--) {
+            TokenBucketLimiter.Decision decision = limiter.tryAcquire("10.0.0.1");
+            assertTrue(decision.allowed());
+            assertEquals(remaining, decision.remaining());
+        }
+        TokenBucketLimiter.Decision rejected = limiter.tryAcquire("10.0.0.1");
+        assertFalse(rejected.allowed());
+        assertEquals(SECOND / 2, rejected.retryAfterNanos());
+        assertEquals(3 * SECOND / 2, rejected.resetNanos());
+        assertEquals(1, limiter.getRejectedCount());
+
+        now.addAndGet(SECOND / 2);
+        TokenBucketLimiter.Decision refilled = limiter.tryAcquire("10.0.0.1");
+        assertTrue(refilled.allowed());
+        assertEquals(0, refilled.remaining());
+
+        // Un long silence ne remplit pas le seau au-delà de sa capacité
+        now.addAndGet(60 * SECOND);
+        assertEquals(2, limiter.tryAcquire("10.0.0.1").remaining());
+    }
+
+    @Test
+    void tryAcquire_chargesOneTokenPerPermit_andLetsLargeBatchesGoIntoDebt() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter("test", 10, 5, 100, now::get);
+
+        TokenBucketLimiter.Decision partial = limiter.tryAcquire("10.0.0.1", 3);
+        assertTrue(partial.allowed());
+        assertEquals(2, partial.remaining());
+
+        // Lot plus grand que le reste du seau : admis, le client doit 8 jetons
+        TokenBucketLimiter.Decision debt = limiter.tryAcquire("10.0.0.1", 10);
+        assertTrue(debt.allowed());
+        assertEquals(0, debt.remaining());
+        assertEquals(13 * SECOND / 10, debt.resetNanos());
+
+        TokenBucketLimiter.Decision rejected = limiter.tryAcquire("10.0.0.1");
+        assertFalse(rejected.allowed());
+        assertEquals(9 * SECOND / 10, rejected.retryAfterNanos());
+
+        now.addAndGet(9 * SECOND / 10);
+        assertTrue(limiter.tryAcquire("10.0.0.1").allowed());
+        assertThrows(IllegalArgumentException.class, () -> limiter.tryAcquire("10.0.0.1", 0));
+    }
+
+    @Test
+    void tryAcquire_keepsClientsIndependent() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter("test", 1, 1, 100, now::get);
+
+        assertTrue(limiter.tryAcquire("a").allowed());
+        assertFalse(limiter.tryAcquire("a").allowed());
+        assertTrue(limiter.tryAcquire("b").allowed());
+        assertEquals(2, limiter.getClientCount());
+    }
+
+    @Test
+    void tryAcquire_forgetsFullBuckets_andSharesOverflowBucket_whenTableFull() {
+        TokenBucketLimiter limiter = new TokenBucketLimiter("test", 1, 1, 2, now::get);
+        limiter.tryAcquire("a");
+        limiter.tryAcquire("b");
+
+        // Table pleine de seaux actifs : les nouveaux clients partagent un seau
+        assertTrue(limiter.tryAcquire("c").allowed());
+        assertFalse(limiter.tryAcquire("d").allowed());
+        assertEquals(2, limiter.getClientCount());
+
+        // Les seaux de a et b sont de nouveau pleins : ils sont oubliés
+        now.addAndGet(2 * SECOND);
+        assertTrue(limiter.tryAcquire("e").allowed());
+        assertEquals(1, limiter.getClientCount());
+    }
+
+    @Test
+    void tryAcquire_grantsExactlyBurst_underContention() throws Exception {
+        TokenBucketLimiter limiter = new TokenBucketLimiter("test", 1e-3, 1_000, 100, now::get);
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<Integer>> granted = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                granted.add(executor.submit(() -> {
+                    start.await();
+                    int count = 0;
+                    for (int i = 0; i < 500; i++) {
+                        if (limiter.tryAcquire("shared").allowed()) {
+                            count++;
+                        }
+                    }
+                    return count;
+                }));
+            }
+            start.countDown();
+            int total = 0;
+            for (Future<Integer> future : granted) {
+                total += future.get();
+            }
+            assertEquals(1_000, total);
+            assertEquals(3_000, limiter.getRejectedCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void constructor_rejectsNonPositiveSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketLimiter("test", 0, 1, 1, now::get));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketLimiter("test", 1, 0, 1, now::get));
+    }
+}
@@ -0,0 +1,125 @@
+package com.portagecybertech.urlshortener.url_shortener.metrics;
+
+import com.portagecybertech.urlshortener.url_shortener.metrics.LiveMetrics.Operation;
+import com.portagecybertech.urlshortener.url_shortener.service.CompactUrl;
+import com.portagecybertech.urlshortener.url_shortener.service.ExpandCache;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LiveMetricsTest {
+
+    @Test
+    void histogramBuckets_areContiguousAndMonotonic() {
+        for (int i = 1; i < LatencyHistogram.BUCKETS; i++) {
+            long lower = LatencyHistogram.lowerBound(i);
+            assertTrue(lower > LatencyHistogram.lowerBound(i - 1));
+            assertEquals(i, LatencyHistogram.indexOf(lower));
+            assertEquals(i - 1, LatencyHistogram.indexOf(lower - 1));
+        }
+        assertEquals(LatencyHistogram.BUCKETS - 1, LatencyHistogram.indexOf(Long.MAX_VALUE));
+    }
+
+    @Test
+    void percentiles_areWithinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        long[] values = new long[100_000];
+        Random random = new Random(40);
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 1_000 + (long) (random.nextDouble() * random.nextDouble() * 5_000_000);
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+        long[] counts = histogram.snapshot();
+        for (double q : new double[] {0.5, 0.9, 0.99, 0.999}) {
+            long exact = values[(int) Math.ceil(q * values.length) - 1];
+            long estimate = LatencyHistogram.percentile(counts, q);
+            assertTrue(Math.abs(estimate - exact) <= exact / 8, q + ": " + estimate + " vs " + exact);
+        }
+        assertEquals(0, LatencyHistogram.percentile(new long[LatencyHistogram.BUCKETS], 0.5));
+    }
+
+    @Test
+    void snapshot_reportsOnlyTheElapsedWindow() {
+        ExpandCache cache = new ExpandCache(100);
+        LiveMetrics metrics = new LiveMetrics(cache, 100, 3);
+        for (int i = 0; i < 10; i++) {
+            metrics.record(Operation.REDIRECT, 50_000);
+        }
+        metrics.record(Operation.SHORTEN, 2_000_000);
+        cache.put("abc", new CompactUrl(1, "/a"));
+        cache.get("abc");
+        cache.get("abc");
+        cache.get("abc");
+        cache.get("zzz");
+
+        MetricsSnapshot first = metrics.snapshot();
+        MetricsSnapshot.OperationStats redirect = stats(first, "redirect");
+        assertEquals(10, redirect.count());
+        assertTrue(Math.abs(redirect.p50Micros() - 50) < 50 / 8.0, String.valueOf(redirect.p50Micros()));
+        assertEquals(1, stats(first, "shorten").count());
+        assertEquals(0, stats(first, "expand").count());
+        assertEquals(0.75, first.cacheHitRate(), 1e-9);
+        assertEquals(1, first.cacheEntries());
+
+        MetricsSnapshot second = metrics.snapshot();
+        assertEquals(0, stats(second, "redirect").count());
+        assertEquals(0, stats(second, "redirect").p99Micros());
+        assertNull(second.cacheHitRate());
+    }
+
+    @Test
+    void hotCodes_areRankedPerWindowAndBounded() {
+        LiveMetrics metrics = new LiveMetrics(ExpandCache.disabled(), 5, 3);
+        for (int code = 0; code < 8; code++) {
+            for (int hit = 0; hit <= code; hit++) {
+                metrics.recordHit("c" + code);
+            }
+        }
+        // Seuls les 5 premiers codes distincts sont suivis dans la fenêtre
+        List<MetricsSnapshot.HotCode> hot = metrics.snapshot().hotCodes();
+        assertEquals(List.of(new MetricsSnapshot.HotCode("c4", 5), new MetricsSnapshot.HotCode("c3", 4),
+                new MetricsSnapshot.HotCode("c2", 3)), hot);
+
+        metrics.recordHit("c7");
+        assertEquals(List.of(new MetricsSnapshot.HotCode("c7", 1)), metrics.snapshot().hotCodes());
+    }
+
+    @Test
+    void concurrentRecording_losesNoLatencySample() throws Exception {
+        LiveMetrics metrics = new LiveMetrics(ExpandCache.disabled(), 1000, 10);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            futures.add(pool.submit(() -> {
+                for (int i = 0; i < 50_000; i++) {
+                    metrics.record(Operation.REDIRECT, i);
+                    metrics.recordHit("hot");
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+        MetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(400_000, stats(snapshot, "redirect").count());
+        assertEquals(List.of(new MetricsSnapshot.HotCode("hot", 400_000)), snapshot.hotCodes());
+    }
+
+    private static MetricsSnapshot.OperationStats stats(MetricsSnapshot snapshot, String name) {
+        return snapshot.operations().stream().filter(op -> op.name().equals(name)).findFirst().orElseThrow();
+    }
+}
@@ -0,0 +1,94 @@
+package com.portagecybertech.urlshortener.url_shortener.migration;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SchemaMigrationsTest {
+
+    private DriverManagerDataSource dataSource() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:migration-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        dataSource.setDriverClassName("org.h2.Driver");
+        return dataSource;
+    }
+
+    @Test
+    void migratesLegacyOriginalUrlColumn_intoPrefixDictionary() throws Exception {
+        DriverManagerDataSource dataSource = dataSource();
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("create table url_mapping (id bigint generated by default as identity primary key, "
+                + "original_url varchar(2048) not null unique, short_code varchar(10) not null unique)");
+        jdbc.update("insert into url_mapping (original_url, short_code) values (?, ?)", "https://www.example.com/a?x=1", "aaa");
+        jdbc.update("insert into url_mapping (original_url, short_code) values (?, ?)", "https://www.example.com/b", "bbb");
+        jdbc.update("insert into url_mapping (original_url, short_code) values (?, ?)", "http://other.org", "ccc");
+
+        new SchemaMigrations(dataSource).afterPropertiesSet();
+
+        List<String> rebuilt = jdbc.queryForList("select p.prefix || m.url_suffix from url_mapping m "
+                + "join url_prefix p on p.id = m.prefix_id order by m.short_code", String.class);
+        assertEquals(List.of("https://www.example.com/a?x=1", "https://www.example.com/b", "http://other.org"), rebuilt);
+        assertEquals(2, jdbc.queryForObject("select count(*) from url_prefix", Integer.class));
+        try (var connection = dataSource.getConnection()) {
+            assertFalse(SchemaMigrations.hasColumn(connection, "URL_MAPPING", "ORIGINAL_URL"));
+        }
+    }
+
+    @Test
+    void partitionsLegacyMappings_intoDefaultDomain() throws Exception {
+        DriverManagerDataSource dataSource = dataSource();
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("create table url_mapping (id bigint generated by default as identity primary key, "
+                + "short_code varchar(10) not null unique, prefix_id integer not null, url_suffix varchar(2048) not null)");
+        jdbc.execute("create unique index idx_url_mapping_prefix_suffix on url_mapping (prefix_id, url_suffix)");
+        jdbc.execute("create table mapping_change (seq bigint generated by default as identity primary key, "
+                + "short_code varchar(10) not null)");
+        jdbc.update("insert into url_mapping (short_code, prefix_id, url_suffix) values ('aaa', 1, '/a')");
+        jdbc.update("insert into mapping_change (short_code) values ('aaa')");
+
+        new SchemaMigrations(dataSource).afterPropertiesSet();
+
+        assertEquals(0, jdbc.queryForObject("select domain_id from url_mapping", Integer.class));
+        assertEquals(0, jdbc.queryForObject("select domain_id from mapping_change", Integer.class));
+        // Le même code et la même URL sont désormais acceptés dans un autre domaine
+        jdbc.update("insert into url_mapping (domain_id, short_code, prefix_id, url_suffix) values (1, 'aaa', 1, '/a')");
+        assertEquals(2, jdbc.queryForObject("select count(*) from url_mapping where short_code = 'aaa'", Integer.class));
+
+        new SchemaMigrations(dataSource).afterPropertiesSet();
+    }
+
+    @Test
+    void storesHostOfExistingPrefixes() throws Exception {
+        DriverManagerDataSource dataSource = dataSource();
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("create table url_prefix (id integer generated by default as identity primary key, "
+                + "prefix varchar(2048) not null unique)");
+        jdbc.update("insert into url_prefix (prefix) values ('https://user@WWW.Example.com:8443')");
+        jdbc.update("insert into url_prefix (prefix) values ('http://[::1]:8080')");
+
+        new SchemaMigrations(dataSource).afterPropertiesSet();
+
+        assertEquals(List.of("www.example.com", "[::1]"),
+                jdbc.queryForList("select host from url_prefix order by id", String.class));
+        new SchemaMigrations(dataSource).afterPropertiesSet();
+    }
+
+    @Test
+    void doesNothing_onFreshDatabase() throws Exception {
+        DriverManagerDataSource dataSource = dataSource();
+
+        new SchemaMigrations(dataSource).afterPropertiesSet();
+
+        try (var connection = dataSource.getConnection()) {
+            assertFalse(SchemaMigrations.hasColumn(connection, "URL_MAPPING", "PREFIX_ID"));
+            assertTrue(connection.isValid(1));
+        }
+    }
+}
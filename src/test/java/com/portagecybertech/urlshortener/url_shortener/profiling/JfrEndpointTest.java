@@ -0,0 +1,153 @@
+package com.portagecybertech.urlshortener.url_shortener.profiling;
+
+import com.portagecybertech.urlshortener.url_shortener.model.UrlMapping;
+import com.portagecybertech.urlshortener.url_shortener.repository.UrlMappingRepository;
+import com.portagecybertech.urlshortener.url_shortener.service.ShortCodeGenerator;
+import com.portagecybertech.urlshortener.url_shortener.service.UrlPrefixDictionary;
+import com.portagecybertech.urlshortener.url_shortener.service.UrlService;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "management.endpoints.web.exposure.include=health,metrics,jfr",
+        "app.jfr.dir=${java.io.tmpdir}/url-shortener-test-jfr",
+        "app.jfr.max-files=2",
+        "app.jfr.threshold.expand-us=0",
+        "app.jfr.threshold.redirect-us=0"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class JfrEndpointTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UrlService urlService;
+
+    @Autowired
+    private UrlMappingRepository urlMappingRepository;
+
+    @Autowired
+    private UrlPrefixDictionary urlPrefixDictionary;
+
+    @Autowired
+    private ShortCodeGenerator shortCodeGenerator;
+
+    @Autowired
+    private JfrRecordings jfrRecordings;
+
+    @AfterEach
+    void stopRecording() {
+        jfrRecordings.stop();
+    }
+
+    @Test
+    void recording_capturesShortenCollisionExpandAndRedirectEvents() throws Exception {
+        mockMvc.perform(post("/actuator/jfr/start/default"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.running").value(true))
+                .andExpect(jsonPath("$.settings").value("default"));
+
+        // Le premier candidat de l'URL est déjà pris : une collision, puis le second candidat
+        String url = "https://jfr.example.org/collide";
+        String taken = shortCodeGenerator.generate(url, 0);
+        urlMappingRepository.save(new UrlMapping(taken, urlPrefixDictionary.intern("https://other.example.org"), "/x"));
+        String shortUrl = urlService.shorten(url).shortUrl();
+        String code = shortUrl.substring(shortUrl.lastIndexOf('/') + 1);
+        urlService.shorten(url);
+        urlService.expand(code);
+        mockMvc.perform(get("/" + code)).andExpect(status().isFound());
+
+        byte[] snapshot = mockMvc.perform(get("/actuator/jfr/dump"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        Path file = Files.createTempFile("url-shortener", ".jfr");
+        try {
+            Files.write(file, snapshot);
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+
+            List<RecordedEvent> shortens = named(events, "Shorten");
+            assertEquals(2, shortens.size());
+            assertEquals(2, shortens.get(0).getInt("attempts"));
+            assertFalse(shortens.get(0).getBoolean("deduplicated"));
+            assertEquals(code, shortens.get(0).getString("shortCode"));
+            assertTrue(shortens.get(1).getBoolean("deduplicated"));
+            assertTrue(shortens.get(0).getStackTrace() == null);
+
+            List<RecordedEvent> collisions = named(events, "ShortCodeCollision");
+            assertEquals(1, collisions.size());
+            assertEquals(taken, collisions.get(0).getString("candidate"));
+            assertEquals(ShortCodeCollisionEvent.SOURCE_DATABASE, collisions.get(0).getString("source"));
+
+            List<RecordedEvent> expands = named(events, "Expand").stream()
+                    .filter(event -> code.equals(event.getString("shortCode")))
+                    .toList();
+            assertEquals(2, expands.size());
+            assertEquals(ExpandEvent.TIER_DATABASE, expands.get(0).getString("tier"));
+            assertEquals(ExpandEvent.TIER_CACHE, expands.get(1).getString("tier"));
+            assertTrue(expands.get(1).getBoolean("found"));
+
+            List<RecordedEvent> redirects = named(events, "Redirect");
+            assertEquals(1, redirects.size());
+            assertTrue(redirects.get(0).getBoolean("found"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+
+        mockMvc.perform(post("/actuator/jfr/stop"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.file").isNotEmpty());
+        mockMvc.perform(get("/actuator/jfr")).andExpect(jsonPath("$.running").value(false));
+    }
+
+    @Test
+    void endpoint_rejectsUnknownActions_andDumpWithoutRecording() throws Exception {
+        mockMvc.perform(post("/actuator/jfr/pause")).andExpect(status().isBadRequest());
+        mockMvc.perform(post("/actuator/jfr/start/no-such-settings")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/actuator/jfr/dump")).andExpect(status().isConflict());
+        mockMvc.perform(get("/actuator/jfr/other")).andExpect(status().isNotFound());
+    }
+
+    @Test
+    void dump_keepsOnlyTheMostRecentFiles() throws Exception {
+        jfrRecordings.start(null);
+        Path first = jfrRecordings.dump();
+        Path second = jfrRecordings.dump();
+        Path third = jfrRecordings.dump();
+
+        assertFalse(Files.exists(first));
+        assertTrue(Files.exists(second));
+        assertTrue(Files.exists(third));
+        try (Stream<Path> files = Files.list(third.getParent())) {
+            assertEquals(2, files.filter(file -> file.getFileName().toString().endsWith(".jfr")).count());
+        }
+    }
+
+    private static List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+        return events.stream()
+                .filter(event -> event.getEventType().getName().equals("com.portagecybertech.urlshortener." + name))
+                .sorted(Comparator.comparing(RecordedEvent::getStartTime))
+                .toList();
+    }
+}
@@ -0,0 +1,184 @@
+package com.portagecybertech.urlshortener.url_shortener.replication;
+
+import com.portagecybertech.urlshortener.url_shortener.model.MappingChange;
+import com.portagecybertech.urlshortener.url_shortener.model.MappingChange.Operation;
+import com.portagecybertech.urlshortener.url_shortener.model.UrlMapping;
+import com.portagecybertech.urlshortener.url_shortener.repository.MappingChangeRepository;
+import com.portagecybertech.urlshortener.url_shortener.repository.ReplicationCursorRepository;
+import com.portagecybertech.urlshortener.url_shortener.repository.UrlMappingRepository;
+import com.portagecybertech.urlshortener.url_shortener.service.CompactUrl;
+import com.portagecybertech.urlshortener.url_shortener.service.DomainRegistry;
+import com.portagecybertech.urlshortener.url_shortener.service.ExpandCache;
+import com.portagecybertech.urlshortener.url_shortener.service.UrlPrefixDictionary;
+import com.portagecybertech.urlshortener.url_shortener.service.UrlService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ReplicaFollowerTest {
+
+    @Autowired
+    private UrlService urlService;
+
+    @Autowired
+    private UrlMappingRepository urlMappingRepository;
+
+    @Autowired
+    private UrlPrefixDictionary urlPrefixDictionary;
+
+    @Autowired
+    private ReplicationCursorRepository replicationCursorRepository;
+
+    @Autowired
+    private MappingChangeRepository mappingChangeRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void shortenAndDelete_appendToChangeLog() {
+        long before = mappingChangeRepository.findMaxSeq();
+
+        String shortUrl = urlService.shorten("https://changelog.example.org/a").shortUrl();
+        String code = shortUrl.substring(shortUrl.lastIndexOf('/') + 1);
+        assertTrue(urlService.delete(code));
+
+        List<MappingChange> changes = mappingChangeRepository.findAll().stream()
+                .filter(change -> change.getSeq() > before)
+                .toList();
+        assertEquals(2, changes.size());
+        assertEquals(Operation.CREATE, changes.get(0).getOperation());
+        assertEquals("https://changelog.example.org/a", changes.get(0).getOriginalUrl());
+        assertEquals(Operation.DELETE, changes.get(1).getOperation());
+        assertEquals(code, changes.get(1).getShortCode());
+    }
+
+    @Test
+    void follower_appliesExportedSegmentsAndInvalidatesCache(@TempDir Path dir) throws Exception {
+        long base = mappingChangeRepository.findMaxSeq();
+        ListChangeSource primary = new ListChangeSource();
+        primary.add(base + 1, Operation.CREATE, "rplA1", "https://replica.example.org/a");
+        primary.add(base + 2, Operation.CREATE, "rplB2", "https://replica.example.org/b");
+        primary.add(base + 3, Operation.DELETE, "rplA1", null);
+
+        ChangeSegmentExporter exporter = new ChangeSegmentExporter(primary, dir, 2, 60_000);
+        assertEquals(2, exporter.exportOnce());
+        assertEquals(1, exporter.exportOnce());
+        assertEquals(0, exporter.exportOnce());
+
+        ExpandCache cache = new ExpandCache(100);
+        cache.put("rplA1", new CompactUrl(1, "/stale"));
+        ReplicaFollower follower = follower(new SegmentChangeSource(dir), cache);
+
+        assertEquals(3, follower.pollOnce());
+        assertEquals(base + 3, follower.getAppliedSeq());
+        assertTrue(urlMappingRepository.findByDomainIdAndShortCode(DomainRegistry.DEFAULT_DOMAIN_ID, "rplA1").isEmpty());
+        assertEquals("https://replica.example.org/b", urlService.findOriginalUrl("rplB2").orElseThrow());
+        assertNull(cache.get("rplA1"));
+        assertEquals(base + 3, replicationCursorRepository.findById("segments").orElseThrow().getAppliedSeq());
+        assertEquals(0, follower.pollOnce());
+    }
+
+    @Test
+    void follower_waitsForUncommittedSequenceGap() {
+        long base = mappingChangeRepository.findMaxSeq();
+        ListChangeSource primary = new ListChangeSource();
+        primary.add(base + 1, Operation.CREATE, "gapC1", "https://gap.example.org/1");
+        primary.add(base + 3, Operation.CREATE, "gapC3", "https://gap.example.org/3");
+        ReplicaFollower follower = follower(primary, new ExpandCache(100));
+
+        assertEquals(1, follower.pollOnce());
+        assertEquals(base + 1, follower.getAppliedSeq());
+        assertTrue(urlMappingRepository.findByDomainIdAndShortCode(DomainRegistry.DEFAULT_DOMAIN_ID, "gapC3").isEmpty());
+
+        // La transaction lente finit par commiter la séquence manquante
+        primary.add(base + 2, Operation.CREATE, "gapC2", "https://gap.example.org/2");
+        assertEquals(2, follower.pollOnce());
+        assertTrue(urlMappingRepository.findByDomainIdAndShortCode(DomainRegistry.DEFAULT_DOMAIN_ID, "gapC3").isPresent());
+    }
+
+    @Test
+    void follower_replacesLocalRowsThatConflictWithPrimary() {
+        long base = mappingChangeRepository.findMaxSeq();
+        saveLocal("cnfA1", "https://local.example.org/x");
+        saveLocal("cnfZ9", "https://conflict.example.org/u");
+        ExpandCache cache = new ExpandCache(100);
+        cache.put("cnfZ9", new CompactUrl(1, "/stale"));
+        ListChangeSource primary = new ListChangeSource();
+        // Même code qu'une ligne locale, puis même URL qu'une autre ligne locale
+        primary.add(base + 1, Operation.CREATE, "cnfA1", "https://conflict.example.org/a");
+        primary.add(base + 2, Operation.CREATE, "cnfB2", "https://conflict.example.org/u");
+        ReplicaFollower follower = follower(primary, cache);
+
+        assertEquals(2, follower.pollOnce());
+
+        assertEquals(base + 2, follower.getAppliedSeq());
+        assertEquals("https://conflict.example.org/a", urlService.findOriginalUrl("cnfA1").orElseThrow());
+        assertEquals("https://conflict.example.org/u", urlService.findOriginalUrl("cnfB2").orElseThrow());
+        assertTrue(urlMappingRepository.findByDomainIdAndShortCode(DomainRegistry.DEFAULT_DOMAIN_ID, "cnfZ9").isEmpty());
+        assertNull(cache.get("cnfZ9"));
+    }
+
+    @Test
+    void changeRecord_lineFormatRoundTrips() {
+        ChangeRecord create = new ChangeRecord(7, Operation.CREATE, "abc", "https://x.org/a?b=c", 1234L);
+        ChangeRecord delete = new ChangeRecord(8, Operation.DELETE, "abc", null, 5678L);
+        assertEquals(create, ChangeRecord.parse(create.toLine()));
+        assertEquals(delete, ChangeRecord.parse(delete.toLine()));
+        ChangeRecord branded = new ChangeRecord(9, Operation.CREATE, 2, "abc", "https://x.org/b", 9012L);
+        assertEquals(branded, ChangeRecord.parse(branded.toLine()));
+        // Segments antérieurs aux domaines : cinq champs, domaine par défaut
+        assertEquals(create, ChangeRecord.parse("7\tCREATE\tabc\t1234\thttps://x.org/a?b=c"));
+        assertEquals(delete, ChangeRecord.parse("8\tDELETE\tabc\t5678\t"));
+    }
+
+    private void saveLocal(String shortCode, String url) {
+        int split = UrlPrefixDictionary.splitIndex(url);
+        urlMappingRepository.save(new UrlMapping(shortCode, urlPrefixDictionary.intern(url.substring(0, split)),
+                url.substring(split)));
+    }
+
+    private ReplicaFollower follower(ChangeSource source, ExpandCache cache) {
+        return new ReplicaFollower(source, 100, 60_000, urlMappingRepository, urlPrefixDictionary, cache,
+                replicationCursorRepository, mappingChangeRepository, transactionManager, new SimpleMeterRegistry());
+    }
+
+    private static class ListChangeSource implements ChangeSource {
+
+        private final List<ChangeRecord> records = new ArrayList<>();
+
+        void add(long seq, Operation operation, String shortCode, String url) {
+            records.add(new ChangeRecord(seq, operation, shortCode, url, System.currentTimeMillis()));
+            records.sort((a, b) -> Long.compare(a.seq(), b.seq()));
+        }
+
+        @Override
+        public String name() {
+            return "list";
+        }
+
+        @Override
+        public List<ChangeRecord> readAfter(long afterSeq, int max) {
+            return records.stream().filter(record -> record.seq() > afterSeq).limit(max).toList();
+        }
+
+        @Override
+        public long headSeq() {
+            return records.isEmpty() ? 0 : records.get(records.size() - 1).seq();
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.portagecybertech.urlshortener.url_shortener.service;
+
+import com.portagecybertech.urlshortener.url_shortener.limit.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class GroupCommitExecutorTest {
+
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    private GroupCommitExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void submit_groupsConcurrentWritesIntoFewTransactions() throws Exception {
+        when(transactionManager.getTransaction(any())).thenAnswer(inv -> new SimpleTransactionStatus());
+        executor = new GroupCommitExecutor(true, 64, 50, 1000, 1, transactionManager, new SimpleMeterRegistry());
+
+        List<CompletableFuture<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            int value = i;
+            futures.add(executor.submit(() -> value));
+        }
+
+        for (int i = 0; i < futures.size(); i++) {
+            assertEquals(i, futures.get(i).get(5, TimeUnit.SECONDS));
+        }
+        verify(transactionManager, atMost(5)).commit(any());
+    }
+
+    @Test
+    void submit_isolatesFailingWrite_whenBatchFails() throws Exception {
+        when(transactionManager.getTransaction(any())).thenAnswer(inv -> new SimpleTransactionStatus());
+        executor = new GroupCommitExecutor(true, 64, 50, 1000, 1, transactionManager, new SimpleMeterRegistry());
+
+        CompletableFuture<String> ok = executor.submit(() -> "ok");
+        CompletableFuture<String> failing = executor.submit(() -> {
+            throw new IllegalArgumentException("boom");
+        });
+        CompletableFuture<String> other = executor.submit(() -> "other");
+
+        assertEquals("ok", ok.get(5, TimeUnit.SECONDS));
+        assertEquals("other", other.get(5, TimeUnit.SECONDS));
+        ExecutionException e = assertThrows(ExecutionException.class, () -> failing.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, e.getCause());
+    }
+
+    @Test
+    void submit_isRejected_whenPipelineDisabled() {
+        executor = new GroupCommitExecutor(false, 64, 5, 10, 1, transactionManager, new SimpleMeterRegistry());
+
+        assertThrows(IllegalStateException.class, () -> executor.submit(() -> "x"));
+    }
+
+    @Test
+    void submit_rejectsWithConfiguredRetryAfter_whenQueueIsFull() throws Exception {
+        when(transactionManager.getTransaction(any())).thenAnswer(inv -> new SimpleTransactionStatus());
+        executor = new GroupCommitExecutor(true, 1, 0, 2, 7, transactionManager, new SimpleMeterRegistry());
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<String> blocking = executor.submit(() -> {
+            started.countDown();
+            await(release);
+            return "first";
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> second = executor.submit(() -> "second");
+        CompletableFuture<String> third = executor.submit(() -> "third");
+
+        ServiceOverloadedException e = assertThrows(ServiceOverloadedException.class, () -> executor.submit(() -> "x"));
+        assertEquals(7, e.getRetryAfterSeconds());
+        release.countDown();
+        assertEquals("first", blocking.get(5, TimeUnit.SECONDS));
+        assertEquals("second", second.get(5, TimeUnit.SECONDS));
+        assertEquals("third", third.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void shutdown_completesEveryAcceptedWrite_underConcurrentSubmits() throws Exception {
+        when(transactionManager.getTransaction(any())).thenAnswer(inv -> new SimpleTransactionStatus());
+        executor = new GroupCommitExecutor(true, 64, 1, 100_000, 1, transactionManager, new SimpleMeterRegistry());
+        ConcurrentLinkedQueue<CompletableFuture<Integer>> accepted = new ConcurrentLinkedQueue<>();
+        List<Thread> submitters = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread submitter = new Thread(() -> {
+                try {
+                    for (int i = 0; ; i++) {
+                        int value = i;
+                        try {
+                            accepted.add(executor.submit(() -> value));
+                        } catch (ServiceOverloadedException full) {
+                            Thread.yield();
+                        }
+                    }
+                } catch (IllegalStateException stopped) {
+                    // Pipeline arrêté : plus aucun dépôt accepté
+                }
+            });
+            submitters.add(submitter);
+            submitter.start();
+        }
+        Thread.sleep(50);
+
+        executor.shutdown();
+        for (Thread submitter : submitters) {
+            submitter.join(5_000);
+        }
+
+        assertTrue(accepted.size() > 0);
+        for (CompletableFuture<Integer> future : accepted) {
+            future.get(5, TimeUnit.SECONDS);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
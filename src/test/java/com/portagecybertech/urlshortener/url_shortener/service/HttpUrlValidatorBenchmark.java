@@ -0,0 +1,74 @@
+package com.portagecybertech.urlshortener.url_shortener.service;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+
+/**
+ * Banc de mesure : coût de la validation d'URL, {@link HttpUrlValidator} contre {@link URI}.
+ *
+ * <p>Ce n'est pas un test ; il se lance à la main après {@code ./mvnw test-compile} :
+ * <pre>{@code
+ * java -cp target/test-classes:target/classes \
+ *      com.portagecybertech.urlshortener.url_shortener.service.HttpUrlValidatorBenchmark
+ * }</pre>
+ *
+ * <p>Pour chaque jeu d'URLs (valides, invalides) : temps moyen d'une validation
+ * après une phase de chauffe.
+ */
+public class HttpUrlValidatorBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 2_000_000;
+
+    private static final int MEASURED_ITERATIONS = 10_000_000;
+
+    private static final String[] VALID = {
+            "https://www.example.com/articles/2024/05/a-fairly-long-slug?utm_source=newsletter&id=42",
+            "http://example.org/",
+            "https://user@[2001:db8::1]:8443/path;p=1?q=%20#frag",
+            "http://192.168.0.1:8080/status",
+    };
+
+    private static final String[] INVALID = {
+            "https://www.example.com/articles/2024/05/a slug with spaces",
+            "ftp://example.com/file",
+            "https://exa_mple.com/",
+            "not a url at all",
+    };
+
+    public static void main(String[] args) {
+        System.out.printf("%-8s %-16s %10s%n", "inputs", "validator", "ns/op");
+        for (String[] inputs : new String[][] {VALID, INVALID}) {
+            String name = inputs == VALID ? "valid" : "invalid";
+            report(name, "HttpUrlValidator", inputs, true);
+            report(name, "java.net.URI", inputs, false);
+        }
+    }
+
+    private static void report(String name, String validator, String[] inputs, boolean handWritten) {
+        long sink = 0;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            sink += validate(inputs[i & 3], handWritten) ? 1 : 0;
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            sink += validate(inputs[i & 3], handWritten) ? 1 : 0;
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("%-8s %-16s %10.1f%s%n", name, validator, (double) elapsed / MEASURED_ITERATIONS,
+                sink == 42 ? " " : "");
+    }
+
+    private static boolean validate(String url, boolean handWritten) {
+        if (handWritten) {
+            return HttpUrlValidator.isValid(url);
+        }
+        try {
+            URI uri = new URI(url);
+            String scheme = uri.getScheme();
+            return scheme != null && (scheme.equalsIgnoreCase("http") || scheme.equalsIgnoreCase("https"))
+                    && uri.getHost() != null;
+        } catch (URISyntaxException e) {
+            return false;
+        }
+    }
+}
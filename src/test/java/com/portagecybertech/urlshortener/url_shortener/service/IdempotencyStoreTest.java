@@ -0,0 +1,228 @@
+package com.portagecybertech.urlshortener.url_shortener.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdempotencyStoreTest {
+
+    private static final String CLIENT = "10.0.0.1";
+
+    private final AtomicLong clock = new AtomicLong();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    private IdempotencyStore store(long windowMs, int maxEntries) {
+        return new IdempotencyStore(true, windowMs, maxEntries, meterRegistry, clock::get);
+    }
+
+    private Supplier<UrlService.ShortenResponse> shorten(String shortUrl) {
+        return () -> {
+            executions.incrementAndGet();
+            return new UrlService.ShortenResponse(shortUrl);
+        };
+    }
+
+    @Test
+    void execute_replaysCompletedResponse_withoutRerunning() {
+        IdempotencyStore store = store(60_000, 100);
+
+        IdempotencyStore.Outcome first = store.execute(CLIENT, "key-1", "0 https://a.example", shorten("http://s/a"));
+        IdempotencyStore.Outcome retry = store.execute(CLIENT, "key-1", "0 https://a.example", shorten("http://s/other"));
+
+        assertFalse(first.replayed());
+        assertTrue(retry.replayed());
+        assertSame(first.response(), retry.response());
+        assertEquals(1, executions.get());
+        assertEquals(1.0, meterRegistry.get("urlshortener.idempotency.replayed").counter().count());
+    }
+
+    @Test
+    void execute_joinsInFlightComputation() throws Exception {
+        IdempotencyStore store = store(60_000, 100);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<IdempotencyStore.Outcome> original = pool.submit(() -> store.execute(CLIENT, "key-1", "f", () -> {
+                executions.incrementAndGet();
+                started.countDown();
+                await(release);
+                return new UrlService.ShortenResponse("http://s/a");
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<IdempotencyStore.Outcome> duplicate = pool.submit(() -> store.execute(CLIENT, "key-1", "f", shorten("http://s/b")));
+            // Le doublon attend le calcul en cours
+            Thread.sleep(50);
+            assertFalse(duplicate.isDone());
+            release.countDown();
+
+            assertEquals("http://s/a", original.get(5, TimeUnit.SECONDS).response().shortUrl());
+            assertEquals("http://s/a", duplicate.get(5, TimeUnit.SECONDS).response().shortUrl());
+            assertTrue(duplicate.get().replayed());
+            assertEquals(1, executions.get());
+            assertEquals(1.0, meterRegistry.get("urlshortener.idempotency.joined").counter().count());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_rejectsKeyReusedForDifferentRequest() {
+        IdempotencyStore store = store(60_000, 100);
+        store.execute(CLIENT, "key-1", "0 https://a.example", shorten("http://s/a"));
+
+        assertThrows(IdempotencyKeyMismatchException.class,
+                () -> store.execute(CLIENT, "key-1", "0 https://b.example", shorten("http://s/b")));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void execute_doesNotCacheFailures() {
+        IdempotencyStore store = store(60_000, 100);
+
+        assertThrows(IllegalArgumentException.class, () -> store.execute(CLIENT, "key-1", "f", () -> {
+            executions.incrementAndGet();
+            throw new IllegalArgumentException("Invalid URL");
+        }));
+        IdempotencyStore.Outcome retry = store.execute(CLIENT, "key-1", "f", shorten("http://s/a"));
+
+        assertFalse(retry.replayed());
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void execute_propagatesFailureToJoinedRequests() throws Exception {
+        IdempotencyStore store = store(60_000, 100);
+        CompletableFuture<Void> release = new CompletableFuture<>();
+        CountDownLatch started = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> original = pool.submit(() -> store.execute(CLIENT, "key-1", "f", () -> {
+                started.countDown();
+                release.join();
+                throw new IllegalStateException("boom");
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<?> duplicate = pool.submit(() -> store.execute(CLIENT, "key-1", "f", shorten("http://s/b")));
+            Thread.sleep(50);
+            release.complete(null);
+
+            assertEquals(IllegalStateException.class,
+                    assertThrows(Exception.class, () -> original.get(5, TimeUnit.SECONDS)).getCause().getClass());
+            // Le doublon, rattaché avant l'échec, reçoit la même exception
+            assertEquals(IllegalStateException.class,
+                    assertThrows(Exception.class, () -> duplicate.get(5, TimeUnit.SECONDS)).getCause().getClass());
+            assertEquals(0, executions.get());
+            assertEquals(0, store.size());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_rerunsAfterWindowExpires() {
+        IdempotencyStore store = store(1_000, 100);
+        store.execute(CLIENT, "key-1", "f", shorten("http://s/a"));
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1_000));
+        IdempotencyStore.Outcome later = store.execute(CLIENT, "key-1", "f", shorten("http://s/a"));
+
+        assertFalse(later.replayed());
+        assertEquals(2, executions.get());
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void execute_evictsOldestKeys_beyondMaxEntries() {
+        IdempotencyStore store = store(60_000, 3);
+        for (int i = 0; i < 10; i++) {
+            clock.incrementAndGet();
+            store.execute(CLIENT, "key-" + i, "f" + i, shorten("http://s/" + i));
+        }
+
+        assertEquals(3, store.size());
+        assertTrue(store.execute(CLIENT, "key-9", "f9", shorten("http://s/9")).replayed());
+        assertFalse(store.execute(CLIENT, "key-0", "f0", shorten("http://s/0")).replayed());
+    }
+
+    @Test
+    void execute_scopesKeysPerClient() {
+        IdempotencyStore store = store(60_000, 100);
+        store.execute(CLIENT, "key-1", "0 https://a.example", shorten("http://s/a"));
+
+        // Même clé choisie par un autre client : ni rejeu, ni conflit d'empreinte
+        IdempotencyStore.Outcome other = store.execute("10.0.0.2", "key-1", "0 https://b.example", shorten("http://s/b"));
+
+        assertFalse(other.replayed());
+        assertEquals("http://s/b", other.response().shortUrl());
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void execute_boundsQueue_underFailureStorm() {
+        IdempotencyStore store = store(60_000, 3);
+        for (int i = 0; i < 1_000; i++) {
+            int n = i;
+            assertThrows(ServiceUnavailable.class, () -> store.execute(CLIENT, "retry-" + n, "f", () -> {
+                throw new ServiceUnavailable();
+            }));
+        }
+        store.execute(CLIENT, "key-ok", "f", shorten("http://s/ok"));
+
+        assertEquals(3, store.queuedCount());
+        assertEquals(1, store.size());
+        assertTrue(store.execute(CLIENT, "key-ok", "f", shorten("http://s/ok")).replayed());
+    }
+
+    @Test
+    void execute_rejectsInvalidKeys() {
+        IdempotencyStore store = store(60_000, 100);
+
+        assertThrows(IllegalArgumentException.class, () -> store.execute(CLIENT, " ", "f", shorten("http://s/a")));
+        assertThrows(IllegalArgumentException.class,
+                () -> store.execute(CLIENT, "k".repeat(IdempotencyStore.MAX_KEY_LENGTH + 1), "f", shorten("http://s/a")));
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    void disabledStore_alwaysExecutes() {
+        IdempotencyStore store = IdempotencyStore.disabled();
+        store.execute(CLIENT, "key-1", "f", shorten("http://s/a"));
+        IdempotencyStore.Outcome retry = store.execute(CLIENT, "key-1", "f", shorten("http://s/a"));
+
+        assertFalse(retry.replayed());
+        assertEquals(2, executions.get());
+        assertEquals(0, store.size());
+    }
+
+    private static final class ServiceUnavailable extends RuntimeException {
+
+        private static final long serialVersionUID = 1L;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
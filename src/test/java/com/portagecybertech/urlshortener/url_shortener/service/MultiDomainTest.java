@@ -0,0 +1,125 @@
+package com.portagecybertech.urlshortener.url_shortener.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.portagecybertech.urlshortener.url_shortener.model.UrlMapping;
+import com.portagecybertech.urlshortener.url_shortener.repository.UrlMappingRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "app.domains=1=https://go.example.com,2=https://lnk.example.org/")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class MultiDomainTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UrlService urlService;
+
+    @Autowired
+    private UrlMappingRepository urlMappingRepository;
+
+    @Autowired
+    private UrlPrefixDictionary urlPrefixDictionary;
+
+    @Autowired
+    private DomainRegistry domainRegistry;
+
+    @Test
+    void registry_resolvesHostsInMemory() {
+        assertEquals(1, domainRegistry.resolve("go.example.com"));
+        assertEquals(1, domainRegistry.resolve("GO.Example.com:443"));
+        assertEquals(2, domainRegistry.resolve("lnk.example.org."));
+        assertEquals(DomainRegistry.DEFAULT_DOMAIN_ID, domainRegistry.resolve("127.0.0.1"));
+        assertEquals(DomainRegistry.DEFAULT_DOMAIN_ID, domainRegistry.resolve("localhost"));
+        assertEquals("https://lnk.example.org", domainRegistry.baseUrl(2));
+        assertTrue(domainRegistry.findId("unknown.example.net").isEmpty());
+    }
+
+    @Test
+    void sameUrl_getsOneMappingPerDomain() {
+        String url = "https://multi.example.org/campaign";
+
+        String defaultUrl = urlService.shorten(url).shortUrl();
+        String goUrl = urlService.shorten(1, url).shortUrl();
+        String lnkUrl = urlService.shorten(2, url).shortUrl();
+
+        assertTrue(defaultUrl.startsWith("http://localhost:8080/"), defaultUrl);
+        assertTrue(goUrl.startsWith("https://go.example.com/"), goUrl);
+        assertTrue(lnkUrl.startsWith("https://lnk.example.org/"), lnkUrl);
+        // Espaces de noms indépendants : le même hash donne le même code dans chaque domaine
+        assertEquals(codeOf(defaultUrl), codeOf(goUrl));
+        assertEquals(goUrl, urlService.shorten(1, url).shortUrl());
+        assertEquals(url, urlService.expand(1, codeOf(goUrl)));
+    }
+
+    @Test
+    void sameCode_resolvesPerHost_andIsUniqueWithinDomain() throws Exception {
+        int prefixId = urlPrefixDictionary.intern("https://dest.example.org");
+        urlMappingRepository.save(new UrlMapping(1, "dupCode1", prefixId, "/go"));
+        urlMappingRepository.save(new UrlMapping(2, "dupCode1", prefixId, "/lnk"));
+
+        mockMvc.perform(get("http://go.example.com/dupCode1"))
+                .andExpect(status().isFound())
+                .andExpect(header().string("Location", "https://dest.example.org/go"));
+        mockMvc.perform(get("http://LNK.example.org:8443/dupCode1"))
+                .andExpect(status().isFound())
+                .andExpect(header().string("Location", "https://dest.example.org/lnk"));
+        // Cache partitionné : la résolution mise en cache pour un domaine ne fuit pas dans l'autre
+        mockMvc.perform(get("http://go.example.com/dupCode1"))
+                .andExpect(header().string("Location", "https://dest.example.org/go"));
+        mockMvc.perform(get("http://localhost/dupCode1")).andExpect(status().isNotFound());
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> urlMappingRepository.saveAndFlush(new UrlMapping(1, "dupCode1", prefixId, "/other")));
+    }
+
+    @Test
+    void api_usesExplicitDomainOrRequestHost() throws Exception {
+        String explicit = mockMvc.perform(post("/api/shorten")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"originalUrl\":\"https://api.example.org/x\",\"domain\":\"lnk.example.org\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String shortUrl = objectMapper.readValue(explicit, Map.class).get("shortUrl").toString();
+        assertTrue(shortUrl.startsWith("https://lnk.example.org/"), shortUrl);
+
+        String byHost = mockMvc.perform(post("http://go.example.com/api/shorten")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"originalUrl\":\"https://api.example.org/x\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertTrue(byHost.contains("https://go.example.com/"), byHost);
+
+        mockMvc.perform(get("/api/expand/" + codeOf(shortUrl)).param("domain", "lnk.example.org"))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/api/shorten")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"originalUrl\":\"https://api.example.org/x\",\"domain\":\"nope.example.net\"}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private static String codeOf(String shortUrl) {
+        return shortUrl.substring(shortUrl.lastIndexOf('/') + 1);
+    }
+}
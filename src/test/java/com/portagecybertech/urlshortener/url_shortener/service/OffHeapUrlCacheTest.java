@@ -0,0 +1,238 @@
+package com.portagecybertech.urlshortener.url_shortener.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OffHeapUrlCacheTest {
+
+    /**
+     * Plus petit segment accepté : 2048 cases d'index et 3 slabs.
+     */
+    private static final long SMALL = 4L * OffHeapUrlCache.SLAB_SIZE;
+
+    @Test
+    void packKey_distinguishesLengths_andRejectsNonBase62() {
+        assertNotEquals(0, OffHeapUrlCache.packKey("0"));
+        assertNotEquals(OffHeapUrlCache.packKey("0"), OffHeapUrlCache.packKey("00"));
+        assertEquals(OffHeapUrlCache.packKey("abc"), OffHeapUrlCache.packKey("abc"));
+        assertNotEquals(OffHeapUrlCache.packKey("abc"), OffHeapUrlCache.packKey("abC"));
+        assertNotEquals(0, OffHeapUrlCache.packKey("zzzzzzzzzz"));
+        assertEquals(0, OffHeapUrlCache.packKey(""));
+        assertEquals(0, OffHeapUrlCache.packKey("zzzzzzzzzzz"));
+        assertEquals(0, OffHeapUrlCache.packKey("ab-c"));
+    }
+
+    @Test
+    void putAndGet_roundTrip_replaceAndSeparateDomains() {
+        OffHeapUrlCache cache = new OffHeapUrlCache(SMALL, 1);
+
+        assertTrue(cache.put(0, "abc123", new CompactUrl(7, "/chemin/é?q=1")));
+        assertTrue(cache.put(1, "abc123", new CompactUrl(8, "/autre")));
+
+        assertEquals(new CompactUrl(7, "/chemin/é?q=1"), cache.get(0, "abc123"));
+        assertEquals(new CompactUrl(8, "/autre"), cache.get(1, "abc123"));
+        assertNull(cache.get(2, "abc123"));
+        assertNull(cache.get(0, "abc124"));
+
+        assertTrue(cache.put(0, "abc123", new CompactUrl(9, "/remplacé")));
+        assertEquals(new CompactUrl(9, "/remplacé"), cache.get(0, "abc123"));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void invalidate_keepsEveryOtherEntryReachable() {
+        OffHeapUrlCache cache = new OffHeapUrlCache(SMALL, 1);
+        int entries = 1_000;
+        for (int i = 0; i < entries; i++) {
+            assertTrue(cache.put(i % 3, code(i), new CompactUrl(i, "/" + i)));
+        }
+
+        // Une suppression sur trois : les suites de sondage sont recompactées à chaque fois
+        for (int i = 0; i < entries; i += 3) {
+            cache.invalidate(i % 3, code(i));
+        }
+
+        for (int i = 0; i < entries; i++) {
+            CompactUrl url = cache.get(i % 3, code(i));
+            if (i % 3 == 0) {
+                assertNull(url);
+            } else {
+                assertEquals(new CompactUrl(i, "/" + i), url);
+            }
+        }
+        assertEquals(entries - (entries + 2) / 3, cache.size());
+    }
+
+    @Test
+    void clock_evictsUnreferencedEntriesFirst() {
+        OffHeapUrlCache cache = new OffHeapUrlCache(SMALL, 1);
+        String large = "/" + "x".repeat(3_500);
+        // Blocs de 4096 octets : 16 par slab, 3 slabs
+        int capacity = 3 * OffHeapUrlCache.SLAB_SIZE / 4096;
+        for (int i = 0; i < capacity; i++) {
+            assertTrue(cache.put(0, code(i), new CompactUrl(i, large)));
+        }
+        assertEquals(0, cache.evictionCount());
+        assertEquals(new CompactUrl(0, large), cache.get(0, code(0)));
+
+        assertTrue(cache.put(0, code(capacity), new CompactUrl(capacity, large)));
+
+        assertEquals(1, cache.evictionCount());
+        assertEquals(capacity, cache.size());
+        assertEquals(new CompactUrl(0, large), cache.get(0, code(0)));
+        assertNull(cache.get(0, code(1)));
+        assertEquals(new CompactUrl(capacity, large), cache.get(0, code(capacity)));
+    }
+
+    @Test
+    void put_staysWithinCapacity_underSustainedInsertion() {
+        OffHeapUrlCache cache = new OffHeapUrlCache(SMALL, 1);
+        for (int i = 0; i < 20_000; i++) {
+            assertTrue(cache.put(0, code(i), new CompactUrl(i, "/page/" + i)));
+        }
+
+        assertTrue(cache.size() < 20_000);
+        assertEquals(20_000 - cache.size(), cache.evictionCount());
+        assertEquals(new CompactUrl(19_999, "/page/19999"), cache.get(0, code(19_999)));
+    }
+
+    @Test
+    void put_rejectsOversizedValuesAndInvalidCodes() {
+        OffHeapUrlCache cache = new OffHeapUrlCache(SMALL, 1);
+
+        assertFalse(cache.put(0, "abc", new CompactUrl(0, "/" + "x".repeat(5_000))));
+        assertFalse(cache.put(0, "not-base62", new CompactUrl(0, "/")));
+
+        assertEquals(1, cache.rejectionCount());
+        assertEquals(0, cache.size());
+        assertNull(cache.get(0, "not-base62"));
+    }
+
+    @Test
+    void constructor_rejectsInvalidSizing() {
+        assertThrows(IllegalArgumentException.class, () -> new OffHeapUrlCache(SMALL * 4, 3));
+        assertThrows(IllegalArgumentException.class, () -> new OffHeapUrlCache(SMALL, 2));
+    }
+
+    @Test
+    void clear_emptiesAllSegments() {
+        OffHeapUrlCache cache = new OffHeapUrlCache(SMALL * 4, 4);
+        for (int i = 0; i < 500; i++) {
+            cache.put(0, code(i), new CompactUrl(i, "/" + i));
+        }
+
+        cache.clear();
+
+        assertEquals(0, cache.size());
+        assertNull(cache.get(0, code(42)));
+        assertTrue(cache.put(0, code(42), new CompactUrl(42, "/42")));
+        assertEquals(new CompactUrl(42, "/42"), cache.get(0, code(42)));
+    }
+
+    @Test
+    void concurrentReadersAndWriters_seeConsistentValues() throws Exception {
+        OffHeapUrlCache cache = new OffHeapUrlCache(SMALL * 8, 8);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                tasks.add(pool.submit(() -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        int n = (i * 8 + thread) % 4_000;
+                        if (thread % 2 == 0) {
+                            cache.put(0, code(n), new CompactUrl(n, "/" + n));
+                        } else {
+                            CompactUrl url = cache.get(0, code(n));
+                            if (url != null && (url.prefixId() != n || !url.suffix().equals("/" + n))) {
+                                throw new AssertionError("Inconsistent value for " + n + ": " + url);
+                            }
+                        }
+                    }
+                }));
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertTrue(cache.size() > 0);
+    }
+
+    @Test
+    void expandCache_promotesOffHeapHitsToTheHeap_andInvalidatesBothTiers() {
+        OffHeapUrlCache offHeap = new OffHeapUrlCache(SMALL, 1);
+        ExpandCache cache = new ExpandCache(1, offHeap);
+
+        cache.put(0, "aaa", new CompactUrl(1, "/a"));
+        cache.put(0, "bbb", new CompactUrl(2, "/b"));
+
+        // Le tas ne garde qu'une entrée ; l'autre est servie depuis le niveau hors tas
+        assertEquals(new CompactUrl(1, "/a"), cache.get(0, "aaa"));
+        assertEquals(new CompactUrl(2, "/b"), cache.get(0, "bbb"));
+        assertEquals(2, cache.size());
+
+        cache.invalidate(0, "aaa");
+        assertNull(cache.get(0, "aaa"));
+        assertNull(offHeap.get(0, "aaa"));
+
+        cache.clear();
+        assertNull(cache.get(0, "bbb"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void expandCache_neverResurrectsInvalidatedEntries_underConcurrentReads() throws Exception {
+        ExpandCache cache = new ExpandCache(1_000, new OffHeapUrlCache(SMALL, 1));
+        AtomicInteger current = new AtomicInteger(-1);
+        AtomicBoolean done = new AtomicBoolean();
+        ExecutorService readers = Executors.newFixedThreadPool(3);
+        try {
+            for (int r = 0; r < 3; r++) {
+                readers.execute(() -> {
+                    while (!done.get()) {
+                        int n = current.get();
+                        if (n >= 0) {
+                            cache.get(0, code(n));
+                        }
+                    }
+                });
+            }
+            for (int n = 0; n < 20_000; n++) {
+                // Les lecteurs interrogent la clé pendant son invalidation, qui ne doit pas
+                // leur laisser recopier sur le tas une entrée encore présente hors tas
+                cache.put(0, code(n), new CompactUrl(1, "/" + n));
+                current.set(n);
+                cache.invalidate(0, code(n));
+            }
+        } finally {
+            done.set(true);
+            readers.shutdown();
+            assertTrue(readers.awaitTermination(5, TimeUnit.SECONDS));
+        }
+
+        for (int n = 0; n < 20_000; n++) {
+            assertNull(cache.get(0, code(n)), "resurrected " + code(n));
+        }
+    }
+
+    private static String code(int n) {
+        return Integer.toString(n, 36);
+    }
+}
@@ -0,0 +1,67 @@
+package com.portagecybertech.urlshortener.url_shortener.service;
+
+import java.math.BigInteger;
+import java.security.MessageDigest;
+
+/**
+ * Banc de mesure : coût de génération d'un code court, ancien chemin contre {@link ShortCodeGenerator}.
+ *
+ * <p>Ce n'est pas un test ; il se lance à la main après {@code ./mvnw test-compile} :
+ * <pre>{@code
+ * java -cp target/test-classes:target/classes \
+ *      com.portagecybertech.urlshortener.url_shortener.service.ShortCodeGeneratorBenchmark
+ * }</pre>
+ *
+ * <p>L'ancien chemin est celui d'origine : {@code MessageDigest.getInstance} à chaque appel,
+ * concaténation, {@code getBytes()} et conversion Base62 par {@link BigInteger}.
+ */
+public class ShortCodeGeneratorBenchmark {
+
+    private static final int WARMUP_ITERATIONS = 500_000;
+
+    private static final int MEASURED_ITERATIONS = 3_000_000;
+
+    private static final String URL = "https://www.example.com/articles/2024/05/a-fairly-long-slug?utm_source=newsletter";
+
+    public static void main(String[] args) throws Exception {
+        ShortCodeGenerator md5 = new ShortCodeGenerator(ShortCodeGenerator.Algorithm.MD5);
+        ShortCodeGenerator murmur3 = new ShortCodeGenerator(ShortCodeGenerator.Algorithm.MURMUR3);
+
+        System.out.printf("%-16s %10s%n", "generator", "ns/code");
+        report("legacy md5", salt -> legacy(URL, salt));
+        report("md5", salt -> md5.generate(URL, salt));
+        report("murmur3", salt -> murmur3.generate(URL, salt));
+    }
+
+    private static void report(String name, Generator generator) throws Exception {
+        long sink = 0;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            sink += generator.generate(i & 7).hashCode();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            sink += generator.generate(i & 7).hashCode();
+        }
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("%-16s %10.1f%s%n", name, (double) elapsed / MEASURED_ITERATIONS, sink == 42 ? " " : "");
+    }
+
+    private static String legacy(String input, int salt) throws Exception {
+        byte[] digest = MessageDigest.getInstance("MD5").digest((input + ":" + salt).getBytes());
+        BigInteger number = new BigInteger(1, digest);
+        StringBuilder sb = new StringBuilder();
+        BigInteger base = BigInteger.valueOf(62);
+        while (number.compareTo(BigInteger.ZERO) > 0) {
+            BigInteger[] divRem = number.divideAndRemainder(base);
+            sb.append(UrlService.BASE62_ALPHABET.charAt(divRem[1].intValue()));
+            number = divRem[0];
+        }
+        String base62 = sb.reverse().toString();
+        return base62.length() <= UrlService.MAX_SHORT_CODE_LENGTH
+                ? base62 : base62.substring(0, UrlService.MAX_SHORT_CODE_LENGTH);
+    }
+
+    private interface Generator {
+        String generate(int salt) throws Exception;
+    }
+}
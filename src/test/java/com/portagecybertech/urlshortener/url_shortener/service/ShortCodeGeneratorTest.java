@@ -0,0 +1,123 @@
+package com.portagecybertech.urlshortener.url_shortener.service;
+
+import com.portagecybertech.urlshortener.url_shortener.service.ShortCodeGenerator.Algorithm;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ShortCodeGeneratorTest {
+
+    @Test
+    void toBase62_matchesBigIntegerConversion() {
+        Random random = new Random(37);
+        List<long[]> values = new ArrayList<>(List.of(
+                new long[] {0, 0}, new long[] {0, 1}, new long[] {0, 61}, new long[] {0, 62},
+                new long[] {0, -1}, new long[] {1, 0}, new long[] {-1, -1}, new long[] {Long.MIN_VALUE, 0}));
+        for (int i = 0; i < 100_000; i++) {
+            int shift = random.nextInt(128);
+            values.add(new long[] {shift >= 64 ? 0 : random.nextLong() >>> shift, random.nextLong()});
+        }
+        char[] out = new char[ShortCodeGenerator.MAX_BASE62_DIGITS];
+        for (long[] value : values) {
+            int start = ShortCodeGenerator.toBase62(value[0], value[1], out);
+            assertEquals(bigIntegerBase62(toBytes(value[0], value[1])), new String(out, start, out.length - start));
+        }
+    }
+
+    @Test
+    void md5Mode_producesTheHistoricalCodes() throws Exception {
+        ShortCodeGenerator generator = new ShortCodeGenerator(Algorithm.MD5);
+        Random random = new Random(3737);
+        for (int i = 0; i < 20_000; i++) {
+            String input = randomUrl(random);
+            int salt = random.nextInt(4) == 0 ? random.nextInt() : random.nextInt(5);
+            assertEquals(legacyCode(input, salt), generator.generate(input, salt), input);
+        }
+        String longUrl = "https://example.org/" + "xé".repeat(10_000);
+        assertEquals(legacyCode(longUrl, 0), generator.generate(longUrl, 0));
+        assertEquals(legacyCode("https://example.org/\ud83d", 1), generator.generate("https://example.org/\ud83d", 1));
+    }
+
+    @Test
+    void murmur3_matchesReferenceVectors() {
+        long[] hash = new long[2];
+        ShortCodeGenerator.murmur3x64128(new byte[0], 0, 0, hash);
+        assertEquals(0L, hash[0]);
+        assertEquals(0L, hash[1]);
+
+        byte[] fox = "The quick brown fox jumps over the lazy dog".getBytes(StandardCharsets.UTF_8);
+        ShortCodeGenerator.murmur3x64128(fox, fox.length, 0, hash);
+        assertEquals(0xe34bbc7bbc071b6cL, hash[0]);
+        assertEquals(0x7a433ca9c49a9347L, hash[1]);
+    }
+
+    @Test
+    void murmur3Mode_isDeterministicAndSaltSensitive() {
+        ShortCodeGenerator generator = new ShortCodeGenerator("murmur3");
+        String code = generator.generate("https://example.org/a", 0);
+        assertEquals(code, new ShortCodeGenerator(Algorithm.MURMUR3).generate("https://example.org/a", 0));
+        assertNotEquals(code, generator.generate("https://example.org/a", 1));
+        assertNotEquals(code, new ShortCodeGenerator(Algorithm.MD5).generate("https://example.org/a", 0));
+        assertEquals(UrlService.MAX_SHORT_CODE_LENGTH, code.length());
+    }
+
+    @Test
+    void unknownAlgorithm_isRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new ShortCodeGenerator("sha1"));
+    }
+
+    private static String randomUrl(Random random) {
+        StringBuilder sb = new StringBuilder("https://example.org/");
+        int length = random.nextInt(120);
+        for (int i = 0; i < length; i++) {
+            int kind = random.nextInt(10);
+            sb.append(kind < 7 ? (char) (0x21 + random.nextInt(0x5E))
+                    : kind < 9 ? (char) (0xA0 + random.nextInt(0xD000))
+                    : (char) (0xD800 + random.nextInt(0x800)));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Algorithme d'origine : MD5 de {@code input + ":" + salt}, Base62 par BigInteger, tronqué.
+     */
+    private static String legacyCode(String input, int salt) throws Exception {
+        byte[] digest = MessageDigest.getInstance("MD5").digest((input + ":" + salt).getBytes(StandardCharsets.UTF_8));
+        String base62 = bigIntegerBase62(digest);
+        return base62.length() <= UrlService.MAX_SHORT_CODE_LENGTH
+                ? base62 : base62.substring(0, UrlService.MAX_SHORT_CODE_LENGTH);
+    }
+
+    private static String bigIntegerBase62(byte[] bytes) {
+        BigInteger number = new BigInteger(1, bytes);
+        if (number.equals(BigInteger.ZERO)) {
+            return "0";
+        }
+        StringBuilder sb = new StringBuilder();
+        BigInteger base = BigInteger.valueOf(62);
+        while (number.signum() > 0) {
+            BigInteger[] divRem = number.divideAndRemainder(base);
+            sb.append(UrlService.BASE62_ALPHABET.charAt(divRem[1].intValue()));
+            number = divRem[0];
+        }
+        return sb.reverse().toString();
+    }
+
+    private static byte[] toBytes(long hi, long lo) {
+        byte[] bytes = new byte[16];
+        for (int i = 0; i < 8; i++) {
+            bytes[i] = (byte) (hi >>> (56 - 8 * i));
+            bytes[8 + i] = (byte) (lo >>> (56 - 8 * i));
+        }
+        return bytes;
+    }
+}
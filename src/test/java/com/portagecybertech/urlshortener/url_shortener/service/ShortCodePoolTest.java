@@ -0,0 +1,128 @@
+package com.portagecybertech.urlshortener.url_shortener.service;
+
+import com.portagecybertech.urlshortener.url_shortener.model.UrlMapping;
+import com.portagecybertech.urlshortener.url_shortener.repository.ShortCodeRangeRepository;
+import com.portagecybertech.urlshortener.url_shortener.repository.UrlMappingRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "app.shortcode.pool.enabled=true")
+@ActiveProfiles("test")
+class ShortCodePoolTest {
+
+    @Autowired
+    private UrlService urlService;
+
+    @Autowired
+    private ShortCodePool shortCodePool;
+
+    @Autowired
+    private ShortCodeRangeRepository shortCodeRangeRepository;
+
+    @Autowired
+    private UrlMappingRepository urlMappingRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void codeFor_isAPermutationOfSevenCharacterCodes() {
+        Set<String> seen = new HashSet<>();
+        for (long seq = 0; seq < 200_000; seq++) {
+            String code = ShortCodePool.codeFor(seq, 1_594_323, 1_000_000_007);
+            assertEquals(ShortCodePool.CODE_LENGTH, code.length());
+            assertTrue(seen.add(code), code);
+        }
+        // La permutation boucle exactement sur 62^7
+        assertEquals(ShortCodePool.codeFor(5, 1_594_323, 7), ShortCodePool.codeFor(5 + ShortCodePool.CODE_SPACE, 1_594_323, 7));
+    }
+
+    @Test
+    void invalidMultiplier_isRejected() {
+        for (long multiplier : new long[] {2, 31 * 3, ShortCodePool.MAX_MULTIPLIER + 1, 0}) {
+            assertThrows(IllegalArgumentException.class, () -> pool(true, multiplier));
+        }
+    }
+
+    @Test
+    void refill_reservesDisjointRangesAcrossRestarts() {
+        ShortCodePool first = pool(true, 1_594_323);
+        first.refill();
+        Set<String> codes = drain(first);
+        first.shutdown();
+
+        // Un nouveau pool (redémarrage) ne redistribue aucun code réservé par le précédent
+        ShortCodePool second = pool(true, 1_594_323);
+        second.refill();
+        for (String code : drain(second)) {
+            assertTrue(codes.add(code), code);
+        }
+        second.shutdown();
+        assertTrue(shortCodeRangeRepository.findById(ShortCodePool.RANGE_NAME).orElseThrow().getNextSeq() >= codes.size());
+    }
+
+    @Test
+    void refill_skipsCodesAlreadyInUse() {
+        long next = shortCodeRangeRepository.findById(ShortCodePool.RANGE_NAME)
+                .map(range -> range.getNextSeq())
+                .orElse(0L);
+        String taken = ShortCodePool.codeFor(next + 3, 1_594_323, 1_000_000_007);
+        urlMappingRepository.save(new UrlMapping(taken, 1, "/taken"));
+
+        ShortCodePool pool = pool(true, 1_594_323);
+        pool.refill();
+        assertFalse(drain(pool).contains(taken));
+        pool.shutdown();
+    }
+
+    @Test
+    void disabledPool_returnsNothing() {
+        ShortCodePool pool = pool(false, 1_594_323);
+        assertNull(pool.poll());
+        assertEquals(0, pool.size());
+    }
+
+    @Test
+    void shorten_usesPooledCodes() throws InterruptedException {
+        // Le remplissage initial se fait en arrière-plan au démarrage
+        for (int i = 0; i < 200 && shortCodePool.size() == 0; i++) {
+            Thread.sleep(50);
+        }
+        String shortUrl = urlService.shorten("https://pool.example.org/a").shortUrl();
+        String code = shortUrl.substring(shortUrl.lastIndexOf('/') + 1);
+        assertEquals(ShortCodePool.CODE_LENGTH, code.length());
+        assertEquals("https://pool.example.org/a", urlService.findOriginalUrl(code).orElseThrow());
+        // L'URL déjà raccourcie garde son code
+        assertEquals(shortUrl, urlService.shorten("https://pool.example.org/a").shortUrl());
+    }
+
+    private ShortCodePool pool(boolean enabled, long multiplier) {
+        return new ShortCodePool(enabled, 50, 10, 20, multiplier, 1_000_000_007, shortCodeRangeRepository,
+                urlMappingRepository, DomainRegistry.single("http://localhost:8080"), transactionManager,
+                new SimpleMeterRegistry());
+    }
+
+    private static Set<String> drain(ShortCodePool pool) {
+        Set<String> codes = new HashSet<>();
+        while (pool.size() > 10) {
+            String code = pool.poll();
+            if (code != null) {
+                assertTrue(codes.add(code), code);
+            }
+        }
+        return codes;
+    }
+}
@@ -0,0 +1,76 @@
+package com.portagecybertech.urlshortener.url_shortener.service;
+
+import com.portagecybertech.urlshortener.url_shortener.model.UrlMapping;
+import com.portagecybertech.urlshortener.url_shortener.repository.UrlMappingRepository;
+import com.portagecybertech.urlshortener.url_shortener.repository.UrlPrefixRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class UrlPrefixDictionaryTest {
+
+    @Autowired
+    private UrlPrefixDictionary urlPrefixDictionary;
+
+    @Autowired
+    private UrlPrefixRepository urlPrefixRepository;
+
+    @Autowired
+    private UrlMappingRepository urlMappingRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void intern_forgetsPrefix_whenTransactionRollsBack() {
+        String prefix = "https://rolled-back.example.org";
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+
+        template.executeWithoutResult(status -> {
+            urlPrefixDictionary.intern(prefix);
+            status.setRollbackOnly();
+        });
+
+        assertTrue(urlPrefixDictionary.findId(prefix).isEmpty());
+    }
+
+    @Test
+    void replayedWrite_resolves_afterBatchRollback() throws Exception {
+        String prefix = "https://replayed.example.org";
+        GroupCommitExecutor executor = new GroupCommitExecutor(true, 64, 500, 100, 1, transactionManager,
+                new SimpleMeterRegistry());
+        try {
+            CompletableFuture<UrlMapping> replayed = executor.submit(() -> urlMappingRepository.save(
+                    new UrlMapping(0, "replay01", urlPrefixDictionary.intern(prefix), "/path")));
+            CompletableFuture<Object> failing = executor.submit(() -> {
+                throw new IllegalStateException("boom");
+            });
+
+            UrlMapping mapping = replayed.get(5, TimeUnit.SECONDS);
+            assertThrows(ExecutionException.class, () -> failing.get(5, TimeUnit.SECONDS));
+
+            UrlMapping stored = urlMappingRepository.findByDomainIdAndShortCode(0, "replay01").orElseThrow();
+            assertEquals(mapping.getPrefixId(), stored.getPrefixId());
+            assertEquals(prefix + "/path", urlPrefixDictionary.expand(stored.getPrefixId(), stored.getUrlSuffix()));
+            // Dictionnaire froid, comme après un redémarrage : l'identifiant a bien été commité
+            assertEquals(prefix + "/path",
+                    new UrlPrefixDictionary(urlPrefixRepository).expand(stored.getPrefixId(), stored.getUrlSuffix()));
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.portagecybertech.urlshortener.url_shortener.service;
+
+import com.portagecybertech.urlshortener.url_shortener.limit.ServiceOverloadedException;
+import com.portagecybertech.urlshortener.url_shortener.model.UrlMapping;
+import com.portagecybertech.urlshortener.url_shortener.repository.UrlMappingRepository;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.NestedTestConfiguration;
+import org.springframework.test.context.NestedTestConfiguration.EnclosingConfiguration;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Suite de contention : de nombreux threads raccourcissent des ensembles d'URLs qui se
+ * recouvrent, sur la base H2 en mémoire. Chaque scénario vérifie qu'aucune exception
+ * (en particulier de contrainte d'unicité) ne remonte, que chaque URL n'a qu'un code
+ * et chaque code qu'une URL, puis affiche le débit obtenu.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class UrlServiceConcurrencyTest {
+
+    private static final int DISTINCT_URLS = 200;
+
+    private static final int OPERATIONS_PER_WORKER = 300;
+
+    @Autowired
+    private UrlService urlService;
+
+    @Autowired
+    private UrlMappingRepository urlMappingRepository;
+
+    @Test
+    void shorten_platformThreads_overlappingUrls() throws Exception {
+        stress("platform-threads", Executors.newFixedThreadPool(32), 32, "https://stress.example.org/platform/");
+    }
+
+    @Test
+    void shorten_virtualThreads_overlappingUrls() throws Exception {
+        ExecutorService virtualThreads = newVirtualThreadPerTaskExecutor();
+        assumeTrue(virtualThreads != null, "virtual threads require Java 21+");
+        stress("virtual-threads", virtualThreads, 256, "https://stress.example.org/virtual/");
+    }
+
+    @Test
+    void shortenAndExpand_mixedWorkload() throws Exception {
+        String base = "https://stress.example.org/mixed/";
+        Map<String, String> seeded = new HashMap<>();
+        for (int i = 0; i < 50; i++) {
+            seeded.put(urlService.shorten(base + "seed/" + i).shortUrl(), base + "seed/" + i);
+        }
+        List<String> seededUrls = new ArrayList<>(seeded.keySet());
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        LongAdder wrongExpansions = new LongAdder();
+        List<Future<?>> readers = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < 8; t++) {
+            int seed = t;
+            readers.add(pool.submit(() -> {
+                Random random = new Random(seed);
+                await(start);
+                for (int i = 0; i < 2_000; i++) {
+                    String shortUrl = seededUrls.get(random.nextInt(seededUrls.size()));
+                    String expanded = retryOnOverload(() -> urlService.expand(codeOf(shortUrl)));
+                    if (!seeded.get(shortUrl).equals(expanded)) {
+                        wrongExpansions.increment();
+                    }
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        stress("mixed-with-readers", Executors.newFixedThreadPool(8), 8, base + "write/");
+        for (Future<?> reader : readers) {
+            reader.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+        assertEquals(0, wrongExpansions.sum());
+    }
+
+    /**
+     * Même charge avec le pipeline d'écritures groupées et le pool de codes réservés.
+     */
+    @Nested
+    @NestedTestConfiguration(EnclosingConfiguration.OVERRIDE)
+    @SpringBootTest(properties = {"app.shorten.group-commit.enabled=true", "app.shortcode.pool.enabled=true"})
+    @ActiveProfiles("test")
+    class OptimizedWritePath {
+
+        @Autowired
+        private UrlService optimizedUrlService;
+
+        @Autowired
+        private UrlMappingRepository optimizedRepository;
+
+        @Test
+        void shorten_groupCommitAndCodePool_overlappingUrls() throws Exception {
+            stress(optimizedUrlService, optimizedRepository, "group-commit+pool", Executors.newFixedThreadPool(32),
+                    32, "https://stress.example.org/optimized/");
+        }
+    }
+
+    private void stress(String scenario, ExecutorService executor, int workers, String base) throws Exception {
+        stress(urlService, urlMappingRepository, scenario, executor, workers, base);
+    }
+
+    private static void stress(UrlService service, UrlMappingRepository repository, String scenario,
+                               ExecutorService executor, int workers, String base) throws Exception {
+        List<String> urls = new ArrayList<>(DISTINCT_URLS);
+        for (int i = 0; i < DISTINCT_URLS; i++) {
+            urls.add(base + "page/" + i + "?ref=" + (i % 7));
+        }
+        Map<String, Set<String>> codesByUrl = new ConcurrentHashMap<>();
+        LongAdder overloads = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>(workers);
+        for (int w = 0; w < workers; w++) {
+            int seed = w;
+            futures.add(executor.submit(() -> {
+                // Chaque travailleur parcourt les mêmes URLs dans un ordre différent : recouvrement maximal
+                List<String> order = new ArrayList<>(urls);
+                Collections.shuffle(order, new Random(seed));
+                await(start);
+                for (int i = 0; i < OPERATIONS_PER_WORKER; i++) {
+                    String url = order.get(i % order.size());
+                    String code = codeOf(retryOnOverload(() -> service.shorten(url).shortUrl(), overloads));
+                    codesByUrl.computeIfAbsent(url, key -> ConcurrentHashMap.newKeySet()).add(code);
+                }
+                return null;
+            }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        try {
+            for (Future<?> future : futures) {
+                // Toute exception d'un travailleur (contrainte d'unicité comprise) fait échouer le scénario
+                future.get(120, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        long elapsedNanos = System.nanoTime() - begin;
+        long operations = (long) workers * OPERATIONS_PER_WORKER;
+        System.out.printf("%-20s %4d workers %8d shorten in %6d ms: %10.0f ops/s (%d overload retries)%n",
+                scenario, workers, operations, elapsedNanos / 1_000_000, operations * 1e9 / elapsedNanos,
+                overloads.sum());
+
+        assertEquals(DISTINCT_URLS, codesByUrl.size());
+        for (Map.Entry<String, Set<String>> entry : codesByUrl.entrySet()) {
+            assertEquals(1, entry.getValue().size(), () -> entry.getKey() + " got " + entry.getValue());
+        }
+        Map<String, String> urlByCode = codesByUrl.entrySet().stream()
+                .collect(Collectors.toMap(entry -> entry.getValue().iterator().next(), Map.Entry::getKey));
+        assertEquals(DISTINCT_URLS, urlByCode.size());
+        for (Map.Entry<String, String> entry : urlByCode.entrySet()) {
+            UrlMapping mapping = repository.findByDomainIdAndShortCode(DomainRegistry.DEFAULT_DOMAIN_ID, entry.getKey()).orElseThrow();
+            assertEquals(entry.getValue(), service.expand(mapping.getShortCode()));
+        }
+    }
+
+    private static <T> T retryOnOverload(Supplier<T> call) {
+        return retryOnOverload(call, new LongAdder());
+    }
+
+    private static <T> T retryOnOverload(Supplier<T> call, LongAdder overloads) {
+        while (true) {
+            try {
+                return call.get();
+            } catch (ServiceOverloadedException e) {
+                // Un client respecterait Retry-After ; la suite ne fait que patienter brièvement
+                overloads.increment();
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private static String codeOf(String shortUrl) {
+        return shortUrl.substring(shortUrl.lastIndexOf('/') + 1);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Crée un exécuteur à threads virtuels par réflexion : le projet compile en Java 17.
+     *
+     * @return l'exécuteur, ou null si la JVM ne propose pas de threads virtuels
+     */
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
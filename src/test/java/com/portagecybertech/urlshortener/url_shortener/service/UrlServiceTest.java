@@ -1,19 +1,27 @@
 package com.portagecybertech.urlshortener.url_shortener.service;
 
+import com.portagecybertech.urlshortener.url_shortener.limit.ConcurrencyLimits;
 import com.portagecybertech.urlshortener.url_shortener.model.UrlMapping;
+import com.portagecybertech.urlshortener.url_shortener.model.UrlPrefix;
 import com.portagecybertech.urlshortener.url_shortener.repository.UrlMappingRepository;
+import com.portagecybertech.urlshortener.url_shortener.repository.UrlPrefixRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -22,21 +30,33 @@ class UrlServiceTest {
     @Mock
     private UrlMappingRepository urlMappingRepository;
 
+    @Mock
+    private UrlPrefixRepository urlPrefixRepository;
+
     private UrlService urlService;
 
     @BeforeEach
     void setup() {
         // Créer le service avec une valeur de base URL pour les tests
-        urlService = new UrlService(urlMappingRepository, "http://localhost:8080");
+        urlService = new UrlService(urlMappingRepository, new UrlPrefixDictionary(urlPrefixRepository),
+                "http://localhost:8080");
+    }
+
+    private static UrlPrefix prefix(int id, String value) {
+        UrlPrefix prefix = new UrlPrefix(value, UrlPrefixDictionary.hostOf(value));
+        ReflectionTestUtils.setField(prefix, "id", id);
+        return prefix;
     }
 
     @Test
     void shorten_sameInput_returnsSameShortCode() {
         String original = "https://ex.com";
         String shortCode = "abc123";
-        UrlMapping mapping = new UrlMapping(shortCode, original);
+        UrlMapping mapping = new UrlMapping(shortCode, 1, "");
 
-        when(urlMappingRepository.findByOriginalUrl(eq(original)))
+        when(urlPrefixRepository.findByPrefix(eq(original)))
+                .thenReturn(Optional.of(prefix(1, original)));
+        when(urlMappingRepository.findByDomainIdAndPrefixIdAndUrlSuffix(0, 1, ""))
                 .thenReturn(Optional.of(mapping));
 
         String first = urlService.shorten(original).shortUrl();
@@ -53,12 +73,14 @@ class UrlServiceTest {
 
     @Test
     void expand_returnsOriginal() {
-        String original = "https://ex.com";
+        String original = "https://ex.com/path?q=1";
         String shortCode = "abc123";
-        UrlMapping mapping = new UrlMapping(shortCode, original);
+        UrlMapping mapping = new UrlMapping(shortCode, 1, "/path?q=1");
 
-        when(urlMappingRepository.findByShortCode(eq(shortCode)))
+        when(urlMappingRepository.findByDomainIdAndShortCode(eq(0), eq(shortCode)))
                 .thenReturn(Optional.of(mapping));
+        when(urlPrefixRepository.findById(1))
+                .thenReturn(Optional.of(prefix(1, "https://ex.com")));
 
         String result = urlService.expand(shortCode);
         assertEquals(original, result);
@@ -68,7 +90,7 @@ class UrlServiceTest {
     void expand_throwsException_whenShortCodeNotFound() {
         String shortCode = "nonexistent";
 
-        when(urlMappingRepository.findByShortCode(eq(shortCode)))
+        when(urlMappingRepository.findByDomainIdAndShortCode(eq(0), eq(shortCode)))
                 .thenReturn(Optional.empty());
 
         assertThrows(IllegalArgumentException.class, () -> urlService.expand(shortCode));
@@ -77,11 +99,13 @@ class UrlServiceTest {
     @Test
     void shorten_createsNewMapping_whenUrlNotExists() {
         String original = "https://example.com";
-        UrlMapping mapping = new UrlMapping("xyz789", original);
+        UrlMapping mapping = new UrlMapping("xyz789", 1, "");
 
-        when(urlMappingRepository.findByOriginalUrl(eq(original)))
+        when(urlPrefixRepository.findByPrefix(eq(original)))
                 .thenReturn(Optional.empty());
-        when(urlMappingRepository.findByShortCode(org.mockito.ArgumentMatchers.anyString()))
+        when(urlPrefixRepository.save(org.mockito.ArgumentMatchers.any(UrlPrefix.class)))
+                .thenReturn(prefix(1, original));
+        when(urlMappingRepository.findByDomainIdAndShortCode(eq(0), org.mockito.ArgumentMatchers.anyString()))
                 .thenReturn(Optional.empty());
         when(urlMappingRepository.save(org.mockito.ArgumentMatchers.any(UrlMapping.class)))
                 .thenReturn(mapping);
@@ -95,12 +119,14 @@ class UrlServiceTest {
         String original = "https://example.com";
         String shortCode1 = "abc123";
         String shortCode2 = "def456";
-        UrlMapping mapping1 = new UrlMapping(shortCode1, "https://other.com");
-        UrlMapping mapping2 = new UrlMapping(shortCode2, original);
+        UrlMapping mapping1 = new UrlMapping(shortCode1, 2, "");
+        UrlMapping mapping2 = new UrlMapping(shortCode2, 1, "");
 
-        when(urlMappingRepository.findByOriginalUrl(eq(original)))
+        when(urlPrefixRepository.findByPrefix(eq(original)))
+                .thenReturn(Optional.of(prefix(1, original)));
+        when(urlMappingRepository.findByDomainIdAndPrefixIdAndUrlSuffix(0, 1, ""))
                 .thenReturn(Optional.empty());
-        when(urlMappingRepository.findByShortCode(org.mockito.ArgumentMatchers.anyString()))
+        when(urlMappingRepository.findByDomainIdAndShortCode(eq(0), org.mockito.ArgumentMatchers.anyString()))
                 .thenReturn(Optional.empty())
                 .thenReturn(Optional.of(mapping1))
                 .thenReturn(Optional.empty());
@@ -130,14 +156,52 @@ class UrlServiceTest {
     void shorten_acceptsHttpsUrl() {
         String original = "https://secure.example.com";
         String shortCode = "secure123";
-        UrlMapping mapping = new UrlMapping(shortCode, original);
+        UrlMapping mapping = new UrlMapping(shortCode, 1, "");
 
-        when(urlMappingRepository.findByOriginalUrl(eq(original)))
+        when(urlPrefixRepository.findByPrefix(eq(original)))
+                .thenReturn(Optional.of(prefix(1, original)));
+        when(urlMappingRepository.findByDomainIdAndPrefixIdAndUrlSuffix(0, 1, ""))
                 .thenReturn(Optional.of(mapping));
 
         UrlService.ShortenResponse result = urlService.shorten(original);
         assertEquals("http://localhost:8080/" + shortCode, result.shortUrl());
     }
-}
 
+    @Test
+    void shortenAndDelete_areRejected_onReplica() {
+        UrlService replica = new UrlService(urlMappingRepository, new UrlPrefixDictionary(urlPrefixRepository),
+                ExpandCache.disabled(), DomainRegistry.single("http://localhost:8080"), ConcurrencyLimits.unlimited(),
+                null, null, new ShortCodeGenerator(ShortCodeGenerator.Algorithm.MD5), null, null, null, null,
+                UrlCanonicalizer.disabled(), "follower", "http://primary.example.org");
+
+        ReadOnlyReplicaException e = assertThrows(ReadOnlyReplicaException.class,
+                () -> replica.shorten("https://replica.example.com"));
+        assertTrue(e.getMessage().contains("http://primary.example.org"));
+        assertThrows(ReadOnlyReplicaException.class, () -> replica.delete("abc123"));
+        verifyNoInteractions(urlMappingRepository, urlPrefixRepository);
+    }
 
+    @Test
+    void lookup_doesNotCacheMapping_invalidatedDuringDatabaseRead() {
+        ExpandCache cache = new ExpandCache(100);
+        UrlService service = new UrlService(urlMappingRepository, new UrlPrefixDictionary(urlPrefixRepository),
+                cache, DomainRegistry.single("http://localhost:8080"), ConcurrencyLimits.unlimited(),
+                null, null, new ShortCodeGenerator(ShortCodeGenerator.Algorithm.MD5), null, null, null, null,
+                UrlCanonicalizer.disabled(), "primary", "");
+        when(urlPrefixRepository.findById(1)).thenReturn(Optional.of(prefix(1, "https://race.example.com")));
+        // La suppression (locale ou reçue du bus) s'intercale entre la lecture et la mise en cache
+        when(urlMappingRepository.findByDomainIdAndShortCode(0, "race1")).thenAnswer(inv -> {
+            cache.invalidate(0, "race1");
+            return Optional.of(new UrlMapping("race1", 1, "/deleted"));
+        });
+
+        assertEquals("https://race.example.com/deleted", service.findOriginalUrl("race1").orElseThrow());
+        assertNull(cache.get("race1"));
+
+        // Sans invalidation concurrente, la lecture suivante remplit le cache
+        when(urlMappingRepository.findByDomainIdAndShortCode(0, "race1"))
+                .thenReturn(Optional.of(new UrlMapping("race1", 1, "/live")));
+        service.findOriginalUrl("race1");
+        assertNotNull(cache.get("race1"));
+    }
+}
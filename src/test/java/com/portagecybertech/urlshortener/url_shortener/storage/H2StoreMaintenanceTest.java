@@ -0,0 +1,141 @@
+package com.portagecybertech.urlshortener.url_shortener.storage;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class H2StoreMaintenanceTest {
+
+    private static final Clock THREE_AM = Clock.fixed(Instant.parse("2026-01-01T03:00:00Z"), ZoneOffset.UTC);
+
+    @TempDir
+    Path dir;
+
+    private SingleConnectionDataSource dataSource;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void openDatabase() {
+        dataSource = new SingleConnectionDataSource(
+                "jdbc:h2:file:" + dir.resolve("db"), "sa", "", true);
+    }
+
+    @AfterEach
+    void closeDatabase() {
+        dataSource.destroy();
+    }
+
+    @Test
+    void maintain_appliesSettings_compactsWithinBudget_andReportsStoreMetrics() throws SQLException {
+        H2StoreMaintenance maintenance = maintenance("", Long.MAX_VALUE);
+        churn();
+
+        H2StoreMaintenance.MaintenanceResult result = maintenance.maintain();
+
+        assertEquals("1024", setting("CACHE_SIZE"));
+        assertEquals("50", setting("WRITE_DELAY"));
+        assertEquals(H2StoreMaintenance.Outcome.COMPACTED, result.outcome());
+        assertTrue(result.elapsedMillis() < 2_000 + 500, "time budget exceeded: " + result);
+        assertEquals(result.sizeAfter(), (long) registry.get("urlshortener.h2.file.size").gauge().value());
+        double chunksFillRate = registry.get("urlshortener.h2.chunks.fill.rate").gauge().value();
+        assertTrue(chunksFillRate > 0 && chunksFillRate <= 100, "chunks fill rate: " + chunksFillRate);
+        assertTrue(registry.get("urlshortener.h2.write.bytes").functionCounter().count() > 0);
+        assertEquals(result.rewrittenBytes(), registry.get("urlshortener.h2.compaction.bytes").functionCounter().count());
+        assertTrue(registry.get("urlshortener.h2.write.amplification").gauge().value() >= 1);
+        assertEquals(1, registry.get("urlshortener.h2.compaction.runs").tag("result", "compacted").counter().count());
+
+        // La base reste utilisable après la compaction
+        churn();
+        assertEquals(3_000, count());
+    }
+
+    @Test
+    void maintain_isDeferred_outsideWindow_orWhileBusy() throws SQLException {
+        H2StoreMaintenance outsideWindow = maintenance("22:00-02:00", Long.MAX_VALUE);
+        assertEquals(H2StoreMaintenance.Outcome.OUTSIDE_WINDOW, outsideWindow.maintain().outcome());
+
+        H2StoreMaintenance busy = maintenance("02:00-04:00", 0);
+        churn();
+        H2StoreMaintenance.MaintenanceResult deferred = busy.maintain();
+        assertEquals(H2StoreMaintenance.Outcome.BUSY, deferred.outcome());
+        assertEquals(0, deferred.rewrittenBytes());
+
+        // Aucune écriture depuis le passage précédent : la base est au repos
+        assertEquals(H2StoreMaintenance.Outcome.COMPACTED, busy.maintain().outcome());
+    }
+
+    @Test
+    void maintain_isUnavailable_forInMemoryDatabase() {
+        SingleConnectionDataSource memory = new SingleConnectionDataSource("jdbc:h2:mem:maintenance", "sa", "", true);
+        try {
+            H2StoreMaintenance maintenance = new H2StoreMaintenance(1024, 50, 1, false, 60_000, "", Long.MAX_VALUE,
+                    1_000, 80, 1 << 20, memory, registry, THREE_AM);
+
+            assertEquals(H2StoreMaintenance.Outcome.UNAVAILABLE, maintenance.maintain().outcome());
+            assertTrue(Double.isNaN(registry.get("urlshortener.h2.file.size").gauge().value()));
+        } finally {
+            memory.destroy();
+        }
+    }
+
+    private H2StoreMaintenance maintenance(String window, long maxWriteRate) {
+        return new H2StoreMaintenance(1024, 50, 1, false, 60_000, window, maxWriteRate, 2_000, 80, 1 << 20, dataSource,
+                registry, THREE_AM);
+    }
+
+    /**
+     * Réécrit plusieurs fois les mêmes lignes, un commit par ligne : le fichier accumule
+     * des chunks périmés.
+     */
+    private void churn() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("create table if not exists t (id int primary key, v varchar(200))");
+            try (PreparedStatement merge = connection.prepareStatement("merge into t values (?, repeat('x', 150))")) {
+                for (int i = 0; i < 30_000; i++) {
+                    merge.setInt(1, i % 3_000);
+                    merge.executeUpdate();
+                }
+            }
+            statement.execute("checkpoint");
+        }
+    }
+
+    private long count() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("select count(*) from t")) {
+            rows.next();
+            return rows.getLong(1);
+        }
+    }
+
+    private String setting(String name) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement select = connection.prepareStatement(
+                     "select setting_value from information_schema.settings where setting_name = ?")) {
+            select.setString(1, name);
+            try (ResultSet rows = select.executeQuery()) {
+                rows.next();
+                return rows.getString(1);
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.portagecybertech.urlshortener.url_shortener.web;
+
+import org.apache.catalina.connector.Connector;
+import org.apache.coyote.UpgradeProtocol;
+import org.apache.coyote.http2.Http2Protocol;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "server.http2.enabled=true",
+        "app.http2.max-concurrent-streams=321",
+        "app.http2.initial-window-size=131072"
+})
+@ActiveProfiles("test")
+class Http2ConfigurationTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ServletWebServerApplicationContext context;
+
+    @Test
+    void connector_appliesTunedHttp2Settings() {
+        Connector connector = ((TomcatWebServer) context.getWebServer()).getTomcat().getConnector();
+        Http2Protocol http2 = null;
+        for (UpgradeProtocol protocol : connector.findUpgradeProtocols()) {
+            if (protocol instanceof Http2Protocol candidate) {
+                http2 = candidate;
+            }
+        }
+        assertNotNull(http2);
+        assertEquals(321, http2.getMaxConcurrentStreams());
+        assertEquals(131072, http2.getInitialWindowSize());
+    }
+
+    @Test
+    void cleartextClient_isUpgradedToH2c() throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/expand/unknown0"))
+                .GET()
+                .build();
+
+        client.send(request, HttpResponse.BodyHandlers.discarding());
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+
+        assertEquals(404, response.statusCode());
+        assertEquals(HttpClient.Version.HTTP_2, response.version());
+    }
+}
@@ -0,0 +1,136 @@
+package com.portagecybertech.urlshortener.url_shortener.web;
+
+import com.portagecybertech.urlshortener.url_shortener.UrlShortenerApplication;
+import com.portagecybertech.urlshortener.url_shortener.service.UrlService;
+import org.apache.coyote.AbstractProtocol;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.embedded.tomcat.TomcatWebServer;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Banc de mesure : nombre de connexions et latence sous charge concurrente, HTTP/1.1 contre h2c.
+ *
+ * <p>Ce n'est pas un test ; il démarre l'application en mémoire (profil {@code test},
+ * port aléatoire), crée des codes courts puis envoie la même charge concurrente
+ * d'appels {@code GET /api/expand/{code}} et {@code GET /{code}} avec un client
+ * HTTP/1.1 puis un client HTTP/2 :
+ * <pre>{@code
+ * ./mvnw -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *      com.portagecybertech.urlshortener.url_shortener.web.Http2LoadBenchmark [concurrence] [requêtes]
+ * }</pre>
+ *
+ * <p>Le nombre de connexions est lu côté serveur sur le connecteur Tomcat.
+ */
+public class Http2LoadBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int concurrency = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+        int requests = args.length > 1 ? Integer.parseInt(args[1]) : 20_000;
+
+        SpringApplication application = new SpringApplication(UrlShortenerApplication.class);
+        application.setAdditionalProfiles("test");
+        ServletWebServerApplicationContext context = (ServletWebServerApplicationContext) application.run(
+                "--server.port=0", "--server.http2.enabled=true", "--app.limits.enabled=false",
+                "--app.access-log.enabled=false", "--logging.level.root=WARN");
+        try {
+            int port = context.getWebServer().getPort();
+            AbstractProtocol<?> protocol = (AbstractProtocol<?>) ((TomcatWebServer) context.getWebServer())
+                    .getTomcat().getConnector().getProtocolHandler();
+            UrlService urlService = context.getBean(UrlService.class);
+            List<String> codes = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                String shortUrl = urlService.shorten("https://bench.example.org/item/" + i).shortUrl();
+                codes.add(shortUrl.substring(shortUrl.lastIndexOf('/') + 1));
+            }
+
+            System.out.printf("concurrency=%d requests=%d%n", concurrency, requests);
+            System.out.printf("%-9s %12s %10s %10s %10s %12s%n", "protocol", "req/s", "p50 us", "p99 us", "max us", "connections");
+            for (HttpClient.Version version : new HttpClient.Version[] {HttpClient.Version.HTTP_1_1, HttpClient.Version.HTTP_2}) {
+                run(version, port, protocol, codes, concurrency, requests / 5);
+                run(version, port, protocol, codes, concurrency, requests);
+                Thread.sleep(500);
+            }
+        } finally {
+            context.close();
+        }
+    }
+
+    private static void run(HttpClient.Version version, int port, AbstractProtocol<?> protocol, List<String> codes,
+                            int concurrency, int requests) throws Exception {
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(4);
+        HttpClient client = HttpClient.newBuilder()
+                .version(version)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .executor(clientExecutor)
+                .build();
+        // Première requête seule : laisse la montée en h2c s'établir sur une connexion
+        client.send(request(port, "/api/expand/" + codes.get(0)), HttpResponse.BodyHandlers.discarding());
+
+        long baseline = protocol.getConnectionCount();
+        AtomicLong maxConnections = new AtomicLong();
+        long[] latencies = new long[requests];
+        AtomicLong next = new AtomicLong();
+        Thread sampler = new Thread(() -> {
+            while (!Thread.currentThread().isInterrupted()) {
+                maxConnections.accumulateAndGet(protocol.getConnectionCount(), Math::max);
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        });
+        sampler.start();
+
+        long start = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int w = 0; w < concurrency; w++) {
+            futures.add(workers.submit(() -> {
+                long i;
+                while ((i = next.getAndIncrement()) < requests) {
+                    String code = codes.get((int) (i % codes.size()));
+                    String path = i % 2 == 0 ? "/api/expand/" + code : "/" + code;
+                    long t0 = System.nanoTime();
+                    client.send(request(port, path), HttpResponse.BodyHandlers.discarding());
+                    latencies[(int) i] = System.nanoTime() - t0;
+                }
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        sampler.interrupt();
+        sampler.join();
+        workers.shutdown();
+        clientExecutor.shutdown();
+
+        Arrays.sort(latencies);
+        System.out.printf("%-9s %12.0f %10d %10d %10d %12s%n",
+                version == HttpClient.Version.HTTP_2 ? "h2c" : "http/1.1",
+                requests / (elapsed / 1e9),
+                latencies[requests / 2] / 1000,
+                latencies[(int) (requests * 0.99)] / 1000,
+                latencies[requests - 1] / 1000,
+                maxConnections.get() + " (was " + baseline + ")");
+    }
+
+    private static HttpRequest request(int port, String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).GET().build();
+    }
+}
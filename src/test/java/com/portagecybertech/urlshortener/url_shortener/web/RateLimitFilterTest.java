@@ -0,0 +1,92 @@
+package com.portagecybertech.urlshortener.url_shortener.web;
+
+import com.portagecybertech.urlshortener.url_shortener.limit.RateLimits;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RateLimitFilterTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    private final RateLimitFilter filter = new RateLimitFilter(
+            new RateLimits(true, "X-API-Key", 1_000, 1, 2, 1, 3, 1, 4, now::get));
+
+    @Test
+    void limitsShorten_withHeaders_andRejectsWith429() throws Exception {
+        MockHttpServletResponse first = send("POST", "/api/shorten", "10.0.0.1", null);
+        assertEquals(200, first.getStatus());
+        assertEquals("2", first.getHeader("RateLimit-Limit"));
+        assertEquals("1", first.getHeader("RateLimit-Remaining"));
+        assertEquals("1", first.getHeader("RateLimit-Reset"));
+
+        send("POST", "/api/shorten", "10.0.0.1", null);
+        MockHttpServletResponse rejected = send("POST", "/api/shorten", "10.0.0.1", null);
+        assertEquals(429, rejected.getStatus());
+        assertEquals("0", rejected.getHeader("RateLimit-Remaining"));
+        assertEquals("2", rejected.getHeader("RateLimit-Reset"));
+        assertEquals("1", rejected.getHeader("Retry-After"));
+
+        // Une autre adresse a son propre seau, et les redirections leur propre limite
+        assertEquals(200, send("POST", "/api/shorten", "10.0.0.2", null).getStatus());
+        assertEquals("4", send("GET", "/abc123", "10.0.0.1", null).getHeader("RateLimit-Limit"));
+        assertEquals("3", send("GET", "/api/expand/abc123", "10.0.0.1", null).getHeader("RateLimit-Limit"));
+
+        now.addAndGet(1_000_000_000L);
+        assertEquals(200, send("POST", "/api/shorten", "10.0.0.1", null).getStatus());
+    }
+
+    @Test
+    void identifiesClientsByApiKey_whenPresent() throws Exception {
+        send("POST", "/api/shorten", "10.0.0.1", null);
+        send("POST", "/api/shorten", "10.0.0.1", null);
+        assertEquals(429, send("POST", "/api/shorten", "10.0.0.1", null).getStatus());
+
+        // Même adresse, clés différentes : seaux distincts
+        assertEquals(200, send("POST", "/api/shorten", "10.0.0.1", "tenant-a").getStatus());
+        assertEquals(200, send("POST", "/api/shorten", "10.0.0.1", "tenant-b").getStatus());
+        // Une clé égale à une adresse ne partage pas son seau
+        assertEquals(200, send("POST", "/api/shorten", "10.0.0.3", "10.0.0.1").getStatus());
+    }
+
+    @Test
+    void ignoresUnlimitedRoutes_andDisabledLimits() throws Exception {
+        for (String[] route : new String[][] {{"GET", "/"}, {"GET", "/api/mappings"}, {"DELETE", "/api/mappings/abc"},
+                {"GET", "/css/style.css"}, {"POST", "/api/shortenx"}, {"POST", "/api/shorten/other"},
+                {"POST", "/api/shorten/bulk"}, {"POST", "/api/expand/bulk"}}) {
+            MockHttpServletResponse response = send(route[0], route[1], "10.0.0.1", null);
+            assertNull(response.getHeader("RateLimit-Limit"), route[1]);
+        }
+
+        RateLimitFilter disabled = new RateLimitFilter(new RateLimits(false, "", 1, 1, 1, 1, 1, 1, 1, now::get));
+        for (int i = 0; i < 3; i++) {
+            MockFilterChain chain = new MockFilterChain();
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            disabled.doFilter(new MockHttpServletRequest("POST", "/api/shorten"), response, chain);
+            assertNotNull(chain.getRequest());
+            assertNull(response.getHeader("RateLimit-Limit"));
+        }
+    }
+
+    private MockHttpServletResponse send(String method, String path, String address, String apiKey) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setRemoteAddr(address);
+        if (apiKey != null) {
+            request.addHeader("X-API-Key", apiKey);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, response, chain);
+        if (response.getStatus() != 429) {
+            assertNotNull(chain.getRequest(), path);
+        }
+        return response;
+    }
+}
@@ -0,0 +1,130 @@
+package com.portagecybertech.urlshortener.url_shortener.web;
+
+import com.portagecybertech.urlshortener.url_shortener.accesslog.AccessLog;
+import com.portagecybertech.urlshortener.url_shortener.limit.ServiceOverloadedException;
+import com.portagecybertech.urlshortener.url_shortener.metrics.LiveMetrics;
+import com.portagecybertech.urlshortener.url_shortener.service.DomainRegistry;
+import com.portagecybertech.urlshortener.url_shortener.service.UrlService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RedirectFastPathFilterTest {
+
+    @Mock
+    private UrlService urlService;
+
+    @Mock
+    private AccessLog accessLog;
+
+    @Mock
+    private LiveMetrics liveMetrics;
+
+    private RedirectFastPathFilter filter;
+
+    @BeforeEach
+    void setup() {
+        filter = new RedirectFastPathFilter(urlService, DomainRegistry.single("http://localhost:8080"), accessLog, liveMetrics);
+    }
+
+    @Test
+    void redirectsKnownShortCode_withoutCallingChain() throws Exception {
+        when(urlService.findOriginalUrl(0, "abc123")).thenReturn(Optional.of("https://example.com/a"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/abc123");
+        filter.doFilter(request, response, chain);
+
+        assertEquals(302, response.getStatus());
+        assertEquals("https://example.com/a", response.getHeader("Location"));
+        assertNull(chain.getRequest());
+        verify(accessLog).record("abc123", request);
+        verify(liveMetrics).recordHit("abc123");
+    }
+
+    @Test
+    void returns404_whenShortCodeUnknown_withoutCallingChain() throws Exception {
+        when(urlService.findOriginalUrl(0, "abc123")).thenReturn(Optional.empty());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/abc123"), response, chain);
+
+        // Le contrôleur ne résout pas le code une seconde fois
+        assertEquals(404, response.getStatus());
+        assertNull(chain.getRequest());
+        verify(urlService, times(1)).findOriginalUrl(0, "abc123");
+        verifyNoInteractions(accessLog);
+    }
+
+    @Test
+    void fallsBackToChain_forReservedPaths() throws Exception {
+        when(urlService.findOriginalUrl(0, "actuator")).thenReturn(Optional.empty());
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/actuator"), new MockHttpServletResponse(), chain);
+
+        assertNotNull(chain.getRequest());
+        verifyNoInteractions(accessLog);
+    }
+
+    @Test
+    void ignoresNonShortCodePaths() throws Exception {
+        for (String path : new String[] {"/", "/api/expand/abc", "/css/style.css", "/test%20code", "/abcdefghijk"}) {
+            MockFilterChain chain = new MockFilterChain();
+            filter.doFilter(new MockHttpServletRequest("GET", path), new MockHttpServletResponse(), chain);
+            assertNotNull(chain.getRequest(), path);
+        }
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(new MockHttpServletRequest("POST", "/abc123"), new MockHttpServletResponse(), chain);
+        assertNotNull(chain.getRequest());
+        verifyNoInteractions(urlService, accessLog);
+    }
+
+    @Test
+    void returns503_whenReadBudgetExhausted() throws Exception {
+        when(urlService.findOriginalUrl(0, "abc123")).thenThrow(new ServiceOverloadedException("read", 2));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(new MockHttpServletRequest("GET", "/abc123"), response, new MockFilterChain());
+
+        assertEquals(503, response.getStatus());
+        assertEquals("2", response.getHeader("Retry-After"));
+    }
+
+    @Test
+    void isShortCodePath_respectsBase62CharsetAndMaxLength() {
+        assertTrue(RedirectFastPathFilter.isShortCodePath("/a", 1));
+        assertTrue(RedirectFastPathFilter.isShortCodePath("/Az09azAZ09", 1));
+        assertFalse(RedirectFastPathFilter.isShortCodePath("/", 1));
+        assertFalse(RedirectFastPathFilter.isShortCodePath("/Az09azAZ09x", 1));
+        assertFalse(RedirectFastPathFilter.isShortCodePath("/ab-c", 1));
+        assertTrue(RedirectFastPathFilter.isShortCodePath("/app/abc", 5));
+    }
+
+    @Test
+    void toLocationHeader_percentEncodesNonAscii() {
+        String ascii = "https://example.com/a?b=c";
+        assertEquals(ascii, RedirectFastPathFilter.toLocationHeader(ascii));
+        assertEquals("https://example.com/caf%C3%A9%20x", RedirectFastPathFilter.toLocationHeader("https://example.com/café x"));
+    }
+}